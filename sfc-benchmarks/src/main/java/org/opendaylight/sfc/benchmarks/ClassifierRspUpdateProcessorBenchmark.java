@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.benchmarks;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
+import org.opendaylight.sfc.scfofrenderer.flowgenerators.LogicallyAttachedClassifier;
+import org.opendaylight.sfc.scfofrenderer.logicalclassifier.LogicalClassifierDataGetter;
+import org.opendaylight.sfc.scfofrenderer.processors.ClassifierRspUpdateProcessor;
+import org.opendaylight.sfc.util.openflow.SfcOpenflowUtils;
+import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.Actions1;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.Actions1Builder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.access.lists.acl.access.list.entries.ace.actions.sfc.action.AclRenderedServicePathBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePaths;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePathBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePathKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHopBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.attachment.point.attachment.point.type.InterfaceBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.service.function.classifier.SclServiceFunctionForwarder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.service.function.classifier.SclServiceFunctionForwarderBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarderBuilder;
+import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.sff.logical.rev160620.DpnIdType;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.Acl;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.AclBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.AccessListEntriesBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.Ace;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.AceBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.ActionsBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.MatchesBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.AceIpBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.ace.ip.ace.ip.version.AceIpv4Builder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.PortNumber;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.packet.fields.rev160218.acl.transport.header.fields.DestinationPortRangeBuilder;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generation of the classifier flows of an ACL, by ClassifierRspUpdateProcessor,
+ * for ACLs of increasing sizes. The classifier is attached to a logical SFF
+ * co-located with the first SFF of the RSP, and the node and port lookups of
+ * Genius are stubbed, so that only the flow generation and aggregation are
+ * measured along with the RSP reads from the in-memory data store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ClassifierRspUpdateProcessorBenchmark {
+
+    private static final String NODE_NAME = "openflow:1";
+    private static final String INTERFACE_NAME = "classifier-itf";
+    private static final long IN_PORT = 1L;
+
+    @Param({"10", "1000", "50000"})
+    public int numAces;
+
+    private ClassifierRspUpdateProcessor processor;
+    private SclServiceFunctionForwarder classifier;
+    private Acl acl;
+    private RenderedServicePath rsp;
+
+    @Setup
+    @SuppressWarnings("checkstyle:IllegalThrows")
+    public void setup() throws Exception {
+        SfcDataStoreAPI.setDataProviderAux(SfcBenchmarkDataBroker.newDataBroker());
+
+        // a logical SFF has no data plane locator
+        SffName sffName = new SffName("SFF");
+        SfcProviderServiceForwarderAPI.putServiceFunctionForwarder(new ServiceFunctionForwarderBuilder()
+                .setName(sffName).build());
+
+        RspName rspName = new RspName("RSP");
+        rsp = new RenderedServicePathBuilder().setName(rspName).setPathId(1L).setStartingIndex((short) 255)
+                .setRenderedServicePathHop(Collections.singletonList(new RenderedServicePathHopBuilder()
+                        .setHopNumber((short) 0).setServiceIndex((short) 255).setServiceFunctionName(new SfName("SF"))
+                        .setServiceFunctionForwarder(sffName).build()))
+                .build();
+        SfcDataStoreAPI.writePutTransactionAPI(InstanceIdentifier.create(RenderedServicePaths.class)
+                .child(RenderedServicePath.class, new RenderedServicePathKey(rspName)), rsp,
+                LogicalDatastoreType.OPERATIONAL);
+
+        List<Ace> aces = new ArrayList<>();
+        for (int i = 0; i < numAces; i++) {
+            aces.add(buildAce(i, rspName));
+        }
+        acl = new AclBuilder().setAclName("ACL")
+                .setAccessListEntries(new AccessListEntriesBuilder().setAce(aces).build()).build();
+
+        classifier = new SclServiceFunctionForwarderBuilder().setName(sffName.getValue())
+                .setAttachmentPointType(new InterfaceBuilder().setInterface(INTERFACE_NAME).build()).build();
+
+        processor = new ClassifierRspUpdateProcessor(new StubbedLogicallyAttachedClassifier());
+    }
+
+    @Benchmark
+    public List<FlowDetails> processClassifier() {
+        return processor.processClassifier(classifier, acl, rsp);
+    }
+
+    private static Ace buildAce(int index, RspName rspName) {
+        AceIpBuilder aceIp = new AceIpBuilder().setProtocol(SfcOpenflowUtils.IP_PROTOCOL_TCP)
+                .setAceIpVersion(new AceIpv4Builder()
+                        .setDestinationIpv4Network(new Ipv4Prefix(String.format("10.%d.%d.0/24",
+                                index >> 8 & 0xff, index & 0xff)))
+                        .build())
+                .setDestinationPortRange(new DestinationPortRangeBuilder()
+                        .setLowerPort(new PortNumber(1 + index % 65535)).build());
+        return new AceBuilder().setRuleName("ACE" + index)
+                .setMatches(new MatchesBuilder().setAceType(aceIp.build()).build())
+                .setActions(new ActionsBuilder().addAugmentation(Actions1.class, new Actions1Builder()
+                        .setSfcAction(new AclRenderedServicePathBuilder()
+                                .setRenderedServicePath(rspName.getValue()).build())
+                        .build()).build())
+                .build();
+    }
+
+    /**
+     * A logically attached classifier on node {@link #NODE_NAME}, co-located
+     * with the first SFF of the RSP, not looking up its node and port in Genius.
+     */
+    private static final class StubbedLogicallyAttachedClassifier extends LogicallyAttachedClassifier {
+
+        StubbedLogicallyAttachedClassifier() {
+            super(new LogicalClassifierDataGetter(null) {
+                @Override
+                public Optional<DpnIdType> getFirstHopDataplaneId(RenderedServicePath theRsp) {
+                    return Optional.of(new DpnIdType(BigInteger.ONE));
+                }
+            });
+        }
+
+        @Override
+        public Optional<String> getNodeName(String interfaceName) {
+            return Optional.of(NODE_NAME);
+        }
+
+        @Override
+        public Optional<Long> getInPort(String nodeId, String interfaceName) {
+            return Optional.of(IN_PORT);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.benchmarks;
+
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.test.AbstractConcurrentDataBrokerTest;
+
+/**
+ * In-memory data broker the benchmarks run against, with all the YANG models
+ * found in the class path loaded.
+ */
+public final class SfcBenchmarkDataBroker extends AbstractConcurrentDataBrokerTest {
+
+    private SfcBenchmarkDataBroker() {
+        super(true);
+    }
+
+    /**
+     * Create a new, empty, in-memory data broker.
+     *
+     * @return the data broker
+     * @throws Exception
+     *             if the schema context could not be set up
+     */
+    @SuppressWarnings("checkstyle:IllegalThrows")
+    public static DataBroker newDataBroker() throws Exception {
+        SfcBenchmarkDataBroker benchmarkDataBroker = new SfcBenchmarkDataBroker();
+        benchmarkDataBroker.setup();
+        return benchmarkDataBroker.getDataBroker();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.sfc.provider.api.SfcInstanceIdentifiers;
+import org.opendaylight.sfc.provider.api.SfcProviderServiceTypeAPI;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfDataPlaneLocatorName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfcName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.ServiceFunctionsBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.function.base.SfDataPlaneLocatorBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunctionBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.ServiceFunctionChainsBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChain;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChainBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.service.function.chain.SfcServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.service.function.chain.SfcServiceFunctionBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.ServiceFunctionForwardersBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarderBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ConnectedSffDictionary;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ConnectedSffDictionaryBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ServiceFunctionDictionary;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ServiceFunctionDictionaryBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.ServiceFunctionPathsBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPathBuilder;
+
+/**
+ * A parameterized SFC topology to schedule chains on: a line of SFFs, and
+ * for each SF type of the chain, a number of SFs spread over the SFFs.
+ */
+public class SfcBenchmarkTopology {
+
+    private final List<ServiceFunction> serviceFunctions = new ArrayList<>();
+    private final List<ServiceFunctionForwarder> serviceFunctionForwarders = new ArrayList<>();
+    private final ServiceFunctionChain serviceFunctionChain;
+    private final ServiceFunctionPath serviceFunctionPath;
+
+    /**
+     * Build the topology.
+     *
+     * @param numSffs
+     *            the number of SFFs, connected in a line
+     * @param chainLength
+     *            the number of SF types of the chain
+     * @param sfsPerType
+     *            the number of SFs of each type
+     */
+    public SfcBenchmarkTopology(int numSffs, int chainLength, int sfsPerType) {
+        List<List<ServiceFunctionDictionary>> sffDictionaries = new ArrayList<>();
+        for (int i = 0; i < numSffs; i++) {
+            sffDictionaries.add(new ArrayList<>());
+        }
+
+        List<SfcServiceFunction> sfcServiceFunctions = new ArrayList<>();
+        for (int type = 0; type < chainLength; type++) {
+            SftTypeName sfType = new SftTypeName("type-" + type);
+            for (int i = 0; i < sfsPerType; i++) {
+                SfName sfName = new SfName("SF_" + type + "_" + i);
+                SffName sffName = getSffName((type * sfsPerType + i) % numSffs);
+                serviceFunctions.add(new ServiceFunctionBuilder().setName(sfName).setType(sfType)
+                        .setSfDataPlaneLocator(Collections.singletonList(new SfDataPlaneLocatorBuilder()
+                                .setName(new SfDataPlaneLocatorName(sfName.getValue() + "_dpl"))
+                                .setServiceFunctionForwarder(sffName).build()))
+                        .build());
+                sffDictionaries.get((type * sfsPerType + i) % numSffs)
+                        .add(new ServiceFunctionDictionaryBuilder().setName(sfName).build());
+            }
+            sfcServiceFunctions.add(new SfcServiceFunctionBuilder().setName(sfType.getValue() + "-abstract")
+                    .setType(sfType).setOrder((short) type).build());
+        }
+
+        for (int i = 0; i < numSffs; i++) {
+            List<ConnectedSffDictionary> connectedSffs = new ArrayList<>();
+            if (i > 0) {
+                connectedSffs.add(new ConnectedSffDictionaryBuilder().setName(getSffName(i - 1)).build());
+            }
+            if (i < numSffs - 1) {
+                connectedSffs.add(new ConnectedSffDictionaryBuilder().setName(getSffName(i + 1)).build());
+            }
+            serviceFunctionForwarders.add(new ServiceFunctionForwarderBuilder().setName(getSffName(i))
+                    .setServiceFunctionDictionary(sffDictionaries.get(i)).setConnectedSffDictionary(connectedSffs)
+                    .build());
+        }
+
+        serviceFunctionChain = new ServiceFunctionChainBuilder().setName(new SfcName("SFC"))
+                .setSfcServiceFunction(sfcServiceFunctions).build();
+        serviceFunctionPath = new ServiceFunctionPathBuilder().setName(new SfpName("SFP"))
+                .setServiceChainName(serviceFunctionChain.getName()).build();
+    }
+
+    private static SffName getSffName(int index) {
+        return new SffName("SFF_" + index);
+    }
+
+    /**
+     * Write the topology, and the SF types of its SFs, to the data store.
+     */
+    public void write() {
+        SfcDataStoreAPI.writePutTransactionAPI(SfcInstanceIdentifiers.SFF_IID,
+                new ServiceFunctionForwardersBuilder().setServiceFunctionForwarder(serviceFunctionForwarders).build(),
+                LogicalDatastoreType.CONFIGURATION);
+        SfcDataStoreAPI.writePutTransactionAPI(SfcInstanceIdentifiers.SF_IID,
+                new ServiceFunctionsBuilder().setServiceFunction(serviceFunctions).build(),
+                LogicalDatastoreType.CONFIGURATION);
+        serviceFunctions.forEach(SfcProviderServiceTypeAPI::createServiceFunctionTypeEntry);
+        SfcDataStoreAPI.writePutTransactionAPI(SfcInstanceIdentifiers.SFC_IID,
+                new ServiceFunctionChainsBuilder().setServiceFunctionChain(
+                        Collections.singletonList(serviceFunctionChain)).build(),
+                LogicalDatastoreType.CONFIGURATION);
+        SfcDataStoreAPI.writePutTransactionAPI(SfcInstanceIdentifiers.SFP_IID,
+                new ServiceFunctionPathsBuilder().setServiceFunctionPath(
+                        Collections.singletonList(serviceFunctionPath)).build(),
+                LogicalDatastoreType.CONFIGURATION);
+    }
+
+    public ServiceFunctionChain getServiceFunctionChain() {
+        return serviceFunctionChain;
+    }
+
+    public ServiceFunctionPath getServiceFunctionPath() {
+        return serviceFunctionPath;
+    }
+}
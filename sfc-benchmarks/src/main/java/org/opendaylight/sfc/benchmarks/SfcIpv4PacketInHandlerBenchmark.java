@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.benchmarks;
+
+import java.math.BigInteger;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.sfc.renderers.openflow.openflow.SfcIpv4PacketInHandler;
+import org.opendaylight.sfc.renderers.openflow.openflow.SfcOfFlowProgrammerImpl;
+import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.FlowCookie;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorRef;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.MetadataBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.PacketReceived;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.PacketReceivedBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.packet.received.MatchBuilder;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PacketIn handling by SfcIpv4PacketInHandler, in packets per second, once
+ * the flows of the packets are buffered: this is the fast path taken by all
+ * the packets of a flow but the first one. Run with "-prof gc" to get the
+ * allocations per packet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SfcIpv4PacketInHandlerBenchmark {
+
+    private static final int PACKET_LENGTH = 64;
+    private static final int PACKET_OFFSET_ETHERTYPE = 12;
+    private static final int PACKET_OFFSET_IP_SRC = 26;
+    private static final int PACKET_OFFSET_IP_DST = 30;
+
+    @Param({"1", "1000", "100000"})
+    public int numFlows;
+
+    private SfcOfFlowWriterImpl flowWriter;
+    private SfcIpv4PacketInHandler packetInHandler;
+    private PacketReceived[] packets;
+    private int nextPacket;
+
+    @Setup
+    public void setup() {
+        flowWriter = new DiscardingFlowWriter();
+        packetInHandler = new SfcIpv4PacketInHandler(new SfcOfFlowProgrammerImpl(flowWriter));
+        // do not expire the flows during the measurement
+        packetInHandler.setMaxBufferTime(Integer.MAX_VALUE);
+
+        FlowCookie cookie = new FlowCookie(new BigInteger(SfcOfFlowProgrammerImpl.TRANSPORT_EGRESS_COOKIE_STR_BASE
+                + SfcOfFlowProgrammerImpl.TRANSPORT_EGRESS_NSH_VXGPE_COOKIE,
+                SfcOfFlowProgrammerImpl.COOKIE_BIGINT_HEX_RADIX));
+        NodeConnectorRef ingress = new NodeConnectorRef(InstanceIdentifier.builder(Nodes.class)
+                .child(Node.class, new NodeKey(new NodeId("openflow:1"))).build());
+        MatchBuilder match = new MatchBuilder().setMetadata(new MetadataBuilder().setMetadata(BigInteger.TEN).build());
+
+        packets = new PacketReceived[numFlows];
+        for (int i = 0; i < numFlows; i++) {
+            byte[] payload = new byte[PACKET_LENGTH];
+            payload[PACKET_OFFSET_ETHERTYPE] = 0x08;
+            writeIpv4Address(payload, PACKET_OFFSET_IP_SRC, 0x0a000000 + i);
+            writeIpv4Address(payload, PACKET_OFFSET_IP_DST, 0x0b000000 + i);
+            packets[i] = new PacketReceivedBuilder().setPayload(payload).setFlowCookie(cookie)
+                    .setMatch(match.build()).setIngress(ingress).build();
+            // buffer the flow
+            packetInHandler.onPacketReceived(packets[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws ExecutionException, InterruptedException {
+        flowWriter.shutdown();
+    }
+
+    @Benchmark
+    public void onPacketReceived() {
+        packetInHandler.onPacketReceived(packets[nextPacket]);
+        nextPacket = nextPacket + 1 == numFlows ? 0 : nextPacket + 1;
+    }
+
+    private static void writeIpv4Address(byte[] payload, int offset, int address) {
+        payload[offset] = (byte) (address >>> 24);
+        payload[offset + 1] = (byte) (address >>> 16);
+        payload[offset + 2] = (byte) (address >>> 8);
+        payload[offset + 3] = (byte) address;
+    }
+
+    /**
+     * A flow writer discarding the flows when flushed.
+     */
+    private static final class DiscardingFlowWriter extends SfcOfFlowWriterImpl {
+        @Override
+        public void flushFlows() {
+            purgeFlows();
+        }
+    }
+}
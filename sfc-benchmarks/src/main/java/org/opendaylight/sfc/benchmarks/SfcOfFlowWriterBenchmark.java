@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Flush of the flows of a RSP by SfcOfFlowWriterImpl to an in-memory data
+ * broker, until they are committed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SfcOfFlowWriterBenchmark {
+
+    private static final long RSP_ID = 1L;
+
+    @Param({"1", "10"})
+    public int numSffs;
+
+    @Param({"10", "100"})
+    public int flowsPerSff;
+
+    @Param({"1", "4"})
+    public int numberOfShards;
+
+    private DataBroker dataBroker;
+    private List<FlowBuilder> flows;
+    private SfcOfFlowWriterImpl flowWriter;
+
+    @Setup
+    @SuppressWarnings("checkstyle:IllegalThrows")
+    public void setup() throws Exception {
+        dataBroker = SfcBenchmarkDataBroker.newDataBroker();
+        flows = new ArrayList<>();
+        for (int i = 0; i < flowsPerSff; i++) {
+            FlowId flowId = new FlowId("flow-" + i);
+            flows.add(new FlowBuilder().setId(flowId).withKey(new FlowKey(flowId)).setTableId((short) (i % 10))
+                    .setPriority(i));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setupFlowWriter() {
+        flowWriter = new SfcOfFlowWriterImpl(dataBroker, numberOfShards);
+    }
+
+    @Benchmark
+    public void flushFlows() throws ExecutionException, InterruptedException {
+        for (int sff = 0; sff < numSffs; sff++) {
+            for (FlowBuilder flow : flows) {
+                flowWriter.writeFlow(RSP_ID, "openflow:" + sff, flow);
+            }
+        }
+        flowWriter.flushFlows();
+        // wait for the flows to be committed
+        flowWriter.shutdown();
+    }
+}
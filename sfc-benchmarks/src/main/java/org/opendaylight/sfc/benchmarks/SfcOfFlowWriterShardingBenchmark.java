@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rendering of many RSPs over many SFFs by the single threaded and the
+ * per-SFF sharded SfcOfFlowWriterImpl, one flush per RSP, to an in-memory
+ * data broker, until all the flows are committed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SfcOfFlowWriterShardingBenchmark {
+
+    @Param({"100"})
+    public int numRsps;
+
+    @Param({"4", "16"})
+    public int numSffs;
+
+    @Param({"10"})
+    public int flowsPerSffAndRsp;
+
+    @Param({"1", "4"})
+    public int numberOfShards;
+
+    private DataBroker dataBroker;
+    private List<List<FlowBuilder>> rspFlows;
+    private SfcOfFlowWriterImpl flowWriter;
+
+    @Setup
+    @SuppressWarnings("checkstyle:IllegalThrows")
+    public void setup() throws Exception {
+        dataBroker = SfcBenchmarkDataBroker.newDataBroker();
+        rspFlows = new ArrayList<>();
+        for (int rsp = 0; rsp < numRsps; rsp++) {
+            List<FlowBuilder> flows = new ArrayList<>();
+            for (int i = 0; i < flowsPerSffAndRsp; i++) {
+                FlowId flowId = new FlowId(String.format("%05d-%03d", rsp, i));
+                flows.add(new FlowBuilder().setId(flowId).withKey(new FlowKey(flowId)).setTableId((short) i)
+                        .setPriority(rsp));
+            }
+            rspFlows.add(flows);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setupFlowWriter() {
+        flowWriter = new SfcOfFlowWriterImpl(dataBroker, numberOfShards);
+    }
+
+    @Benchmark
+    public void renderRsps() throws ExecutionException, InterruptedException {
+        for (int rsp = 0; rsp < numRsps; rsp++) {
+            for (int sff = 0; sff < numSffs; sff++) {
+                for (FlowBuilder flow : rspFlows.get(rsp)) {
+                    flowWriter.writeFlow((long) rsp, "openflow:" + sff, flow);
+                }
+            }
+            flowWriter.flushFlows();
+        }
+        // wait for the flows to be committed
+        flowWriter.shutdown();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.mdsal.binding.api.RpcConsumerRegistry;
+import org.opendaylight.sfc.genius.util.SfcGeniusRpcClient;
+import org.opendaylight.sfc.renderers.openflow.RspBuilder;
+import org.opendaylight.sfc.renderers.openflow.openflow.SfcOfFlowProgrammerImpl;
+import org.opendaylight.sfc.renderers.openflow.processors.SfcOfRspProcessor;
+import org.opendaylight.sfc.renderers.openflow.utils.SfcOfProviderUtilsTestMock;
+import org.opendaylight.sfc.renderers.openflow.utils.SfcSynchronizer;
+import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Mac;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Mpls;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Nsh;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Transport;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.VxlanGpe;
+import org.opendaylight.yangtools.yang.binding.RpcService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rendering of a RSP into OpenFlow flows by each transport processor: flow
+ * construction by SfcOfFlowProgrammerImpl, including the match and action
+ * building of SfcOpenflowUtils. The flows are discarded instead of written,
+ * see {@link SfcOfFlowWriterBenchmark} for the flow writes. The logical SFF
+ * processor is not covered since it needs the Genius RPCs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SfcOfRspProcessorBenchmark {
+
+    private static final RpcConsumerRegistry NO_RPC_REGISTRY = new RpcConsumerRegistry() {
+        @Override
+        public <T extends RpcService> T getRpcService(Class<T> serviceInterface) {
+            return null;
+        }
+    };
+
+    @Param({"vlan", "mpls", "nsh-vxgpe", "nsh-eth"})
+    public String transport;
+
+    @Param({"2", "8", "32"})
+    public int chainLength;
+
+    private SfcOfFlowWriterImpl flowWriter;
+    private SfcOfRspProcessor rspProcessor;
+    private RenderedServicePath rsp;
+
+    @Setup
+    public void setup() {
+        SfcOfProviderUtilsTestMock providerUtils = new SfcOfProviderUtilsTestMock();
+        flowWriter = new DiscardingFlowWriter();
+        rspProcessor = new SfcOfRspProcessor(new SfcOfFlowProgrammerImpl(flowWriter), providerUtils,
+                new SfcSynchronizer(), new SfcGeniusRpcClient(NO_RPC_REGISTRY), null);
+
+        List<SftTypeName> sfTypes = new ArrayList<>();
+        for (int i = 0; i < chainLength; i++) {
+            sfTypes.add(new SftTypeName("type-" + i));
+        }
+        RspBuilder rspBuilder = new RspBuilder(providerUtils);
+        switch (transport) {
+            case "vlan":
+                rsp = rspBuilder.createRspFromSfTypes(sfTypes, Mac.class, Transport.class);
+                break;
+            case "mpls":
+                rsp = rspBuilder.createRspFromSfTypes(sfTypes, Mpls.class, Transport.class);
+                break;
+            case "nsh-vxgpe":
+                rsp = rspBuilder.createRspFromSfTypes(sfTypes, VxlanGpe.class, Nsh.class);
+                break;
+            case "nsh-eth":
+                rsp = rspBuilder.createRspFromSfTypes(sfTypes, Mac.class, Nsh.class);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown transport " + transport);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws ExecutionException, InterruptedException {
+        flowWriter.shutdown();
+    }
+
+    @Benchmark
+    public void processRenderedServicePath() {
+        rspProcessor.processRenderedServicePath(rsp);
+    }
+
+    /**
+     * A flow writer discarding the flows when flushed.
+     */
+    private static final class DiscardingFlowWriter extends SfcOfFlowWriterImpl {
+        @Override
+        public void flushFlows() {
+            purgeFlows();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
+import org.opendaylight.sfc.provider.api.SfcServiceFunctionSchedulerAPI;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.yang.sfc.sfst.rev150312.LoadBalance;
+import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.yang.sfc.sfst.rev150312.LoadPathAware;
+import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.yang.sfc.sfst.rev150312.Random;
+import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.yang.sfc.sfst.rev150312.RoundRobin;
+import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.yang.sfc.sfst.rev150312.ShortestPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scheduling of the SFs of a chain by each of the SF schedulers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SfcServiceFunctionSchedulerBenchmark {
+
+    @Param({"random", "round-robin", "load-balance", "shortest-path", "load-path-aware"})
+    public String scheduler;
+
+    @Param({"10", "100"})
+    public int numSffs;
+
+    @Param({"3", "10"})
+    public int chainLength;
+
+    @Param({"4", "32"})
+    public int sfsPerType;
+
+    private SfcServiceFunctionSchedulerAPI schedulerApi;
+    private SfcBenchmarkTopology topology;
+
+    @Setup
+    @SuppressWarnings("checkstyle:IllegalThrows")
+    public void setup() throws Exception {
+        SfcDataStoreAPI.setDataProviderAux(SfcBenchmarkDataBroker.newDataBroker());
+        topology = new SfcBenchmarkTopology(numSffs, chainLength, sfsPerType);
+        topology.write();
+        schedulerApi = newScheduler(scheduler);
+    }
+
+    private static SfcServiceFunctionSchedulerAPI newScheduler(String schedulerName) {
+        switch (schedulerName) {
+            case "random":
+                return SfcProviderRenderedPathAPI.getServiceFunctionScheduler(Random.class);
+            case "round-robin":
+                return SfcProviderRenderedPathAPI.getServiceFunctionScheduler(RoundRobin.class);
+            case "load-balance":
+                return SfcProviderRenderedPathAPI.getServiceFunctionScheduler(LoadBalance.class);
+            case "shortest-path":
+                return SfcProviderRenderedPathAPI.getServiceFunctionScheduler(ShortestPath.class);
+            case "load-path-aware":
+                return SfcProviderRenderedPathAPI.getServiceFunctionScheduler(LoadPathAware.class);
+            default:
+                throw new IllegalArgumentException("Unknown scheduler " + schedulerName);
+        }
+    }
+
+    @Benchmark
+    public List<SfName> scheduleServiceFunctions() {
+        return schedulerApi.scheduleServiceFunctions(topology.getServiceFunctionChain(), 255,
+                topology.getServiceFunctionPath());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.sfc.provider.api.SfcServicePathId;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.GenerationAlgorithmEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Path-id allocation and release, on a path-id space already partially
+ * allocated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SfcServicePathIdBenchmark {
+
+    private static final int NUM_PATH_IDS = 4096;
+
+    @Param({"Random", "Sequential"})
+    public String generationAlgorithm;
+
+    /** Percentage of the path-id space allocated before the benchmark. */
+    @Param({"0", "50", "90"})
+    public int occupancy;
+
+    @Setup
+    @SuppressWarnings("checkstyle:IllegalThrows")
+    public void setup() throws Exception {
+        SfcDataStoreAPI.setDataProviderAux(SfcBenchmarkDataBroker.newDataBroker());
+        SfcServicePathId.setGenerationAlgorithm(GenerationAlgorithmEnum.valueOf(generationAlgorithm));
+
+        Random random = new Random(0);
+        int allocated = 0;
+        while (allocated < NUM_PATH_IDS * occupancy / 100) {
+            if (SfcServicePathId.chechAndAllocatePathId(random.nextInt(NUM_PATH_IDS)) >= 0) {
+                allocated++;
+            }
+        }
+    }
+
+    @Benchmark
+    public long allocateAndFree() {
+        long pathId = SfcServicePathId.checkAndAllocatePathId();
+        SfcServicePathId.freePathId(pathId);
+        return pathId;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long allocateAndFreeConcurrently() {
+        return allocateAndFree();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2018 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.scfofrenderer.listeners;
+
+import javax.annotation.Nonnull;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.scfofrenderer.rspupdatelistener.ClassifierRspUpdateDataGetter;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.AccessLists;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.Acl;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * This class listens to changes in the ACLs to keep up to date the index of
+ * the ACLs by RSP used on RSP updates.
+ */
+public class ClassifierAclIndexListener extends AbstractSyncDataTreeChangeListener<Acl> {
+
+    private final ClassifierRspUpdateDataGetter updateDataGetter;
+
+    public ClassifierAclIndexListener(DataBroker dataBroker, ClassifierRspUpdateDataGetter updateDataGetter) {
+        super(dataBroker, LogicalDatastoreType.CONFIGURATION,
+              InstanceIdentifier.create(AccessLists.class).child(Acl.class));
+        this.updateDataGetter = updateDataGetter;
+    }
+
+    @Override
+    public void add(@Nonnull InstanceIdentifier<Acl> instanceIdentifier, @Nonnull Acl acl) {
+        updateDataGetter.updateAcl(null, acl);
+    }
+
+    @Override
+    public void remove(@Nonnull InstanceIdentifier<Acl> instanceIdentifier, @Nonnull Acl acl) {
+        updateDataGetter.updateAcl(acl, null);
+    }
+
+    @Override
+    public void update(@Nonnull InstanceIdentifier<Acl> instanceIdentifier, @Nonnull Acl originalAcl,
+                       @Nonnull Acl updatedAcl) {
+        updateDataGetter.updateAcl(originalAcl, updatedAcl);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2018 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.scfofrenderer.listeners;
+
+import javax.annotation.Nonnull;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.scfofrenderer.rspupdatelistener.ClassifierRspUpdateDataGetter;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.ServiceFunctionClassifiers;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.ServiceFunctionClassifier;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * This class listens to changes in the Service Function Classifiers to keep
+ * up to date the index of the classifier nodes by ACL used on RSP updates.
+ */
+public class ClassifierScfIndexListener extends AbstractSyncDataTreeChangeListener<ServiceFunctionClassifier> {
+
+    private final ClassifierRspUpdateDataGetter updateDataGetter;
+
+    public ClassifierScfIndexListener(DataBroker dataBroker, ClassifierRspUpdateDataGetter updateDataGetter) {
+        super(dataBroker, LogicalDatastoreType.CONFIGURATION,
+              InstanceIdentifier.create(ServiceFunctionClassifiers.class).child(ServiceFunctionClassifier.class));
+        this.updateDataGetter = updateDataGetter;
+    }
+
+    @Override
+    public void add(@Nonnull InstanceIdentifier<ServiceFunctionClassifier> instanceIdentifier,
+                    @Nonnull ServiceFunctionClassifier classifier) {
+        updateDataGetter.updateClassifier(null, classifier);
+    }
+
+    @Override
+    public void remove(@Nonnull InstanceIdentifier<ServiceFunctionClassifier> instanceIdentifier,
+                       @Nonnull ServiceFunctionClassifier classifier) {
+        updateDataGetter.updateClassifier(classifier, null);
+    }
+
+    @Override
+    public void update(@Nonnull InstanceIdentifier<ServiceFunctionClassifier> instanceIdentifier,
+                       @Nonnull ServiceFunctionClassifier originalClassifier,
+                       @Nonnull ServiceFunctionClassifier updatedClassifier) {
+        updateDataGetter.updateClassifier(originalClassifier, updatedClassifier);
+    }
+}
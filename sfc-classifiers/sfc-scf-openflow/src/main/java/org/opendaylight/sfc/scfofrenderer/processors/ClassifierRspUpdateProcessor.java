@@ -13,7 +13,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
 import org.opendaylight.sfc.scfofrenderer.flowgenerators.ClassifierInterface;
 import org.opendaylight.sfc.scfofrenderer.flowgenerators.LogicallyAttachedClassifier;
@@ -106,10 +105,9 @@ public class ClassifierRspUpdateProcessor {
         }
 
         return theAcl.getAccessListEntries().getAce().stream()
-                .map(theAce -> processAce(theRsp, nodeName.get(), theClassifier.getName(), theAcl.getAclName(),
-                        inPort.get(), theAce))
-                .reduce(new ArrayList<>(), (dstList, theList) -> Stream.concat(dstList.stream(), theList.stream())
-                        .collect(Collectors.toList()));
+                .flatMap(theAce -> processAce(theRsp, nodeName.get(), theClassifier.getName(), theAcl.getAclName(),
+                        inPort.get(), theAce).stream())
+                .collect(Collectors.toList());
     }
 
     /**
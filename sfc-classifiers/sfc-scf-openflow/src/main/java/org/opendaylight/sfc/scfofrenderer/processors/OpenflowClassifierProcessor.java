@@ -12,10 +12,12 @@ import com.google.common.base.Strings;
 import com.google.common.eventbus.Subscribe;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
@@ -88,10 +90,36 @@ public class OpenflowClassifierProcessor {
      */
     public List<FlowDetails> processClassifierList(Acl theAcl, boolean onAddClassifier,
             List<SclServiceFunctionForwarder> classifierList) {
-        return classifierList.stream().map(classifier -> processClassifier(classifier, theAcl, onAddClassifier))
-                .peek(theFlows -> LOG.info("createdServiceFunctionClassifier - flow size: {}", theFlows.size()))
-                .reduce(new ArrayList<>(), (dstList, theList) -> Stream.concat(dstList.stream(), theList.stream())
-                        .collect(Collectors.toList()));
+        List<FlowDetails> theFlows = new ArrayList<>();
+        processClassifierList(theAcl, onAddClassifier, classifierList, theFlows::add);
+        return theFlows;
+    }
+
+    /**
+     * Process a list of classifier switches objects, adding or removing flows
+     * for the entire impacted RSP, handing each generated flow over to the
+     * given sink instead of aggregating them in a list.
+     *
+     * @param theAcl
+     *            the ACL object to install
+     * @param onAddClassifier
+     *            true when adding the classifier flows, false when deleting
+     *            them
+     * @param classifierList
+     *            the list of {@link SclServiceFunctionForwarder} in which the
+     *            classifier flows will be installed
+     * @param flowSink
+     *            the consumer of the relevant flows, e.g. the flow writer
+     */
+    public void processClassifierList(Acl theAcl, boolean onAddClassifier,
+            List<SclServiceFunctionForwarder> classifierList, Consumer<FlowDetails> flowSink) {
+        // the RSPs of the ACL are read once for all the classifiers
+        Map<RspName, RenderedServicePath> rsps = new HashMap<>();
+        for (SclServiceFunctionForwarder classifier : classifierList) {
+            List<FlowDetails> theFlows = processClassifier(classifier, theAcl, onAddClassifier, rsps);
+            LOG.info("createdServiceFunctionClassifier - flow size: {}", theFlows.size());
+            theFlows.forEach(flowSink);
+        }
     }
 
     /**
@@ -111,6 +139,11 @@ public class OpenflowClassifierProcessor {
      */
     public List<FlowDetails> processClassifier(final SclServiceFunctionForwarder theClassifier, final Acl theAcl,
             final boolean addClassifierScenario) {
+        return processClassifier(theClassifier, theAcl, addClassifierScenario, new HashMap<>());
+    }
+
+    private List<FlowDetails> processClassifier(final SclServiceFunctionForwarder theClassifier, final Acl theAcl,
+            final boolean addClassifierScenario, Map<RspName, RenderedServicePath> rsps) {
         addClassifier = addClassifierScenario;
 
         Optional<ServiceFunctionForwarder> sff = Optional.of(new SffName(theClassifier.getName()))
@@ -138,9 +171,9 @@ public class OpenflowClassifierProcessor {
         }
 
         return theAcl.getAccessListEntries().getAce().stream()
-                .map(theAce -> processAce(itfName, sff.get(), theClassifier.getName(), theAcl.getAclName(), theAce))
-                .reduce(new ArrayList<>(), (dstList, theList) -> Stream.concat(dstList.stream(), theList.stream())
-                        .collect(Collectors.toList()));
+                .flatMap(theAce -> processAce(itfName, sff.get(), theClassifier.getName(), theAcl.getAclName(),
+                        theAce, rsps).stream())
+                .collect(Collectors.toList());
     }
 
     /**
@@ -163,6 +196,19 @@ public class OpenflowClassifierProcessor {
      */
     public List<FlowDetails> processAce(Optional<String> itfName, ServiceFunctionForwarder theSff, String theScfName,
                                         String aclName, Ace theAce) {
+        return processAce(itfName, theSff, theScfName, aclName, theAce, new HashMap<>());
+    }
+
+    /**
+     * Install an ACE entry, looking up its RSP among the RSPs already read for
+     * the same batch of ACEs before reading it from the data store.
+     *
+     * @param rsps
+     *            the RSPs read so far for the batch, by name
+     */
+    private List<FlowDetails> processAce(Optional<String> itfName, ServiceFunctionForwarder theSff,
+                                         String theScfName, String aclName, Ace theAce,
+                                         Map<RspName, RenderedServicePath> rsps) {
 
         String ruleName = theAce.getRuleName();
         if (Strings.isNullOrEmpty(ruleName)) {
@@ -175,7 +221,17 @@ public class OpenflowClassifierProcessor {
                 .map(actions1 -> (AclRenderedServicePath) actions1.getSfcAction())
                 .map(aclRsp -> new RspName(aclRsp.getRenderedServicePath()));
 
-        RenderedServicePath rsp = SfcProviderRenderedPathAPI.readRenderedServicePath(rspName.get());
+        if (!rspName.isPresent()) {
+            LOG.error("processAce - ACE {} does not steer to any RSP; returning empty list", ruleName);
+            return Collections.emptyList();
+        }
+
+        RenderedServicePath rsp = rsps.computeIfAbsent(rspName.get(),
+                SfcProviderRenderedPathAPI::readRenderedServicePath);
+        if (rsp == null) {
+            LOG.error("processAce - RSP {} not found; returning empty list", rspName.get().getValue());
+            return Collections.emptyList();
+        }
 
         final ClassifierProcessorInterface classifierProcessor;
 
@@ -56,7 +56,7 @@ public class SfcScfOfProcessor {
             return false;
         }
 
-        openflowWriter.writeFlows(classifierProcessor.processClassifierList(theAcl.get(), true, sfflist));
+        classifierProcessor.processClassifierList(theAcl.get(), true, sfflist, openflowWriter::writeFlow);
         openflowWriter.flushFlows();
         return true;
     }
@@ -83,7 +83,7 @@ public class SfcScfOfProcessor {
             return false;
         }
 
-        openflowWriter.removeFlows(classifierProcessor.processClassifierList(theAcl.get(), false, sfflist));
+        classifierProcessor.processClassifierList(theAcl.get(), false, sfflist, openflowWriter::removeFlow);
         // so that we delete the initialization flows from SFFs that do not
         // belong to any RSPs
         openflowWriter.clearSffsIfNoRspExists();
@@ -14,11 +14,12 @@ import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.sal.binding.api.NotificationProviderService;
-import org.opendaylight.mdsal.binding.api.RpcConsumerRegistry;
 import org.opendaylight.sfc.genius.util.SfcGeniusRpcClient;
 import org.opendaylight.sfc.scfofrenderer.flowgenerators.BareClassifier;
 import org.opendaylight.sfc.scfofrenderer.flowgenerators.LogicallyAttachedClassifier;
+import org.opendaylight.sfc.scfofrenderer.listeners.ClassifierAclIndexListener;
 import org.opendaylight.sfc.scfofrenderer.listeners.ClassifierRspsUpdateListener;
+import org.opendaylight.sfc.scfofrenderer.listeners.ClassifierScfIndexListener;
 import org.opendaylight.sfc.scfofrenderer.listeners.SfcScfOfDataListener;
 import org.opendaylight.sfc.scfofrenderer.logicalclassifier.LogicalClassifierDataGetter;
 import org.opendaylight.sfc.scfofrenderer.processors.ClassifierRspUpdateProcessor;
@@ -37,10 +38,12 @@ public class SfcScfOfRenderer implements AutoCloseable {
     private static final Logger LOG = LoggerFactory.getLogger(SfcScfOfRenderer.class);
     private final ClassifierRspsUpdateListener classifierRspsUpdateListener;
     private final SfcScfOfDataListener sfcScfDataListener;
+    private final ClassifierAclIndexListener classifierAclIndexListener;
+    private final ClassifierScfIndexListener classifierScfIndexListener;
 
     @Inject
     public SfcScfOfRenderer(DataBroker dataBroker, NotificationProviderService notificationService,
-                            RpcConsumerRegistry rpcRegistry) {
+                            SfcGeniusRpcClient geniusRpcClient) {
         LOG.info("SfcScfOfRenderer starting the SfcScfOfRenderer plugin...");
 
         // this transaction object will be afterwards injected into the
@@ -49,8 +52,7 @@ public class SfcScfOfRenderer implements AutoCloseable {
 
         SfcOfFlowWriterInterface openflowWriter = new SfcOfFlowWriterImpl(dataBroker);
 
-        LogicalClassifierDataGetter dataGetter = new LogicalClassifierDataGetter(
-                new SfcGeniusRpcClient(rpcRegistry));
+        LogicalClassifierDataGetter dataGetter = new LogicalClassifierDataGetter(geniusRpcClient);
 
         LogicallyAttachedClassifier logicalClassifier = new LogicallyAttachedClassifier(dataGetter);
 
@@ -66,11 +68,19 @@ public class SfcScfOfRenderer implements AutoCloseable {
         // the classifierProcessor share the same transaction object
         openflowWriter.injectTransaction(theTx);
 
+        // the ACLs and classifiers impacted by RSP updates are indexed, and
+        // the indexes kept up to date by their own listeners
+        ClassifierRspUpdateDataGetter updateDataGetter = new ClassifierRspUpdateDataGetter();
+        classifierAclIndexListener = new ClassifierAclIndexListener(dataBroker, updateDataGetter);
+        classifierScfIndexListener = new ClassifierScfIndexListener(dataBroker, updateDataGetter);
+
         classifierRspsUpdateListener = new ClassifierRspsUpdateListener(dataBroker,
                 new ClassifierRspUpdateProcessor(logicalClassifier), openflowWriter,
-                new ClassifierRspUpdateDataGetter(), dataGetter);
+                updateDataGetter, dataGetter);
         sfcScfDataListener = new SfcScfOfDataListener(dataBroker,
                 new SfcScfOfProcessor(openflowWriter, logicalClassifierHandler));
+        classifierAclIndexListener.register();
+        classifierScfIndexListener.register();
         classifierRspsUpdateListener.register();
         sfcScfDataListener.register();
 
@@ -85,6 +95,8 @@ public class SfcScfOfRenderer implements AutoCloseable {
     public void close()  {
         classifierRspsUpdateListener.close();
         sfcScfDataListener.close();
+        classifierAclIndexListener.close();
+        classifierScfIndexListener.close();
         LOG.info("SfcScfOfRenderer auto-closed");
     }
 }
@@ -8,24 +8,43 @@
 
 package org.opendaylight.sfc.scfofrenderer.rspupdatelistener;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.provider.api.SfcAclRspIndex;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.Actions1;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.access.lists.acl.access.list.entries.ace.actions.sfc.action.AclRenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.ServiceFunctionClassifiers;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.ServiceFunctionClassifier;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.service.function.classifier.SclServiceFunctionForwarder;
-import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.AccessLists;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.Acl;
-import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.Ace;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
+/**
+ * Gets the ACLs and classifiers impacted by an RSP update from in memory
+ * reverse indexes, instead of reading and scanning all of them on every
+ * update.
+ *
+ * <p>
+ * The ACLs are indexed by the RSPs their ACEs steer traffic to, see
+ * {@link SfcAclRspIndex}, and the classifier nodes by the ACL they enforce. Each index is loaded from the
+ * data store on first use and then kept up to date by the ACL and classifier
+ * listeners.
+ */
 public class ClassifierRspUpdateDataGetter {
+
+    private final SfcAclRspIndex aclRspIndex = new SfcAclRspIndex();
+
+    // Classifier nodes by ACL name, then by classifier name. Guarded by
+    // itself, along with classifiersLoaded
+    private final Map<String, Map<String, List<SclServiceFunctionForwarder>>> classifierNodesByAclName =
+            new HashMap<>();
+    private boolean classifiersLoaded = false;
+
     /**
      * Filter ACLs by RSP name.
      * @param theRspName
@@ -33,16 +52,7 @@ public class ClassifierRspUpdateDataGetter {
      * @return a list of all the ACLs that apply to the given RSP name
      */
     public List<Acl> filterAclsByRspName(RspName theRspName) {
-        InstanceIdentifier<AccessLists> ifConfigIID = InstanceIdentifier.builder(AccessLists.class).build();
-
-        return Optional.ofNullable(SfcDataStoreAPI.readTransactionAPI(ifConfigIID, LogicalDatastoreType.CONFIGURATION))
-                .map(AccessLists::getAcl).orElse(Collections.emptyList()).stream()
-                .filter(acl -> acl.getAccessListEntries() != null)
-                .filter(acl -> acl.getAccessListEntries().getAce().stream().map(Ace::getActions)
-                        .map(actions -> actions.augmentation(Actions1.class)).map(
-                            actions1 -> (AclRenderedServicePath) actions1.getSfcAction())
-                        .anyMatch(sfcAction -> sfcAction.getRenderedServicePath().equals(theRspName.getValue())))
-                .collect(Collectors.toList());
+        return aclRspIndex.filterAclsByRspName(theRspName);
     }
 
     /**
@@ -53,13 +63,84 @@ public class ClassifierRspUpdateDataGetter {
      *         the given ACL
      */
     public List<SclServiceFunctionForwarder> filterClassifierNodesByAclName(String theAclName) {
+        synchronized (classifierNodesByAclName) {
+            if (!classifiersLoaded) {
+                loadClassifiers();
+            }
+            List<SclServiceFunctionForwarder> classifierNodes = new ArrayList<>();
+            classifierNodesByAclName.getOrDefault(theAclName, Collections.emptyMap()).values()
+                    .forEach(classifierNodes::addAll);
+            return classifierNodes;
+        }
+    }
+
+    /**
+     * Update the ACL index with an added, updated or removed ACL.
+     *
+     * @param originalAcl
+     *            the ACL before the update, or null if added
+     * @param updatedAcl
+     *            the ACL after the update, or null if removed
+     */
+    public void updateAcl(Acl originalAcl, Acl updatedAcl) {
+        aclRspIndex.updateAcl(originalAcl, updatedAcl);
+    }
+
+    /**
+     * Update the classifier index with an added, updated or removed
+     * classifier.
+     *
+     * @param originalClassifier
+     *            the classifier before the update, or null if added
+     * @param updatedClassifier
+     *            the classifier after the update, or null if removed
+     */
+    public void updateClassifier(ServiceFunctionClassifier originalClassifier,
+            ServiceFunctionClassifier updatedClassifier) {
+        synchronized (classifierNodesByAclName) {
+            // not loaded yet, the classifier will be read on load
+            if (!classifiersLoaded) {
+                return;
+            }
+            if (originalClassifier != null) {
+                unindexClassifier(originalClassifier);
+            }
+            if (updatedClassifier != null) {
+                indexClassifier(updatedClassifier);
+            }
+        }
+    }
+
+    private void loadClassifiers() {
         InstanceIdentifier<ServiceFunctionClassifiers> ifConfigIID = InstanceIdentifier
                 .builder(ServiceFunctionClassifiers.class).build();
 
-        return Optional.ofNullable(SfcDataStoreAPI.readTransactionAPI(ifConfigIID, LogicalDatastoreType.CONFIGURATION))
-                .map(ServiceFunctionClassifiers::getServiceFunctionClassifier).orElse(Collections.emptyList()).stream()
-                .filter(classifier -> classifier.getAcl().getName().equals(theAclName))
-                .map(ServiceFunctionClassifier::getSclServiceFunctionForwarder).findAny()
-                .orElse(Collections.emptyList());
+        classifierNodesByAclName.clear();
+        Optional.ofNullable(SfcDataStoreAPI.readTransactionAPI(ifConfigIID, LogicalDatastoreType.CONFIGURATION))
+                .map(ServiceFunctionClassifiers::getServiceFunctionClassifier).orElse(Collections.emptyList())
+                .forEach(this::indexClassifier);
+        classifiersLoaded = true;
+    }
+
+    private void indexClassifier(ServiceFunctionClassifier classifier) {
+        if (classifier.getAcl() == null || classifier.getSclServiceFunctionForwarder() == null) {
+            return;
+        }
+        classifierNodesByAclName.computeIfAbsent(classifier.getAcl().getName(), aclName -> new HashMap<>())
+                .put(classifier.getName(), classifier.getSclServiceFunctionForwarder());
+    }
+
+    private void unindexClassifier(ServiceFunctionClassifier classifier) {
+        if (classifier.getAcl() == null) {
+            return;
+        }
+        Map<String, List<SclServiceFunctionForwarder>> classifierNodes = classifierNodesByAclName
+                .get(classifier.getAcl().getName());
+        if (classifierNodes != null) {
+            classifierNodes.remove(classifier.getName());
+            if (classifierNodes.isEmpty()) {
+                classifierNodesByAclName.remove(classifier.getAcl().getName());
+            }
+        }
     }
 }
@@ -17,6 +17,7 @@ import static org.mockito.MockitoAnnotations.initMocks;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import org.junit.Assert;
@@ -170,6 +171,24 @@ public class OpenflowClassifierProcessorTest {
         Assert.assertEquals(2, theFlows.size());
     }
 
+    @Test
+    public void addClassifierListIntoSink() {
+        when(dataGetter.getFirstHopDataplaneId(any(RenderedServicePath.class)))
+                .thenReturn(Optional.of(FIRST_SF_DATAPLANE_ID));
+
+        doReturn(Optional.of(FIRST_SF_NODE_NAME)).when(classifierInterface).getNodeName(anyString());
+        OpenflowClassifierProcessor classifierManager = new OpenflowClassifierProcessor(readWriteTransaction,
+                classifierInterface, new BareClassifier());
+
+        // disable DPDK flows
+        PowerMockito.when(SfcOvsUtil.getDpdkOfPort(anyString(), anyString())).thenReturn(null);
+
+        List<FlowDetails> theFlows = new ArrayList<>();
+        classifierManager.processClassifierList(acl, true, Arrays.asList(sffClassifier, sffClassifier),
+                theFlows::add);
+        Assert.assertEquals(2 * 2, theFlows.size());
+    }
+
     @Test
     public void addClassifierLegacyScenario() {
         // must set the usesLogicalInterfaces = false
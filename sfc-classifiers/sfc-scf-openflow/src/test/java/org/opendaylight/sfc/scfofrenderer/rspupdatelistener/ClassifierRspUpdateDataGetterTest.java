@@ -147,4 +147,37 @@ public class ClassifierRspUpdateDataGetterTest {
         Assert.assertEquals(1, rspUpdateListener.filterClassifierNodesByAclName("acl1").size());
         Assert.assertEquals("c1", rspUpdateListener.filterClassifierNodesByAclName("acl1").get(0).getName());
     }
+
+    @Test
+    public void testAclIndexUpdates() {
+        PowerMockito.when(SfcDataStoreAPI
+                .readTransactionAPI(any(), any())).thenReturn(accessLists);
+        RspName theRspName = new RspName("rsp1");
+
+        ClassifierRspUpdateDataGetter rspUpdateListener = new ClassifierRspUpdateDataGetter();
+        Assert.assertEquals(1, rspUpdateListener.filterAclsByRspName(theRspName).size());
+
+        rspUpdateListener.updateAcl(acl, null);
+        Assert.assertTrue(rspUpdateListener.filterAclsByRspName(theRspName).isEmpty());
+
+        rspUpdateListener.updateAcl(null, acl);
+        Assert.assertEquals(1, rspUpdateListener.filterAclsByRspName(theRspName).size());
+    }
+
+    @Test
+    public void testClassifierIndexUpdates() {
+        PowerMockito.when(SfcDataStoreAPI
+                .readTransactionAPI(any(), any())).thenReturn(classifierContainer);
+
+        when(classifierContainer.getServiceFunctionClassifier()).thenReturn(classifierList);
+
+        ClassifierRspUpdateDataGetter rspUpdateListener = new ClassifierRspUpdateDataGetter();
+        Assert.assertEquals(1, rspUpdateListener.filterClassifierNodesByAclName("acl1").size());
+
+        rspUpdateListener.updateClassifier(theClassifier, null);
+        Assert.assertTrue(rspUpdateListener.filterClassifierNodesByAclName("acl1").isEmpty());
+
+        rspUpdateListener.updateClassifier(null, theClassifier);
+        Assert.assertEquals(1, rspUpdateListener.filterClassifierNodesByAclName("acl1").size());
+    }
 }
@@ -8,15 +8,18 @@
 package org.opendaylight.sfc.scfvpprenderer.processors;
 
 import com.google.common.collect.Iterables;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -25,6 +28,9 @@ import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.MountPointService;
 import org.opendaylight.sfc.provider.api.SfcProviderAclAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
+import org.opendaylight.sfc.util.vpp.SfcVppChangeSet;
+import org.opendaylight.sfc.util.vpp.SfcVppChangeSets;
+import org.opendaylight.sfc.util.vpp.SfcVppClassifyTableCompiler;
 import org.opendaylight.sfc.util.vpp.SfcVppUtils;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.Actions1;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.access.lists.acl.access.list.entries.ace.actions.sfc.action.AclRenderedServicePath;
@@ -49,8 +55,6 @@ import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv6AddressNoZone;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv6Prefix;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev130715.HexString;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.classify.table.base.attributes.ClassifySessionBuilder;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.vpp.classifier.ClassifyTableBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -402,25 +406,40 @@ public class VppClassifierProcessor {
         return new SffInfo(mountPoint, sffName, sffIp, pathId, serviceIndex);
     }
 
-    private boolean configureVxlanGpeClassifier(ServiceFunctionClassifier scf) {
-        Optional<Acl> theAcl = extractAcl(scf);
-        if (!theAcl.isPresent() || !validateInputs(theAcl.get())) {
-            LOG.error("Could not retrieve the ACL from the classifier: {}", scf);
-            return false;
-        }
-        Map<RspName, List<Pair<HexString>>> rspPairList = new HashMap<>();
-        List<Ace> aceList = theAcl.get().getAccessListEntries().getAce();
-        for (Ace ace : aceList) {
+    /**
+     * Get the mask and match of each ACE of a classifier, in ACE order, along
+     * with the RSP the ACE steers to.
+     */
+    private List<Entry<RspName, Pair<HexString>>> getAceMaskMatches(ServiceFunctionClassifier scf, Acl acl) {
+        List<Entry<RspName, Pair<HexString>>> aceMaskMatches = new ArrayList<>();
+        for (Ace ace : acl.getAccessListEntries().getAce()) {
             Optional<RspName> rspName = Optional.ofNullable(ace.getActions())
                 .map(theActions -> theActions.augmentation(Actions1.class))
                 .map(actions1 -> (AclRenderedServicePath) actions1.getSfcAction())
                 .map(aclRsp -> new RspName(aclRsp.getRenderedServicePath()));
             if (!rspName.isPresent()) {
                 LOG.error("Could not retrieve the RSP from the classifier: {}", scf);
+                continue;
             }
-            List<Pair<HexString>> pairList = rspPairList.computeIfAbsent(rspName.get(), k -> new ArrayList<>());
-            pairList.add(getMaskAndMatch(ace.getMatches()));
+            Pair<HexString> maskMatch = getMaskAndMatch(ace.getMatches());
+            if (maskMatch == null) {
+                LOG.error("Could not build the mask and match of ACE {}", ace.getRuleName());
+                continue;
+            }
+            aceMaskMatches.add(new SimpleImmutableEntry<>(rspName.get(), maskMatch));
         }
+        return aceMaskMatches;
+    }
+
+    private boolean configureVxlanGpeClassifier(ServiceFunctionClassifier scf, SfcVppChangeSets changeSets) {
+        Optional<Acl> theAcl = extractAcl(scf);
+        if (!theAcl.isPresent() || !validateInputs(theAcl.get())) {
+            LOG.error("Could not retrieve the ACL from the classifier: {}", scf);
+            return false;
+        }
+        List<Entry<RspName, Pair<HexString>>> aceMaskMatches = getAceMaskMatches(scf, theAcl.get());
+        Set<RspName> rsps = aceMaskMatches.stream().map(Entry::getKey)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
 
         List<SclServiceFunctionForwarder> sfflist = scf.getSclServiceFunctionForwarder();
         if (sfflist == null) {
@@ -438,16 +457,18 @@ public class VppClassifierProcessor {
 
             IpAddress sffIp = SfcVppUtils.getSffFirstDplIp(sffName);
             DataBroker mountPoint = SfcVppUtils.getSffMountpoint(mountService, sffName);
+            SfcVppChangeSet changeSet = changeSets.get(mountPoint, sffName.getValue());
             if (!bridgeDomainCreated.containsKey(sffName.getValue())) {
-                SfcVppUtils.addDummyBridgeDomain(mountPoint, DUMMY_BD_NAME, sffName.getValue());
-                SfcVppUtils.addDummyNshEntry(mountPoint, 0L, (short)1, sffName.getValue());
-                SfcVppUtils.addDummyNshMap(mountPoint, 0L, (short)1, 0L, (short)1, "local0", sffName.getValue());
-                SfcVppUtils.addBridgeDomain(mountPoint, SFC_BD_NAME, sffName.getValue());
+                SfcVppUtils.addDummyBridgeDomain(changeSet, DUMMY_BD_NAME, sffName.getValue());
+                SfcVppUtils.addDummyNshEntry(changeSet, 0L, (short)1, sffName.getValue());
+                SfcVppUtils.addDummyNshMap(changeSet, 0L, (short)1, 0L, (short)1, "local0", sffName.getValue());
+                SfcVppUtils.addBridgeDomain(changeSet, SFC_BD_NAME, sffName.getValue());
                 bridgeDomainCreated.put(sffName.getValue(), SFC_BD_NAME);
             }
-            for (Entry<RspName, List<Pair<HexString>>> entry : rspPairList.entrySet()) {
-                RspName rsp = entry.getKey();
+            Map<RspName, SffInfo> sffInfos = new HashMap<>();
+            for (RspName rsp : rsps) {
                 SffInfo sffInfo = getFirstSffInfoInRsp(rsp);
+                sffInfos.put(rsp, sffInfo);
                 RspName reverseRspName = getReverseRspName(rsp);
                 RenderedServicePath reverseRenderedServicePath = getRenderedServicePath(reverseRspName);
                 if (reverseRenderedServicePath == null) {
@@ -470,68 +491,44 @@ public class VppClassifierProcessor {
                 }
 
                 final Short reverseServiceIndex = (short)(lastRspHop.getServiceIndex() - 1);
-                List<Pair<HexString>> pairList = entry.getValue();
-                int length = pairList.size();
-                int index = 0;
-
-                // Configure VPP classfier classify tables, sessions and enable ingress ACL
-                List<ClassifyTableBuilder> classifyTableList = new ArrayList<>();
-                List<ClassifySessionBuilder> classifySessionList = new ArrayList<>();
-                for (Pair<HexString> maskMatch : pairList) {
-                    boolean hasNext = false;
-                    if (index < length - 1) {
-                        hasNext = true;
-                    }
-                    ClassifyTableBuilder classifyTableBuilder = SfcVppUtils.buildVppClassifyTable(sffName,
-                            rsp.getValue(), maskMatch.getMask(), hasNext);
-                    classifyTableList.add(classifyTableBuilder);
-                    classifySessionList.add(SfcVppUtils.buildVppClassifySession(classifyTableBuilder,
-                            maskMatch.getMatch(), sffInfo.pathId, sffInfo.serviceIndex));
-                    SfcVppUtils.increaseNextTableIndex(sffName.getValue());
-                    index++;
-                }
-                SfcVppUtils.configureVppClassifier(mountPoint, sffName, classifyTableList, classifySessionList);
-
-                //Enable Ingress Acl on table 0
-                SfcVppUtils.enableIngressAcl(mountPoint, itfName.get(), SfcVppUtils.buildClassifyTableKey(0),
-                        sffName.getValue());
 
                 // Configure VPP classifier node
-                SfcVppUtils.configureClassifierVxlanGpeNsh(mountPoint, sffName, SFC_BD_NAME, sffIp, sffInfo.ip,
+                SfcVppUtils.configureClassifierVxlanGpeNsh(changeSet, sffName, SFC_BD_NAME, sffIp, sffInfo.ip,
                         sffInfo.pathId, sffInfo.serviceIndex);
 
                 // For the traffic from the first SFF to VPP classifier node
-                SfcVppUtils.addNshEntry(mountPoint, reversePathId, reverseServiceIndex, sffName.getValue());
-                SfcVppUtils.addNshMapWithPop(mountPoint, reversePathId, reverseServiceIndex, reversePathId,
+                SfcVppUtils.addNshEntry(changeSet, reversePathId, reverseServiceIndex, sffName.getValue());
+                SfcVppUtils.addNshMapWithPop(changeSet, reversePathId, reverseServiceIndex, reversePathId,
                         reverseServiceIndex, null, sffName.getValue());
 
                 // Configure the first SFF, VPP renderer doesn't know this
-                SfcVppUtils.configureVxlanGpeNsh(sffInfo.mountPoint, sffInfo.sffName, SFC_BD_NAME, sffInfo.ip, sffIp,
-                        reversePathId, reverseServiceIndex);
+                SfcVppUtils.configureVxlanGpeNsh(changeSets.get(sffInfo.mountPoint, sffInfo.sffName.getValue()),
+                        sffInfo.sffName, SFC_BD_NAME, sffInfo.ip, sffIp, reversePathId, reverseServiceIndex);
             }
+
+            // Configure VPP classfier classify sessions, in ACE order, and enable ingress ACL
+            List<SfcVppClassifyTableCompiler.Session> sessions = new ArrayList<>();
+            for (Entry<RspName, Pair<HexString>> aceMaskMatch : aceMaskMatches) {
+                SffInfo sffInfo = sffInfos.get(aceMaskMatch.getKey());
+                sessions.add(new SfcVppClassifyTableCompiler.Session(aceMaskMatch.getValue().getMask(),
+                        aceMaskMatch.getValue().getMatch(), sffInfo.pathId, sffInfo.serviceIndex));
+            }
+            SfcVppClassifyTableCompiler tableCompiler = SfcVppClassifyTableCompiler.forNode(changeSet);
+            tableCompiler.addClassifier(changeSet, scf.getName(), sessions);
+            tableCompiler.attachInterface(changeSet, itfName.get());
         }
         return true;
     }
 
-    private boolean removeVxlanGpeClassifier(ServiceFunctionClassifier scf) {
+    private boolean removeVxlanGpeClassifier(ServiceFunctionClassifier scf, SfcVppChangeSets changeSets) {
         Optional<Acl> theAcl = extractAcl(scf);
         if (!theAcl.isPresent() || !validateInputs(theAcl.get())) {
             LOG.error("Could not retrieve the ACL from the classifier: {}", scf);
             return false;
         }
-        Map<RspName, List<Pair<HexString>>> rspPairList = new HashMap<>();
-        List<Ace> aceList = theAcl.get().getAccessListEntries().getAce();
-        for (Ace ace : aceList) {
-            Optional<RspName> rspName = Optional.ofNullable(ace.getActions())
-                .map(theActions -> theActions.augmentation(Actions1.class))
-                .map(actions1 -> (AclRenderedServicePath) actions1.getSfcAction())
-                .map(aclRsp -> new RspName(aclRsp.getRenderedServicePath()));
-            if (!rspName.isPresent()) {
-                LOG.error("Could not retrieve the RSP from the classifier: {}", scf);
-            }
-            List<Pair<HexString>> pairList = rspPairList.computeIfAbsent(rspName.get(), k -> new ArrayList<>());
-            pairList.add(getMaskAndMatch(ace.getMatches()));
-        }
+        List<Entry<RspName, Pair<HexString>>> aceMaskMatches = getAceMaskMatches(scf, theAcl.get());
+        Set<RspName> rsps = aceMaskMatches.stream().map(Entry::getKey)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
 
         List<SclServiceFunctionForwarder> sfflist = scf.getSclServiceFunctionForwarder();
         if (sfflist == null) {
@@ -549,8 +546,14 @@ public class VppClassifierProcessor {
 
             IpAddress sffIp = SfcVppUtils.getSffFirstDplIp(sffName);
             DataBroker mountPoint = SfcVppUtils.getSffMountpoint(mountService, sffName);
-            for (Entry<RspName, List<Pair<HexString>>> entry : rspPairList.entrySet()) {
-                RspName rsp = entry.getKey();
+            SfcVppChangeSet changeSet = changeSets.get(mountPoint, sffName.getValue());
+
+            // Disable ingress ACL, then remove VPP classfier classify sessions and their emptied tables
+            SfcVppClassifyTableCompiler tableCompiler = SfcVppClassifyTableCompiler.forNode(changeSet);
+            tableCompiler.detachInterface(changeSet, itfName.get());
+            tableCompiler.removeClassifier(changeSet, scf.getName());
+
+            for (RspName rsp : rsps) {
                 final SffInfo sffInfo = getFirstSffInfoInRsp(rsp);
                 RspName reverseRspName = getReverseRspName(rsp);
                 RenderedServicePath reverseRenderedServicePath = getRenderedServicePath(reverseRspName);
@@ -575,36 +578,17 @@ public class VppClassifierProcessor {
 
                 final Short reverseServiceIndex = (short)(lastRspHop.getServiceIndex() - 1);
 
-                // Remove VPP classfier classify tables, sessions and disable ingress ACL
-                List<Pair<HexString>> pairList = entry.getValue();
-                int index = 0;
-                List<String> tableKeyList = new ArrayList<>();
-                List<HexString> matchList = new ArrayList<>();
-                for (Pair<HexString> maskMatch : pairList) {
-                    String classifyTableKey = SfcVppUtils.getSavedClassifyTableKey(sffName.getValue(), rsp.getValue(),
-                            index);
-                    tableKeyList.add(classifyTableKey);
-                    matchList.add(maskMatch.getMatch());
-                    index++;
-                }
-                // Disable Ingress Acl
-                SfcVppUtils.disableIngressAcl(mountPoint, itfName.get(), SfcVppUtils.buildClassifyTableKey(0),
-                        sffName.getValue());
-
-                // Remove classify sessions and tables
-                SfcVppUtils.removeVppClassifier(mountPoint, sffName, tableKeyList, matchList);
-
                 // Remove NSH entry and map for the traffic from the first SFF to VPP classifier node
-                SfcVppUtils.removeNshMap(mountPoint, reversePathId, reverseServiceIndex, reversePathId,
+                SfcVppUtils.removeNshMap(changeSet, reversePathId, reverseServiceIndex, reversePathId,
                         reverseServiceIndex, sffName.getValue());
-                SfcVppUtils.removeNshEntry(mountPoint, reversePathId, reverseServiceIndex, sffName.getValue());
+                SfcVppUtils.removeNshEntry(changeSet, reversePathId, reverseServiceIndex, sffName.getValue());
 
                 // Remove configuration for the first SFF, VPP renderer doesn't know this
-                SfcVppUtils.removeVxlanGpeNsh(sffInfo.mountPoint, sffInfo.sffName, sffInfo.ip, sffIp, reversePathId,
-                        reverseServiceIndex);
+                SfcVppUtils.removeVxlanGpeNsh(changeSets.get(sffInfo.mountPoint, sffInfo.sffName.getValue()),
+                        sffInfo.sffName, sffInfo.ip, sffIp, reversePathId, reverseServiceIndex);
 
                 // Remove vxlan-gpe port and nsh entry and map for classifier
-                SfcVppUtils.removeClassifierVxlanGpeNsh(mountPoint, sffName, SFC_BD_NAME, sffIp, sffInfo.ip,
+                SfcVppUtils.removeClassifierVxlanGpeNsh(changeSet, sffName, SFC_BD_NAME, sffIp, sffInfo.ip,
                         sffInfo.pathId, sffInfo.serviceIndex);
             }
         }
@@ -612,11 +596,22 @@ public class VppClassifierProcessor {
     }
 
     public void addScf(ServiceFunctionClassifier scf) {
-        configureVxlanGpeClassifier(scf);
+        // the edits of each VPP node are committed in one transaction
+        SfcVppChangeSets changeSets = new SfcVppChangeSets();
+        try {
+            configureVxlanGpeClassifier(scf, changeSets);
+        } finally {
+            changeSets.commit();
+        }
     }
 
     public void removeScf(ServiceFunctionClassifier scf) {
-        removeVxlanGpeClassifier(scf);
+        SfcVppChangeSets changeSets = new SfcVppChangeSets();
+        try {
+            removeVxlanGpeClassifier(scf, changeSets);
+        } finally {
+            changeSets.commit();
+        }
     }
 
 }
@@ -16,6 +16,7 @@ import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.sfc.genius.impl.handlers.SfcGeniusRspReRenderer;
 import org.opendaylight.sfc.genius.impl.handlers.SfcGeniusServiceManagerImpl;
 import org.opendaylight.sfc.genius.impl.listeners.SfcGeniusInterfaceStateListener;
 import org.opendaylight.sfc.genius.impl.listeners.SfcGeniusSfListener;
@@ -31,12 +32,15 @@ public class SfcGeniusImpl {
     private static final Logger LOG = LoggerFactory.getLogger(SfcGeniusImpl.class);
     private final DataBroker dataBroker;
     private final ItmRpcService itmRpcService;
+    private final SfcGeniusRspReRenderer rspReRenderer;
     private AutoCloseable onDestroy;
 
     @Inject
-    public SfcGeniusImpl(DataBroker dataBroker, ItmRpcService itmRpcService) {
+    public SfcGeniusImpl(DataBroker dataBroker, ItmRpcService itmRpcService,
+                         SfcGeniusRspReRenderer sfcGeniusRspReRenderer) {
         this.dataBroker = Preconditions.checkNotNull(dataBroker);
         this.itmRpcService = Preconditions.checkNotNull(itmRpcService);
+        this.rspReRenderer = Preconditions.checkNotNull(sfcGeniusRspReRenderer);
     }
 
     @PostConstruct
@@ -52,7 +56,10 @@ public class SfcGeniusImpl {
 
         // Main handler of data store events
         SfcGeniusServiceManager interfaceManager;
-        interfaceManager = new SfcGeniusServiceManagerImpl(dataBroker, itmRpcService, handlerExecutor);
+        // RSPs affected by interface events are re-rendered by the
+        // re-renderer, which coalesces the events of a short window
+        interfaceManager = new SfcGeniusServiceManagerImpl(dataBroker, itmRpcService, handlerExecutor,
+                rspReRenderer);
 
         // Listeners to data store events
         SfcGeniusSfStateListener sfStateListener;
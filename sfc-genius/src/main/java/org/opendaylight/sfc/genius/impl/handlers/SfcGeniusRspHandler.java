@@ -11,6 +11,7 @@ package org.opendaylight.sfc.genius.impl.handlers;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
 import org.opendaylight.sfc.genius.impl.handlers.readers.SfcGeniusRspReader;
 import org.opendaylight.sfc.genius.impl.handlers.readers.SfcGeniusSfStatesReader;
@@ -29,23 +30,28 @@ class SfcGeniusRspHandler {
 
     private final Executor executor;
     private final ReadWriteTransaction transaction;
+    private final SfcGeniusRspReRenderer rspReRenderer;
     private static final Logger LOG = LoggerFactory.getLogger(SfcGeniusRspHandler.class);
 
 
-    SfcGeniusRspHandler(ReadWriteTransaction transaction, Executor executor) {
+    SfcGeniusRspHandler(ReadWriteTransaction transaction, Executor executor,
+                        SfcGeniusRspReRenderer rspReRenderer) {
         this.executor = executor;
         this.transaction = transaction;
+        this.rspReRenderer = rspReRenderer;
     }
 
     /**
      * Handle the rendered service paths for an interface that has become
-     * available: re-render the rendered service paths associated to service
-     * functions that have such an interface as data plane locator.
+     * available: request the re-render of the rendered service paths
+     * associated to service functions that have such an interface as data
+     * plane locator. The re-renders requested for many interfaces in a short
+     * time are coalesced.
      *
      * @param interfaceName the name of the interface.
      * @param sfNameList the service function names with such interface as
      *                   locator.
-     * @return future signaling completion of the operation.
+     * @return future signaling the re-render request.
      */
     CompletableFuture<Void> interfaceStateUp(String interfaceName, List<SfName> sfNameList) {
         SfcGeniusSfStatesReader sfStatesReader = getSfStatesReader();
@@ -53,12 +59,11 @@ class SfcGeniusRspHandler {
         LOG.debug("Re-render for interface {} of service functions {}", interfaceName, sfNameList);
 
         return sfStatesReader.readSfpNames(sfNameList)
-                .thenCompose(rspList -> CompletableFuture.allOf(
+                .thenAccept(rspList -> getRspReRenderer().reRender(
                         rspList.stream()
                                 .map(SfpName::getValue)
                                 .map(RspName::new)
-                                .map(this::reRenderRsp)
-                                .toArray(size -> new CompletableFuture<?>[size])
+                                .collect(Collectors.toList())
                 ));
     }
 
@@ -68,7 +73,7 @@ class SfcGeniusRspHandler {
      * @param rspName the rendered service path name.
      * @return future signaling completion of the operation.
      */
-    private CompletableFuture<Void> reRenderRsp(RspName rspName) {
+    CompletableFuture<Void> reRenderRsp(RspName rspName) {
         SfcGeniusRspReader rspReader = getRspReader();
         SfcGeniusRspWriter rspWriter = getRspWriter();
 
@@ -90,4 +95,8 @@ class SfcGeniusRspHandler {
     protected SfcGeniusSfStatesReader getSfStatesReader() {
         return new SfcGeniusSfStatesReader(transaction, executor);
     }
+
+    protected SfcGeniusRspReRenderer getRspReRenderer() {
+        return rspReRenderer;
+    }
 }
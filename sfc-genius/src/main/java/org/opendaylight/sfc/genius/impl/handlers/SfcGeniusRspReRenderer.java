@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2018 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.genius.impl.handlers;
+
+import static org.opendaylight.sfc.genius.util.SfcGeniusConcurrentUtils.toCompletableFuture;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.OptimisticLockFailedException;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Re-renders the rendered service paths affected by interface events,
+ * coalescing the events received within a window.
+ *
+ * <p>
+ * When many interfaces move at once, as when a compute node is evacuated, a
+ * rendered service path may be affected by the move of each of its service
+ * functions. The rendered service paths requested during the window are
+ * re-rendered once at its end, each in its own transaction, with at most
+ * maxConcurrentRenders re-renders in progress.
+ *
+ * <p>
+ * A rendered service path requested again while its re-render is in
+ * progress is kept pending until that re-render completes, so that a
+ * rendered service path is never re-rendered concurrently with itself. A
+ * re-render whose transaction fails on a conflicting change is retried, up
+ * to {@link #MAX_RE_RENDER_ATTEMPTS} times in total.
+ */
+public class SfcGeniusRspReRenderer implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcGeniusRspReRenderer.class);
+
+    static final int MAX_RE_RENDER_ATTEMPTS = 3;
+
+    private final DataBroker dataBroker;
+    private final long windowMillis;
+    private final Semaphore renderPermits;
+    private final ScheduledExecutorService scheduler;
+    // The data store callbacks of the re-renders are executed here
+    private final ExecutorService callbackExecutor;
+
+    // Guarded by this
+    private Set<RspName> pending = new LinkedHashSet<>();
+    private final Set<RspName> inFlight = new HashSet<>();
+    private boolean flushScheduled;
+
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong reRendered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+
+    public SfcGeniusRspReRenderer(DataBroker dataBroker, long windowMillis, int maxConcurrentRenders) {
+        this.dataBroker = dataBroker;
+        this.windowMillis = windowMillis;
+        this.renderPermits = new Semaphore(maxConcurrentRenders);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("sfc-genius-rsp-rerender-%d").build());
+        this.callbackExecutor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("sfc-genius-rsp-callback-%d").build());
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        callbackExecutor.shutdown();
+        LOG.info("SfcGeniusRspReRenderer closed: requested {}, coalesced {}, re-rendered {}, failed {}, retried {}",
+                getRequestedCount(), getCoalescedCount(), getReRenderedCount(), getFailedCount(),
+                getRetriedCount());
+    }
+
+    /**
+     * Request the re-render of rendered service paths at the end of the
+     * current window.
+     *
+     * @param rspNames the names of the rendered service paths.
+     */
+    public void reRender(Collection<RspName> rspNames) {
+        synchronized (this) {
+            for (RspName rspName : rspNames) {
+                requested.incrementAndGet();
+                if (!pending.add(rspName)) {
+                    coalesced.incrementAndGet();
+                    LOG.debug("Coalesced re-render of RSP {}", rspName);
+                }
+            }
+            scheduleFlush();
+        }
+    }
+
+    // Guarded by this
+    private void scheduleFlush() {
+        if (flushScheduled || pending.isEmpty()) {
+            return;
+        }
+        try {
+            scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+            flushScheduled = true;
+        } catch (RejectedExecutionException e) {
+            LOG.debug("SfcGeniusRspReRenderer closed, not re-rendering RSPs {}", pending);
+        }
+    }
+
+    public long getRequestedCount() {
+        return requested.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public long getReRenderedCount() {
+        return reRendered.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getRetriedCount() {
+        return retried.get();
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    public synchronized int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Re-render the rendered service paths requested during the window that
+     * just ended, but those still being re-rendered, which are flushed once
+     * their re-render completes.
+     */
+    void flush() {
+        Set<RspName> rspNames = new LinkedHashSet<>();
+        synchronized (this) {
+            Set<RspName> requestedNames = pending;
+            pending = new LinkedHashSet<>();
+            flushScheduled = false;
+            for (RspName rspName : requestedNames) {
+                if (inFlight.add(rspName)) {
+                    rspNames.add(rspName);
+                } else {
+                    LOG.debug("Deferred re-render of RSP {} in progress", rspName);
+                    pending.add(rspName);
+                }
+            }
+        }
+
+        LOG.debug("Re-render RSPs {}", rspNames);
+
+        for (RspName rspName : rspNames) {
+            try {
+                renderPermits.acquire();
+            } catch (InterruptedException e) {
+                LOG.debug("SfcGeniusRspReRenderer interrupted, not re-rendering RSPs {}", rspNames);
+                Thread.currentThread().interrupt();
+                synchronized (this) {
+                    inFlight.removeAll(rspNames);
+                }
+                return;
+            }
+            reRenderRsp(rspName, 1).whenComplete((aVoid, exception) -> {
+                renderPermits.release();
+                synchronized (this) {
+                    inFlight.remove(rspName);
+                    scheduleFlush();
+                }
+                if (exception != null) {
+                    failed.incrementAndGet();
+                    LOG.error("Error re-rendering RSP {}", rspName, exception);
+                } else {
+                    reRendered.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    // Re-render an RSP, again in a new transaction if the previous one failed
+    // on a conflicting change
+    private CompletableFuture<Void> reRenderRsp(RspName rspName, int attempt) {
+        return reRenderRspInTransaction(rspName)
+                .handle((aVoid, exception) -> exception)
+                .thenCompose(exception -> {
+                    if (exception == null) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    if (attempt < MAX_RE_RENDER_ATTEMPTS && isOptimisticLockFailure(exception)) {
+                        retried.incrementAndGet();
+                        LOG.debug("Retrying re-render of RSP {} after a conflicting change", rspName);
+                        return reRenderRsp(rspName, attempt + 1);
+                    }
+                    CompletableFuture<Void> future = new CompletableFuture<>();
+                    future.completeExceptionally(exception);
+                    return future;
+                });
+    }
+
+    private static boolean isOptimisticLockFailure(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockFailedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private CompletableFuture<Void> reRenderRspInTransaction(RspName rspName) {
+        try {
+            ReadWriteTransaction readWriteTransaction = dataBroker.newReadWriteTransaction();
+            return getSfcGeniusRspHandler(readWriteTransaction).reRenderRsp(rspName)
+                    .thenCompose(aVoid -> toCompletableFuture(readWriteTransaction.submit(), callbackExecutor));
+        } catch (RuntimeException e) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    protected SfcGeniusRspHandler getSfcGeniusRspHandler(ReadWriteTransaction readWriteTransaction) {
+        return new SfcGeniusRspHandler(readWriteTransaction, callbackExecutor, this);
+    }
+}
@@ -48,13 +48,15 @@ public class SfcGeniusServiceManagerImpl implements org.opendaylight.sfc.genius.
     private final DataBroker dataBroker;
     private final ItmRpcService itmRpcService;
     private final Executor executor;
+    private final SfcGeniusRspReRenderer rspReRenderer;
     private static final Logger LOG = LoggerFactory.getLogger(SfcGeniusServiceManagerImpl.class);
 
     /**
      * Constructs a {@code SfcGeniusInterfaceServiceManager} using the provided
      * {@link DataBroker} for data store operations, the
-     * {@link ItmRpcService} to access Genius ITM RPC services and the
-     * {@link Executor} for asynchronous tasks.
+     * {@link ItmRpcService} to access Genius ITM RPC services, the
+     * {@link Executor} for asynchronous tasks and the
+     * {@link SfcGeniusRspReRenderer} to re-render the rendered service paths.
      *
      *
      * @param dataBroker
@@ -63,12 +65,15 @@ public class SfcGeniusServiceManagerImpl implements org.opendaylight.sfc.genius.
      *            the Genius ITM RPC service.
      * @param executor
      *            the executor where asynchronous tasks are executed.
+     * @param rspReRenderer
+     *            the re-renderer of the rendered service paths.
      */
     public SfcGeniusServiceManagerImpl(DataBroker dataBroker, ItmRpcService itmRpcService,
-                                       Executor executor) {
+                                       Executor executor, SfcGeniusRspReRenderer rspReRenderer) {
         this.dataBroker = dataBroker;
         this.itmRpcService = itmRpcService;
         this.executor = executor;
+        this.rspReRenderer = rspReRenderer;
     }
 
     @Override
@@ -173,7 +178,7 @@ public class SfcGeniusServiceManagerImpl implements org.opendaylight.sfc.genius.
     }
 
     protected SfcGeniusRspHandler getSfcGeniusRspHandler(ReadWriteTransaction readWriteTransaction) {
-        return new SfcGeniusRspHandler(readWriteTransaction, executor);
+        return new SfcGeniusRspHandler(readWriteTransaction, executor, rspReRenderer);
     }
 
     protected SfcGeniusSfReader getSfcGeniusSfReader(ReadWriteTransaction readWriteTransaction) {
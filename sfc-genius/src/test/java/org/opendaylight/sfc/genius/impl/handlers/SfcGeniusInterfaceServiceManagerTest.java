@@ -75,7 +75,7 @@ public class SfcGeniusInterfaceServiceManagerTest {
                 .thenReturn(CompletableFuture.completedFuture(null));
 
         sfcGeniusInterfaceServiceManager = spy(
-                new SfcGeniusServiceManagerImpl(dataBroker, itmRpcService, executor));
+                new SfcGeniusServiceManagerImpl(dataBroker, itmRpcService, executor, null));
 
         doReturn(sfcGeniusRspHandler).when(sfcGeniusInterfaceServiceManager)
                 .getSfcGeniusRspHandler(readWriteTransaction);
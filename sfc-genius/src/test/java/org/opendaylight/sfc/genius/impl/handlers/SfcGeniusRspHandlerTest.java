@@ -10,6 +10,7 @@ package org.opendaylight.sfc.genius.impl.handlers;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
@@ -42,6 +43,9 @@ public class SfcGeniusRspHandlerTest {
     @Mock
     SfcGeniusSfStatesReader sfcGeniusSfStatesReader;
 
+    @Mock
+    SfcGeniusRspReRenderer sfcGeniusRspReRenderer;
+
     @Mock
     RenderedServicePath renderedServicePath;
 
@@ -53,6 +57,7 @@ public class SfcGeniusRspHandlerTest {
         when(sfcGeniusRspHandler.getSfStatesReader()).thenReturn(sfcGeniusSfStatesReader);
         when(sfcGeniusRspHandler.getRspReader()).thenReturn(sfcGeniusRspReader);
         when(sfcGeniusRspHandler.getRspWriter()).thenReturn(sfcGeniusRspWriter);
+        when(sfcGeniusRspHandler.getRspReRenderer()).thenReturn(sfcGeniusRspReRenderer);
     }
 
     @Test
@@ -60,30 +65,29 @@ public class SfcGeniusRspHandlerTest {
         List<SfName> sfNameList = Arrays.asList(new SfName("SF1"), new SfName("SF2"));
         List<SfpName> sfpNameList = Arrays.asList(new SfpName("RSP1"), new SfpName("RSP2"));
         List<RspName> rspNameList = Arrays.asList(new RspName("RSP1"), new RspName("RSP2"));
-        List<RenderedServicePath> rspList = Arrays.asList(
-                new RenderedServicePathBuilder().setName(rspNameList.get(0)).build(),
-                new RenderedServicePathBuilder().setName(rspNameList.get(1)).build()
-        );
 
         when(sfcGeniusSfStatesReader.readSfpNames(sfNameList))
                 .thenReturn(CompletableFuture.completedFuture(sfpNameList));
-        when(sfcGeniusRspReader.readRsp(rspNameList.get(0)))
-                .thenReturn(CompletableFuture.completedFuture(rspList.get(0)));
-        when(sfcGeniusRspReader.readRsp(rspNameList.get(1)))
-                .thenReturn(CompletableFuture.completedFuture(rspList.get(1)));
-        when(sfcGeniusRspWriter.deleteRsp(rspList.get(0)))
-                .thenReturn(CompletableFuture.completedFuture(rspList.get(0)));
-        when(sfcGeniusRspWriter.deleteRsp(rspList.get(1)))
-                .thenReturn(CompletableFuture.completedFuture(rspList.get(1)));
-        when(sfcGeniusRspWriter.createRsp(any()))
-                .thenReturn(CompletableFuture.completedFuture(null));
 
         String testInterface = "TestInterface";
         sfcGeniusRspHandler.interfaceStateUp(testInterface, sfNameList);
 
-        verify(sfcGeniusRspWriter).deleteRsp(rspList.get(0));
-        verify(sfcGeniusRspWriter).createRsp(rspList.get(0));
-        verify(sfcGeniusRspWriter).deleteRsp(rspList.get(1));
-        verify(sfcGeniusRspWriter).createRsp(rspList.get(1));
+        verify(sfcGeniusRspReRenderer).reRender(rspNameList);
+        verifyZeroInteractions(sfcGeniusRspWriter);
+    }
+
+    @Test
+    public void reRenderRsp() throws Exception {
+        RspName rspName = new RspName("RSP1");
+        RenderedServicePath rsp = new RenderedServicePathBuilder().setName(rspName).build();
+
+        when(sfcGeniusRspReader.readRsp(rspName)).thenReturn(CompletableFuture.completedFuture(rsp));
+        when(sfcGeniusRspWriter.deleteRsp(rsp)).thenReturn(CompletableFuture.completedFuture(rsp));
+        when(sfcGeniusRspWriter.createRsp(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        sfcGeniusRspHandler.reRenderRsp(rspName);
+
+        verify(sfcGeniusRspWriter).deleteRsp(rsp);
+        verify(sfcGeniusRspWriter).createRsp(rsp);
     }
 }
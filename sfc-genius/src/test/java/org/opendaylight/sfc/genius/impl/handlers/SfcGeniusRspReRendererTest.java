@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2018 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.genius.impl.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.Futures;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.OptimisticLockFailedException;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SfcGeniusRspReRendererTest {
+
+    // Long enough for the test to flush before the window ends
+    private static final long WINDOW_MILLIS = 3600000;
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    @Mock
+    DataBroker dataBroker;
+
+    @Mock
+    ReadWriteTransaction readWriteTransaction;
+
+    @Mock
+    SfcGeniusRspHandler sfcGeniusRspHandler;
+
+    SfcGeniusRspReRenderer sfcGeniusRspReRenderer;
+
+    @Before
+    public void setup() {
+        when(dataBroker.newReadWriteTransaction()).thenReturn(readWriteTransaction);
+        when(readWriteTransaction.submit()).thenReturn(Futures.immediateCheckedFuture(null));
+        when(sfcGeniusRspHandler.reRenderRsp(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        sfcGeniusRspReRenderer = spy(new SfcGeniusRspReRenderer(dataBroker, WINDOW_MILLIS, 2));
+        doReturn(sfcGeniusRspHandler).when(sfcGeniusRspReRenderer).getSfcGeniusRspHandler(readWriteTransaction);
+    }
+
+    @After
+    public void tearDown() {
+        sfcGeniusRspReRenderer.close();
+    }
+
+    // The transactions are submitted asynchronously
+    private void awaitCompleted(long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (sfcGeniusRspReRenderer.getReRenderedCount() + sfcGeniusRspReRenderer.getFailedCount() < count) {
+            assertTrue("Re-renders not completed in time", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void reRenderCoalesced() throws Exception {
+        RspName rsp1 = new RspName("RSP1");
+        RspName rsp2 = new RspName("RSP2");
+        RspName rsp3 = new RspName("RSP3");
+
+        sfcGeniusRspReRenderer.reRender(Arrays.asList(rsp1, rsp2));
+        sfcGeniusRspReRenderer.reRender(Arrays.asList(rsp2, rsp3));
+        sfcGeniusRspReRenderer.reRender(Collections.singletonList(rsp1));
+        assertEquals(3, sfcGeniusRspReRenderer.getPendingCount());
+
+        sfcGeniusRspReRenderer.flush();
+        awaitCompleted(3);
+
+        verify(sfcGeniusRspHandler).reRenderRsp(rsp1);
+        verify(sfcGeniusRspHandler).reRenderRsp(rsp2);
+        verify(sfcGeniusRspHandler).reRenderRsp(rsp3);
+        verify(readWriteTransaction, times(3)).submit();
+        assertEquals(0, sfcGeniusRspReRenderer.getPendingCount());
+        assertEquals(5, sfcGeniusRspReRenderer.getRequestedCount());
+        assertEquals(2, sfcGeniusRspReRenderer.getCoalescedCount());
+        assertEquals(3, sfcGeniusRspReRenderer.getReRenderedCount());
+        assertEquals(0, sfcGeniusRspReRenderer.getFailedCount());
+    }
+
+    @Test
+    public void reRenderFailed() throws Exception {
+        CompletableFuture<Void> failedFuture = new CompletableFuture<>();
+        failedFuture.completeExceptionally(new RuntimeException());
+        when(sfcGeniusRspHandler.reRenderRsp(any())).thenReturn(failedFuture);
+
+        sfcGeniusRspReRenderer.reRender(Arrays.asList(new RspName("RSP1"), new RspName("RSP2")));
+        sfcGeniusRspReRenderer.flush();
+
+        verify(readWriteTransaction, times(0)).submit();
+        assertEquals(2, sfcGeniusRspReRenderer.getFailedCount());
+        // The permits of the failed re-renders are released
+        sfcGeniusRspReRenderer.reRender(Arrays.asList(new RspName("RSP3"), new RspName("RSP4")));
+        sfcGeniusRspReRenderer.flush();
+        assertEquals(4, sfcGeniusRspReRenderer.getFailedCount());
+    }
+
+    @Test
+    public void reRenderInFlightDeferred() throws Exception {
+        RspName rsp1 = new RspName("RSP1");
+        CompletableFuture<Void> inFlightFuture = new CompletableFuture<>();
+        when(sfcGeniusRspHandler.reRenderRsp(rsp1)).thenReturn(inFlightFuture);
+
+        sfcGeniusRspReRenderer.reRender(Collections.singletonList(rsp1));
+        sfcGeniusRspReRenderer.flush();
+        assertEquals(1, sfcGeniusRspReRenderer.getInFlightCount());
+
+        // Requested again while in progress, it is kept pending
+        sfcGeniusRspReRenderer.reRender(Collections.singletonList(rsp1));
+        sfcGeniusRspReRenderer.flush();
+        verify(sfcGeniusRspHandler, times(1)).reRenderRsp(rsp1);
+        assertEquals(1, sfcGeniusRspReRenderer.getPendingCount());
+
+        // and re-rendered once the previous re-render completed
+        inFlightFuture.complete(null);
+        awaitCompleted(1);
+        when(sfcGeniusRspHandler.reRenderRsp(rsp1)).thenReturn(CompletableFuture.completedFuture(null));
+        sfcGeniusRspReRenderer.flush();
+        awaitCompleted(2);
+        verify(sfcGeniusRspHandler, times(2)).reRenderRsp(rsp1);
+        assertEquals(0, sfcGeniusRspReRenderer.getPendingCount());
+        assertEquals(0, sfcGeniusRspReRenderer.getInFlightCount());
+    }
+
+    @Test
+    public void reRenderRetriedOnOptimisticLockFailure() throws Exception {
+        when(readWriteTransaction.submit())
+                .thenReturn(Futures.<Void, TransactionCommitFailedException>immediateFailedCheckedFuture(
+                        new OptimisticLockFailedException("conflict")))
+                .thenReturn(Futures.immediateCheckedFuture(null));
+
+        sfcGeniusRspReRenderer.reRender(Collections.singletonList(new RspName("RSP1")));
+        sfcGeniusRspReRenderer.flush();
+        awaitCompleted(1);
+
+        verify(readWriteTransaction, times(2)).submit();
+        assertEquals(1, sfcGeniusRspReRenderer.getRetriedCount());
+        assertEquals(1, sfcGeniusRspReRenderer.getReRenderedCount());
+    }
+
+    @Test
+    public void reRenderRetriesBounded() throws Exception {
+        when(readWriteTransaction.submit()).thenReturn(
+                Futures.<Void, TransactionCommitFailedException>immediateFailedCheckedFuture(
+                        new OptimisticLockFailedException("conflict")));
+
+        sfcGeniusRspReRenderer.reRender(Collections.singletonList(new RspName("RSP1")));
+        sfcGeniusRspReRenderer.flush();
+        awaitCompleted(1);
+
+        verify(readWriteTransaction, times(SfcGeniusRspReRenderer.MAX_RE_RENDER_ATTEMPTS)).submit();
+        assertEquals(SfcGeniusRspReRenderer.MAX_RE_RENDER_ATTEMPTS - 1, sfcGeniusRspReRenderer.getRetriedCount());
+        assertEquals(1, sfcGeniusRspReRenderer.getFailedCount());
+    }
+}
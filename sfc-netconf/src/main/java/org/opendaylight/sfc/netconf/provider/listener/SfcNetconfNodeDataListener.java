@@ -17,9 +17,6 @@
 
 package org.opendaylight.sfc.netconf.provider.listener;
 
-import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStart;
-import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStop;
-
 import java.util.List;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
@@ -63,14 +60,17 @@ public class SfcNetconfNodeDataListener extends AbstractSyncDataTreeChangeListen
     private static final Logger LOG = LoggerFactory.getLogger(SfcNetconfNodeDataListener.class);
 
     private final SfcNetconfServiceFunctionAPI sfcNetconfServiceFunctionAPI;
+    private final SfcNetconfSfMonitor sfcNetconfSfMonitor;
 
     @Inject
     public SfcNetconfNodeDataListener(DataBroker dataBroker,
-                                      SfcNetconfServiceFunctionAPI sfcNetconfServiceFunctionAPI) {
+                                      SfcNetconfServiceFunctionAPI sfcNetconfServiceFunctionAPI,
+                                      SfcNetconfSfMonitor sfcNetconfSfMonitor) {
         super(dataBroker, LogicalDatastoreType.OPERATIONAL, InstanceIdentifier.create(NetworkTopology.class)
                 .child(Topology.class, new TopologyKey(new TopologyId(TopologyNetconf.QNAME.getLocalName())))
                 .child(Node.class));
         this.sfcNetconfServiceFunctionAPI = sfcNetconfServiceFunctionAPI;
+        this.sfcNetconfSfMonitor = sfcNetconfSfMonitor;
     }
 
     @Override
@@ -80,7 +80,7 @@ public class SfcNetconfNodeDataListener extends AbstractSyncDataTreeChangeListen
 
     @Override
     public void remove(@Nonnull InstanceIdentifier<Node> instanceIdentifier, @Nonnull Node removedDataObject) {
-        // NOOP
+        sfcNetconfSfMonitor.stop(getNodeId(instanceIdentifier).getValue());
     }
 
     @Override
@@ -135,9 +135,7 @@ public class SfcNetconfNodeDataListener extends AbstractSyncDataTreeChangeListen
                             LOG.error("Failed to create SF from Netconf node {}", nodeName);
                         }
 
-                        SfDescriptionMonitoringThread monitoringThread = new SfDescriptionMonitoringThread(nodeName);
-                        Thread thread = new Thread(monitoringThread);
-                        thread.start();
+                        sfcNetconfSfMonitor.start(nodeName);
                     } else { // SFF
                         ServiceFunctionForwarder sff = SfcNetconfServiceForwarderAPI
                                 .buildServiceForwarderFromNetconf(nodeName, nnode);
@@ -158,6 +156,7 @@ public class SfcNetconfNodeDataListener extends AbstractSyncDataTreeChangeListen
                     // connecting for various reasons:
                     // disconnect from remote device, network
                     // connectivity loss etc.
+                    sfcNetconfSfMonitor.stop(nodeName);
                     LOG.info("Netconf device disconnected, deleting SFF {}", nodeName);
                     if (SfcProviderServiceForwarderAPI.deleteServiceFunctionForwarder(new SffName(nodeName))) {
                         LOG.info("SFF {} deleted successfully", nodeName);
@@ -168,6 +167,7 @@ public class SfcNetconfNodeDataListener extends AbstractSyncDataTreeChangeListen
                 }
                 case UnableToConnect: {
                     // Its over for the device, no more reconnects
+                    sfcNetconfSfMonitor.stop(nodeName);
                     LOG.info("Unable to connected to Netconf device, deleting SFF {}", nodeName);
                     if (SfcProviderServiceForwarderAPI.deleteServiceFunctionForwarder(new SffName(nodeName))) {
                         LOG.info("SFF {} deleted successfully", nodeName);
@@ -208,30 +208,4 @@ public class SfcNetconfNodeDataListener extends AbstractSyncDataTreeChangeListen
         }
         return ret;
     }
-
-    class SfDescriptionMonitoringThread implements Runnable {
-        private final String nodeName;
-
-        SfDescriptionMonitoringThread(String nodeName) {
-            this.nodeName = nodeName;
-        }
-
-        @Override
-        public void run() {
-            while (true) {
-                printTraceStart(LOG);
-                MonitoringInfo monInfo = sfcNetconfServiceFunctionAPI.getServiceFunctionMonitor(nodeName);
-                if (monInfo != null) {
-                    SfName sfNodeName = new SfName(nodeName);
-                    sfcNetconfServiceFunctionAPI.putServiceFunctionMonitor(monInfo, sfNodeName);
-                }
-                try {
-                    Thread.sleep(5000);
-                } catch (InterruptedException e) {
-                    LOG.warn("failed to ....", e);
-                }
-                printTraceStop(LOG);
-            }
-        }
-    }
 }
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.netconf.provider.listener;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.netconf.provider.api.SfcNetconfServiceFunctionAPI;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.ServiceFunctionsState;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.state.ServiceFunctionState;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.state.ServiceFunctionStateKey;
+import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.sf.desc.mon.rev141201.ServiceFunctionState1;
+import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.sf.desc.mon.rev141201.service.functions.state.service.function.state.SfcSfDescMon;
+import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.sf.desc.mon.rev141201.service.functions.state.service.function.state.sfc.sf.desc.mon.MonitoringInfo;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Polls the monitoring information of the NETCONF service functions on a
+ * fixed size pool of threads, whatever the number of service functions.
+ *
+ * <p>
+ * Each service function is polled at its own interval, jittered so that the
+ * polls of service functions connected at the same time spread out. The
+ * interval doubles, up to maxIntervalMillis, while the monitoring
+ * information of a service function is unchanged or the service function
+ * is unreachable, and is reset to intervalMillis on a change. The changed
+ * monitoring information is written back every flushIntervalMillis, all
+ * service functions in a single transaction.
+ */
+public class SfcNetconfSfMonitor implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcNetconfSfMonitor.class);
+
+    private final DataBroker dataBroker;
+    private final SfcNetconfServiceFunctionAPI sfcNetconfServiceFunctionAPI;
+    private final long intervalMillis;
+    private final long maxIntervalMillis;
+    private final ScheduledExecutorService scheduler;
+
+    private final ConcurrentMap<String, NodeMonitor> nodeMonitors = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private Map<SfName, MonitoringInfo> pendingWrites = new LinkedHashMap<>();
+
+    private final AtomicLong polled = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+    private final AtomicLong unreachable = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private final class NodeMonitor {
+        private final String nodeName;
+        // Guarded by this
+        private MonitoringInfo lastMonitoringInfo;
+        private long delayMillis = intervalMillis;
+        private ScheduledFuture<?> scheduledPoll;
+
+        NodeMonitor(String nodeName) {
+            this.nodeName = nodeName;
+        }
+    }
+
+    public SfcNetconfSfMonitor(DataBroker dataBroker, SfcNetconfServiceFunctionAPI sfcNetconfServiceFunctionAPI,
+            int poolSize, long intervalMillis, long maxIntervalMillis, long flushIntervalMillis) {
+        this.dataBroker = dataBroker;
+        this.sfcNetconfServiceFunctionAPI = sfcNetconfServiceFunctionAPI;
+        this.intervalMillis = intervalMillis;
+        this.maxIntervalMillis = Math.max(intervalMillis, maxIntervalMillis);
+        this.scheduler = Executors.newScheduledThreadPool(poolSize,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("sfc-netconf-sf-monitor-%d").build());
+        this.scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        nodeMonitors.clear();
+        LOG.info("SfcNetconfSfMonitor closed: polled {}, unchanged {}, unreachable {}, written {}, failed {}",
+                getPolledCount(), getUnchangedCount(), getUnreachableCount(), getWrittenCount(), getFailedCount());
+    }
+
+    /**
+     * Start polling the monitoring information of a service function, if
+     * not polled yet.
+     *
+     * @param nodeName the NETCONF node name, which is the service function name
+     */
+    public void start(String nodeName) {
+        NodeMonitor nodeMonitor = new NodeMonitor(nodeName);
+        if (nodeMonitors.putIfAbsent(nodeName, nodeMonitor) == null) {
+            LOG.debug("Start monitoring SF {}", nodeName);
+            schedulePoll(nodeMonitor);
+        }
+    }
+
+    /**
+     * Stop polling the monitoring information of a service function.
+     *
+     * @param nodeName the NETCONF node name, which is the service function name
+     */
+    public void stop(String nodeName) {
+        NodeMonitor nodeMonitor = nodeMonitors.remove(nodeName);
+        if (nodeMonitor != null) {
+            LOG.debug("Stop monitoring SF {}", nodeName);
+            synchronized (nodeMonitor) {
+                if (nodeMonitor.scheduledPoll != null) {
+                    nodeMonitor.scheduledPoll.cancel(false);
+                }
+            }
+        }
+    }
+
+    public int getMonitoredCount() {
+        return nodeMonitors.size();
+    }
+
+    public long getPolledCount() {
+        return polled.get();
+    }
+
+    public long getUnchangedCount() {
+        return unchanged.get();
+    }
+
+    public long getUnreachableCount() {
+        return unreachable.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public synchronized int getPendingCount() {
+        return pendingWrites.size();
+    }
+
+    private void schedulePoll(NodeMonitor nodeMonitor) {
+        synchronized (nodeMonitor) {
+            if (nodeMonitors.get(nodeMonitor.nodeName) != nodeMonitor) {
+                return;
+            }
+            try {
+                nodeMonitor.scheduledPoll = scheduler.schedule(() -> poll(nodeMonitor),
+                        jitter(nodeMonitor.delayMillis), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                LOG.debug("SfcNetconfSfMonitor closed, not monitoring SF {}", nodeMonitor.nodeName);
+            }
+        }
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void poll(NodeMonitor nodeMonitor) {
+        polled.incrementAndGet();
+        MonitoringInfo monitoringInfo;
+        try {
+            monitoringInfo = sfcNetconfServiceFunctionAPI.getServiceFunctionMonitor(nodeMonitor.nodeName);
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to get the monitoring information of SF {}", nodeMonitor.nodeName, e);
+            monitoringInfo = null;
+        }
+
+        synchronized (nodeMonitor) {
+            if (monitoringInfo == null) {
+                unreachable.incrementAndGet();
+                nodeMonitor.delayMillis = Math.min(nodeMonitor.delayMillis * 2, maxIntervalMillis);
+            } else if (monitoringInfo.equals(nodeMonitor.lastMonitoringInfo)) {
+                unchanged.incrementAndGet();
+                nodeMonitor.delayMillis = Math.min(nodeMonitor.delayMillis * 2, maxIntervalMillis);
+            } else {
+                nodeMonitor.lastMonitoringInfo = monitoringInfo;
+                nodeMonitor.delayMillis = intervalMillis;
+                synchronized (this) {
+                    pendingWrites.put(new SfName(nodeMonitor.nodeName), monitoringInfo);
+                }
+            }
+        }
+        schedulePoll(nodeMonitor);
+    }
+
+    // Write back the changed monitoring information in a single transaction
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void flush() {
+        Map<SfName, MonitoringInfo> toWrite;
+        synchronized (this) {
+            if (pendingWrites.isEmpty()) {
+                return;
+            }
+            toWrite = pendingWrites;
+            pendingWrites = new LinkedHashMap<>();
+        }
+
+        try {
+            WriteTransaction writeTx = dataBroker.newWriteOnlyTransaction();
+            toWrite.forEach((sfName, monitoringInfo) -> writeTx.put(LogicalDatastoreType.OPERATIONAL,
+                    getMonitoringInfoIid(sfName), monitoringInfo, true));
+            writeTx.commit().get();
+            written.addAndGet(toWrite.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            requeue(toWrite);
+        } catch (ExecutionException | RuntimeException e) {
+            LOG.error("Failed to write the monitoring information of SFs {}", toWrite.keySet(), e);
+            failed.addAndGet(toWrite.size());
+            requeue(toWrite);
+        }
+    }
+
+    // Retry the failed writes with the next flush, unless superseded
+    private synchronized void requeue(Map<SfName, MonitoringInfo> toWrite) {
+        toWrite.forEach(pendingWrites::putIfAbsent);
+    }
+
+    // A delay within 25% of the given delay
+    private static long jitter(long delayMillis) {
+        long spread = delayMillis / 4;
+        return delayMillis - spread + ThreadLocalRandom.current().nextLong(2 * spread + 1);
+    }
+
+    private static InstanceIdentifier<MonitoringInfo> getMonitoringInfoIid(SfName sfName) {
+        return InstanceIdentifier.builder(ServiceFunctionsState.class)
+                .child(ServiceFunctionState.class, new ServiceFunctionStateKey(sfName))
+                .augmentation(ServiceFunctionState1.class).child(SfcSfDescMon.class).child(MonitoringInfo.class)
+                .build();
+    }
+}
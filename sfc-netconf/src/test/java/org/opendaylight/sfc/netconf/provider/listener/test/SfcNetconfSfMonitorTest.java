@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.netconf.provider.listener.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.test.AbstractDataBrokerTest;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.netconf.provider.api.SfcNetconfServiceFunctionAPI;
+import org.opendaylight.sfc.netconf.provider.listener.SfcNetconfSfMonitor;
+import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.ServiceFunctionsState;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.state.ServiceFunctionState;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.state.ServiceFunctionStateKey;
+import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.sf.desc.mon.rev141201.ServiceFunctionState1;
+import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.sf.desc.mon.rev141201.service.functions.state.service.function.state.sfc.sf.desc.mon.MonitoringInfo;
+import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.sf.desc.mon.rev141201.service.functions.state.service.function.state.sfc.sf.desc.mon.MonitoringInfoBuilder;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * This class contains unit tests for SfcNetconfSfMonitor, against stub
+ * NETCONF service functions.
+ */
+public class SfcNetconfSfMonitorTest extends AbstractDataBrokerTest {
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    // The monitoring information returned by each stub SF, none if unreachable
+    private final Map<String, MonitoringInfo> monitoringInfos = new ConcurrentHashMap<>();
+    private SfcNetconfSfMonitor sfcNetconfSfMonitor;
+
+    @Before
+    public void before() {
+        SfcDataStoreAPI.setDataProviderAux(getDataBroker());
+        SfcNetconfServiceFunctionAPI sfcNetconfServiceFunctionAPI = new SfcNetconfServiceFunctionAPI(null) {
+            @Override
+            public MonitoringInfo getServiceFunctionMonitor(String sfName) {
+                return monitoringInfos.get(sfName);
+            }
+        };
+        sfcNetconfSfMonitor = new SfcNetconfSfMonitor(getDataBroker(), sfcNetconfServiceFunctionAPI, 2, 10, 40, 10);
+    }
+
+    @After
+    public void after() {
+        sfcNetconfSfMonitor.close();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Condition not met in time", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static MonitoringInfo readMonitoringInfo(String sfName) {
+        ServiceFunctionState sfState = SfcDataStoreAPI.readTransactionAPI(
+                InstanceIdentifier.builder(ServiceFunctionsState.class)
+                        .child(ServiceFunctionState.class, new ServiceFunctionStateKey(new SfName(sfName))).build(),
+                LogicalDatastoreType.OPERATIONAL);
+        if (sfState == null || sfState.augmentation(ServiceFunctionState1.class) == null) {
+            return null;
+        }
+        return sfState.augmentation(ServiceFunctionState1.class).getSfcSfDescMon().getMonitoringInfo();
+    }
+
+    @Test
+    public void testMonitoring() throws InterruptedException {
+        MonitoringInfo monitoringInfo = new MonitoringInfoBuilder().setLiveness(true).build();
+        for (int i = 0; i < 20; i++) {
+            monitoringInfos.put("sf" + i, monitoringInfo);
+            sfcNetconfSfMonitor.start("sf" + i);
+        }
+        assertEquals(20, sfcNetconfSfMonitor.getMonitoredCount());
+
+        await(() -> sfcNetconfSfMonitor.getWrittenCount() == 20);
+        assertEquals(monitoringInfo, readMonitoringInfo("sf0"));
+        assertEquals(monitoringInfo, readMonitoringInfo("sf19"));
+
+        // Unchanged monitoring information is not written again
+        await(() -> sfcNetconfSfMonitor.getUnchangedCount() >= 20);
+        assertEquals(20, sfcNetconfSfMonitor.getWrittenCount());
+
+        // A change is written on the next poll
+        MonitoringInfo changed = new MonitoringInfoBuilder().setLiveness(false).build();
+        monitoringInfos.put("sf0", changed);
+        await(() -> sfcNetconfSfMonitor.getWrittenCount() == 21);
+        assertEquals(changed, readMonitoringInfo("sf0"));
+        assertEquals(0, sfcNetconfSfMonitor.getFailedCount());
+    }
+
+    @Test
+    public void testUnreachable() throws InterruptedException {
+        sfcNetconfSfMonitor.start("sf0");
+        await(() -> sfcNetconfSfMonitor.getUnreachableCount() >= 2);
+        assertEquals(0, sfcNetconfSfMonitor.getWrittenCount());
+
+        MonitoringInfo monitoringInfo = new MonitoringInfoBuilder().setLiveness(true).build();
+        monitoringInfos.put("sf0", monitoringInfo);
+        await(() -> sfcNetconfSfMonitor.getWrittenCount() == 1);
+        assertNotNull(readMonitoringInfo("sf0"));
+    }
+
+    @Test
+    public void testStop() throws InterruptedException {
+        sfcNetconfSfMonitor.start("sf0");
+        sfcNetconfSfMonitor.start("sf0");
+        assertEquals(1, sfcNetconfSfMonitor.getMonitoredCount());
+        await(() -> sfcNetconfSfMonitor.getPolledCount() >= 1);
+
+        sfcNetconfSfMonitor.stop("sf0");
+        assertEquals(0, sfcNetconfSfMonitor.getMonitoredCount());
+        // Let a poll in progress at the time of the stop complete
+        Thread.sleep(50);
+        long polledCount = sfcNetconfSfMonitor.getPolledCount();
+        Thread.sleep(100);
+        assertEquals(polledCount, sfcNetconfSfMonitor.getPolledCount());
+    }
+}
@@ -19,22 +19,15 @@ import com.google.common.base.Preconditions;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
-import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbBridgeAugmentation;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbNodeAugmentation;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbNodeRef;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbTerminationPointAugmentation;
-import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.Topology;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.node.TerminationPoint;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 public final class SfcOvsDataStoreAPI {
 
-    private static final Logger LOG = LoggerFactory.getLogger(SfcOvsDataStoreAPI.class);
-
     private SfcOvsDataStoreAPI() {
     }
 
@@ -76,38 +69,7 @@ public final class SfcOvsDataStoreAPI {
         Preconditions.checkNotNull(ipAddress,
                 "Cannot READ Node for given ipAddress from OVS operational store, ipAddress is null.");
 
-        Topology topology = SfcDataStoreAPI.readTransactionAPI(SfcOvsUtil.buildOvsdbTopologyIID(),
-                LogicalDatastoreType.OPERATIONAL);
-
-        if (topology == null) {
-            LOG.warn("Cannot READ the Topology from the operational store");
-            return null;
-        }
-
-        if (topology.getNode() == null) {
-            LOG.warn("Cannot READ Node for ipAddress [{}] from OVS operational store,"
-                    + "Topology does not contain any Node.", ipAddress);
-            return null;
-        }
-
-        for (Node node : topology.getNode()) {
-            OvsdbNodeAugmentation ovsdbNodeAug = node.augmentation(OvsdbNodeAugmentation.class);
-            if (ovsdbNodeAug != null && ovsdbNodeAug.getConnectionInfo() != null) {
-                IpAddress connectionIp = ovsdbNodeAug.getConnectionInfo().getRemoteIp();
-                if (connectionIp == null) {
-                    return null;
-                }
-                if (connectionIp.getIpv4Address() != null
-                        && connectionIp.getIpv4Address().getValue().equals(ipAddress)) {
-                    return node;
-                } else if (connectionIp.getIpv6Address() != null
-                        && connectionIp.getIpv6Address().getValue().equals(ipAddress)) {
-                    return node;
-                }
-            }
-        }
-
-        return null;
+        return SfcOvsTopologyIndex.getManagerNodeByIp(ipAddress);
     }
 
     public static OvsdbBridgeAugmentation readOvsdbBridge(InstanceIdentifier<OvsdbBridgeAugmentation> bridgeIID) {
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ovs.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
+import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbBridgeAugmentation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbNodeAugmentation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbTerminationPointAugmentation;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.Topology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.node.TerminationPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In memory index of the OVSDB operational topology, used instead of reading
+ * and scanning the whole topology on every lookup.
+ *
+ * <p>
+ * Manager nodes are indexed by the IP address of their connection and bridge
+ * nodes by their OpenFlow node id, which is derived from the datapath id,
+ * along with their ports by name. The index is loaded from the data store on
+ * first use and then kept up to date by the SfcOvsNodeDataListener.
+ *
+ * <p>
+ * The index is an immutable snapshot, published through a volatile field:
+ * lookups do not lock and never see a partially built index. Updates copy
+ * the snapshot, which is cheap given the size of the OVSDB topology and the
+ * rate of its changes.
+ *
+ * <p>
+ * Since the listener is notified after the topology change is committed, a
+ * lookup that misses may reload the index before giving up. Such reloads
+ * happen at most once per {@link #MISS_RELOAD_INTERVAL_MILLIS}, so that
+ * lookups of ports that are legitimately absent do not read the whole
+ * topology every time.
+ */
+public final class SfcOvsTopologyIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOvsTopologyIndex.class);
+
+    static final long MISS_RELOAD_INTERVAL_MILLIS = 1000;
+
+    // The current index, null until loaded
+    private static volatile Snapshot snapshot;
+
+    // Guarded by the class lock
+    private static boolean missReloaded = false;
+    private static long lastMissReloadNanos;
+
+    private SfcOvsTopologyIndex() {
+    }
+
+    /**
+     * Get the OVSDB manager node connected from the given IP address.
+     *
+     * @param ipAddress
+     *            the IPv4 or IPv6 address of the manager connection
+     * @return the manager node, or null if not found
+     */
+    public static Node getManagerNodeByIp(String ipAddress) {
+        return lookup(index -> index.managerNodesByIp.get(ipAddress));
+    }
+
+    /**
+     * Get the OVSDB bridge node of the given OpenFlow node.
+     *
+     * @param openflowNodeId
+     *            the OpenFlow node id, i.e. "openflow:" followed by the
+     *            datapath id
+     * @return the bridge node, or null if not found
+     */
+    public static Node getBridgeNodeByOpenflowNodeId(String openflowNodeId) {
+        return lookup(index -> {
+            Bridge bridge = index.bridgesByOpenflowNodeId.get(openflowNodeId);
+            return bridge == null ? null : bridge.node;
+        });
+    }
+
+    /**
+     * Get a port of the OVSDB bridge of the given OpenFlow node by name.
+     *
+     * @param openflowNodeId
+     *            the OpenFlow node id
+     * @param portName
+     *            the port name
+     * @return the port, or null if not found
+     */
+    public static OvsdbTerminationPointAugmentation getPortByName(String openflowNodeId, String portName) {
+        return lookup(index -> {
+            Bridge bridge = index.bridgesByOpenflowNodeId.get(openflowNodeId);
+            return bridge == null ? null : bridge.portsByName.get(portName);
+        });
+    }
+
+    /**
+     * Find the first port of the OVSDB bridge of the given OpenFlow node, in
+     * the order of the topology, that matches the given predicate.
+     *
+     * @param openflowNodeId
+     *            the OpenFlow node id
+     * @param predicate
+     *            the port predicate
+     * @return the port, or null if not found
+     */
+    public static OvsdbTerminationPointAugmentation findPort(String openflowNodeId,
+            Predicate<OvsdbTerminationPointAugmentation> predicate) {
+        return lookup(index -> {
+            Bridge bridge = index.bridgesByOpenflowNodeId.get(openflowNodeId);
+            return bridge == null ? null : bridge.ports.stream().filter(predicate).findFirst().orElse(null);
+        });
+    }
+
+    /**
+     * Add or update a node of the OVSDB topology.
+     *
+     * @param originalNode
+     *            the node before the update, or null if added
+     * @param node
+     *            the added or updated node
+     */
+    public static synchronized void updateNode(Node originalNode, Node node) {
+        if (snapshot == null) {
+            return;
+        }
+        Map<String, Node> managerNodesByIp = new HashMap<>(snapshot.managerNodesByIp);
+        Map<String, Bridge> bridgesByOpenflowNodeId = new HashMap<>(snapshot.bridgesByOpenflowNodeId);
+        if (originalNode != null) {
+            unindexNode(originalNode, managerNodesByIp, bridgesByOpenflowNodeId);
+        }
+        indexNode(node, managerNodesByIp, bridgesByOpenflowNodeId);
+        snapshot = new Snapshot(managerNodesByIp, bridgesByOpenflowNodeId);
+    }
+
+    /**
+     * Remove a node of the OVSDB topology.
+     *
+     * @param node
+     *            the removed node
+     */
+    public static synchronized void removeNode(Node node) {
+        if (snapshot == null) {
+            return;
+        }
+        Map<String, Node> managerNodesByIp = new HashMap<>(snapshot.managerNodesByIp);
+        Map<String, Bridge> bridgesByOpenflowNodeId = new HashMap<>(snapshot.bridgesByOpenflowNodeId);
+        unindexNode(node, managerNodesByIp, bridgesByOpenflowNodeId);
+        snapshot = new Snapshot(managerNodesByIp, bridgesByOpenflowNodeId);
+    }
+
+    /**
+     * Drop the index, it is loaded again on the next lookup.
+     */
+    public static synchronized void clear() {
+        snapshot = null;
+        missReloaded = false;
+    }
+
+    private static <T> T lookup(Function<Snapshot, T> indexLookup) {
+        Snapshot index = snapshot;
+        if (index == null) {
+            return indexLookup.apply(load());
+        }
+        T result = indexLookup.apply(index);
+        if (result != null) {
+            return result;
+        }
+        reloadOnMiss();
+        return indexLookup.apply(snapshot);
+    }
+
+    private static synchronized Snapshot load() {
+        if (snapshot == null) {
+            reload();
+        }
+        return snapshot;
+    }
+
+    private static synchronized void reloadOnMiss() {
+        long now = System.nanoTime();
+        if (missReloaded && now - lastMissReloadNanos < TimeUnit.MILLISECONDS.toNanos(MISS_RELOAD_INTERVAL_MILLIS)) {
+            return;
+        }
+        missReloaded = true;
+        lastMissReloadNanos = now;
+        reload();
+    }
+
+    // Called with the class lock held
+    private static void reload() {
+        Topology topology = SfcDataStoreAPI.readTransactionAPI(SfcOvsUtil.buildOvsdbTopologyIID(),
+                LogicalDatastoreType.OPERATIONAL);
+        Map<String, Node> managerNodesByIp = new HashMap<>();
+        Map<String, Bridge> bridgesByOpenflowNodeId = new HashMap<>();
+        if (topology == null || topology.getNode() == null) {
+            LOG.debug("reload: the OVSDB topology is empty");
+        } else {
+            topology.getNode().forEach(node -> indexNode(node, managerNodesByIp, bridgesByOpenflowNodeId));
+            LOG.debug("reload: indexed {} manager nodes and {} bridges", managerNodesByIp.size(),
+                    bridgesByOpenflowNodeId.size());
+        }
+        snapshot = new Snapshot(managerNodesByIp, bridgesByOpenflowNodeId);
+    }
+
+    private static void indexNode(Node node, Map<String, Node> managerNodesByIp,
+            Map<String, Bridge> bridgesByOpenflowNodeId) {
+        String ipAddress = getManagerIp(node);
+        if (ipAddress != null) {
+            managerNodesByIp.put(ipAddress, node);
+        }
+        String openflowNodeId = getOpenflowNodeId(node);
+        if (openflowNodeId != null) {
+            bridgesByOpenflowNodeId.put(openflowNodeId, new Bridge(node));
+        }
+    }
+
+    private static void unindexNode(Node node, Map<String, Node> managerNodesByIp,
+            Map<String, Bridge> bridgesByOpenflowNodeId) {
+        String ipAddress = getManagerIp(node);
+        if (ipAddress != null) {
+            managerNodesByIp.remove(ipAddress);
+        }
+        String openflowNodeId = getOpenflowNodeId(node);
+        if (openflowNodeId != null) {
+            bridgesByOpenflowNodeId.remove(openflowNodeId);
+        }
+    }
+
+    private static String getManagerIp(Node node) {
+        OvsdbNodeAugmentation ovsdbNodeAug = node.augmentation(OvsdbNodeAugmentation.class);
+        if (ovsdbNodeAug == null || ovsdbNodeAug.getConnectionInfo() == null) {
+            return null;
+        }
+        IpAddress connectionIp = ovsdbNodeAug.getConnectionInfo().getRemoteIp();
+        if (connectionIp == null) {
+            return null;
+        }
+        if (connectionIp.getIpv4Address() != null) {
+            return connectionIp.getIpv4Address().getValue();
+        }
+        return connectionIp.getIpv6Address() != null ? connectionIp.getIpv6Address().getValue() : null;
+    }
+
+    private static String getOpenflowNodeId(Node node) {
+        OvsdbBridgeAugmentation ovsdbBridgeAug = node.augmentation(OvsdbBridgeAugmentation.class);
+        if (ovsdbBridgeAug == null || ovsdbBridgeAug.getDatapathId() == null) {
+            return null;
+        }
+        return SfcOvsUtil.getOpenflowNodeIdFromDpid(ovsdbBridgeAug.getDatapathId().getValue());
+    }
+
+    /**
+     * An immutable copy of the index.
+     */
+    private static final class Snapshot {
+        private final Map<String, Node> managerNodesByIp;
+        private final Map<String, Bridge> bridgesByOpenflowNodeId;
+
+        Snapshot(Map<String, Node> managerNodesByIp, Map<String, Bridge> bridgesByOpenflowNodeId) {
+            this.managerNodesByIp = Collections.unmodifiableMap(managerNodesByIp);
+            this.bridgesByOpenflowNodeId = Collections.unmodifiableMap(bridgesByOpenflowNodeId);
+        }
+    }
+
+    /**
+     * An indexed bridge node along with its ports.
+     */
+    private static final class Bridge {
+        private final Node node;
+        private final List<OvsdbTerminationPointAugmentation> ports;
+        private final Map<String, OvsdbTerminationPointAugmentation> portsByName;
+
+        Bridge(Node node) {
+            this.node = node;
+            List<OvsdbTerminationPointAugmentation> bridgePorts = new ArrayList<>();
+            Map<String, OvsdbTerminationPointAugmentation> bridgePortsByName = new HashMap<>();
+            if (node.getTerminationPoint() != null) {
+                for (TerminationPoint tp : node.getTerminationPoint()) {
+                    OvsdbTerminationPointAugmentation otp = tp.augmentation(OvsdbTerminationPointAugmentation.class);
+                    if (otp == null) {
+                        continue;
+                    }
+                    bridgePorts.add(otp);
+                    if (otp.getName() != null) {
+                        bridgePortsByName.putIfAbsent(otp.getName(), otp);
+                    }
+                }
+            }
+            this.ports = Collections.unmodifiableList(bridgePorts);
+            this.portsByName = Collections.unmodifiableMap(bridgePortsByName);
+        }
+    }
+}
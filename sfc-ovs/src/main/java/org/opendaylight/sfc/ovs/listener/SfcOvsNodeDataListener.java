@@ -32,6 +32,7 @@ import org.opendaylight.controller.md.sal.binding.api.ReadTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.ovsdb.southbound.SouthboundConstants;
 import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.ovs.api.SfcOvsTopologyIndex;
 import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.ovs.rev140701.SffOvsBridgeAugmentation;
@@ -69,6 +70,7 @@ public class SfcOvsNodeDataListener extends AbstractSyncDataTreeChangeListener<N
     @Override
     public void add(@Nonnull InstanceIdentifier<Node> instanceIdentifier, @Nonnull Node node) {
         LOG.debug("Created OVS Node: {}", node.toString());
+        SfcOvsTopologyIndex.updateNode(null, node);
 
         /*
          * NODE CREATION When user puts SFF into config DS, reading from
@@ -108,6 +110,8 @@ public class SfcOvsNodeDataListener extends AbstractSyncDataTreeChangeListener<N
 
     @Override
     public void remove(@Nonnull InstanceIdentifier<Node> instanceIdentifier, @Nonnull Node node) {
+        SfcOvsTopologyIndex.removeNode(node);
+
         /*
          * NODE UPDATE and NODE DELETE This case would mean, that user has
          * modified vSwitch state directly by ovs command, which is not handled
@@ -126,6 +130,7 @@ public class SfcOvsNodeDataListener extends AbstractSyncDataTreeChangeListener<N
 
         /* When a new bridge is modified, and the DPID is set, add it to the corresponding SFF, if there is one */
         LOG.debug("SfcOvsNodeDataListener::update()");
+        SfcOvsTopologyIndex.updateNode(originalNode, updatedNode);
         OvsdbBridgeAugmentation ovsdbBridgeAugmentation = updatedNode.augmentation(OvsdbBridgeAugmentation.class);
         if (ovsdbBridgeAugmentation != null) {
             if (ovsdbBridgeAugmentation.getBridgeName() != null && ovsdbBridgeAugmentation.getDatapathId() != null) {
@@ -22,6 +22,7 @@ import java.util.List;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.ovsdb.southbound.SouthboundConstants;
 import org.opendaylight.sfc.ovs.api.SfcOvsDataStoreAPI;
+import org.opendaylight.sfc.ovs.api.SfcOvsTopologyIndex;
 import org.opendaylight.sfc.ovs.api.SfcSffToOvsMappingAPI;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.ovs.rev140701.SffOvsBridgeAugmentation;
@@ -594,37 +595,9 @@ public final class SfcOvsUtil {
             return null;
         }
 
-        InstanceIdentifier<Topology> topoIID = buildOvsdbTopologyIID();
-        Topology topo = SfcDataStoreAPI.readTransactionAPI(topoIID, LogicalDatastoreType.OPERATIONAL);
-
-        if (topo == null) {
-            return null;
-        }
-
-        List<Node> nodes = topo.getNode();
-        if (nodes == null) {
-            return null;
-        }
-
-        for (Node node : nodes) {
-            OvsdbBridgeAugmentation ovsdbBridgeAugmentation = node.augmentation(OvsdbBridgeAugmentation.class);
-            List<TerminationPoint> tpList = node.getTerminationPoint();
-
-            if (ovsdbBridgeAugmentation == null || tpList == null) {
-                continue;
-            }
-
-            String ofNodeId = getOpenflowNodeIdFromDpid(ovsdbBridgeAugmentation.getDatapathId().getValue());
-            if (nodeName.equals(ofNodeId)) {
-                for (TerminationPoint tp : tpList) {
-                    OvsdbTerminationPointAugmentation otp = tp.augmentation(OvsdbTerminationPointAugmentation.class);
-                    if (comp.compare(otp) && otp.getOfport() != null) {
-                        return otp.getOfport();
-                    }
-                }
-            }
-        }
-        return null;
+        OvsdbTerminationPointAugmentation otp = SfcOvsTopologyIndex.findPort(nodeName,
+                port -> comp.compare(port) && port.getOfport() != null);
+        return otp == null ? null : otp.getOfport();
     }
 
     /**
@@ -637,13 +610,12 @@ public final class SfcOvsUtil {
      * @return port number
      */
     public static Long getOfPortByName(String nodeName, String portName) {
-        return getOvsPort(nodeName, otp -> {
-            if (otp == null) {
-                return false;
-            }
+        if (nodeName == null || portName == null) {
+            return null;
+        }
 
-            return portName.equals(otp.getName());
-        });
+        OvsdbTerminationPointAugmentation otp = SfcOvsTopologyIndex.getPortByName(nodeName, portName);
+        return otp == null ? null : otp.getOfport();
     }
 
     /**
@@ -732,42 +704,24 @@ public final class SfcOvsUtil {
             localDpdkPortName = "dpdk0";
         }
 
-        InstanceIdentifier<Topology> topoIID = buildOvsdbTopologyIID();
-
-        Topology topo = SfcDataStoreAPI.readTransactionAPI(topoIID, LogicalDatastoreType.OPERATIONAL);
-        if (topo == null) {
+        Node node = SfcOvsTopologyIndex.getBridgeNodeByOpenflowNodeId(nodeName);
+        if (node == null) {
             return null;
         }
 
-        List<Node> nodes = topo.getNode();
-
-        if (nodes == null) {
+        OvsdbBridgeAugmentation ovsdbBridgeAugmentation = node.augmentation(OvsdbBridgeAugmentation.class);
+        if (!DatapathTypeNetdev.class.equals(ovsdbBridgeAugmentation.getDatapathType())
+                || node.getTerminationPoint() == null) {
             return null;
         }
 
-        for (Node node : nodes) {
-            OvsdbBridgeAugmentation ovsdbBridgeAugmentation = node.augmentation(OvsdbBridgeAugmentation.class);
-            if (ovsdbBridgeAugmentation == null) {
-                continue;
-            }
-
-            String ofNodeId = getOpenflowNodeIdFromDpid(ovsdbBridgeAugmentation.getDatapathId().getValue());
-            if (nodeName.equals(ofNodeId)) {
-                if (!ovsdbBridgeAugmentation.getDatapathType().equals(DatapathTypeNetdev.class)) {
-                    break;
-                }
-
-                List<TerminationPoint> tpList = node.getTerminationPoint();
-                for (TerminationPoint tp : tpList) {
-                    if (tp.getTpId().getValue().equals(localDpdkPortName)) {
-                        OvsdbTerminationPointAugmentation otp = tp
-                                .augmentation(OvsdbTerminationPointAugmentation.class);
-                        if (otp != null && otp.getInterfaceType().equals(InterfaceTypeDpdk.class)) {
-                            dpdkOfPort = otp.getOfport();
-                        }
-                        break;
-                    }
+        for (TerminationPoint tp : node.getTerminationPoint()) {
+            if (tp.getTpId().getValue().equals(localDpdkPortName)) {
+                OvsdbTerminationPointAugmentation otp = tp.augmentation(OvsdbTerminationPointAugmentation.class);
+                if (otp != null && otp.getInterfaceType().equals(InterfaceTypeDpdk.class)) {
+                    dpdkOfPort = otp.getOfport();
                 }
+                break;
             }
         }
         return dpdkOfPort;
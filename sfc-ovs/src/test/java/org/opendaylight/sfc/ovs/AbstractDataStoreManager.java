@@ -19,6 +19,7 @@ import java.util.concurrent.Executors;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.test.AbstractConcurrentDataBrokerTest;
 import org.opendaylight.mdsal.binding.spec.reflect.BindingReflections;
+import org.opendaylight.sfc.ovs.api.SfcOvsTopologyIndex;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
 import org.opendaylight.sfc.provider.api.SfcInstanceIdentifiers;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.service.path.ids.ServicePathId;
@@ -52,6 +53,8 @@ public class AbstractDataStoreManager extends AbstractConcurrentDataBrokerTest {
     protected void setupSfc() {
         dataBroker = getDataBroker();
         SfcDataStoreAPI.setDataProviderAux(dataBroker);
+        // the OVSDB topology index was loaded from the previous data broker
+        SfcOvsTopologyIndex.clear();
         sfcIids = new SfcInstanceIdentifiers();
     }
 
@@ -77,6 +77,7 @@ public class SfcOvsDataStoreAPITest {
 
     @Before
     public void init() {
+        SfcOvsTopologyIndex.clear();
         PowerMockito.stub(PowerMockito.method(SfcDataStoreAPI.class, "writePutTransactionAPI")).toReturn(true);
         PowerMockito.stub(PowerMockito.method(SfcDataStoreAPI.class, "deleteTransactionAPI")).toReturn(true);
         PowerMockito.stub(PowerMockito.method(SfcDataStoreAPI.class, "writeMergeTransactionAPI")).toReturn(true);
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ovs.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.ovs.AbstractDataStoreManager;
+import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
+import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.DatapathId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.InterfaceTypeBase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.InterfaceTypeInternal;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.InterfaceTypeVxlan;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbBridgeAugmentation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbBridgeAugmentationBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbBridgeName;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbNodeAugmentation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbTerminationPointAugmentation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbTerminationPointAugmentationBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TpId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeKey;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.node.TerminationPoint;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.node.TerminationPointBuilder;
+
+public class SfcOvsTopologyIndexTest extends AbstractDataStoreManager {
+
+    private static final String MANAGER_IP = "10.0.0.1";
+    private static final String MANAGER_NODE_ID = "ovsdb://10.0.0.1:6640";
+    private static final String BRIDGE_NODE_ID = MANAGER_NODE_ID + "/bridge/br-sfc";
+    private static final String DPID = "00:00:00:00:00:00:00:01";
+    private static final String OPENFLOW_NODE_ID = "openflow:1";
+
+    @Before
+    public void before() {
+        setupSfc();
+    }
+
+    @Test
+    public void testLookupsLoadedFromDataStore() {
+        writeNode(createManagerNode());
+        writeNode(createBridgeNode(createPort("vxlan0", InterfaceTypeVxlan.class, 3L),
+                createPort("eth0", InterfaceTypeInternal.class, 4L)));
+
+        assertNotNull(SfcOvsDataStoreAPI.readOvsdbNodeByIp(MANAGER_IP));
+        assertEquals(BRIDGE_NODE_ID,
+                SfcOvsTopologyIndex.getBridgeNodeByOpenflowNodeId(OPENFLOW_NODE_ID).getNodeId().getValue());
+        assertEquals(Long.valueOf(4L), SfcOvsUtil.getOfPortByName(OPENFLOW_NODE_ID, "eth0"));
+        assertEquals(Long.valueOf(3L), SfcOvsUtil.getVxlanOfPort(OPENFLOW_NODE_ID));
+        assertNull(SfcOvsUtil.getVxlanGpeOfPort(OPENFLOW_NODE_ID));
+        assertNull(SfcOvsUtil.getOfPortByName("openflow:2", "eth0"));
+    }
+
+    @Test
+    public void testNodeUpdates() {
+        Node bridgeNode = createBridgeNode(createPort("eth0", InterfaceTypeInternal.class, 4L));
+        writeNode(bridgeNode);
+        assertEquals(Long.valueOf(4L), SfcOvsUtil.getOfPortByName(OPENFLOW_NODE_ID, "eth0"));
+
+        // ports added by a node update are found without reading the data store
+        Node updatedBridgeNode = createBridgeNode(createPort("eth0", InterfaceTypeInternal.class, 4L),
+                createPort("eth1", InterfaceTypeInternal.class, 5L));
+        SfcOvsTopologyIndex.updateNode(bridgeNode, updatedBridgeNode);
+        assertEquals(Long.valueOf(5L), SfcOvsUtil.getOfPortByName(OPENFLOW_NODE_ID, "eth1"));
+
+        SfcOvsTopologyIndex.removeNode(updatedBridgeNode);
+        assertTrue(SfcDataStoreAPI.deleteTransactionAPI(SfcOvsUtil.buildOvsdbNodeIID(new NodeId(BRIDGE_NODE_ID)),
+                LogicalDatastoreType.OPERATIONAL));
+        assertNull(SfcOvsUtil.getOfPortByName(OPENFLOW_NODE_ID, "eth0"));
+    }
+
+    @Test
+    public void testMissReloadsFromDataStore() {
+        assertNull(SfcOvsDataStoreAPI.readOvsdbNodeByIp(MANAGER_IP));
+
+        // not notified to the index, found by reloading it on the miss
+        writeNode(createManagerNode());
+        assertNotNull(SfcOvsDataStoreAPI.readOvsdbNodeByIp(MANAGER_IP));
+    }
+
+    @Test
+    public void testMissReloadIsRateLimited() throws InterruptedException {
+        assertNull(SfcOvsUtil.getOfPortByName(OPENFLOW_NODE_ID, "eth0"));
+        // this miss reloads the index
+        assertNull(SfcOvsDataStoreAPI.readOvsdbNodeByIp(MANAGER_IP));
+
+        // not notified to the index, and not reloaded again right away
+        writeNode(createManagerNode());
+        assertNull(SfcOvsDataStoreAPI.readOvsdbNodeByIp(MANAGER_IP));
+
+        TimeUnit.MILLISECONDS.sleep(SfcOvsTopologyIndex.MISS_RELOAD_INTERVAL_MILLIS);
+        assertNotNull(SfcOvsDataStoreAPI.readOvsdbNodeByIp(MANAGER_IP));
+    }
+
+    private static void writeNode(Node node) {
+        assertTrue(SfcDataStoreAPI.writePutTransactionAPI(SfcOvsUtil.buildOvsdbNodeIID(node.getNodeId()), node,
+                LogicalDatastoreType.OPERATIONAL));
+    }
+
+    private static Node createManagerNode() {
+        return new NodeBuilder().setNodeId(new NodeId(MANAGER_NODE_ID))
+                .withKey(new NodeKey(new NodeId(MANAGER_NODE_ID)))
+                .addAugmentation(OvsdbNodeAugmentation.class,
+                        SfcOvsDataStoreAPITest.createOvsdbNodeAugmentation(MANAGER_IP))
+                .build();
+    }
+
+    private static Node createBridgeNode(TerminationPoint... ports) {
+        OvsdbBridgeAugmentation ovsdbBridge = new OvsdbBridgeAugmentationBuilder()
+                .setBridgeName(new OvsdbBridgeName("br-sfc")).setDatapathId(new DatapathId(DPID)).build();
+        return new NodeBuilder().setNodeId(new NodeId(BRIDGE_NODE_ID))
+                .withKey(new NodeKey(new NodeId(BRIDGE_NODE_ID)))
+                .addAugmentation(OvsdbBridgeAugmentation.class, ovsdbBridge)
+                .setTerminationPoint(Arrays.asList(ports))
+                .build();
+    }
+
+    private static TerminationPoint createPort(String name, Class<? extends InterfaceTypeBase> interfaceType,
+            Long ofPort) {
+        OvsdbTerminationPointAugmentation otp = new OvsdbTerminationPointAugmentationBuilder().setName(name)
+                .setInterfaceType(interfaceType).setOfport(ofPort).build();
+        return new TerminationPointBuilder().setTpId(new TpId(name))
+                .addAugmentation(OvsdbTerminationPointAugmentation.class, otp).build();
+    }
+}
@@ -14,9 +14,12 @@ import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStop;
 import com.google.common.base.Optional;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
@@ -26,6 +29,7 @@ import org.opendaylight.infrautils.utils.concurrent.Executors;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
 import org.opendaylight.sfc.provider.api.SfcInstanceIdentifiers;
 import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
+import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathBatchAPI;
 import org.opendaylight.sfc.provider.api.SfcServicePathId;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.AllocatePathIdInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.AllocatePathIdOutput;
@@ -41,12 +45,17 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.SetGenerationAlgorithmOutputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathsInput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathsOutput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathsOutputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRenderedServicePathFirstHopInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRenderedServicePathFirstHopOutput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRenderedServicePathFirstHopOutputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePathService;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.TraceRenderedServicePathInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.TraceRenderedServicePathOutput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.create.rendered.paths.output.RenderedPathResult;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.path.first.hop.info.RenderedServicePathFirstHop;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.DeleteAllServiceFunctionInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.DeleteAllServiceFunctionOutput;
@@ -90,17 +99,28 @@ import org.slf4j.LoggerFactory;
  */
 
 public class SfcProviderRpc implements ServiceFunctionService, ServiceFunctionChainService, RenderedServicePathService,
-        ServicePathIdService {
+        ServicePathIdService, AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(SfcProviderRpc.class);
     private final DataBroker dataBroker;
     private final ScheduledExecutorService executor =
             Executors.newSingleThreadScheduledExecutor("SfcProviderRpc", LOG);
+    // Runs the create-rendered-paths requests, one batch at a time
+    private final ListeningExecutorService batchExecutor = MoreExecutors.listeningDecorator(executor);
+    // Schedules the RSPs of a create-rendered-paths request in parallel
+    private final ExecutorService renderExecutor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), "SfcProviderRpcRender", LOG);
 
     public SfcProviderRpc(DataBroker dataBroker) {
         this.dataBroker = dataBroker;
     }
 
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        renderExecutor.shutdownNow();
+    }
+
     // This RPC call is Deprecated Fluorine, and will be removed in Neon.
     // This same operation can be performed with a simple RESTconf DELETE.
     @Deprecated
@@ -254,6 +274,23 @@ public class SfcProviderRpc implements ServiceFunctionService, ServiceFunctionCh
         return Futures.immediateFuture(rpcResultBuilder.build());
     }
 
+    @Override
+    public ListenableFuture<RpcResult<CreateRenderedPathsOutput>> createRenderedPaths(
+            CreateRenderedPathsInput input) {
+        List<SfpName> sfpNames = input.getServiceFunctionPath() == null ? Collections.emptyList()
+                : input.getServiceFunctionPath();
+        LOG.info("createRenderedPaths: rendering {} SFPs", sfpNames.size());
+
+        // The batch is not run on the RPC thread, nor on the render executor
+        // which schedules its SFPs
+        return batchExecutor.submit(() -> {
+            List<RenderedPathResult> results = SfcProviderRenderedPathBatchAPI.createRenderedServicePaths(sfpNames,
+                    renderExecutor);
+            return RpcResultBuilder.success(new CreateRenderedPathsOutputBuilder().setRenderedPathResult(results)
+                    .build()).build();
+        });
+    }
+
     @Override
     public ListenableFuture<RpcResult<TraceRenderedServicePathOutput>> traceRenderedServicePath(
             TraceRenderedServicePathInput input) {
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.Actions1;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.access.lists.acl.access.list.entries.ace.actions.sfc.action.AclRenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.AccessLists;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.Acl;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.Ace;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * In memory reverse index of the ACLs by the RSPs their ACEs steer traffic
+ * to, so the ACLs of a RSP are found without reading and scanning all of
+ * them.
+ *
+ * <p>
+ * The index is loaded from the data store on first use and then kept up to
+ * date by the owner through {@link #updateAcl(Acl, Acl)}, normally from an
+ * ACL data tree change listener.
+ */
+public class SfcAclRspIndex {
+
+    private static final InstanceIdentifier<AccessLists> ACLS_IID = InstanceIdentifier.create(AccessLists.class);
+
+    // Guarded by itself, along with aclNamesByRspName and loaded
+    private final Map<String, Acl> aclsByName = new HashMap<>();
+    private final Map<String, Set<String>> aclNamesByRspName = new HashMap<>();
+    private boolean loaded = false;
+
+    /**
+     * Filter ACLs by RSP name.
+     *
+     * @param rspName
+     *            the name of the RSP
+     * @return the ACLs with at least one ACE steering traffic to the RSP
+     */
+    public List<Acl> filterAclsByRspName(RspName rspName) {
+        synchronized (aclsByName) {
+            if (!loaded) {
+                load();
+            }
+            return aclNamesByRspName.getOrDefault(rspName.getValue(), Collections.emptySet()).stream()
+                    .map(aclsByName::get).filter(Objects::nonNull).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Update the index with an added, updated or removed ACL.
+     *
+     * @param originalAcl
+     *            the ACL before the update, or null if added
+     * @param updatedAcl
+     *            the ACL after the update, or null if removed
+     */
+    public void updateAcl(Acl originalAcl, Acl updatedAcl) {
+        synchronized (aclsByName) {
+            // not loaded yet, the ACL will be read on load
+            if (!loaded) {
+                return;
+            }
+            if (originalAcl != null) {
+                unindex(originalAcl);
+            }
+            if (updatedAcl != null) {
+                index(updatedAcl);
+            }
+        }
+    }
+
+    /**
+     * Get the name of the RSP an ACE steers traffic to.
+     *
+     * @param ace
+     *            the ACE
+     * @return the RSP name, or null if the ACE does not steer traffic to a RSP
+     */
+    public static String getRenderedServicePathName(Ace ace) {
+        return Optional.ofNullable(ace.getActions())
+                .map(actions -> actions.augmentation(Actions1.class))
+                .map(Actions1::getSfcAction)
+                .filter(AclRenderedServicePath.class::isInstance)
+                .map(sfcAction -> ((AclRenderedServicePath) sfcAction).getRenderedServicePath())
+                .orElse(null);
+    }
+
+    private void load() {
+        aclsByName.clear();
+        aclNamesByRspName.clear();
+        Optional.ofNullable(SfcDataStoreAPI.readTransactionAPI(ACLS_IID, LogicalDatastoreType.CONFIGURATION))
+                .map(AccessLists::getAcl).orElse(Collections.emptyList()).forEach(this::index);
+        loaded = true;
+    }
+
+    private void index(Acl acl) {
+        aclsByName.put(acl.getAclName(), acl);
+        getRspNames(acl).forEach(rspName -> aclNamesByRspName.computeIfAbsent(rspName, name -> new HashSet<>())
+                .add(acl.getAclName()));
+    }
+
+    private void unindex(Acl acl) {
+        aclsByName.remove(acl.getAclName());
+        getRspNames(acl).forEach(rspName -> {
+            Set<String> aclNames = aclNamesByRspName.get(rspName);
+            if (aclNames != null) {
+                aclNames.remove(acl.getAclName());
+                if (aclNames.isEmpty()) {
+                    aclNamesByRspName.remove(rspName);
+                }
+            }
+        });
+    }
+
+    // The names of the RSPs the ACEs of an ACL steer traffic to
+    private static Set<String> getRspNames(Acl acl) {
+        if (acl.getAccessListEntries() == null || acl.getAccessListEntries().getAce() == null) {
+            return Collections.emptySet();
+        }
+        return acl.getAccessListEntries().getAce().stream().map(SfcAclRspIndex::getRenderedServicePathName)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+}
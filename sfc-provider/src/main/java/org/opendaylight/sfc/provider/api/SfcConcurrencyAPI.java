@@ -8,58 +8,86 @@
 
 package org.opendaylight.sfc.provider.api;
 
+import com.google.common.util.concurrent.Striped;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * This class holds SFC Concurrency high level APIs.
  *
+ * <p>
+ * Locks are striped by resource key, such as a SFP or a SFF name, so that
+ * operations on unrelated resources do not contend with each other. The
+ * time spent waiting for the locks and the number of lock timeouts are
+ * recorded. The path-ids are allocated atomically by the in-memory path-id
+ * bitarray, which needs no lock from this class.
+ *
  * @author Reinaldo Penno (rapenno@gmail.com)
  * @version 0.1
  * @since 2015-06-23
  */
 
 public final class SfcConcurrencyAPI {
-    private static final Lock SFC_LOCK = new ReentrantLock();
-    private static final Lock SFC_PATHID_LOCK = new ReentrantLock();
+    private static final long LOCK_TIMEOUT_MS = 2000;
+    private static final int NUM_LOCK_STRIPES = 256;
+
+    private static final Striped<Lock> SFC_LOCKS = Striped.lock(NUM_LOCK_STRIPES);
+
+    private static final LongAdder LOCK_ACQUISITIONS = new LongAdder();
+    private static final LongAdder LOCK_TIMEOUTS = new LongAdder();
+    private static final LongAdder LOCK_WAIT_TIME_NANOS = new LongAdder();
 
     private static final Logger LOG = LoggerFactory.getLogger(SfcConcurrencyAPI.class);
 
     private SfcConcurrencyAPI() {
     }
 
-    public static boolean getLock() {
-        try {
-            if (SFC_LOCK.tryLock(2000, TimeUnit.MILLISECONDS)) {
-                return true;
-            }
-        } catch (InterruptedException e) {
-            LOG.error("Failed to Acquire Lock");
-            Thread.currentThread().interrupt();
-        }
-        return false;
+    /**
+     * Acquire the lock of a resource. Resources whose keys fall in the same
+     * stripe share the same lock.
+     *
+     * @param resourceKey
+     *            the resource key, e.g. a SFP or SFF name
+     * @return true if acquired, false if it timed out
+     */
+    public static boolean getLock(Object resourceKey) {
+        return tryLock(SFC_LOCKS.get(resourceKey), resourceKey);
+    }
+
+    public static void releaseLock(Object resourceKey) {
+        SFC_LOCKS.get(resourceKey).unlock();
+    }
+
+    public static long getLockAcquisitions() {
+        return LOCK_ACQUISITIONS.sum();
     }
 
-    public static void releaseLock() {
-        SFC_LOCK.unlock();
+    public static long getLockTimeouts() {
+        return LOCK_TIMEOUTS.sum();
     }
 
-    public static boolean getPathIdLock() {
+    public static long getLockWaitTimeNanos() {
+        return LOCK_WAIT_TIME_NANOS.sum();
+    }
+
+    private static boolean tryLock(Lock lock, Object resourceKey) {
+        long start = System.nanoTime();
         try {
-            if (SFC_PATHID_LOCK.tryLock(2000, TimeUnit.MILLISECONDS)) {
+            if (lock.tryLock(LOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                LOCK_ACQUISITIONS.increment();
                 return true;
             }
+            LOCK_TIMEOUTS.increment();
+            LOG.warn("Timed out acquiring the lock of {}", resourceKey);
         } catch (InterruptedException e) {
             LOG.error("Failed to Acquire Lock");
             Thread.currentThread().interrupt();
+        } finally {
+            LOCK_WAIT_TIME_NANOS.add(System.nanoTime() - start);
         }
         return false;
     }
-
-    public static void releasePathIdLock() {
-        SFC_PATHID_LOCK.unlock();
-    }
 }
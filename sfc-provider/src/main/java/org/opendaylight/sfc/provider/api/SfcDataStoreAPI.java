@@ -10,10 +10,14 @@ package org.opendaylight.sfc.provider.api;
 
 import com.google.common.base.Optional;
 import com.google.common.util.concurrent.FluentFuture;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
@@ -21,6 +25,7 @@ import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.mdsal.common.api.CommitInfo;
+import org.opendaylight.yangtools.yang.binding.DataObject;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,12 +35,18 @@ import org.slf4j.LoggerFactory;
  * callbacks automatically.
  *
  * <p>
+ * Besides the blocking helpers, the asynchronous variants return futures that
+ * can be chained, and {@link ReadBatch} issues several reads at once on a
+ * single read-only transaction, so that independent reads overlap instead of
+ * paying one data store round trip each.
+ *
+ * <p>
  *
  * @author Reinaldo Penno (rapenno@gmail.com)
  * @version 0.1
  * @since 2014-11-22
  */
-public final class SfcDataStoreAPI {
+public final class SfcDataStoreAPI implements AutoCloseable {
     private static DataBroker dataBroker = null;
     private static final Logger LOG = LoggerFactory.getLogger(SfcDataStoreAPI.class);
 
@@ -46,12 +57,23 @@ public final class SfcDataStoreAPI {
         SfcDataStoreAPI.dataBroker = broker;
     }
 
+    // blueprint destroy method, the caches written behind to the data store
+    // are persisted before the data broker goes away
+    @Override
+    public void close() {
+        SfcServicePathId.close();
+    }
+
     // Auxiliary static setter just for testing, because in UT we can't use
     // blueprint, so the injection should be manual
     public static void setDataProviderAux(DataBroker broker) {
         SfcDataStoreAPI.dataBroker = broker;
     }
 
+    static DataBroker getDataBroker() {
+        return SfcDataStoreAPI.dataBroker;
+    }
+
     public static <U extends org.opendaylight.yangtools.yang.binding.DataObject> boolean deleteTransactionAPI(
             InstanceIdentifier<U> deleteIID, LogicalDatastoreType logicalDatastoreType) {
         if (dataBroker == null) {
@@ -164,4 +186,86 @@ public final class SfcDataStoreAPI {
 
         return readTx.read(logicalDatastoreType, readIID);
     }
+
+    /**
+     * Start a batch of reads sharing a single read-only transaction.
+     *
+     * @return the read batch, to be closed once all its reads are issued
+     */
+    public static ReadBatch newReadBatch() {
+        return new ReadBatch(dataBroker.newReadOnlyTransaction());
+    }
+
+    /**
+     * Wait for the result of an asynchronous read or write.
+     *
+     * @param future
+     *            the future result
+     * @param <T>
+     *            the result type
+     * @return the result, or null if the read or write failed
+     */
+    public static <T> T getResult(ListenableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.warn("getResult: read or write failed", e);
+            return null;
+        }
+    }
+
+    /**
+     * Commit a transaction without waiting for it to complete.
+     *
+     * @param writeTx
+     *            the transaction to commit
+     * @return the future commit result, true if committed, false otherwise;
+     *         never fails
+     */
+    public static ListenableFuture<Boolean> commitTransactionAsyncAPI(WriteTransaction writeTx) {
+        ListenableFuture<Boolean> committed = Futures.transform(writeTx.commit(), commitInfo -> Boolean.TRUE,
+            MoreExecutors.directExecutor());
+        return Futures.catching(committed, Exception.class, e -> {
+            LOG.error("commitTransactionAsyncAPI: Transaction failed", e);
+            return Boolean.FALSE;
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * A batch of reads sharing a single read-only transaction. Reads are
+     * issued as soon as requested and all overlap; the transaction is closed
+     * once the batch is closed and all its reads have completed.
+     */
+    public static final class ReadBatch implements AutoCloseable {
+        private final ReadOnlyTransaction readTx;
+        private final List<ListenableFuture<?>> reads = new ArrayList<>();
+
+        private ReadBatch(ReadOnlyTransaction readTx) {
+            this.readTx = readTx;
+        }
+
+        /**
+         * Issue a read as part of this batch.
+         *
+         * @param readIID
+         *            the instance identifier to read
+         * @param logicalDatastoreType
+         *            the data store to read from
+         * @param <U>
+         *            the data object type
+         * @return the future data object, holding null if not found
+         */
+        public <U extends DataObject> ListenableFuture<U> read(InstanceIdentifier<U> readIID,
+                LogicalDatastoreType logicalDatastoreType) {
+            ListenableFuture<U> read = Futures.transform(readTx.read(logicalDatastoreType, readIID),
+                Optional::orNull, MoreExecutors.directExecutor());
+            reads.add(read);
+            return read;
+        }
+
+        @Override
+        public void close() {
+            Futures.whenAllComplete(reads).run(readTx::close, MoreExecutors.directExecutor());
+        }
+    }
 }
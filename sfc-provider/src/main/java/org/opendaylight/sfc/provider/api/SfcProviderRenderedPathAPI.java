@@ -13,17 +13,26 @@ import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStop;
 
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nullable;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfcName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffDataPlaneLocatorName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePaths;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.path.first.hop.info.RenderedServicePathFirstHop;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.path.first.hop.info.RenderedServicePathFirstHopBuilder;
@@ -40,6 +49,7 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev1407
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfg.rev150214.service.function.groups.ServiceFunctionGroup;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.state.service.function.path.state.SfpRenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Nsh;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Transport;
@@ -82,10 +92,20 @@ public final class SfcProviderRenderedPathAPI {
     private static final Supplier<SfcServiceFunctionSchedulerAPI> DEFAULT_SCHEDULER_SUPPLIER =
             Suppliers.memoize(SfcProviderRenderedPathAPI::getDefaultServiceFunctionScheduler);
 
+    // SFPs rendered, or being rendered, by this instance
+    private static final Set<SfpName> CLAIMED_SFPS = ConcurrentHashMap.newKeySet();
+
     private SfcProviderRenderedPathAPI() {
     }
 
-    private static SfcServiceFunctionSchedulerAPI getServiceFunctionScheduler(
+    /**
+     * Get a new service function scheduler of the given type.
+     *
+     * @param serviceFunctionSchedulerType
+     *            the scheduler type, random if unknown
+     * @return the scheduler
+     */
+    public static SfcServiceFunctionSchedulerAPI getServiceFunctionScheduler(
             Class<? extends ServiceFunctionSchedulerTypeIdentity> serviceFunctionSchedulerType) {
         SfcServiceFunctionSchedulerAPI scheduler;
 
@@ -105,6 +125,39 @@ public final class SfcProviderRenderedPathAPI {
         return scheduler;
     }
 
+    static SfcServiceFunctionSchedulerAPI getDefaultScheduler() {
+        return DEFAULT_SCHEDULER_SUPPLIER.get();
+    }
+
+    /**
+     * Claim the rendering of a SFP. The claim fails if the SFP was already
+     * claimed or if it has already been rendered. This prevents a SFP from
+     * being rendered twice when it is both added and explicitly rendered
+     * through the create-rendered-paths RPC.
+     *
+     * @param sfpName
+     *            the SFP name
+     * @return true if the SFP was claimed, false otherwise
+     */
+    public static boolean claimServiceFunctionPath(SfpName sfpName) {
+        if (!CLAIMED_SFPS.add(sfpName)) {
+            return false;
+        }
+        List<SfpRenderedServicePath> sfpRenderedServicePaths = SfcProviderServicePathAPI.readServicePathState(sfpName);
+        return sfpRenderedServicePaths == null || sfpRenderedServicePaths.isEmpty();
+    }
+
+    /**
+     * Release the claim of a SFP, either because it could not be rendered or
+     * because it was deleted.
+     *
+     * @param sfpName
+     *            the SFP name
+     */
+    public static void releaseServiceFunctionPath(SfpName sfpName) {
+        CLAIMED_SFPS.remove(sfpName);
+    }
+
     private static SfcServiceFunctionSchedulerAPI getDefaultServiceFunctionScheduler() {
         Class<? extends ServiceFunctionSchedulerTypeIdentity> serviceFunctionSchedulerType;
         serviceFunctionSchedulerType = SfcProviderScheduleTypeAPI.readEnabledServiceFunctionScheduleTypeEntry();
@@ -178,37 +231,56 @@ public final class SfcProviderRenderedPathAPI {
      */
     public static boolean createRenderedServicePathState(ServiceFunctionPath createdServiceFunctionPath,
             RenderedServicePath renderedServicePath) {
+        return awaitRenderedServicePathState(createdServiceFunctionPath, renderedServicePath,
+                addRenderedServicePathState(createdServiceFunctionPath, renderedServicePath));
+    }
 
-        // Add Path name to SFF operational state
-        if (!SfcProviderServiceForwarderAPI.addPathToServiceForwarderState(renderedServicePath)) {
-            LOG.error("Failed to add RSP to SFF state {}", renderedServicePath.getName());
-            SfcProviderRenderedPathAPI.deleteRenderedServicePath(renderedServicePath.getName());
-
-            return false;
-        }
-
-        // Add Path to SF operational state
-        if (!SfcProviderServiceFunctionAPI.addPathToServiceFunctionState(renderedServicePath)) {
-            LOG.error("Failed to add RSP to SF state {}", renderedServicePath.getName());
-            SfcProviderServiceForwarderAPI.deletePathFromServiceForwarderState(createdServiceFunctionPath);
-            SfcProviderRenderedPathAPI.deleteRenderedServicePath(renderedServicePath.getName());
-
-            return false;
-        }
-
-        // Add RSP to SFP operational state
-        if (!SfcProviderServicePathAPI.addRenderedPathToServicePathState(
-                createdServiceFunctionPath.getName(), renderedServicePath.getName())) {
-            LOG.error("Failed to add RSP to SFP state {}", renderedServicePath.getName());
-            SfcProviderServiceFunctionAPI
-                    .deleteServicePathFromServiceFunctionState(createdServiceFunctionPath.getName());
-            SfcProviderServiceForwarderAPI.deletePathFromServiceForwarderState(createdServiceFunctionPath);
-            SfcProviderRenderedPathAPI.deleteRenderedServicePath(renderedServicePath.getName());
+    /**
+     * Add the RSP to the SFF, SF and SFP operational states. The three writes
+     * are issued at once and overlap.
+     *
+     * @param serviceFunctionPath
+     *            the SFP of the RSP
+     * @param renderedServicePath
+     *            the RSP
+     * @return the future results of the writes
+     */
+    private static List<ListenableFuture<Boolean>> addRenderedServicePathState(
+            ServiceFunctionPath serviceFunctionPath, RenderedServicePath renderedServicePath) {
+        List<ListenableFuture<Boolean>> stateWrites = new ArrayList<>();
+        stateWrites.add(SfcProviderServiceForwarderAPI.addPathToServiceForwarderStateAsync(renderedServicePath));
+        stateWrites.add(SfcProviderServiceFunctionAPI.addPathToServiceFunctionStateAsync(renderedServicePath));
+        stateWrites.add(SfcProviderServicePathAPI.addRenderedPathToServicePathStateAsync(
+                serviceFunctionPath.getName(), renderedServicePath.getName()));
+        return stateWrites;
+    }
 
-            return false;
+    /**
+     * Wait for the writes of a RSP and its state, rolling all of them back if
+     * any failed.
+     *
+     * @param serviceFunctionPath
+     *            the SFP of the RSP
+     * @param renderedServicePath
+     *            the RSP
+     * @param writes
+     *            the future results of the writes
+     * @return true if all the writes succeeded, false otherwise
+     */
+    private static boolean awaitRenderedServicePathState(ServiceFunctionPath serviceFunctionPath,
+            RenderedServicePath renderedServicePath, List<ListenableFuture<Boolean>> writes) {
+        List<Boolean> results = SfcDataStoreAPI.getResult(Futures.allAsList(writes));
+        if (results != null && !results.contains(Boolean.FALSE)) {
+            return true;
         }
 
-        return true;
+        LOG.error("Failed to add RSP {} to SFF, SF or SFP state", renderedServicePath.getName());
+        SfcProviderServiceFunctionAPI.deleteServicePathFromServiceFunctionState(serviceFunctionPath.getName());
+        SfcProviderServiceForwarderAPI.deletePathFromServiceForwarderState(serviceFunctionPath);
+        SfcProviderServicePathAPI.deleteRenderedPathFromServicePathState(serviceFunctionPath.getName(),
+                renderedServicePath.getName());
+        SfcProviderRenderedPathAPI.deleteRenderedServicePath(renderedServicePath.getName());
+        return false;
     }
 
     /**
@@ -228,14 +300,8 @@ public final class SfcProviderRenderedPathAPI {
             ServiceFunctionPath createdServiceFunctionPath, RenderedServicePath createdRenderedServicePath) {
 
         // Create the Operational RSP based on the Config RSP
-        RenderedServicePathBuilder renderedServicePathBuilder =
-                new RenderedServicePathBuilder(createdRenderedServicePath);
-
-        // These are the config false RSP attributes, that can only be written in the RSP Operational data store
-        renderedServicePathBuilder.setContextMetadata(createdServiceFunctionPath.getContextMetadata());
-        renderedServicePathBuilder.setVariableMetadata(createdServiceFunctionPath.getVariableMetadata());
-
-        RenderedServicePath renderedServicePath = renderedServicePathBuilder.build();
+        RenderedServicePath renderedServicePath = buildOperationalRenderedServicePath(createdServiceFunctionPath,
+                createdRenderedServicePath);
 
         if (renderedServicePath == null) {
             LOG.error("Could not create RSP in operational for config RSP {}",
@@ -243,18 +309,39 @@ public final class SfcProviderRenderedPathAPI {
             return null;
         }
 
-        if (!writeRenderedServicePath(renderedServicePath, LogicalDatastoreType.OPERATIONAL)) {
-            return null;
-        }
-
-        if (!createRenderedServicePathState(createdServiceFunctionPath, renderedServicePath)) {
-            // If createRenderedServicePathState() returns false, the RSP was deleted therein
+        // The operational RSP and its state are written at once
+        List<ListenableFuture<Boolean>> writes = addRenderedServicePathState(createdServiceFunctionPath,
+                renderedServicePath);
+        writes.add(writeRenderedServicePathAsync(renderedServicePath, LogicalDatastoreType.OPERATIONAL));
+        if (!awaitRenderedServicePathState(createdServiceFunctionPath, renderedServicePath, writes)) {
+            // All the writes were rolled back
             return null;
         }
 
         return renderedServicePath;
     }
 
+    /**
+     * Build the operational RSP out of the config RSP.
+     *
+     * @param serviceFunctionPath
+     *            the SFP of the RSP
+     * @param configRenderedServicePath
+     *            the config RSP
+     * @return the operational RSP
+     */
+    static RenderedServicePath buildOperationalRenderedServicePath(ServiceFunctionPath serviceFunctionPath,
+            RenderedServicePath configRenderedServicePath) {
+        RenderedServicePathBuilder renderedServicePathBuilder =
+                new RenderedServicePathBuilder(configRenderedServicePath);
+
+        // These are the config false RSP attributes, that can only be written in the RSP Operational data store
+        renderedServicePathBuilder.setContextMetadata(serviceFunctionPath.getContextMetadata());
+        renderedServicePathBuilder.setVariableMetadata(serviceFunctionPath.getVariableMetadata());
+
+        return renderedServicePathBuilder.build();
+    }
+
     /**
      * Creates a symmetric RSP in the configuration data store. This
      * will be called when an SFP has been created.
@@ -347,15 +434,38 @@ public final class SfcProviderRenderedPathAPI {
             }
 
         } else {
-            for (SfName serviceFunctionName : serviceFunctionNameList) {
-                ServiceFunction serviceFunction = SfcProviderServiceFunctionAPI
-                        .readServiceFunction(serviceFunctionName);
+            // Read all the SFs at once, then all their SFFs at once
+            List<ListenableFuture<ServiceFunction>> sfReads = new ArrayList<>();
+            try (SfcDataStoreAPI.ReadBatch readBatch = SfcDataStoreAPI.newReadBatch()) {
+                for (SfName serviceFunctionName : serviceFunctionNameList) {
+                    sfReads.add(SfcProviderServiceFunctionAPI.readServiceFunction(serviceFunctionName, readBatch));
+                }
+            }
+            List<ServiceFunction> serviceFunctions = new ArrayList<>();
+            for (int i = 0; i < serviceFunctionNameList.size(); i++) {
+                ServiceFunction serviceFunction = SfcDataStoreAPI.getResult(sfReads.get(i));
                 if (serviceFunction == null) {
-                    LOG.error("Could not find suitable SF in data store by name: {}", serviceFunctionName);
+                    LOG.error("Could not find suitable SF in data store by name: {}",
+                            serviceFunctionNameList.get(i));
                     return null;
                 }
-                createSFHopBuilder(serviceIndex, renderedServicePathHopBuilder, posIndex, serviceFunctionName,
-                        serviceFunction);
+                serviceFunctions.add(serviceFunction);
+            }
+
+            Map<SffName, ListenableFuture<ServiceFunctionForwarder>> sffReads = new HashMap<>();
+            try (SfcDataStoreAPI.ReadBatch readBatch = SfcDataStoreAPI.newReadBatch()) {
+                for (ServiceFunction serviceFunction : serviceFunctions) {
+                    sffReads.computeIfAbsent(getServiceFunctionForwarderName(serviceFunction),
+                        sffName -> SfcProviderServiceForwarderAPI.readServiceFunctionForwarder(sffName, readBatch));
+                }
+            }
+
+            for (int i = 0; i < serviceFunctions.size(); i++) {
+                ServiceFunction serviceFunction = serviceFunctions.get(i);
+                ServiceFunctionForwarder serviceFunctionForwarder = SfcDataStoreAPI.getResult(
+                        sffReads.get(getServiceFunctionForwarderName(serviceFunction)));
+                createSFHopBuilder(serviceIndex, renderedServicePathHopBuilder, posIndex,
+                        serviceFunctionNameList.get(i), serviceFunction, serviceFunctionForwarder);
                 renderedServicePathHopArrayList.add(posIndex, renderedServicePathHopBuilder.build());
                 serviceIndex--;
                 posIndex++;
@@ -367,26 +477,31 @@ public final class SfcProviderRenderedPathAPI {
 
     private static void createSFHopBuilder(int serviceIndex,
             RenderedServicePathHopBuilder renderedServicePathHopBuilder, short posIndex, SfName serviceFunctionName,
-            ServiceFunction serviceFunction) {
-        createHopBuilderInternal(serviceIndex, renderedServicePathHopBuilder, posIndex, serviceFunction);
+            ServiceFunction serviceFunction, ServiceFunctionForwarder serviceFunctionForwarder) {
+        createHopBuilderInternal(serviceIndex, renderedServicePathHopBuilder, posIndex, serviceFunction,
+                serviceFunctionForwarder);
         renderedServicePathHopBuilder.setServiceFunctionName(serviceFunctionName);
     }
 
     private static void createSFGHopBuilder(int serviceIndex,
             RenderedServicePathHopBuilder renderedServicePathHopBuilder, short posIndex,
             String serviceFunctionGroupName, ServiceFunction serviceFunction) {
-        createHopBuilderInternal(serviceIndex, renderedServicePathHopBuilder, posIndex, serviceFunction);
+        ServiceFunctionForwarder serviceFunctionForwarder = SfcProviderServiceForwarderAPI
+                .readServiceFunctionForwarder(getServiceFunctionForwarderName(serviceFunction));
+        createHopBuilderInternal(serviceIndex, renderedServicePathHopBuilder, posIndex, serviceFunction,
+                serviceFunctionForwarder);
         renderedServicePathHopBuilder.setServiceFunctionGroupName(serviceFunctionGroupName);
     }
 
+    private static SffName getServiceFunctionForwarderName(ServiceFunction serviceFunction) {
+        return serviceFunction.getSfDataPlaneLocator().get(0).getServiceFunctionForwarder();
+    }
+
     private static void createHopBuilderInternal(int serviceIndex,
             RenderedServicePathHopBuilder renderedServicePathHopBuilder, short posIndex,
-            ServiceFunction serviceFunction) {
-        SffName serviceFunctionForwarderName = serviceFunction.getSfDataPlaneLocator().get(0)
-                .getServiceFunctionForwarder();
+            ServiceFunction serviceFunction, ServiceFunctionForwarder serviceFunctionForwarder) {
+        SffName serviceFunctionForwarderName = getServiceFunctionForwarderName(serviceFunction);
 
-        ServiceFunctionForwarder serviceFunctionForwarder = SfcProviderServiceForwarderAPI
-                .readServiceFunctionForwarder(serviceFunctionForwarderName);
         if (serviceFunctionForwarder != null && serviceFunctionForwarder.getSffDataPlaneLocator() != null) {
             if (serviceFunctionForwarder.getSffDataPlaneLocator().size() == 1) {
                 renderedServicePathHopBuilder.setServiceFunctionForwarderLocator(
@@ -426,15 +541,68 @@ public final class SfcProviderRenderedPathAPI {
 
         long pathId;
 
-        ServiceFunctionChain serviceFunctionChain;
+        ServiceFunctionChain serviceFunctionChain = readServiceFunctionChain(serviceFunctionPath);
+        if (serviceFunctionChain == null) {
+            return null;
+        }
+
+        List<RenderedServicePathHop> renderedServicePathHopArrayList = scheduleRenderedServicePathHops(
+                serviceFunctionPath, serviceFunctionChain, scheduler, null);
+        if (renderedServicePathHopArrayList == null) {
+            return null;
+        }
+
+        // Build the service function path so it can be committed to datastore
+        /*
+         * pathId = (serviceFunctionPath.getPathId() != null) ?
+         * serviceFunctionPath.getPathId() : numCreatedPathIncrementGet();
+         */
+
+        pathId = allocatePathId(serviceFunctionPath);
+        if (pathId == -1) {
+            LOG.error("{}: Failed to allocate path-id: {}", Thread.currentThread().getStackTrace()[1], pathId);
+            return null;
+        }
+
+        return buildRenderedServicePath(serviceFunctionPath, renderedServicePathHopArrayList, rspName, pathId);
+    }
+
+    /**
+     * Read the SFC of a SFP.
+     *
+     * @param serviceFunctionPath
+     *            the SFP
+     * @return the SFC, or null if not found
+     */
+    static ServiceFunctionChain readServiceFunctionChain(ServiceFunctionPath serviceFunctionPath) {
         SfcName serviceFunctionChainName = serviceFunctionPath.getServiceChainName();
-        serviceFunctionChain = serviceFunctionChainName != null
+        ServiceFunctionChain serviceFunctionChain = serviceFunctionChainName != null
                 ? SfcProviderServiceChainAPI.readServiceFunctionChain(serviceFunctionChainName) : null;
         if (serviceFunctionChain == null) {
             LOG.error("ServiceFunctionChain name for Path {} not provided", serviceFunctionPath.getName());
-            return null;
         }
+        return serviceFunctionChain;
+    }
 
+    /**
+     * Schedule the SFs of a SFP and build the resulting RSP hop list. This
+     * does not modify any data store or path-id state, so different SFPs can
+     * be scheduled concurrently.
+     *
+     * @param serviceFunctionPath
+     *            the SFP
+     * @param serviceFunctionChain
+     *            the SFC of the SFP
+     * @param scheduler
+     *            the scheduler to use
+     * @param oneChainOnlySfs
+     *            if not null, the names of the scheduled SFs that are
+     *            one-chain-only are added to it
+     * @return the RSP hop list, or null on failure
+     */
+    static List<RenderedServicePathHop> scheduleRenderedServicePathHops(ServiceFunctionPath serviceFunctionPath,
+            ServiceFunctionChain serviceFunctionChain, SfcServiceFunctionSchedulerAPI scheduler,
+            @Nullable Set<SfName> oneChainOnlySfs) {
         // Descending order
         int serviceIndex = MAX_STARTING_INDEX;
 
@@ -448,15 +616,32 @@ public final class SfcProviderRenderedPathAPI {
 
         // Before trying to create the RSP, iterate the SFs checking for one-chain-only
         if (sfNameList != null) {
-            for (SfName sfName : sfNameList) {
-                List<SfServicePath> sfServicePathList = SfcProviderServiceFunctionAPI.readServiceFunctionState(sfName);
-                ServiceFunction sf = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
+            // Read all the SFs and their states at once
+            List<ListenableFuture<ServiceFunction>> sfReads = new ArrayList<>();
+            List<ListenableFuture<List<SfServicePath>>> sfStateReads = new ArrayList<>();
+            try (SfcDataStoreAPI.ReadBatch readBatch = SfcDataStoreAPI.newReadBatch()) {
+                for (SfName sfName : sfNameList) {
+                    sfReads.add(SfcProviderServiceFunctionAPI.readServiceFunction(sfName, readBatch));
+                    sfStateReads.add(SfcProviderServiceFunctionAPI.readServiceFunctionState(sfName, readBatch));
+                }
+            }
+            for (int i = 0; i < sfNameList.size(); i++) {
+                SfName sfName = sfNameList.get(i);
+                List<SfServicePath> sfServicePathList = SfcDataStoreAPI.getResult(sfStateReads.get(i));
+                ServiceFunction sf = SfcDataStoreAPI.getResult(sfReads.get(i));
+                if (sf == null) {
+                    // reported when building the hop list
+                    continue;
+                }
                 if (Boolean.TRUE.equals(sf.isOneChainOnly()) && sfServicePathList != null
                         && !sfServicePathList.isEmpty()) {
                     LOG.error("createRenderedServicePathEntry SF [{}] is-one-chain-only is TRUE and the SF "
                             + "is already in use", sfName);
                     return null;
                 }
+                if (Boolean.TRUE.equals(sf.isOneChainOnly()) && oneChainOnlySfs != null) {
+                    oneChainOnlySfs.add(sfName);
+                }
             }
         }
 
@@ -468,23 +653,41 @@ public final class SfcProviderRenderedPathAPI {
             return null;
         }
 
-        // Build the service function path so it can be committed to datastore
-        /*
-         * pathId = (serviceFunctionPath.getPathId() != null) ?
-         * serviceFunctionPath.getPathId() : numCreatedPathIncrementGet();
-         */
+        return renderedServicePathHopArrayList;
+    }
 
+    /**
+     * Allocate the path-id of the RSP of a SFP: the one configured in the SFP,
+     * if any, or a generated one otherwise.
+     *
+     * @param serviceFunctionPath
+     *            the SFP
+     * @return the path-id, or -1 if it could not be allocated
+     */
+    static long allocatePathId(ServiceFunctionPath serviceFunctionPath) {
         if (serviceFunctionPath.getPathId() == null) {
-            pathId = SfcServicePathId.checkAndAllocatePathId();
+            return SfcServicePathId.checkAndAllocatePathId();
         } else {
-            pathId = SfcServicePathId.chechAndAllocatePathId(serviceFunctionPath.getPathId());
-        }
-
-        if (pathId == -1) {
-            LOG.error("{}: Failed to allocate path-id: {}", Thread.currentThread().getStackTrace()[1], pathId);
-            return null;
+            return SfcServicePathId.chechAndAllocatePathId(serviceFunctionPath.getPathId());
         }
+    }
 
+    /**
+     * Build a RSP out of its SFP and its already scheduled hops.
+     *
+     * @param serviceFunctionPath
+     *            the SFP
+     * @param renderedServicePathHopArrayList
+     *            the RSP hops
+     * @param rspName
+     *            the RSP name, or null to derive it from the SFP name and
+     *            path-id
+     * @param pathId
+     *            the already allocated path-id
+     * @return the RSP
+     */
+    static RenderedServicePath buildRenderedServicePath(ServiceFunctionPath serviceFunctionPath,
+            List<RenderedServicePathHop> renderedServicePathHopArrayList, String rspName, long pathId) {
         RenderedServicePathBuilder renderedServicePathBuilder = new RenderedServicePathBuilder();
         renderedServicePathBuilder.setRenderedServicePathHop(renderedServicePathHopArrayList);
         // TODO Bug 4495 - RPCs hiding heuristics using Strings - alagalah
@@ -500,7 +703,7 @@ public final class SfcProviderRenderedPathAPI {
         // renderedServicePathBuilder.setStartingIndex((short)
         // renderedServicePathHopArrayList.size());
         renderedServicePathBuilder.setStartingIndex((short) MAX_STARTING_INDEX);
-        renderedServicePathBuilder.setServiceChainName(serviceFunctionChainName);
+        renderedServicePathBuilder.setServiceChainName(serviceFunctionPath.getServiceChainName());
         renderedServicePathBuilder.setParentServiceFunctionPath(serviceFunctionPath.getName());
         renderedServicePathBuilder.setReversePath(false);
 
@@ -611,6 +814,47 @@ public final class SfcProviderRenderedPathAPI {
         return true;
     }
 
+    /**
+     * Write a RSP without waiting for the write to be committed.
+     *
+     * @param renderedServicePath
+     *            the RSP
+     * @param type
+     *            the data store to write to
+     * @return the future result, true if the RSP was written, false otherwise
+     */
+    private static ListenableFuture<Boolean> writeRenderedServicePathAsync(RenderedServicePath renderedServicePath,
+            LogicalDatastoreType type) {
+        WriteTransaction writeTx = SfcDataStoreAPI.getDataBroker().newWriteOnlyTransaction();
+        writeRenderedServicePath(renderedServicePath, type, writeTx);
+        return Futures.transform(SfcDataStoreAPI.commitTransactionAsyncAPI(writeTx), written -> {
+            if (written) {
+                LOG.info("Create RSP [{}] in {} data store successfully", renderedServicePath.getName().getValue(),
+                        type);
+            } else {
+                LOG.error("Failed to create Rendered Service Path: {}", renderedServicePath.getName());
+            }
+            return written;
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Write a RSP as part of the given transaction.
+     *
+     * @param renderedServicePath
+     *            the RSP
+     * @param type
+     *            the data store to write to
+     * @param writeTx
+     *            the transaction
+     */
+    static void writeRenderedServicePath(RenderedServicePath renderedServicePath, LogicalDatastoreType type,
+            WriteTransaction writeTx) {
+        InstanceIdentifier<RenderedServicePath> rspIID = InstanceIdentifier.builder(RenderedServicePaths.class)
+                .child(RenderedServicePath.class, new RenderedServicePathKey(renderedServicePath.getName())).build();
+        writeTx.merge(type, rspIID, renderedServicePath, true);
+    }
+
     /**
      * Creates an RSP name based on the SFP name and pathId.
      *
@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.create.rendered.paths.output.RenderedPathResult;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.create.rendered.paths.output.RenderedPathResultBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.create.rendered.paths.output.RenderedPathResultKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChain;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class has the APIs to create the RSPs of many SFPs at once.
+ *
+ * <p>
+ * Creating the RSPs of a batch of SFPs goes through three phases:
+ * <ul>
+ * <li>The SFPs are scheduled concurrently on the given executor. Scheduling
+ * only reads from the data store.</li>
+ * <li>The path-ids of all the scheduled SFPs, and of their symmetric paths, are
+ * allocated in a single pass.</li>
+ * <li>The config and operational RSPs, along with the SFP, SF and SFF
+ * operational state, are written in merged transactions of up to
+ * {@link #RSPS_PER_TRANSACTION} SFPs each.</li>
+ * </ul>
+ * Since the operational RSPs and state are written here, the RSP listener
+ * does not need to create them again when notified of the config RSPs.
+ */
+public final class SfcProviderRenderedPathBatchAPI {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcProviderRenderedPathBatchAPI.class);
+
+    static final int RSPS_PER_TRANSACTION = 256;
+
+    // config RSPs written by a batch, not yet seen by the RSP listener
+    private static final Set<RspName> BATCH_RENDERED_RSPS = ConcurrentHashMap.newKeySet();
+
+    private SfcProviderRenderedPathBatchAPI() {
+    }
+
+    /**
+     * Create the RSPs, and the symmetric RSPs when needed, of the given SFPs.
+     * SFPs that are already rendered, or being rendered, are skipped.
+     *
+     * @param sfpNames
+     *            the names of the SFPs to render
+     * @param executor
+     *            the executor used to schedule the SFPs concurrently
+     * @return the result for each of the given SFPs, in the same order
+     */
+    public static List<RenderedPathResult> createRenderedServicePaths(List<SfpName> sfpNames, Executor executor) {
+        Map<SfpName, RenderedPathPlan> plans = new LinkedHashMap<>();
+        try {
+            Map<RenderedPathPlan, CompletableFuture<Void>> scheduledPlans = new LinkedHashMap<>();
+            for (SfpName sfpName : sfpNames) {
+                plans.computeIfAbsent(sfpName, key -> {
+                    RenderedPathPlan plan = new RenderedPathPlan(key);
+                    scheduledPlans.put(plan, CompletableFuture.runAsync(() -> schedule(plan), executor));
+                    return plan;
+                });
+            }
+
+            for (Map.Entry<RenderedPathPlan, CompletableFuture<Void>> entry : scheduledPlans.entrySet()) {
+                try {
+                    entry.getValue().get();
+                } catch (InterruptedException | ExecutionException e) {
+                    LOG.error("createRenderedServicePaths: failed to schedule SFP {}",
+                            entry.getKey().sfpName.getValue(), e);
+                    entry.getKey().fail("Failed to schedule the service function path");
+                }
+            }
+
+            allocatePathIds(plans.values());
+
+            List<RenderedPathPlan> pendingPlans = new ArrayList<>();
+            for (RenderedPathPlan plan : plans.values()) {
+                if (plan.isPending()) {
+                    pendingPlans.add(plan);
+                }
+            }
+            for (int i = 0; i < pendingPlans.size(); i += RSPS_PER_TRANSACTION) {
+                write(pendingPlans.subList(i, Math.min(i + RSPS_PER_TRANSACTION, pendingPlans.size())));
+            }
+
+            List<RenderedPathResult> results = new ArrayList<>();
+            for (RenderedPathPlan plan : plans.values()) {
+                results.add(plan.toResult());
+            }
+            return results;
+        } finally {
+            // the SFPs that were not rendered can be rendered again
+            plans.values().forEach(RenderedPathPlan::release);
+        }
+    }
+
+    /**
+     * Whether the given config RSP was written by a batch, along with its
+     * operational RSP and state. The RSP is forgotten once checked, as the
+     * RSP listener is notified once of each config RSP.
+     *
+     * @param rspName
+     *            the RSP name
+     * @return true if the RSP was written by a batch, false otherwise
+     */
+    public static boolean checkRenderedInBatch(RspName rspName) {
+        return BATCH_RENDERED_RSPS.remove(rspName);
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private static void schedule(RenderedPathPlan plan) {
+        if (!SfcProviderRenderedPathAPI.claimServiceFunctionPath(plan.sfpName)) {
+            plan.skip("The service function path is already rendered or being rendered");
+            return;
+        }
+        plan.claimed = true;
+
+        try {
+            scheduleHops(plan);
+        } catch (RuntimeException e) {
+            LOG.error("schedule: failed to schedule SFP {}", plan.sfpName.getValue(), e);
+            plan.fail("Failed to schedule the service function path");
+        }
+    }
+
+    private static void scheduleHops(RenderedPathPlan plan) {
+        SfpName sfpName = plan.sfpName;
+        plan.serviceFunctionPath = SfcProviderServicePathAPI.readServiceFunctionPath(sfpName);
+        if (plan.serviceFunctionPath == null) {
+            plan.fail("The service function path does not exist");
+            return;
+        }
+
+        ServiceFunctionChain serviceFunctionChain = SfcProviderRenderedPathAPI
+                .readServiceFunctionChain(plan.serviceFunctionPath);
+        if (serviceFunctionChain == null) {
+            plan.fail("The service function chain does not exist");
+            return;
+        }
+
+        plan.hops = SfcProviderRenderedPathAPI.scheduleRenderedServicePathHops(plan.serviceFunctionPath,
+                serviceFunctionChain, SfcProviderRenderedPathAPI.getDefaultScheduler(), plan.oneChainOnlySfs);
+        if (plan.hops == null) {
+            plan.fail("Could not schedule the service functions");
+        }
+    }
+
+    private static void allocatePathIds(Collection<RenderedPathPlan> plans) {
+        // one-chain-only SFs used by the SFPs of this batch
+        Set<SfName> usedOneChainOnlySfs = new HashSet<>();
+
+        for (RenderedPathPlan plan : plans) {
+            if (!plan.isPending()) {
+                continue;
+            }
+
+            if (plan.oneChainOnlySfs.stream().anyMatch(usedOneChainOnlySfs::contains)) {
+                plan.fail("A one-chain-only service function is already used by another path of the batch");
+                continue;
+            }
+
+            long pathId = SfcProviderRenderedPathAPI.allocatePathId(plan.serviceFunctionPath);
+            if (pathId == -1) {
+                plan.fail("Failed to allocate a path-id");
+                continue;
+            }
+            usedOneChainOnlySfs.addAll(plan.oneChainOnlySfs);
+            plan.renderedServicePath = SfcProviderRenderedPathAPI.buildRenderedServicePath(plan.serviceFunctionPath,
+                    plan.hops, null, pathId);
+
+            if (SfcProviderRenderedPathAPI.isChainSymmetric(plan.serviceFunctionPath, plan.renderedServicePath)) {
+                RenderedServicePath symmetricRenderedServicePath = SfcProviderRenderedPathAPI
+                        .createReverseRenderedServicePathEntry(plan.renderedServicePath);
+                if (symmetricRenderedServicePath.getPathId() == -1) {
+                    LOG.error("allocatePathIds: failed to create symmetric RSP for SFP {}",
+                            plan.sfpName.getValue());
+                } else {
+                    plan.symmetricRenderedServicePath = symmetricRenderedServicePath;
+                    plan.renderedServicePath = SfcProviderRenderedPathAPI.setSymmetricPathId(
+                            plan.renderedServicePath, symmetricRenderedServicePath.getPathId(), null);
+                }
+            }
+        }
+    }
+
+    private static void write(List<RenderedPathPlan> plans) {
+        DataBroker dataBroker = SfcDataStoreAPI.getDataBroker();
+        WriteTransaction writeTx = dataBroker.newWriteOnlyTransaction();
+        for (RenderedPathPlan plan : plans) {
+            writeRenderedServicePathAndState(plan.serviceFunctionPath, plan.renderedServicePath, writeTx);
+            if (plan.symmetricRenderedServicePath != null) {
+                writeRenderedServicePathAndState(plan.serviceFunctionPath, plan.symmetricRenderedServicePath,
+                        writeTx);
+            }
+        }
+
+        try {
+            writeTx.commit().get();
+            plans.forEach(RenderedPathPlan::succeed);
+            LOG.info("write: created the RSPs of {} SFPs", plans.size());
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.error("write: failed to create the RSPs of {} SFPs", plans.size(), e);
+            for (RenderedPathPlan plan : plans) {
+                BATCH_RENDERED_RSPS.remove(plan.renderedServicePath.getName());
+                SfcServicePathId.freePathId(plan.renderedServicePath.getPathId());
+                if (plan.symmetricRenderedServicePath != null) {
+                    BATCH_RENDERED_RSPS.remove(plan.symmetricRenderedServicePath.getName());
+                    SfcServicePathId.freePathId(plan.symmetricRenderedServicePath.getPathId());
+                }
+                plan.fail("Failed to write the rendered service path");
+            }
+        }
+    }
+
+    /**
+     * Write a config and operational RSP, along with the SFP, SF and SFF
+     * operational state, as part of the given transaction. The RSP listener
+     * skips the RSP, see {@link #checkRenderedInBatch(RspName)}; if the
+     * transaction fails, that check must be done by the caller instead.
+     *
+     * @param serviceFunctionPath
+     *            the SFP of the RSP
+     * @param renderedServicePath
+     *            the config RSP
+     * @param writeTx
+     *            the transaction
+     */
+    static void writeRenderedServicePathAndState(ServiceFunctionPath serviceFunctionPath,
+            RenderedServicePath renderedServicePath, WriteTransaction writeTx) {
+        BATCH_RENDERED_RSPS.add(renderedServicePath.getName());
+        SfcProviderRenderedPathAPI.writeRenderedServicePath(renderedServicePath,
+                LogicalDatastoreType.CONFIGURATION, writeTx);
+        SfcProviderRenderedPathAPI.writeRenderedServicePath(
+                SfcProviderRenderedPathAPI.buildOperationalRenderedServicePath(serviceFunctionPath,
+                        renderedServicePath),
+                LogicalDatastoreType.OPERATIONAL, writeTx);
+        SfcProviderServiceForwarderAPI.addPathToServiceForwarderState(renderedServicePath, writeTx);
+        SfcProviderServiceFunctionAPI.addPathToServiceFunctionState(renderedServicePath, writeTx);
+        SfcProviderServicePathAPI.addRenderedPathToServicePathState(serviceFunctionPath.getName(),
+                renderedServicePath.getName(), writeTx);
+    }
+
+    /**
+     * The progress of the rendering of a single SFP of the batch.
+     */
+    private static final class RenderedPathPlan {
+        private final SfpName sfpName;
+        private final Set<SfName> oneChainOnlySfs = new HashSet<>();
+        private ServiceFunctionPath serviceFunctionPath;
+        private List<RenderedServicePathHop> hops;
+        private RenderedServicePath renderedServicePath;
+        private RenderedServicePath symmetricRenderedServicePath;
+        private boolean claimed;
+        private boolean done;
+        private String message;
+
+        RenderedPathPlan(SfpName sfpName) {
+            this.sfpName = sfpName;
+        }
+
+        boolean isPending() {
+            return !done;
+        }
+
+        void succeed() {
+            done = true;
+        }
+
+        void skip(String reason) {
+            done = true;
+            message = reason;
+        }
+
+        void fail(String reason) {
+            LOG.error("createRenderedServicePaths: SFP {}: {}", sfpName.getValue(), reason);
+            done = true;
+            message = reason;
+            renderedServicePath = null;
+            symmetricRenderedServicePath = null;
+        }
+
+        void release() {
+            if (claimed && renderedServicePath == null) {
+                SfcProviderRenderedPathAPI.releaseServiceFunctionPath(sfpName);
+                claimed = false;
+            }
+        }
+
+        RenderedPathResult toResult() {
+            RenderedPathResultBuilder builder = new RenderedPathResultBuilder()
+                    .withKey(new RenderedPathResultKey(sfpName)).setServiceFunctionPath(sfpName)
+                    .setResult(renderedServicePath != null).setMessage(message);
+            if (renderedServicePath != null) {
+                builder.setName(renderedServicePath.getName());
+            }
+            if (symmetricRenderedServicePath != null) {
+                builder.setSymmetricName(symmetricRenderedServicePath.getName());
+            }
+            return builder.build();
+        }
+    }
+}
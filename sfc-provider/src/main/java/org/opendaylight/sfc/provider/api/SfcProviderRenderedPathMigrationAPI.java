@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.Actions1;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.Actions1Builder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.access.lists.acl.access.list.entries.ace.actions.sfc.action.AclRenderedServicePathBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePathMigrations;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePaths;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.path.migrations.RenderedServicePathMigration;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.path.migrations.RenderedServicePathMigration.Status;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.path.migrations.RenderedServicePathMigrationBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.path.migrations.RenderedServicePathMigrationKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePathKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChain;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPath;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.AccessLists;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.Acl;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.AccessListEntries;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.Ace;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.Actions;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class has the APIs to migrate the RSPs affected by a SFF update to
+ * replacement RSPs, make-before-break, instead of deleting their SFPs.
+ *
+ * <p>
+ * The RSPs of each affected SFP, the forward one and the symmetric one if
+ * any, are migrated concurrently with those of the other SFPs:
+ * <ul>
+ * <li>The SFP is scheduled again against the updated SFF. The replacement
+ * RSPs get new path-ids and are written, along with their operational state,
+ * in a single transaction, so the renderers program them while the original
+ * RSPs are still in place.</li>
+ * <li>Once the replacement RSPs are committed, the ACL entries pointing to
+ * the original RSP, found through the ACL index, are switched to the
+ * replacement RSP in a single transaction.</li>
+ * <li>The original config RSPs are deleted; the RSP listener then deletes
+ * their operational RSPs and state, and frees their path-ids.</li>
+ * </ul>
+ * The progress of each SFP migration is reported in the
+ * rendered-service-path-migrations operational container. SFPs that cannot
+ * be migrated, for instance because they have a configured path-id or
+ * because the updated SFF no longer offers a suitable SF, are reported back
+ * so the caller can fall back to deleting them.
+ *
+ * <p>
+ * The renderers do not report when they have programmed a RSP, so the
+ * classifiers are switched as soon as the replacement RSPs are committed.
+ * The renderers are notified of the replacement RSPs before the classifier
+ * update, but nothing guarantees they have finished programming them.
+ */
+public final class SfcProviderRenderedPathMigrationAPI {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcProviderRenderedPathMigrationAPI.class);
+
+    private static final InstanceIdentifier<AccessLists> ACLS_IID = InstanceIdentifier.create(AccessLists.class);
+
+    private SfcProviderRenderedPathMigrationAPI() {
+    }
+
+    /**
+     * Migrate the given RSPs, affected by an update of the given SFF, to
+     * replacement RSPs. Blocks until all the migrations are done.
+     *
+     * @param sffName
+     *            the name of the updated SFF
+     * @param rspNames
+     *            the names of the affected RSPs
+     * @param hopsValidator
+     *            tells whether the hops of a replacement RSP are valid for the
+     *            updated SFF
+     * @param aclRspIndex
+     *            the index of the ACLs to switch to the replacement RSPs
+     * @param executor
+     *            the executor used to migrate the SFPs concurrently
+     * @return the names of the SFPs whose RSPs could not be migrated
+     */
+    public static Set<SfpName> migrateRenderedServicePaths(SffName sffName, List<RspName> rspNames,
+            Predicate<List<RenderedServicePathHop>> hopsValidator, SfcAclRspIndex aclRspIndex, Executor executor) {
+        // the forward and symmetric RSPs of a SFP are migrated together
+        Map<SfpName, CompletableFuture<Boolean>> migrations = new LinkedHashMap<>();
+        for (RspName rspName : rspNames) {
+            RenderedServicePath rsp = SfcProviderRenderedPathAPI.readRenderedServicePath(rspName);
+            if (rsp == null) {
+                LOG.debug("migrateRenderedServicePaths: RSP {} already deleted", rspName.getValue());
+                continue;
+            }
+            RspName forwardRspName = Boolean.TRUE.equals(rsp.isReversePath())
+                    ? SfcProviderRenderedPathAPI.generateReversedPathName(rspName) : rspName;
+            migrations.computeIfAbsent(rsp.getParentServiceFunctionPath(),
+                sfpName -> CompletableFuture.supplyAsync(
+                    () -> migrate(new RenderedPathMigration(sffName, sfpName, forwardRspName), hopsValidator,
+                            aclRspIndex),
+                    executor));
+        }
+
+        Set<SfpName> failedSfpNames = new LinkedHashSet<>();
+        for (Map.Entry<SfpName, CompletableFuture<Boolean>> entry : migrations.entrySet()) {
+            try {
+                if (!entry.getValue().get()) {
+                    failedSfpNames.add(entry.getKey());
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                LOG.error("migrateRenderedServicePaths: failed to migrate the RSPs of SFP {}",
+                        entry.getKey().getValue(), e);
+                failedSfpNames.add(entry.getKey());
+            }
+        }
+        return failedSfpNames;
+    }
+
+    /**
+     * Read the progress of the last migration of the RSPs of a SFP.
+     *
+     * @param sfpName
+     *            the SFP name
+     * @return the migration progress, or null if not found
+     */
+    public static RenderedServicePathMigration readRenderedServicePathMigration(SfpName sfpName) {
+        return SfcDataStoreAPI.readTransactionAPI(getMigrationIid(sfpName), LogicalDatastoreType.OPERATIONAL);
+    }
+
+    /**
+     * Delete the progress of the last migration of the RSPs of a SFP.
+     *
+     * @param sfpName
+     *            the SFP name
+     * @return true if deleted, false otherwise
+     */
+    public static boolean deleteRenderedServicePathMigration(SfpName sfpName) {
+        return SfcDataStoreAPI.deleteTransactionAPI(getMigrationIid(sfpName), LogicalDatastoreType.OPERATIONAL);
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private static boolean migrate(RenderedPathMigration migration,
+            Predicate<List<RenderedServicePathHop>> hopsValidator, SfcAclRspIndex aclRspIndex) {
+        SfcDataStoreAPI.writePutTransactionAPI(getMigrationIid(migration.sfpName),
+                migration.toProgress(Status.Rendering), LogicalDatastoreType.OPERATIONAL);
+        try {
+            return build(migration, hopsValidator) && render(migration) && switchClassifiers(migration, aclRspIndex) && deleteOriginal(migration);
+        } catch (RuntimeException e) {
+            LOG.error("migrate: failed to migrate the RSPs of SFP {}", migration.sfpName.getValue(), e);
+            return migration.fail("Unexpected error");
+        }
+    }
+
+    private static boolean build(RenderedPathMigration migration,
+            Predicate<List<RenderedServicePathHop>> hopsValidator) {
+        migration.originalRenderedServicePath = SfcProviderRenderedPathAPI
+                .readRenderedServicePath(migration.originalRspName);
+        if (migration.originalRenderedServicePath == null) {
+            return migration.fail("The original rendered service path does not exist");
+        }
+
+        migration.serviceFunctionPath = SfcProviderServicePathAPI.readServiceFunctionPath(migration.sfpName);
+        if (migration.serviceFunctionPath == null) {
+            return migration.fail("The service function path does not exist");
+        }
+        if (migration.serviceFunctionPath.getPathId() != null) {
+            // the configured path-id is still used by the original RSP
+            return migration.fail("The service function path has a configured path-id");
+        }
+
+        ServiceFunctionChain serviceFunctionChain = SfcProviderRenderedPathAPI
+                .readServiceFunctionChain(migration.serviceFunctionPath);
+        if (serviceFunctionChain == null) {
+            return migration.fail("The service function chain does not exist");
+        }
+
+        List<RenderedServicePathHop> hops = SfcProviderRenderedPathAPI.scheduleRenderedServicePathHops(
+                migration.serviceFunctionPath, serviceFunctionChain, SfcProviderRenderedPathAPI.getDefaultScheduler(),
+                null);
+        if (hops == null) {
+            return migration.fail("Could not schedule the service functions");
+        }
+        if (!hopsValidator.test(hops)) {
+            return migration.fail("The updated service function forwarder has no suitable service function");
+        }
+
+        long pathId = SfcServicePathId.checkAndAllocatePathId();
+        if (pathId == -1) {
+            return migration.fail("Failed to allocate a path-id");
+        }
+        migration.renderedServicePath = SfcProviderRenderedPathAPI.buildRenderedServicePath(
+                migration.serviceFunctionPath, hops, null, pathId);
+
+        if (SfcProviderRenderedPathAPI.isChainSymmetric(migration.serviceFunctionPath,
+                migration.renderedServicePath)) {
+            RenderedServicePath symmetricRenderedServicePath = SfcProviderRenderedPathAPI
+                    .createReverseRenderedServicePathEntry(migration.renderedServicePath);
+            if (symmetricRenderedServicePath.getPathId() == -1) {
+                return migration.fail("Failed to allocate a symmetric path-id");
+            }
+            migration.symmetricRenderedServicePath = symmetricRenderedServicePath;
+            migration.renderedServicePath = SfcProviderRenderedPathAPI.setSymmetricPathId(
+                    migration.renderedServicePath, symmetricRenderedServicePath.getPathId(), null);
+        }
+        return true;
+    }
+
+    private static boolean render(RenderedPathMigration migration) {
+        WriteTransaction writeTx = SfcDataStoreAPI.getDataBroker().newWriteOnlyTransaction();
+        SfcProviderRenderedPathBatchAPI.writeRenderedServicePathAndState(migration.serviceFunctionPath,
+                migration.renderedServicePath, writeTx);
+        if (migration.symmetricRenderedServicePath != null) {
+            SfcProviderRenderedPathBatchAPI.writeRenderedServicePathAndState(migration.serviceFunctionPath,
+                    migration.symmetricRenderedServicePath, writeTx);
+        }
+
+        if (!commit(writeTx, migration, "render")) {
+            SfcProviderRenderedPathBatchAPI.checkRenderedInBatch(migration.renderedServicePath.getName());
+            if (migration.symmetricRenderedServicePath != null) {
+                SfcProviderRenderedPathBatchAPI.checkRenderedInBatch(
+                        migration.symmetricRenderedServicePath.getName());
+            }
+            return migration.fail("Failed to write the replacement rendered service path");
+        }
+        migration.rendered = true;
+
+        SfcDataStoreAPI.writePutTransactionAPI(getMigrationIid(migration.sfpName),
+                migration.toProgress(Status.Switching), LogicalDatastoreType.OPERATIONAL);
+        return true;
+    }
+
+    private static boolean switchClassifiers(RenderedPathMigration migration, SfcAclRspIndex aclRspIndex) {
+        WriteTransaction writeTx = SfcDataStoreAPI.getDataBroker().newWriteOnlyTransaction();
+        Actions1 actions = new Actions1Builder().setSfcAction(new AclRenderedServicePathBuilder()
+                .setRenderedServicePath(migration.renderedServicePath.getName().getValue()).build()).build();
+        String originalRspName = migration.originalRspName.getValue();
+        int switchedAces = 0;
+
+        for (Acl acl : aclRspIndex.filterAclsByRspName(migration.originalRspName)) {
+            for (Ace ace : acl.getAccessListEntries().getAce()) {
+                if (originalRspName.equals(SfcAclRspIndex.getRenderedServicePathName(ace))) {
+                    writeTx.put(LogicalDatastoreType.CONFIGURATION, ACLS_IID.child(Acl.class, acl.key())
+                            .child(AccessListEntries.class).child(Ace.class, ace.key()).child(Actions.class)
+                            .augmentation(Actions1.class), actions, true);
+                    switchedAces++;
+                }
+            }
+        }
+
+        if (!commit(writeTx, migration, "switchClassifiers")) {
+            return migration.fail("Failed to switch the classifiers to the replacement rendered service path");
+        }
+        LOG.info("switchClassifiers: switched {} ACL entries from RSP {} to RSP {}", switchedAces,
+                originalRspName, migration.renderedServicePath.getName().getValue());
+        return true;
+    }
+
+    private static boolean deleteOriginal(RenderedPathMigration migration) {
+        WriteTransaction writeTx = SfcDataStoreAPI.getDataBroker().newWriteOnlyTransaction();
+        writeTx.delete(LogicalDatastoreType.CONFIGURATION, getRspIid(migration.originalRspName));
+        if (migration.originalRenderedServicePath.getSymmetricPathId() != null) {
+            writeTx.delete(LogicalDatastoreType.CONFIGURATION, getRspIid(
+                    SfcProviderRenderedPathAPI.generateReversedPathName(migration.originalRspName)));
+        }
+        writeTx.put(LogicalDatastoreType.OPERATIONAL, getMigrationIid(migration.sfpName),
+                migration.toProgress(Status.Completed), true);
+
+        if (!commit(writeTx, migration, "deleteOriginal")) {
+            return migration.fail("Failed to delete the original rendered service path");
+        }
+        LOG.info("deleteOriginal: migrated RSP {} of SFP {} to RSP {}", migration.originalRspName.getValue(),
+                migration.sfpName.getValue(), migration.renderedServicePath.getName().getValue());
+        return true;
+    }
+
+    private static boolean commit(WriteTransaction writeTx, RenderedPathMigration migration, String phase) {
+        try {
+            writeTx.commit().get();
+            return true;
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.error("{}: failed to commit the migration of the RSPs of SFP {}", phase,
+                    migration.sfpName.getValue(), e);
+            return false;
+        }
+    }
+
+    private static InstanceIdentifier<RenderedServicePath> getRspIid(RspName rspName) {
+        return InstanceIdentifier.builder(RenderedServicePaths.class)
+                .child(RenderedServicePath.class, new RenderedServicePathKey(rspName)).build();
+    }
+
+    private static InstanceIdentifier<RenderedServicePathMigration> getMigrationIid(SfpName sfpName) {
+        return InstanceIdentifier.create(RenderedServicePathMigrations.class)
+                .child(RenderedServicePathMigration.class, new RenderedServicePathMigrationKey(sfpName));
+    }
+
+    /**
+     * The progress of the migration of the RSPs of a single SFP.
+     */
+    private static final class RenderedPathMigration {
+        private final SffName sffName;
+        private final SfpName sfpName;
+        private final RspName originalRspName;
+        private RenderedServicePath originalRenderedServicePath;
+        private ServiceFunctionPath serviceFunctionPath;
+        private RenderedServicePath renderedServicePath;
+        private RenderedServicePath symmetricRenderedServicePath;
+        private boolean rendered;
+
+        RenderedPathMigration(SffName sffName, SfpName sfpName, RspName originalRspName) {
+            this.sffName = sffName;
+            this.sfpName = sfpName;
+            this.originalRspName = originalRspName;
+        }
+
+        boolean fail(String reason) {
+            LOG.error("migrateRenderedServicePaths: SFP {}: {}", sfpName.getValue(), reason);
+            // once written, the replacement RSPs are deleted along with the SFP
+            if (!rendered && renderedServicePath != null) {
+                SfcServicePathId.freePathId(renderedServicePath.getPathId());
+                if (symmetricRenderedServicePath != null) {
+                    SfcServicePathId.freePathId(symmetricRenderedServicePath.getPathId());
+                }
+            }
+            SfcDataStoreAPI.writePutTransactionAPI(getMigrationIid(sfpName),
+                    new RenderedServicePathMigrationBuilder(toProgress(Status.Failed)).setMessage(reason).build(),
+                    LogicalDatastoreType.OPERATIONAL);
+            return false;
+        }
+
+        RenderedServicePathMigration toProgress(Status status) {
+            RenderedServicePathMigrationBuilder builder = new RenderedServicePathMigrationBuilder()
+                    .withKey(new RenderedServicePathMigrationKey(sfpName)).setServiceFunctionPath(sfpName)
+                    .setServiceFunctionForwarder(sffName).setName(originalRspName).setStatus(status);
+            if (renderedServicePath != null) {
+                builder.setNewName(renderedServicePath.getName()).setNewPathId(renderedServicePath.getPathId());
+            }
+            return builder.build();
+        }
+    }
+}
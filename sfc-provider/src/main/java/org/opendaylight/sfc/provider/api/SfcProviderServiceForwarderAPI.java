@@ -11,6 +11,9 @@ package org.opendaylight.sfc.provider.api;
 import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStart;
 import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStop;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -18,6 +21,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffDataPlaneLocatorName;
@@ -135,6 +139,24 @@ public final class SfcProviderServiceForwarderAPI {
         return sff;
     }
 
+    /**
+     * Read a SFF as part of a read batch.
+     *
+     * @param serviceFunctionForwarderName
+     *            SFF name
+     * @param readBatch
+     *            the read batch
+     * @return the future SFF, holding null if not found
+     */
+    static ListenableFuture<ServiceFunctionForwarder> readServiceFunctionForwarder(
+            SffName serviceFunctionForwarderName, SfcDataStoreAPI.ReadBatch readBatch) {
+        InstanceIdentifier<ServiceFunctionForwarder> sffIID = InstanceIdentifier
+                .builder(ServiceFunctionForwarders.class)
+                .child(ServiceFunctionForwarder.class, new ServiceFunctionForwarderKey(serviceFunctionForwarderName))
+                .build();
+        return readBatch.read(sffIID, LogicalDatastoreType.CONFIGURATION);
+    }
+
     /**
      * This method deletes a SFF from the datastore.
      *
@@ -192,36 +214,55 @@ public final class SfcProviderServiceForwarderAPI {
      */
     public static boolean addPathToServiceForwarderState(RenderedServicePath renderedServicePath) {
         printTraceStart(LOG);
+        boolean ret = Boolean.TRUE.equals(
+                SfcDataStoreAPI.getResult(addPathToServiceForwarderStateAsync(renderedServicePath)));
+        printTraceStop(LOG);
+        return ret;
+    }
 
-        boolean ret = true;
+    /**
+     * Add the path name to the operational store of each SFF, in a single
+     * transaction, without waiting for it to be committed.
+     *
+     * @param renderedServicePath
+     *            RSP Object
+     * @return the future result, true if the path was added, false otherwise
+     */
+    static ListenableFuture<Boolean> addPathToServiceForwarderStateAsync(RenderedServicePath renderedServicePath) {
+        WriteTransaction writeTx = SfcDataStoreAPI.getDataBroker().newWriteOnlyTransaction();
+        addPathToServiceForwarderState(renderedServicePath, writeTx);
+        return Futures.transform(SfcDataStoreAPI.commitTransactionAsyncAPI(writeTx), added -> {
+            if (!added) {
+                LOG.error("Failed to add path {} to SFF state.", renderedServicePath.getName());
+            }
+            return added;
+        }, MoreExecutors.directExecutor());
+    }
 
-        // TODO another example of strings being used to interchange types. Note
-        // the constructor of
-        // a new SfpName. See prior TODO on RPC
+    /**
+     * Add the path name to the operational store of each SFF, as part of the
+     * given transaction.
+     *
+     * @param renderedServicePath
+     *            RSP Object
+     * @param writeTx
+     *            the transaction to write the SFF state in
+     */
+    static void addPathToServiceForwarderState(RenderedServicePath renderedServicePath, WriteTransaction writeTx) {
         SffServicePathKey sffServicePathKey =
                 new SffServicePathKey(new SfpName(renderedServicePath.getName().getValue()));
-        SffServicePathBuilder sffServicePathBuilder = new SffServicePathBuilder();
-        sffServicePathBuilder.withKey(sffServicePathKey);
-        sffServicePathBuilder.setName(new SfpName(renderedServicePath.getName().getValue()));
-
-        List<RenderedServicePathHop> renderedServicePathHopList = renderedServicePath.getRenderedServicePathHop();
-        for (RenderedServicePathHop renderedServicePathHop : renderedServicePathHopList) {
-            ServiceFunctionForwarderStateKey serviceFunctionForwarderStateKey =
-                    new ServiceFunctionForwarderStateKey(renderedServicePathHop.getServiceFunctionForwarder());
+        SffServicePath sffServicePath = new SffServicePathBuilder().withKey(sffServicePathKey)
+                .setName(new SfpName(renderedServicePath.getName().getValue())).build();
+
+        for (RenderedServicePathHop renderedServicePathHop : renderedServicePath.getRenderedServicePathHop()) {
             InstanceIdentifier<SffServicePath> sfStateIID =
                     InstanceIdentifier.builder(ServiceFunctionForwardersState.class)
-                            .child(ServiceFunctionForwarderState.class, serviceFunctionForwarderStateKey)
+                            .child(ServiceFunctionForwarderState.class,
+                                    new ServiceFunctionForwarderStateKey(
+                                            renderedServicePathHop.getServiceFunctionForwarder()))
                             .child(SffServicePath.class, sffServicePathKey).build();
-
-            if (!SfcDataStoreAPI.writePutTransactionAPI(sfStateIID, sffServicePathBuilder.build(),
-                    LogicalDatastoreType.OPERATIONAL)) {
-                ret = false;
-                LOG.error("Failed to add path {} to SFF {} state.", renderedServicePath.getName(),
-                        renderedServicePathHop.getServiceFunctionForwarder());
-            }
+            writeTx.put(LogicalDatastoreType.OPERATIONAL, sfStateIID, sffServicePath, true);
         }
-        printTraceStop(LOG);
-        return ret;
     }
 
     /**
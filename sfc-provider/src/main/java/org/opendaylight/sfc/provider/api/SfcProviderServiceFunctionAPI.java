@@ -11,8 +11,12 @@ package org.opendaylight.sfc.provider.api;
 import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStart;
 import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStop;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.util.ArrayList;
 import java.util.List;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
@@ -85,6 +89,25 @@ public final class SfcProviderServiceFunctionAPI {
         return ret;
     }
 
+    /**
+     * Read the operational state of a service function as part of a read
+     * batch.
+     *
+     * @param serviceFunctionName
+     *            SF name
+     * @param readBatch
+     *            the read batch
+     * @return the future list of all paths using this service function,
+     *         holding null if the SF has no operational state
+     */
+    static ListenableFuture<List<SfServicePath>> readServiceFunctionState(SfName serviceFunctionName,
+            SfcDataStoreAPI.ReadBatch readBatch) {
+        InstanceIdentifier<ServiceFunctionState> sfStateIID = InstanceIdentifier.builder(ServiceFunctionsState.class)
+                .child(ServiceFunctionState.class, new ServiceFunctionStateKey(serviceFunctionName)).build();
+        return Futures.transform(readBatch.read(sfStateIID, LogicalDatastoreType.OPERATIONAL),
+            sfState -> sfState != null ? sfState.getSfServicePath() : null, MoreExecutors.directExecutor());
+    }
+
     /**
      * This method reads the operational state for a service function.
      *
@@ -187,46 +210,76 @@ public final class SfcProviderServiceFunctionAPI {
      * @return true if SFP was added, false otherwise
      */
     public static boolean addPathToServiceFunctionState(RenderedServicePath renderedServicePath) {
-        boolean ret = false;
         printTraceStart(LOG);
+        boolean ret = Boolean.TRUE.equals(
+                SfcDataStoreAPI.getResult(addPathToServiceFunctionStateAsync(renderedServicePath)));
+        printTraceStop(LOG);
+        return ret;
+    }
 
-        // TODO Bug 4495 - RPCs hiding heuristics using Strings - alagalah
-        SfpName sfpName = new SfpName(renderedServicePath.getParentServiceFunctionPath().getValue());
-        SfServicePathKey sfServicePathKey = new SfServicePathKey(sfpName);
-        SfServicePathBuilder sfServicePathBuilder = new SfServicePathBuilder();
-        sfServicePathBuilder.withKey(sfServicePathKey);
-        sfServicePathBuilder.setName(sfpName);
-        List<RenderedServicePathHop> renderedServicePathHopList = renderedServicePath.getRenderedServicePathHop();
-        for (RenderedServicePathHop renderedServicePathHop : renderedServicePathHopList) {
+    /**
+     * Add the SFP name to the operational store of each SF of a RSP, in a
+     * single transaction, without waiting for it to be committed.
+     *
+     * @param renderedServicePath
+     *            RSP object
+     * @return the future result, true if the SFP was added, false otherwise
+     */
+    static ListenableFuture<Boolean> addPathToServiceFunctionStateAsync(RenderedServicePath renderedServicePath) {
+        boolean hasSfHop = false;
+        boolean hasSfgHop = false;
+        for (RenderedServicePathHop renderedServicePathHop : renderedServicePath.getRenderedServicePathHop()) {
             SfName serviceFunctionName = renderedServicePathHop.getServiceFunctionName();
             String serviceFunctionGroupName = renderedServicePathHop.getServiceFunctionGroupName();
             LOG.debug("handling hop index: {}, sf: {}, sfg: {}", renderedServicePathHop.getHopNumber(),
                     serviceFunctionName, serviceFunctionGroupName);
             if (serviceFunctionName != null) {
-                ServiceFunctionStateKey serviceFunctionStateKey = new ServiceFunctionStateKey(
-                        renderedServicePathHop.getServiceFunctionName());
-
-                InstanceIdentifier<SfServicePath> sfStateIID = InstanceIdentifier.builder(ServiceFunctionsState.class)
-                        .child(ServiceFunctionState.class, serviceFunctionStateKey)
-                        .child(SfServicePath.class, sfServicePathKey).build();
-
-                if (SfcDataStoreAPI.writePutTransactionAPI(sfStateIID, sfServicePathBuilder.build(),
-                        LogicalDatastoreType.OPERATIONAL)) {
-                    ret = true;
-                } else {
-                    LOG.error("{}: Could not add SFP {} to operational state of SF: {}",
-                            Thread.currentThread().getStackTrace()[1], renderedServicePath.getName(),
-                            renderedServicePathHop.getServiceFunctionName());
-                }
+                hasSfHop = true;
             } else if (serviceFunctionGroupName != null) {
                 LOG.info("{}: Could not add SFP {} to operational state of SFG: {}",
                         Thread.currentThread().getStackTrace()[1], renderedServicePath.getName(),
                         serviceFunctionGroupName);
-                ret = true;
+                hasSfgHop = true;
+            }
+        }
+        if (!hasSfHop) {
+            return Futures.immediateFuture(hasSfgHop);
+        }
+
+        WriteTransaction writeTx = SfcDataStoreAPI.getDataBroker().newWriteOnlyTransaction();
+        addPathToServiceFunctionState(renderedServicePath, writeTx);
+        return Futures.transform(SfcDataStoreAPI.commitTransactionAsyncAPI(writeTx), added -> {
+            if (!added) {
+                LOG.error("Could not add SFP {} to operational state of the SFs of RSP {}",
+                        renderedServicePath.getParentServiceFunctionPath(), renderedServicePath.getName());
+            }
+            return added;
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Add the SFP name to the operational store of each SF of a RSP, as part
+     * of the given transaction.
+     *
+     * @param renderedServicePath
+     *            RSP Object
+     * @param writeTx
+     *            the transaction to write the SF state in
+     */
+    static void addPathToServiceFunctionState(RenderedServicePath renderedServicePath, WriteTransaction writeTx) {
+        SfpName sfpName = new SfpName(renderedServicePath.getParentServiceFunctionPath().getValue());
+        SfServicePathKey sfServicePathKey = new SfServicePathKey(sfpName);
+        SfServicePath sfServicePath = new SfServicePathBuilder().withKey(sfServicePathKey).setName(sfpName).build();
+
+        for (RenderedServicePathHop renderedServicePathHop : renderedServicePath.getRenderedServicePathHop()) {
+            if (renderedServicePathHop.getServiceFunctionName() != null) {
+                InstanceIdentifier<SfServicePath> sfStateIID = InstanceIdentifier.builder(ServiceFunctionsState.class)
+                        .child(ServiceFunctionState.class,
+                                new ServiceFunctionStateKey(renderedServicePathHop.getServiceFunctionName()))
+                        .child(SfServicePath.class, sfServicePathKey).build();
+                writeTx.put(LogicalDatastoreType.OPERATIONAL, sfStateIID, sfServicePath, true);
             }
         }
-        printTraceStop(LOG);
-        return ret;
     }
 
     /**
@@ -310,6 +363,22 @@ public final class SfcProviderServiceFunctionAPI {
         return sf;
     }
 
+    /**
+     * Read a SF as part of a read batch.
+     *
+     * @param serviceFunctionName
+     *            SF name
+     * @param readBatch
+     *            the read batch
+     * @return the future SF, holding null if not found
+     */
+    static ListenableFuture<ServiceFunction> readServiceFunction(SfName serviceFunctionName,
+            SfcDataStoreAPI.ReadBatch readBatch) {
+        InstanceIdentifier<ServiceFunction> sfIID = InstanceIdentifier.builder(ServiceFunctions.class)
+                .child(ServiceFunction.class, new ServiceFunctionKey(serviceFunctionName)).build();
+        return readBatch.read(sfIID, LogicalDatastoreType.CONFIGURATION);
+    }
+
     public static ServiceFunctions readAllServiceFunctions() {
         ServiceFunctions sfs;
         printTraceStart(LOG);
@@ -11,8 +11,12 @@ package org.opendaylight.sfc.provider.api;
 import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStart;
 import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStop;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.util.Collections;
 import java.util.List;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
@@ -81,25 +85,56 @@ public final class SfcProviderServicePathAPI {
      */
     public static boolean addRenderedPathToServicePathState(SfpName servicePathName, RspName renderedPathName) {
         printTraceStart(LOG);
+        boolean ret = Boolean.TRUE.equals(
+                SfcDataStoreAPI.getResult(addRenderedPathToServicePathStateAsync(servicePathName, renderedPathName)));
+        printTraceStop(LOG);
+        return ret;
+    }
 
-        SfpRenderedServicePathKey sfpRenderedServicePathKey = new SfpRenderedServicePathKey(renderedPathName);
-        SfpRenderedServicePathBuilder sfpRenderedServicePathBuilder = new SfpRenderedServicePathBuilder();
-        sfpRenderedServicePathBuilder.withKey(sfpRenderedServicePathKey).setName(renderedPathName);
+    /**
+     * Add a RSP name to the operational state of its SFP without waiting for
+     * the write to be committed.
+     *
+     * @param servicePathName
+     *            the SFP name
+     * @param renderedPathName
+     *            the RSP name
+     * @return the future result, true if the RSP was added, false otherwise
+     */
+    static ListenableFuture<Boolean> addRenderedPathToServicePathStateAsync(SfpName servicePathName,
+            RspName renderedPathName) {
+        WriteTransaction writeTx = SfcDataStoreAPI.getDataBroker().newWriteOnlyTransaction();
+        addRenderedPathToServicePathState(servicePathName, renderedPathName, writeTx);
+        return Futures.transform(SfcDataStoreAPI.commitTransactionAsyncAPI(writeTx), added -> {
+            if (!added) {
+                LOG.error("Failed to create Service Function Path {} state. Rendered Service Path: {}",
+                        servicePathName, renderedPathName);
+            }
+            return added;
+        }, MoreExecutors.directExecutor());
+    }
 
+    /**
+     * Add a RSP name to the operational state of its SFP, as part of the given
+     * transaction.
+     *
+     * @param servicePathName
+     *            the SFP name
+     * @param renderedPathName
+     *            the RSP name
+     * @param writeTx
+     *            the transaction to write the SFP state in
+     */
+    static void addRenderedPathToServicePathState(SfpName servicePathName, RspName renderedPathName,
+            WriteTransaction writeTx) {
+        SfpRenderedServicePathKey sfpRenderedServicePathKey = new SfpRenderedServicePathKey(renderedPathName);
         InstanceIdentifier<SfpRenderedServicePath> rspIID =
                 InstanceIdentifier.builder(ServiceFunctionPathsState.class)
                         .child(ServiceFunctionPathState.class, new ServiceFunctionPathStateKey(servicePathName))
                         .child(SfpRenderedServicePath.class, sfpRenderedServicePathKey).build();
-
-        if (SfcDataStoreAPI.writeMergeTransactionAPI(rspIID, sfpRenderedServicePathBuilder.build(),
-                LogicalDatastoreType.OPERATIONAL)) {
-            return true;
-        } else {
-            LOG.error("{}: Failed to create Service Function Path {} state. Rendered Service Path: {}",
-                    Thread.currentThread().getStackTrace()[1], servicePathName, renderedPathName);
-        }
-        printTraceStop(LOG);
-        return false;
+        writeTx.merge(LogicalDatastoreType.OPERATIONAL, rspIID,
+                new SfpRenderedServicePathBuilder().withKey(sfpRenderedServicePathKey).setName(renderedPathName)
+                        .build(), true);
     }
 
     public static boolean deleteRenderedPathFromServicePathState(SfpName sfpName, RspName rspName) {
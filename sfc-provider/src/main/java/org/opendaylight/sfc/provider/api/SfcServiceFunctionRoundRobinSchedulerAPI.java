@@ -43,7 +43,8 @@ public final class SfcServiceFunctionRoundRobinSchedulerAPI extends SfcServiceFu
         super.setSfcServiceFunctionSchedulerType(RoundRobin.class);
     }
 
-    private SfName getServiceFunctionByType(ServiceFunctionType serviceFunctionType) {
+    // RSPs may be scheduled concurrently, see SfcProviderRenderedPathBatchAPI
+    private static synchronized SfName getServiceFunctionByType(ServiceFunctionType serviceFunctionType) {
         List<SftServiceFunctionName> sftServiceFunctionNameList = serviceFunctionType.getSftServiceFunctionName();
         int countRoundRobin = 0;
 
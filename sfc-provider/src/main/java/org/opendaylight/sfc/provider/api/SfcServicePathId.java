@@ -13,9 +13,6 @@ import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.GenerationAlgorithmEnum;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.ServicePathIds;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.ServicePathIdsBuilder;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.service.path.ids.ServicePathId;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.service.path.ids.ServicePathIdBuilder;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.service.path.ids.ServicePathIdKey;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 /**
@@ -36,15 +33,25 @@ public final class SfcServicePathId {
     private static final int MIN_PATH_ID = 0;
     private static final int DEFAULT_GENERATION_ALGORITHM = GenerationAlgorithmEnum.Random.getIntValue();
     private static final Random RANDOM_GENERATOR = new Random();
-    private static int nextPathId = 0;
+    private static volatile int nextPathId = 0;
     private static final int NUM_PATH_ID = MAX_PATH_ID - MIN_PATH_ID + 1;
 
     /* Determines the trade-off */
     private static final int N = 64;
 
+    /* In-memory copy of the path-id bitarray, persisted in the background */
+    private static final SfcServicePathIdBitmap PATH_ID_BITMAP = new SfcServicePathIdBitmap(NUM_PATH_ID);
+
     private SfcServicePathId() {
     }
 
+    /**
+     * Persist the pending path-id allocations and stop the background writer.
+     */
+    static void close() {
+        PATH_ID_BITMAP.close();
+    }
+
     /**
      * Algorithm to randomize the generation of pathIds. Provides security by
      * making path-id less predictable. Adapted from NAT port allocation
@@ -55,45 +62,42 @@ public final class SfcServicePathId {
      * @return Pathid or error if none available
      */
     public static int generatePathIdRandomIncrements() {
-        int pathid;
-        int count = NUM_PATH_ID;
-
-        do {
-            nextPathId = nextPathId + RANDOM_GENERATOR.nextInt(NUM_PATH_ID) % N + 1;
-            pathid = MIN_PATH_ID + nextPathId % NUM_PATH_ID;
-
-            if (checkSuitablePathId(pathid)) {
-                return pathid;
-            }
-            count--;
-        }
-        while (count > 0);
-
-        return -1;
+        return toPathId(PATH_ID_BITMAP.findFree(getRandomIncrementsCandidate()));
     }
 
     /**
-     * Algorithm to sequentially generate pathIds.
+     * Allocate a pathId with the random increments algorithm. The free
+     * pathId is found and allocated in one step.
      *
      * <p>
      *
      * @return Pathid or error if none available
      */
-    private static int generatePathIdSequentialIncrements() {
-        int pathid;
-        int count = NUM_PATH_ID;
+    private static int allocatePathIdRandomIncrements() {
+        return toPathId(PATH_ID_BITMAP.allocateFirstFree(getRandomIncrementsCandidate()));
+    }
 
-        do {
-            nextPathId = nextPathId + 1;
-            pathid = MIN_PATH_ID + nextPathId;
+    /**
+     * Allocate a pathId with the sequential algorithm. The free pathId is
+     * found and allocated in one step.
+     *
+     * <p>
+     *
+     * @return Pathid or error if none available
+     */
+    private static int allocatePathIdSequentialIncrements() {
+        return toPathId(PATH_ID_BITMAP.allocateFirstFree((nextPathId + 1) % NUM_PATH_ID));
+    }
 
-            if (checkSuitablePathId(pathid) && allocatePathId(pathid)) {
-                return pathid;
-            }
+    private static int getRandomIncrementsCandidate() {
+        return (nextPathId + RANDOM_GENERATOR.nextInt(NUM_PATH_ID) % N + 1) % NUM_PATH_ID;
+    }
 
-            count--;
+    private static int toPathId(int pathid) {
+        if (pathid >= 0) {
+            nextPathId = pathid;
+            return MIN_PATH_ID + pathid;
         }
-        while (count > 0);
 
         return -1;
     }
@@ -108,19 +112,7 @@ public final class SfcServicePathId {
      * @return True if allocated, otherwise false.
      */
     public static long chechAndAllocatePathId(long pathid) {
-        if (SfcConcurrencyAPI.getPathIdLock()) {
-            try {
-                if (checkSuitablePathId(pathid) && allocatePathId(pathid)) {
-                    return pathid;
-                } else {
-                    return -1;
-                }
-            } finally {
-                SfcConcurrencyAPI.releasePathIdLock();
-            }
-        } else {
-            return -1;
-        }
+        return PATH_ID_BITMAP.allocateIfFree(pathid) ? pathid : -1;
     }
 
     /**
@@ -133,61 +125,32 @@ public final class SfcServicePathId {
      * @return True if allocated, otherwise false.
      */
     public static long checkAndAllocateSymmetricPathId(long pathid) {
-        if (SfcConcurrencyAPI.getPathIdLock()) {
-            try {
-                long symmetricId = -1;
-                GenerationAlgorithmEnum genAlg = getGenerationAlgorithm();
-                if (genAlg == GenerationAlgorithmEnum.Random) {
-                    symmetricId = pathid ^ 1 << 23;
-                    if (!checkSuitablePathId(symmetricId)) {
-                        symmetricId = -1;
-                    }
-                } else if (genAlg == GenerationAlgorithmEnum.Sequential) {
-                    symmetricId = generatePathIdSequentialIncrements();
-                }
-
-                if (symmetricId >= MIN_PATH_ID && allocatePathId(symmetricId)) {
-                    return symmetricId;
-                } else {
-                    return -1;
-                }
-            } finally {
-                SfcConcurrencyAPI.releasePathIdLock();
-            }
-        } else {
-            return -1;
+        GenerationAlgorithmEnum genAlg = getGenerationAlgorithm();
+        if (genAlg == GenerationAlgorithmEnum.Random) {
+            return chechAndAllocatePathId(pathid ^ 1 << 23);
+        } else if (genAlg == GenerationAlgorithmEnum.Sequential) {
+            return checkAndAllocatePathId();
         }
+        return -1;
     }
 
     /**
-     * Generate pathid, check and allocate if available.
+     * Generate pathid, check and allocate if available. The free path-id is
+     * found and allocated atomically, so concurrent allocations never get
+     * the same path-id and only fail when no path-id is free.
      *
      * <p>
      *
      * @return True if allocated, otherwise false.
      */
     public static long checkAndAllocatePathId() {
-        if (SfcConcurrencyAPI.getPathIdLock()) {
-            try {
-                long pathId = -1;
-                GenerationAlgorithmEnum genAlg = getGenerationAlgorithm();
-                if (genAlg == GenerationAlgorithmEnum.Random) {
-                    pathId = generatePathIdRandomIncrements();
-                } else if (genAlg == GenerationAlgorithmEnum.Sequential) {
-                    pathId = generatePathIdSequentialIncrements();
-                }
-
-                if (pathId >= MIN_PATH_ID && allocatePathId(pathId)) {
-                    return pathId;
-                } else {
-                    return -1;
-                }
-            } finally {
-                SfcConcurrencyAPI.releasePathIdLock();
-            }
-        } else {
-            return -1;
+        GenerationAlgorithmEnum genAlg = getGenerationAlgorithm();
+        if (genAlg == GenerationAlgorithmEnum.Random) {
+            return allocatePathIdRandomIncrements();
+        } else if (genAlg == GenerationAlgorithmEnum.Sequential) {
+            return allocatePathIdSequentialIncrements();
         }
+        return -1;
     }
 
     /**
@@ -200,20 +163,12 @@ public final class SfcServicePathId {
      * @return True if available, otherwise false.
      */
     public static boolean checkSuitablePathId(long pathid) {
-        ServicePathIdKey servicePathIdKey = new ServicePathIdKey(pathid / Long.SIZE);
-
-        /* Entry into the bitarray */
-        long bitEntry = pathid % Long.SIZE;
-
-        InstanceIdentifier<ServicePathId> spIID;
-        spIID = InstanceIdentifier.builder(ServicePathIds.class).child(ServicePathId.class, servicePathIdKey).build();
-        ServicePathId servicePathId = SfcDataStoreAPI.readTransactionAPI(spIID, LogicalDatastoreType.OPERATIONAL);
-
-        return servicePathId == null || (1L << 64 - bitEntry & servicePathId.getPathIdBitarray()) == 0;
+        return PATH_ID_BITMAP.isFree(pathid);
     }
 
     /**
-     * Allocate Pathid.
+     * Allocate Pathid. The allocation is persisted to the data store in the
+     * background, coalesced with other allocations.
      *
      * <p>
      *
@@ -222,32 +177,13 @@ public final class SfcServicePathId {
      * @return True if allocated, otherwise false.
      */
     public static boolean allocatePathId(long pathid) {
-        ServicePathIdKey servicePathIdKey = new ServicePathIdKey(pathid / Long.SIZE);
-
-        /* Entry into the bitarray */
-        long bitEntry = pathid % Long.SIZE;
-
-        long pathIdBitArray = 0;
-
-        InstanceIdentifier<ServicePathId> spIID;
-        spIID = InstanceIdentifier.builder(ServicePathIds.class).child(ServicePathId.class, servicePathIdKey).build();
-        ServicePathId servicePathId = SfcDataStoreAPI.readTransactionAPI(spIID, LogicalDatastoreType.OPERATIONAL);
-
-        if (servicePathId != null) {
-            pathIdBitArray = servicePathId.getPathIdBitarray() != null ? servicePathId.getPathIdBitarray() : 0;
-        }
-
-        ServicePathIdBuilder servicePathIdBuilder = new ServicePathIdBuilder();
-
-        servicePathIdBuilder.setPathIdBitarray(pathIdBitArray | 1L << Long.SIZE - bitEntry);
-        servicePathIdBuilder.withKey(servicePathIdKey);
-
-        return SfcDataStoreAPI.writeMergeTransactionAPI(spIID, servicePathIdBuilder.build(),
-                LogicalDatastoreType.OPERATIONAL);
+        PATH_ID_BITMAP.allocate(pathid);
+        return true;
     }
 
     /**
-     * Free Pathid.
+     * Free Pathid. The release is persisted to the data store in the
+     * background, coalesced with other allocations.
      *
      * <p>
      *
@@ -256,35 +192,12 @@ public final class SfcServicePathId {
      * @return True if freed, otherwise false.
      */
     public static boolean freePathId(long pathid) {
-        if (SfcConcurrencyAPI.getPathIdLock()) {
-            try {
-                ServicePathIdKey servicePathIdKey = new ServicePathIdKey(pathid / Long.SIZE);
-
-                /* Entry into the bitarray */
-                long bitEntry = pathid % Long.SIZE;
-
-                InstanceIdentifier<ServicePathId> spIID;
-                spIID = InstanceIdentifier.builder(ServicePathIds.class).child(ServicePathId.class, servicePathIdKey)
-                        .build();
-                ServicePathId servicePathId = SfcDataStoreAPI.readTransactionAPI(spIID,
-                        LogicalDatastoreType.OPERATIONAL);
-
-                ServicePathIdBuilder servicePathIdBuilder = new ServicePathIdBuilder(servicePathId);
-                servicePathIdBuilder.withKey(servicePathIdKey);
-                servicePathIdBuilder
-                        .setPathIdBitarray(servicePathId.getPathIdBitarray() & ~(1L << Long.SIZE - bitEntry));
-
-                return SfcDataStoreAPI.writeMergeTransactionAPI(spIID, servicePathIdBuilder.build(),
-                        LogicalDatastoreType.OPERATIONAL);
-            } finally {
-                SfcConcurrencyAPI.releasePathIdLock();
-            }
-        }
-        return false;
+        PATH_ID_BITMAP.free(pathid);
+        return true;
     }
 
     /**
-     * Get the Path-Id Generation-algorithm from the data-store.
+     * Get the Path-Id Generation-algorithm, as cached from the data-store.
      *
      * <p>
      * If its not present, create it with the default value.
@@ -294,15 +207,7 @@ public final class SfcServicePathId {
      * @return generation-algorithm enum value
      */
     private static GenerationAlgorithmEnum getGenerationAlgorithm() {
-        InstanceIdentifier<ServicePathIds> spIID = InstanceIdentifier.builder(ServicePathIds.class).build();
-        ServicePathIds servicePathIds = SfcDataStoreAPI.readTransactionAPI(spIID, LogicalDatastoreType.OPERATIONAL);
-
-        if (servicePathIds == null) {
-            setGenerationAlgorithm(DEFAULT_GENERATION_ALGORITHM);
-            return GenerationAlgorithmEnum.forValue(DEFAULT_GENERATION_ALGORITHM);
-        }
-
-        GenerationAlgorithmEnum genAlgorithm = servicePathIds.getGenerationAlgorithm();
+        GenerationAlgorithmEnum genAlgorithm = PATH_ID_BITMAP.getGenerationAlgorithm();
 
         if (genAlgorithm == null) {
             setGenerationAlgorithm(DEFAULT_GENERATION_ALGORITHM);
@@ -339,6 +244,7 @@ public final class SfcServicePathId {
 
         ServicePathIdsBuilder servicePathIdsBuilder = new ServicePathIdsBuilder();
         servicePathIdsBuilder.setGenerationAlgorithm(genAlgorithm);
+        PATH_ID_BITMAP.setGenerationAlgorithm(genAlgorithm);
 
         return SfcDataStoreAPI.writeMergeTransactionAPI(spIID, servicePathIdsBuilder.build(),
                 LogicalDatastoreType.OPERATIONAL);
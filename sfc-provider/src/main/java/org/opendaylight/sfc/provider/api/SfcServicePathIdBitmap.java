@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.GenerationAlgorithmEnum;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.ServicePathIds;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.ServicePathIdsBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.service.path.ids.ServicePathId;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.service.path.ids.ServicePathIdBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.service.path.ids.ServicePathIdKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory copy of the service path ID bitarray kept in the operational
+ * data store.
+ *
+ * <p>
+ * The bitarray is read once from {@link ServicePathIds} (and again whenever
+ * the data broker changes) and from then on every check and allocation is
+ * answered from memory. The path IDs covered by the generation algorithms live
+ * in a {@code long[]}, the few symmetric path IDs falling outside of that
+ * space are kept in a sparse map. Modified words are persisted in the
+ * background: all the words modified within a write-behind period are merged
+ * in a single transaction. The background writer is started on the first
+ * modification and stopped, after persisting the pending modifications,
+ * when the provider closes.
+ *
+ * <p>
+ * Internally bit {@code n} of a word represents path ID
+ * {@code word * 64 + n}. The persisted bitarray uses the historical layout
+ * where path ID {@code word * 64 + n} is bit {@code (64 - n) % 64}; words are
+ * converted when loaded and when persisted.
+ */
+final class SfcServicePathIdBitmap {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcServicePathIdBitmap.class);
+
+    private static final long WRITE_BEHIND_DELAY_MS = 20;
+
+    private static final InstanceIdentifier<ServicePathIds> SERVICE_PATH_IDS_IID = InstanceIdentifier
+            .create(ServicePathIds.class);
+
+    private final int numWords;
+    private final long[] words;
+    private final Map<Long, Long> outOfRangeWords = new HashMap<>();
+    private final TreeSet<Long> dirtyWords = new TreeSet<>();
+    private ScheduledExecutorService writeBehindExecutor;
+
+    private DataBroker loadedFrom;
+    private GenerationAlgorithmEnum generationAlgorithm;
+    private boolean flushScheduled;
+
+    /**
+     * Constructor.
+     *
+     * @param numPathIds
+     *            number of path IDs held in the bitmap array, starting from
+     *            path ID 0. Must be a multiple of 64
+     */
+    SfcServicePathIdBitmap(int numPathIds) {
+        this.numWords = numPathIds / Long.SIZE;
+        this.words = new long[numWords];
+    }
+
+    /**
+     * Persist the pending modifications and stop the background writer. A
+     * later modification starts it again.
+     */
+    void close() {
+        ScheduledExecutorService executor;
+        DataBroker broker;
+        synchronized (this) {
+            executor = writeBehindExecutor;
+            writeBehindExecutor = null;
+            broker = loadedFrom;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        flush(broker);
+    }
+
+    /**
+     * Check if a path ID is free.
+     *
+     * @param pathId
+     *            the path ID
+     * @return true if the path ID is not allocated, false otherwise
+     */
+    synchronized boolean isFree(long pathId) {
+        ensureLoaded();
+        return (getWord(pathId / Long.SIZE) & bit(pathId)) == 0;
+    }
+
+    /**
+     * Mark a path ID as allocated. The change is persisted asynchronously.
+     *
+     * @param pathId
+     *            the path ID
+     */
+    synchronized void allocate(long pathId) {
+        ensureLoaded();
+        long key = pathId / Long.SIZE;
+        setWord(key, getWord(key) | bit(pathId));
+    }
+
+    /**
+     * Mark a path ID as allocated if it is free, in one step. The change is
+     * persisted asynchronously.
+     *
+     * @param pathId
+     *            the path ID
+     * @return true if the path ID was free and is now allocated, false if it
+     *         was already allocated
+     */
+    synchronized boolean allocateIfFree(long pathId) {
+        ensureLoaded();
+        long key = pathId / Long.SIZE;
+        long word = getWord(key);
+        if ((word & bit(pathId)) != 0) {
+            return false;
+        }
+        setWord(key, word | bit(pathId));
+        return true;
+    }
+
+    /**
+     * Mark a path ID as free. The change is persisted asynchronously.
+     *
+     * @param pathId
+     *            the path ID
+     */
+    synchronized void free(long pathId) {
+        ensureLoaded();
+        long key = pathId / Long.SIZE;
+        setWord(key, getWord(key) & ~bit(pathId));
+    }
+
+    /**
+     * Find the first free path ID at or after the given one, wrapping around
+     * the bitmap array space. Only the bitmap array space is searched.
+     *
+     * @param from
+     *            the first candidate path ID
+     * @return the free path ID, or -1 if all the path IDs are allocated
+     */
+    synchronized int findFree(int from) {
+        ensureLoaded();
+        return findFreeInWords(from);
+    }
+
+    /**
+     * Find the first free path ID at or after the given one, wrapping around
+     * the bitmap array space, and mark it as allocated, in one step. Only the
+     * bitmap array space is searched. The change is persisted asynchronously.
+     *
+     * @param from
+     *            the first candidate path ID
+     * @return the allocated path ID, or -1 if all the path IDs are allocated
+     */
+    synchronized int allocateFirstFree(int from) {
+        ensureLoaded();
+        int pathId = findFreeInWords(from);
+        if (pathId >= 0) {
+            setWord(pathId / Long.SIZE, words[pathId / Long.SIZE] | bit(pathId));
+        }
+        return pathId;
+    }
+
+    private int findFreeInWords(int from) {
+        int start = Math.floorMod(from, numWords * Long.SIZE);
+        int startWord = start / Long.SIZE;
+        long startMask = -1L << start % Long.SIZE;
+        // the start word is visited twice: first the bits from the start
+        // position onwards, and after wrapping around, the bits before it
+        for (int i = 0; i <= numWords; i++) {
+            int wordIndex = (startWord + i) % numWords;
+            long freeBits = ~words[wordIndex];
+            if (i == 0) {
+                freeBits &= startMask;
+            } else if (i == numWords) {
+                freeBits &= ~startMask;
+            }
+            if (freeBits != 0) {
+                return wordIndex * Long.SIZE + Long.numberOfTrailingZeros(freeBits);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the path ID generation algorithm, as last read from or written to
+     * the data store.
+     *
+     * @return the generation algorithm, or null if not set
+     */
+    synchronized GenerationAlgorithmEnum getGenerationAlgorithm() {
+        ensureLoaded();
+        return generationAlgorithm;
+    }
+
+    /**
+     * Update the cached path ID generation algorithm. Persisting it is up to
+     * the caller.
+     *
+     * @param genAlgorithm
+     *            the generation algorithm
+     */
+    synchronized void setGenerationAlgorithm(GenerationAlgorithmEnum genAlgorithm) {
+        ensureLoaded();
+        generationAlgorithm = genAlgorithm;
+    }
+
+    private static long bit(long pathId) {
+        return 1L << pathId % Long.SIZE;
+    }
+
+    private static long fromPersisted(long persistedWord) {
+        return Long.rotateLeft(Long.reverse(persistedWord), 1);
+    }
+
+    private static long toPersisted(long word) {
+        return Long.reverse(Long.rotateRight(word, 1));
+    }
+
+    private long getWord(long key) {
+        if (key >= 0 && key < numWords) {
+            return words[(int) key];
+        }
+        Long word = outOfRangeWords.get(key);
+        return word == null ? 0 : word;
+    }
+
+    private void setWord(long key, long word) {
+        if (key >= 0 && key < numWords) {
+            words[(int) key] = word;
+        } else if (word == 0) {
+            outOfRangeWords.remove(key);
+        } else {
+            outOfRangeWords.put(key, word);
+        }
+        dirtyWords.add(key);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            DataBroker broker = loadedFrom;
+            if (writeBehindExecutor == null) {
+                writeBehindExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                        .setDaemon(true).setNameFormat("sfc-path-id-writer-%d").build());
+            }
+            writeBehindExecutor.schedule(() -> flush(broker), WRITE_BEHIND_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * (Re)load the bitmap from the data store if it was never loaded or if the
+     * data broker changed since it was loaded. Any modification pending to be
+     * persisted on a previous data broker is discarded.
+     */
+    private void ensureLoaded() {
+        DataBroker broker = SfcDataStoreAPI.getDataBroker();
+        if (broker == loadedFrom) {
+            return;
+        }
+
+        Arrays.fill(words, 0);
+        outOfRangeWords.clear();
+        dirtyWords.clear();
+        flushScheduled = false;
+        generationAlgorithm = null;
+        loadedFrom = broker;
+
+        ServicePathIds servicePathIds = SfcDataStoreAPI.readTransactionAPI(SERVICE_PATH_IDS_IID,
+                LogicalDatastoreType.OPERATIONAL);
+        if (servicePathIds == null) {
+            return;
+        }
+        generationAlgorithm = servicePathIds.getGenerationAlgorithm();
+        if (servicePathIds.getServicePathId() != null) {
+            for (ServicePathId servicePathId : servicePathIds.getServicePathId()) {
+                if (servicePathId.getPathIdKey() != null && servicePathId.getPathIdBitarray() != null) {
+                    long key = servicePathId.getPathIdKey();
+                    long word = fromPersisted(servicePathId.getPathIdBitarray());
+                    if (key >= 0 && key < numWords) {
+                        words[(int) key] = word;
+                    } else if (word != 0) {
+                        outOfRangeWords.put(key, word);
+                    }
+                }
+            }
+        }
+        LOG.debug("ensureLoaded: loaded {} path id words", servicePathIds.getServicePathId() == null ? 0
+                : servicePathIds.getServicePathId().size());
+    }
+
+    /**
+     * Persist, in a single merge transaction, all the words modified since the
+     * last flush.
+     *
+     * @param broker
+     *            the data broker the modified words were loaded from
+     */
+    private void flush(DataBroker broker) {
+        List<ServicePathId> servicePathIdList = new ArrayList<>();
+        synchronized (this) {
+            flushScheduled = false;
+            if (broker != loadedFrom || broker == null) {
+                // the bitmap was reloaded from another data broker
+                return;
+            }
+            for (Long key : dirtyWords) {
+                servicePathIdList.add(new ServicePathIdBuilder().withKey(new ServicePathIdKey(key))
+                        .setPathIdBitarray(toPersisted(getWord(key))).build());
+            }
+            dirtyWords.clear();
+        }
+
+        if (servicePathIdList.isEmpty()) {
+            return;
+        }
+
+        WriteTransaction writeTx = broker.newWriteOnlyTransaction();
+        writeTx.merge(LogicalDatastoreType.OPERATIONAL, SERVICE_PATH_IDS_IID,
+                new ServicePathIdsBuilder().setServicePathId(servicePathIdList).build(), true);
+        try {
+            writeTx.commit().get();
+            LOG.debug("flush: persisted {} path id words", servicePathIdList.size());
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.error("flush: failed to persist {} path id words", servicePathIdList.size(), e);
+        }
+    }
+}
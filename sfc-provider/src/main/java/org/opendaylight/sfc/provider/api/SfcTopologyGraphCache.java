@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.sfc.provider.topology.SfcProviderGraph;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.ServiceFunctions;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.ServiceFunctionForwarders;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Long lived topology graph of all the SFs and SFFs, used by the topology
+ * aware schedulers.
+ *
+ * <p>
+ * The SFs and SFFs are read from the data store once (and again whenever the
+ * data broker changes). From then on the SF and SFF listeners keep the cached
+ * nodes and edges up to date. Schedulers get an immutable {@link Topology}
+ * snapshot which is rebuilt in memory, on demand, only after a change that
+ * actually modifies nodes or edges; SF to SF hop counts are computed lazily
+ * and memoized within each snapshot.
+ */
+public final class SfcTopologyGraphCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcTopologyGraphCache.class);
+
+    private static final Set<String> SF_NAMES = new HashSet<>();
+    // SF names in the dictionary of each SFF, indexed by SFF name
+    private static final Map<String, Set<String>> SFF_TO_SFS = new HashMap<>();
+    // Connected SFF names of each SFF, indexed by SFF name
+    private static final Map<String, Set<String>> SFF_TO_SFFS = new HashMap<>();
+
+    private static DataBroker loadedFrom;
+    private static Topology topology;
+
+    private SfcTopologyGraphCache() {
+    }
+
+    /**
+     * Get the current topology snapshot.
+     *
+     * @return the topology snapshot
+     */
+    public static synchronized Topology getTopology() {
+        ensureLoaded();
+        if (topology == null) {
+            topology = new Topology(buildGraph());
+        }
+        return topology;
+    }
+
+    /**
+     * Add or update a SF in the topology graph.
+     *
+     * @param serviceFunction
+     *            the added or updated SF
+     */
+    public static synchronized void updateServiceFunction(ServiceFunction serviceFunction) {
+        if (isLoaded() && SF_NAMES.add(serviceFunction.getName().getValue())) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Remove a SF from the topology graph.
+     *
+     * @param serviceFunction
+     *            the removed SF
+     */
+    public static synchronized void removeServiceFunction(ServiceFunction serviceFunction) {
+        if (isLoaded() && SF_NAMES.remove(serviceFunction.getName().getValue())) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Add or update a SFF, along with its SF and SFF edges, in the topology
+     * graph.
+     *
+     * @param serviceFunctionForwarder
+     *            the added or updated SFF
+     */
+    public static synchronized void updateServiceFunctionForwarder(
+            ServiceFunctionForwarder serviceFunctionForwarder) {
+        if (isLoaded() && putServiceFunctionForwarder(serviceFunctionForwarder)) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Remove a SFF, along with its SF and SFF edges, from the topology graph.
+     *
+     * @param serviceFunctionForwarder
+     *            the removed SFF
+     */
+    public static synchronized void removeServiceFunctionForwarder(
+            ServiceFunctionForwarder serviceFunctionForwarder) {
+        if (!isLoaded()) {
+            return;
+        }
+        String sffName = serviceFunctionForwarder.getName().getValue();
+        boolean removed = SFF_TO_SFS.remove(sffName) != null;
+        removed |= SFF_TO_SFFS.remove(sffName) != null;
+        if (removed) {
+            invalidate();
+        }
+    }
+
+    private static boolean isLoaded() {
+        return loadedFrom != null && loadedFrom == SfcDataStoreAPI.getDataBroker();
+    }
+
+    private static void invalidate() {
+        topology = null;
+    }
+
+    private static void ensureLoaded() {
+        if (isLoaded()) {
+            return;
+        }
+
+        SF_NAMES.clear();
+        SFF_TO_SFS.clear();
+        SFF_TO_SFFS.clear();
+        invalidate();
+        loadedFrom = SfcDataStoreAPI.getDataBroker();
+
+        ServiceFunctions sfs = SfcProviderServiceFunctionAPI.readAllServiceFunctions();
+        if (sfs != null && sfs.getServiceFunction() != null) {
+            sfs.getServiceFunction().forEach(sf -> SF_NAMES.add(sf.getName().getValue()));
+        }
+        ServiceFunctionForwarders sffs = SfcProviderServiceForwarderAPI.readAllServiceFunctionForwarders();
+        if (sffs != null && sffs.getServiceFunctionForwarder() != null) {
+            sffs.getServiceFunctionForwarder().forEach(SfcTopologyGraphCache::putServiceFunctionForwarder);
+        }
+        LOG.debug("ensureLoaded: loaded {} SFs and {} SFFs", SF_NAMES.size(), SFF_TO_SFS.size());
+    }
+
+    /**
+     * Store the SF and SFF edges of a SFF.
+     *
+     * @param sff
+     *            the SFF
+     * @return true if the SFF is new or any of its edges changed
+     */
+    private static boolean putServiceFunctionForwarder(ServiceFunctionForwarder sff) {
+        String sffName = sff.getName().getValue();
+        Set<String> sfNames = toNames(sff.getServiceFunctionDictionary(), dict -> dict.getName().getValue());
+        Set<String> sffNames = toNames(sff.getConnectedSffDictionary(), dict -> dict.getName().getValue());
+        Set<String> oldSfNames = SFF_TO_SFS.put(sffName, sfNames);
+        Set<String> oldSffNames = SFF_TO_SFFS.put(sffName, sffNames);
+        return !Objects.equals(sfNames, oldSfNames) || !Objects.equals(sffNames, oldSffNames);
+    }
+
+    private static <T> Set<String> toNames(List<T> dictionary, Function<T, String> nameGetter) {
+        if (dictionary == null) {
+            return Collections.emptySet();
+        }
+        return dictionary.stream().map(nameGetter).collect(Collectors.toSet());
+    }
+
+    private static SfcProviderGraph buildGraph() {
+        SfcProviderGraph sfcProviderGraph = new SfcProviderGraph();
+        SF_NAMES.forEach(sfcProviderGraph::addNode);
+        SFF_TO_SFS.forEach((sffName, sfNames) -> {
+            sfcProviderGraph.addNode(sffName);
+            sfNames.forEach(sfName -> sfcProviderGraph.addEdge(sfName, sffName));
+        });
+        SFF_TO_SFFS.forEach((sffName, sffNames) -> sffNames
+                .forEach(toSffName -> sfcProviderGraph.addEdge(sffName, toSffName)));
+        LOG.debug("buildGraph: rebuilt topology graph with {} SFs and {} SFFs", SF_NAMES.size(),
+                SFF_TO_SFS.size());
+        return sfcProviderGraph;
+    }
+
+    /**
+     * Immutable snapshot of the topology graph. It is safe to use from
+     * multiple threads.
+     */
+    public static final class Topology {
+        private final SfcProviderGraph sfcProviderGraph;
+        private final Map<String, Map<String, Integer>> hopCounts = new ConcurrentHashMap<>();
+
+        private Topology(SfcProviderGraph sfcProviderGraph) {
+            this.sfcProviderGraph = sfcProviderGraph;
+        }
+
+        /**
+         * Check if a SF or SFF is part of the topology.
+         *
+         * @param nodeName
+         *            the SF or SFF name
+         * @return true if the node exists, false otherwise
+         */
+        public boolean hasNode(String nodeName) {
+            return sfcProviderGraph.hasNode(nodeName);
+        }
+
+        /**
+         * Get the number of hops of the shortest path between two nodes.
+         *
+         * @param fromNodeName
+         *            the name of the node to start from
+         * @param toNodeName
+         *            the name of the destination node
+         * @return the number of hops, 0 for the same node, or -1 if there is
+         *         no path
+         */
+        public int getHopCount(String fromNodeName, String toNodeName) {
+            Integer hopCount = hopCounts.computeIfAbsent(fromNodeName, sfcProviderGraph::getHopCounts)
+                    .get(toNodeName);
+            return hopCount == null ? -1 : hopCount;
+        }
+    }
+}
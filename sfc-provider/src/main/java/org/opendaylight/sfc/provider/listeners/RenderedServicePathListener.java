@@ -18,6 +18,7 @@ import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeChangeListener;
 import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
+import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathBatchAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServicePathAPI;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePaths;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
@@ -55,6 +56,13 @@ public class RenderedServicePathListener extends AbstractSyncDataTreeChangeListe
 
         LOG.info("add: RSP: {}", renderedServicePath.getName().getValue());
 
+        // RSPs created through the create-rendered-paths RPC are written to
+        // both data stores at once
+        if (SfcProviderRenderedPathBatchAPI.checkRenderedInBatch(renderedServicePath.getName())) {
+            LOG.debug("add: RSP {} already in the operational data store", renderedServicePath.getName().getValue());
+            return;
+        }
+
         ServiceFunctionPath serviceFunctionPath = SfcProviderServicePathAPI
                 .readServiceFunctionPath(renderedServicePath.getParentServiceFunctionPath());
 
@@ -8,25 +8,34 @@
 package org.opendaylight.sfc.provider.listeners;
 
 import com.google.common.collect.Sets;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.infrautils.utils.concurrent.Executors;
 import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.provider.api.SfcAclRspIndex;
 import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
+import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathMigrationAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServicePathAPI;
+import org.opendaylight.sfc.provider.api.SfcTopologyGraphCache;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffDataPlaneLocatorName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SnName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
@@ -51,16 +60,35 @@ public class ServiceFunctionForwarderListener extends AbstractSyncDataTreeChange
 
     private static final Logger LOG = LoggerFactory.getLogger(ServiceFunctionForwarderListener.class);
 
+    // Runs the migrations of the SFF updates off the listener thread, one
+    // update at a time
+    private final ExecutorService updateExecutor = Executors.newSingleThreadExecutor("SfcSffUpdate", LOG);
+    private final ExecutorService migrationExecutor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), "SfcSffRspMigration", LOG);
+
+    // The ACLs switched to the replacement RSPs
+    private final SfcAclRspIndex aclRspIndex = new SfcAclRspIndex();
+    private final AccessListRspIndexListener aclRspIndexListener;
+
     @Inject
     public ServiceFunctionForwarderListener(DataBroker dataBroker) {
         super(dataBroker, LogicalDatastoreType.CONFIGURATION,
               InstanceIdentifier.create(ServiceFunctionForwarders.class).child(ServiceFunctionForwarder.class));
+        this.aclRspIndexListener = new AccessListRspIndexListener(dataBroker, aclRspIndex);
+    }
+
+    @Override
+    @PostConstruct
+    public void register() {
+        aclRspIndexListener.register();
+        super.register();
     }
 
     @Override
     public void add(@Nonnull InstanceIdentifier<ServiceFunctionForwarder> instanceIdentifier,
                     @Nonnull ServiceFunctionForwarder serviceFunctionForwarder) {
         LOG.info("Adding Service Function Forwarder: {}", serviceFunctionForwarder.getName());
+        SfcTopologyGraphCache.updateServiceFunctionForwarder(serviceFunctionForwarder);
     }
 
     @Override
@@ -69,6 +97,7 @@ public class ServiceFunctionForwarderListener extends AbstractSyncDataTreeChange
         SffName sffName = serviceFunctionForwarder.getName();
         // Get RSPs of SFF
         LOG.info("Deleting Service Function Forwarder {}", sffName);
+        SfcTopologyGraphCache.removeServiceFunctionForwarder(serviceFunctionForwarder);
         List<RspName> rspNames = SfcProviderServiceForwarderAPI.readRspNamesFromSffState(sffName);
 
         LOG.info("Deleting Service Function Paths for RSPs {}", rspNames);
@@ -83,26 +112,58 @@ public class ServiceFunctionForwarderListener extends AbstractSyncDataTreeChange
     public void update(@Nonnull InstanceIdentifier<ServiceFunctionForwarder> instanceIdentifier,
                        @Nonnull ServiceFunctionForwarder originalServiceFunctionForwarder,
                        @Nonnull ServiceFunctionForwarder updatedServiceFunctionForwarder) {
-        LOG.info("Updating Service Function Forwarder: {}", originalServiceFunctionForwarder.getName());
-        List<RspName> rspNames = findAffectedRsp(originalServiceFunctionForwarder, updatedServiceFunctionForwarder);
-
-        LOG.info("Deleting Service Function Paths for RSPs {}", rspNames);
-        for (RspName rspName : rspNames) {
-            RenderedServicePath rsp = SfcProviderRenderedPathAPI.readRenderedServicePath(rspName);
-            LOG.info("Deleting SFP {}", rsp.getParentServiceFunctionPath().getValue());
-            // This will in-turn delete the RSP from config and oper
-            SfcProviderServicePathAPI.deleteServiceFunctionPath(rsp.getParentServiceFunctionPath());
+        SffName sffName = originalServiceFunctionForwarder.getName();
+        LOG.info("Updating Service Function Forwarder: {}", sffName);
+        SfcTopologyGraphCache.updateServiceFunctionForwarder(updatedServiceFunctionForwarder);
+        Predicate<List<RenderedServicePathHop>> hopsValidator = getHopsValidator(originalServiceFunctionForwarder,
+                updatedServiceFunctionForwarder);
+        List<RspName> rspNames = findAffectedRsp(originalServiceFunctionForwarder, updatedServiceFunctionForwarder,
+                hopsValidator);
+        if (rspNames.isEmpty()) {
+            return;
         }
+
+        // Build, render and switch the classifiers to replacement RSPs
+        // before deleting the affected ones
+        LOG.info("Migrating RSPs {}", rspNames);
+        updateExecutor.execute(() -> {
+            Set<SfpName> failedSfpNames = SfcProviderRenderedPathMigrationAPI.migrateRenderedServicePaths(sffName,
+                    rspNames, hopsValidator, aclRspIndex, migrationExecutor);
+
+            for (SfpName sfpName : failedSfpNames) {
+                LOG.info("Deleting SFP {}", sfpName.getValue());
+                // This will in-turn delete the RSP from config and oper
+                SfcProviderServicePathAPI.deleteServiceFunctionPath(sfpName);
+            }
+        });
+    }
+
+    /**
+     * Wait for the migrations of the SFF updates received so far to complete.
+     */
+    void awaitMigrations() throws InterruptedException, ExecutionException {
+        updateExecutor.submit(() -> null).get();
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        super.close();
+        aclRspIndexListener.close();
+        updateExecutor.shutdown();
+        migrationExecutor.shutdown();
     }
 
     /**
      * Obtains the list of RSP affected by a change on the SFF.
      *
-     * @param originalSff the original SFF.
-     * @param updatedSff  the updated SFF.
+     * @param originalSff   the original SFF.
+     * @param updatedSff    the updated SFF.
+     * @param hopsValidator the validator of the RSP hops for the updated SFF.
      * @return a list of {@link RspName} of the affected RSP.
      */
-    private List<RspName> findAffectedRsp(ServiceFunctionForwarder originalSff, ServiceFunctionForwarder updatedSff) {
+    private List<RspName> findAffectedRsp(ServiceFunctionForwarder originalSff, ServiceFunctionForwarder updatedSff,
+                                          Predicate<List<RenderedServicePathHop>> hopsValidator) {
         SffName sffName = originalSff.getName();
         List<RspName> rspNames = SfcProviderServiceForwarderAPI.readRspNamesFromSffState(sffName);
 
@@ -122,28 +183,50 @@ public class ServiceFunctionForwarderListener extends AbstractSyncDataTreeChange
             return rspNames;
         }
 
+        // check affected RSPs
+        return rspNames.stream()
+                .filter(rspName -> !hopsValidator.test(
+                        SfcProviderRenderedPathAPI.readRenderedServicePath(rspName).getRenderedServicePathHop()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Obtains the validator of the RSP hops for the updated SFF. It is used
+     * both to find the RSPs affected by a change on the SFF, and to check the
+     * RSPs built to replace them.
+     *
+     * @param originalSff the original SFF.
+     * @param updatedSff  the updated SFF.
+     * @return a predicate telling whether the hops of a RSP are valid.
+     */
+    private Predicate<List<RenderedServicePathHop>> getHopsValidator(ServiceFunctionForwarder originalSff,
+                                                                     ServiceFunctionForwarder updatedSff) {
+        SffName sffName = originalSff.getName();
+        Predicate<List<RenderedServicePathHop>> notThisSff = hops -> hops.stream()
+                .noneMatch(hop -> sffName.equals(hop.getServiceFunctionForwarder()));
+
         List<SffDataPlaneLocator> updatedLocators = updatedSff.getSffDataPlaneLocator();
         if (updatedLocators == null || updatedLocators.isEmpty()) {
             LOG.debug("Updated SFF has no locators");
-            return rspNames;
+            return notThisSff;
         }
 
         List<ServiceFunctionDictionary> updatedDictList = updatedSff.getServiceFunctionDictionary();
         if (updatedDictList == null || updatedDictList.isEmpty()) {
             LOG.debug("Updated SFF has no dictionary entries");
-            return rspNames;
+            return notThisSff;
         }
 
         List<SffDataPlaneLocator> originalLocators = originalSff.getSffDataPlaneLocator();
         if (originalLocators == null || originalLocators.isEmpty()) {
             LOG.debug("Original SFF has no locators");
-            return Collections.emptyList();
+            return hops -> true;
         }
 
         List<ServiceFunctionDictionary> originalDictList = originalSff.getServiceFunctionDictionary();
         if (originalDictList == null || originalDictList.isEmpty()) {
             LOG.debug("Original SFF has no dictionary entries");
-            return Collections.emptyList();
+            return hops -> true;
         }
 
         // What follows might require quite a bit of processing for a big SFF.
@@ -184,10 +267,7 @@ public class ServiceFunctionForwarderListener extends AbstractSyncDataTreeChange
         // Removed locators may not affect single SFF RSPs
         boolean onlyAllowThisSff = removedLocatorNames.size() > 0;
 
-        // check affected RSPs
-        return rspNames.stream()
-                .filter(rspName -> !isRspValid(rspName, sffName, onlyAllowThisSff, invalidSfs))
-                .collect(Collectors.toList());
+        return hops -> isRspValid(hops, sffName, onlyAllowThisSff, invalidSfs);
     }
 
     /**
@@ -198,7 +278,7 @@ public class ServiceFunctionForwarderListener extends AbstractSyncDataTreeChange
      * included in <code>invalidSfList</code> are used for the path
      * in any hop along with <code>sffName</code>.
      *
-     * @param rspName       the RSP name.
+     * @param rspHops       the RSP hops.
      * @param sffName       the SFF name.
      * @param isSingleSff   if the RSP must have a single SFF and
      *                      has to be <code>sffName</code>.
@@ -207,12 +287,11 @@ public class ServiceFunctionForwarderListener extends AbstractSyncDataTreeChange
      * @return true if the RSP is valid according to the criteria defined
      *         above.
      */
-    private boolean isRspValid(final RspName rspName,
-                               final SffName sffName,
-                               final boolean isSingleSff,
-                               final List<SfName> invalidSfList) {
-        RenderedServicePath renderedServicePath = SfcProviderRenderedPathAPI.readRenderedServicePath(rspName);
-        for (RenderedServicePathHop hop : renderedServicePath.getRenderedServicePathHop()) {
+    private static boolean isRspValid(final List<RenderedServicePathHop> rspHops,
+                                      final SffName sffName,
+                                      final boolean isSingleSff,
+                                      final List<SfName> invalidSfList) {
+        for (RenderedServicePathHop hop : rspHops) {
             SffName serviceFunctionForwarder = hop.getServiceFunctionForwarder();
             SfName serviceFunctionName = hop.getServiceFunctionName();
             boolean sameSff = sffName.equals(serviceFunctionForwarder);
@@ -19,6 +19,7 @@ import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeCh
 import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServicePathAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceTypeAPI;
+import org.opendaylight.sfc.provider.api.SfcTopologyGraphCache;
 import org.opendaylight.sfc.provider.validators.util.SfcDatastoreCache;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.ServiceFunctions;
@@ -52,6 +53,7 @@ public class ServiceFunctionListener extends AbstractSyncDataTreeChangeListener<
         LOG.debug("add: storing name [{}] type [{}]", serviceFunction.getName().getValue(),
                   serviceFunction.getType().getValue());
         SfcDatastoreCache.getSfToSfTypeCache().put(serviceFunction.getName(), serviceFunction.getType().getValue());
+        SfcTopologyGraphCache.updateServiceFunction(serviceFunction);
         if (!SfcProviderServiceTypeAPI.createServiceFunctionTypeEntry(serviceFunction)) {
             LOG.error("add:Failed to create Service Function: ", serviceFunction.getName());
         }
@@ -64,6 +66,7 @@ public class ServiceFunctionListener extends AbstractSyncDataTreeChangeListener<
 
         // delete cache
         SfcDatastoreCache.getSfToSfTypeCache().invalidate(serviceFunction.getName());
+        SfcTopologyGraphCache.removeServiceFunction(serviceFunction);
 
         deleteSfSfps(serviceFunction);
         if (!SfcProviderServiceTypeAPI.deleteServiceFunctionTypeEntry(serviceFunction)) {
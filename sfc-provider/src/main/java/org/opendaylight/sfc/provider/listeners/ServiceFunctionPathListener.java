@@ -49,11 +49,21 @@ public class ServiceFunctionPathListener extends AbstractSyncDataTreeChangeListe
                     @Nonnull ServiceFunctionPath serviceFunctionPath) {
         LOG.info("add: SFP: {}", serviceFunctionPath.getName().getValue());
 
+        // The SFP may have already been rendered through the create-rendered-paths RPC
+        if (!SfcProviderRenderedPathAPI.claimServiceFunctionPath(serviceFunctionPath.getName())) {
+            LOG.info("add: SFP {} is already rendered", serviceFunctionPath.getName().getValue());
+            return;
+        }
+
         // Internally, this will optionally create the symmetric RSP
-        RenderedServicePath newRenderedServicePath = SfcProviderRenderedPathAPI
-                 .createRenderedServicePathInConfig(serviceFunctionPath);
-        if (newRenderedServicePath == null) {
-            LOG.error("Failed to create Rendered Service Path {}", serviceFunctionPath.getName().getValue());
+        RenderedServicePath newRenderedServicePath = null;
+        try {
+            newRenderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathInConfig(serviceFunctionPath);
+        } finally {
+            if (newRenderedServicePath == null) {
+                LOG.error("Failed to create Rendered Service Path {}", serviceFunctionPath.getName().getValue());
+                SfcProviderRenderedPathAPI.releaseServiceFunctionPath(serviceFunctionPath.getName());
+            }
         }
     }
 
@@ -73,6 +83,7 @@ public class ServiceFunctionPathListener extends AbstractSyncDataTreeChangeListe
                             LogicalDatastoreType.CONFIGURATION));
             SfcProviderServicePathAPI.deleteServiceFunctionState(sfpName);
         }
+        SfcProviderRenderedPathAPI.releaseServiceFunctionPath(sfpName);
     }
 
     @Override
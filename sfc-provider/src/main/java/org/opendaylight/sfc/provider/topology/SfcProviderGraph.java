@@ -8,11 +8,13 @@
 
 package org.opendaylight.sfc.provider.topology;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.TreeSet;
 import org.slf4j.Logger;
@@ -144,6 +146,38 @@ public class SfcProviderGraph {
         }
     }
 
+    /**
+     * Get the hop count from the 'from' node to every node reachable from it.
+     * Unlike {@link #getShortestPath(String, String)}, the graph nodes are not
+     * modified, so concurrent invocations are safe as long as the graph itself
+     * is not being modified.
+     *
+     * @param fromNodeName
+     *            name of the node to start from
+     * @return hop count indexed by reachable node name, including the 'from'
+     *         node itself at 0 hops; empty if the 'from' node doesn't exist
+     */
+    public Map<String, Integer> getHopCounts(String fromNodeName) {
+        if (!hasNode(fromNodeName)) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Integer> hopCounts = new HashMap<>();
+        hopCounts.put(fromNodeName, 0);
+        Queue<String> queue = new ArrayDeque<>();
+        queue.add(fromNodeName);
+        while (!queue.isEmpty()) {
+            String nodeName = queue.poll();
+            int nextHopCount = hopCounts.get(nodeName) + 1;
+            for (SfcProviderTopologyNode sfcNode : getNeighborNodes(nodeName)) {
+                if (hopCounts.putIfAbsent(sfcNode.getName(), nextHopCount) == null) {
+                    queue.add(sfcNode.getName());
+                }
+            }
+        }
+        return hopCounts;
+    }
+
     public List<SfcProviderTopologyNode> getShortestPath(String fromNodeName, String toNodeName) {
         SfcProviderTopologyNode fromNode = getNode(fromNodeName);
         SfcProviderTopologyNode toNode = getNode(toNodeName);
@@ -15,6 +15,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -32,10 +33,14 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev1
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfDataPlaneLocatorName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfcName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathsInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathsOutput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRenderedServicePathFirstHopInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRenderedServicePathFirstHopInputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRenderedServicePathFirstHopOutput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.create.rendered.paths.output.RenderedPathResult;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.ServiceFunctionClassifiers;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.ServiceFunctionClassifier;
@@ -64,6 +69,7 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev1407
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChainKey;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.state.service.function.forwarder.state.SffServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPathBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.state.service.function.path.state.SfpRenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.SlTransportType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.locator.type.IpBuilder;
@@ -85,6 +91,7 @@ public class SfcProviderRpcTest extends AbstractSfcRendererServicePathAPITest {
 
     @After
     public void after() throws ExecutionException, InterruptedException {
+        sfcProviderRpc.close();
         close();
     }
 
@@ -154,6 +161,50 @@ public class SfcProviderRpcTest extends AbstractSfcRendererServicePathAPITest {
         assertFalse(result.get().getErrors().isEmpty());
     }
 
+    @Test
+    public void createRenderedPathsTest() throws Exception {
+        init();
+
+        SfpName sfpName1 = new SfpName("unittest-bulk-sfp-1");
+        SfpName sfpName2 = new SfpName("unittest-bulk-sfp-2");
+        SfpName unknownSfpName = new SfpName("unittest-bulk-sfp-unknown");
+        SfcProviderServicePathAPI.putServiceFunctionPath(new ServiceFunctionPathBuilder().setName(sfpName1)
+                .setServiceChainName(SFC_NAME).setSymmetric(true).build());
+        SfcProviderServicePathAPI.putServiceFunctionPath(new ServiceFunctionPathBuilder().setName(sfpName2)
+                .setServiceChainName(SFC_NAME).build());
+
+        CreateRenderedPathsOutput output = sfcProviderRpc.createRenderedPaths(new CreateRenderedPathsInputBuilder()
+                .setServiceFunctionPath(Arrays.asList(sfpName1, sfpName2, unknownSfpName)).build())
+                .get().getResult();
+        List<RenderedPathResult> results = output.getRenderedPathResult();
+        assertEquals(3, results.size());
+
+        RenderedPathResult result1 = results.get(0);
+        assertEquals(sfpName1, result1.getServiceFunctionPath());
+        assertTrue(result1.isResult());
+        assertNotNull(result1.getSymmetricName());
+        RenderedPathResult result2 = results.get(1);
+        assertEquals(sfpName2, result2.getServiceFunctionPath());
+        assertTrue(result2.isResult());
+        assertNull(result2.getSymmetricName());
+        assertFalse(results.get(2).isResult());
+
+        for (RspName rspName : Arrays.asList(result1.getName(), result1.getSymmetricName(), result2.getName())) {
+            assertNotNull(SfcProviderRenderedPathAPI.readRenderedServicePath(rspName,
+                    LogicalDatastoreType.CONFIGURATION));
+            assertNotNull(SfcProviderRenderedPathAPI.readRenderedServicePath(rspName,
+                    LogicalDatastoreType.OPERATIONAL));
+        }
+        assertEquals(2, SfcProviderServicePathAPI.readServicePathState(sfpName1).size());
+        assertEquals(result2.getName(), SfcProviderServicePathAPI.readServicePathState(sfpName2).get(0).getName());
+        assertFalse(SfcProviderServiceForwarderAPI.readSffState(SFF_NAMES.get(1)).isEmpty());
+
+        // already rendered SFPs are not rendered again
+        output = sfcProviderRpc.createRenderedPaths(new CreateRenderedPathsInputBuilder()
+                .setServiceFunctionPath(Arrays.asList(sfpName1, sfpName2)).build()).get().getResult();
+        output.getRenderedPathResult().forEach(result -> assertFalse(result.isResult()));
+    }
+
     @Test
     public void putServiceFunctionChainsTest() {
         PutServiceFunctionChainsInputBuilder putServiceFunctionChainsInputBuilder =
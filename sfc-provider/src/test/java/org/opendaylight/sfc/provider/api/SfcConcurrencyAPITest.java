@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Test;
+
+public class SfcConcurrencyAPITest {
+
+    @Test
+    public void lockIsCounted() {
+        final long acquisitions = SfcConcurrencyAPI.getLockAcquisitions();
+        final long timeouts = SfcConcurrencyAPI.getLockTimeouts();
+
+        assertTrue(SfcConcurrencyAPI.getLock("sfp1"));
+        SfcConcurrencyAPI.releaseLock("sfp1");
+
+        assertEquals(acquisitions + 1, SfcConcurrencyAPI.getLockAcquisitions());
+        assertEquals(timeouts, SfcConcurrencyAPI.getLockTimeouts());
+    }
+
+    @Test
+    public void lockTimeoutIsCounted() throws Exception {
+        final long timeouts = SfcConcurrencyAPI.getLockTimeouts();
+        final long waitTimeNanos = SfcConcurrencyAPI.getLockWaitTimeNanos();
+
+        assertTrue(SfcConcurrencyAPI.getLock("sff1"));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // the lock is held by this thread, the other one times out
+            assertFalse(executor.submit(() -> SfcConcurrencyAPI.getLock("sff1")).get());
+        } finally {
+            SfcConcurrencyAPI.releaseLock("sff1");
+            executor.shutdown();
+        }
+
+        assertEquals(timeouts + 1, SfcConcurrencyAPI.getLockTimeouts());
+        assertTrue(SfcConcurrencyAPI.getLockWaitTimeNanos() - waitTimeNanos >= 1000000000L);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.provider.AbstractDataStoreManager;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunctionBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.state.service.function.state.SfServicePath;
+
+public class SfcDataStoreAPITest extends AbstractDataStoreManager {
+
+    @Before
+    public void before() {
+        setupSfc();
+    }
+
+    @Test
+    public void testReadBatch() {
+        ServiceFunction sf = new ServiceFunctionBuilder().setName(new SfName("SF1"))
+                .setType(new SftTypeName("firewall")).build();
+        assertTrue(SfcProviderServiceFunctionAPI.putServiceFunction(sf));
+
+        ListenableFuture<ServiceFunction> sf1;
+        ListenableFuture<ServiceFunction> sf2;
+        ListenableFuture<List<SfServicePath>> sf1State;
+        try (SfcDataStoreAPI.ReadBatch readBatch = SfcDataStoreAPI.newReadBatch()) {
+            sf1 = SfcProviderServiceFunctionAPI.readServiceFunction(new SfName("SF1"), readBatch);
+            sf2 = SfcProviderServiceFunctionAPI.readServiceFunction(new SfName("SF2"), readBatch);
+            sf1State = SfcProviderServiceFunctionAPI.readServiceFunctionState(new SfName("SF1"), readBatch);
+        }
+
+        assertEquals(sf, SfcDataStoreAPI.getResult(sf1));
+        assertNull(SfcDataStoreAPI.getResult(sf2));
+        assertNull(SfcDataStoreAPI.getResult(sf1State));
+    }
+
+    @Test
+    public void testCommitTransactionAsync() {
+        ServiceFunction sf = new ServiceFunctionBuilder().setName(new SfName("SF1"))
+                .setType(new SftTypeName("firewall")).build();
+        WriteTransaction writeTx = SfcDataStoreAPI.getDataBroker().newWriteOnlyTransaction();
+        writeTx.put(LogicalDatastoreType.CONFIGURATION,
+                SfcInstanceIdentifiers.SF_IID.child(ServiceFunction.class, sf.key()), sf, true);
+
+        assertTrue(SfcDataStoreAPI.getResult(SfcDataStoreAPI.commitTransactionAsyncAPI(writeTx)));
+        assertEquals(sf, SfcProviderServiceFunctionAPI.readServiceFunction(new SfName("SF1")));
+    }
+}
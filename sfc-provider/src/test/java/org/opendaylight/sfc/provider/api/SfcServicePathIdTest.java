@@ -13,12 +13,25 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Test;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.GenerationAlgorithmEnum;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.ServicePathIds;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.service.path.ids.ServicePathId;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.service.path.ids.ServicePathIdKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 /**
  * SfcServicePathId Tester.
@@ -169,4 +182,106 @@ public class SfcServicePathIdTest extends AbstractSfcRendererServicePathAPITest
             assertTrue(SfcServicePathId.freePathId(pathId));
         }
     }
+
+    @Test
+    public void testSequentialGenerationAlgorithmSkipsAllocated() throws Exception {
+        SfcServicePathId.setGenerationAlgorithm(GenerationAlgorithmEnum.Sequential);
+        final long firstPathId = SfcServicePathId.checkAndAllocatePathId();
+
+        // allocate the next two path ids out of band, they must be skipped
+        assertTrue(SfcServicePathId.allocatePathId(firstPathId + 1));
+        assertTrue(SfcServicePathId.allocatePathId(firstPathId + 2));
+        assertEquals(firstPathId + 3, SfcServicePathId.checkAndAllocatePathId());
+
+        for (long pathId = firstPathId; pathId <= firstPathId + 3; ++pathId) {
+            assertTrue(SfcServicePathId.freePathId(pathId));
+        }
+    }
+
+    @Test
+    public void testAllocatePathIdIsPersisted() throws Exception {
+        // path ids 1 and 64 are persisted with the historical bitarray layout
+        assertTrue(SfcServicePathId.allocatePathId(1));
+        assertTrue(SfcServicePathId.allocatePathId(64));
+
+        assertEquals(Long.valueOf(1L << 63), waitForPersistedBitarray(0, 1L << 63));
+        assertEquals(Long.valueOf(1L), waitForPersistedBitarray(1, 1L));
+
+        assertTrue(SfcServicePathId.freePathId(1));
+        assertTrue(SfcServicePathId.freePathId(64));
+        assertEquals(Long.valueOf(0L), waitForPersistedBitarray(0, 0L));
+    }
+
+    @Test
+    public void testCloseIsPersisted() throws Exception {
+        assertTrue(SfcServicePathId.allocatePathId(65));
+        // the pending allocation is persisted on close, without waiting for
+        // the write-behind period
+        SfcServicePathId.close();
+        InstanceIdentifier<ServicePathId> spIID = InstanceIdentifier.builder(ServicePathIds.class)
+                .child(ServicePathId.class, new ServicePathIdKey(1L)).build();
+        ServicePathId servicePathId = SfcDataStoreAPI.readTransactionAPI(spIID, LogicalDatastoreType.OPERATIONAL);
+        assertEquals(Long.valueOf(1L << 63), servicePathId.getPathIdBitarray());
+
+        // the background writer is started again by the next modification
+        assertTrue(SfcServicePathId.freePathId(65));
+        assertEquals(Long.valueOf(0L), waitForPersistedBitarray(1, 0L));
+    }
+
+    @Test
+    public void testConcurrentAllocation() throws Exception {
+        SfcServicePathId.setGenerationAlgorithm(GenerationAlgorithmEnum.Random);
+        assertConcurrentAllocation();
+    }
+
+    @Test
+    public void testConcurrentSequentialAllocation() throws Exception {
+        SfcServicePathId.setGenerationAlgorithm(GenerationAlgorithmEnum.Sequential);
+        assertConcurrentAllocation();
+    }
+
+    private static void assertConcurrentAllocation() throws Exception {
+        final int numThreads = 8;
+        final int numPathIdsPerThread = 50;
+
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        List<Future<List<Long>>> allocations = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            allocations.add(executor.submit(() -> {
+                List<Long> pathIds = new ArrayList<>();
+                for (int j = 0; j < numPathIdsPerThread; j++) {
+                    pathIds.add(SfcServicePathId.checkAndAllocatePathId());
+                }
+                return pathIds;
+            }));
+        }
+        Set<Long> allocatedPathIds = new HashSet<>();
+        for (Future<List<Long>> allocation : allocations) {
+            allocatedPathIds.addAll(allocation.get());
+        }
+        executor.shutdown();
+
+        // every allocated path id is distinct
+        assertEquals(numThreads * numPathIdsPerThread, allocatedPathIds.size());
+        assertFalse(allocatedPathIds.contains(-1L));
+
+        for (Long pathId : allocatedPathIds) {
+            assertTrue(SfcServicePathId.freePathId(pathId));
+        }
+    }
+
+    private static Long waitForPersistedBitarray(long key, long expected) throws InterruptedException {
+        InstanceIdentifier<ServicePathId> spIID = InstanceIdentifier.builder(ServicePathIds.class)
+                .child(ServicePathId.class, new ServicePathIdKey(key)).build();
+        Long bitarray = null;
+        for (int i = 0; i < 100; i++) {
+            ServicePathId servicePathId = SfcDataStoreAPI.readTransactionAPI(spIID, LogicalDatastoreType.OPERATIONAL);
+            bitarray = servicePathId == null ? null : servicePathId.getPathIdBitarray();
+            if (bitarray != null && bitarray == expected) {
+                break;
+            }
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        return bitarray;
+    }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.provider.AbstractDataStoreManager;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.ServiceFunctionsBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunctionBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.ServiceFunctionForwardersBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarderBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ConnectedSffDictionaryBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ServiceFunctionDictionaryBuilder;
+
+public class SfcTopologyGraphCacheTest extends AbstractDataStoreManager {
+
+    /*
+     * SF1 - SFF1 - SFF2 - SFF3 - SF3
+     *               |
+     *              SF2
+     */
+    @Before
+    public void before() {
+        setupSfc();
+
+        List<ServiceFunction> sfs = Arrays.asList(buildSf("SF1"), buildSf("SF2"), buildSf("SF3"));
+        SfcDataStoreAPI.writePutTransactionAPI(SfcInstanceIdentifiers.SF_IID,
+                new ServiceFunctionsBuilder().setServiceFunction(sfs).build(), LogicalDatastoreType.CONFIGURATION);
+
+        List<ServiceFunctionForwarder> sffs = Arrays.asList(
+                buildSff("SFF1", Collections.singletonList("SF1"), Collections.singletonList("SFF2")),
+                buildSff("SFF2", Collections.singletonList("SF2"), Arrays.asList("SFF1", "SFF3")),
+                buildSff("SFF3", Collections.singletonList("SF3"), Collections.singletonList("SFF2")));
+        SfcDataStoreAPI.writePutTransactionAPI(SfcInstanceIdentifiers.SFF_IID,
+                new ServiceFunctionForwardersBuilder().setServiceFunctionForwarder(sffs).build(),
+                LogicalDatastoreType.CONFIGURATION);
+    }
+
+    @Test
+    public void testHopCounts() {
+        SfcTopologyGraphCache.Topology topology = SfcTopologyGraphCache.getTopology();
+
+        assertTrue(topology.hasNode("SF1"));
+        assertTrue(topology.hasNode("SFF2"));
+        assertFalse(topology.hasNode("SF4"));
+        assertEquals(0, topology.getHopCount("SF1", "SF1"));
+        assertEquals(3, topology.getHopCount("SF1", "SF2"));
+        assertEquals(4, topology.getHopCount("SF1", "SF3"));
+        assertEquals(4, topology.getHopCount("SF3", "SF1"));
+        assertEquals(-1, topology.getHopCount("SF1", "SF4"));
+        assertEquals(-1, topology.getHopCount("SF4", "SF1"));
+
+        // unchanged snapshot until the topology is modified
+        assertSame(topology, SfcTopologyGraphCache.getTopology());
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        SfcTopologyGraphCache.Topology topology = SfcTopologyGraphCache.getTopology();
+
+        // an update not modifying the edges keeps the snapshot
+        SfcTopologyGraphCache.updateServiceFunctionForwarder(
+                buildSff("SFF2", Collections.singletonList("SF2"), Arrays.asList("SFF3", "SFF1")));
+        SfcTopologyGraphCache.updateServiceFunction(buildSf("SF2"));
+        assertSame(topology, SfcTopologyGraphCache.getTopology());
+
+        // connect SFF1 and SFF3 directly
+        SfcTopologyGraphCache.updateServiceFunctionForwarder(
+                buildSff("SFF1", Collections.singletonList("SF1"), Arrays.asList("SFF2", "SFF3")));
+        SfcTopologyGraphCache.Topology updatedTopology = SfcTopologyGraphCache.getTopology();
+        assertNotSame(topology, updatedTopology);
+        assertEquals(3, updatedTopology.getHopCount("SF1", "SF3"));
+        // old snapshot still usable
+        assertEquals(4, topology.getHopCount("SF1", "SF3"));
+
+        // SF4 attached to a new SFF4 connected to SFF3
+        SfcTopologyGraphCache.updateServiceFunction(buildSf("SF4"));
+        SfcTopologyGraphCache.updateServiceFunctionForwarder(
+                buildSff("SFF4", Collections.singletonList("SF4"), Collections.singletonList("SFF3")));
+        assertEquals(4, SfcTopologyGraphCache.getTopology().getHopCount("SF1", "SF4"));
+
+        // removing SFF4 leaves SF4 unreachable
+        SfcTopologyGraphCache.removeServiceFunctionForwarder(
+                buildSff("SFF4", Collections.emptyList(), Collections.emptyList()));
+        assertTrue(SfcTopologyGraphCache.getTopology().hasNode("SF4"));
+        assertEquals(-1, SfcTopologyGraphCache.getTopology().getHopCount("SF1", "SF4"));
+
+        SfcTopologyGraphCache.removeServiceFunction(buildSf("SF4"));
+        assertFalse(SfcTopologyGraphCache.getTopology().hasNode("SF4"));
+    }
+
+    private static ServiceFunction buildSf(String name) {
+        return new ServiceFunctionBuilder().setName(new SfName(name)).setType(new SftTypeName("firewall")).build();
+    }
+
+    private static ServiceFunctionForwarder buildSff(String name, List<String> sfNames, List<String> sffNames) {
+        return new ServiceFunctionForwarderBuilder().setName(new SffName(name))
+                .setServiceFunctionDictionary(sfNames.stream()
+                        .map(sfName -> new ServiceFunctionDictionaryBuilder().setName(new SfName(sfName)).build())
+                        .collect(Collectors.toList()))
+                .setConnectedSffDictionary(sffNames.stream()
+                        .map(sffName -> new ConnectedSffDictionaryBuilder().setName(new SffName(sffName)).build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
@@ -8,6 +8,7 @@
 package org.opendaylight.sfc.provider.listeners;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -27,11 +28,18 @@ import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.provider.AbstractDataStoreManager;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
 import org.opendaylight.sfc.provider.api.SfcInstanceIdentifiers;
+import org.opendaylight.sfc.provider.api.SfcProviderAclAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
+import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathMigrationAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceChainAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServicePathAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceTypeAPI;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.Actions1;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.Actions1Builder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.access.lists.acl.access.list.entries.ace.actions.sfc.action.AclRenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.access.lists.acl.access.list.entries.ace.actions.sfc.action.AclRenderedServicePathBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfDataPlaneLocatorName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfcName;
@@ -40,6 +48,7 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev1
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SnName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.path.migrations.RenderedServicePathMigration;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.function.base.SfDataPlaneLocator;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.function.base.SfDataPlaneLocatorBuilder;
@@ -74,6 +83,17 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev1407
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.VxlanGpe;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.locator.type.Ip;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.locator.type.IpBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.AccessLists;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.Ipv4Acl;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.Acl;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.AclBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.AclKey;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.AccessListEntriesBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.Ace;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.AceBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.AceKey;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.Actions;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.ActionsBuilder;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.PortNumber;
@@ -186,13 +206,20 @@ public class ServiceFunctionForwarderListenerTest extends AbstractDataStoreManag
         updatedServiceFunctionForwarderBuilder.setIpMgmtAddress(updatedIpMgmtAddress);
         ServiceFunctionForwarder updatedServiceFunctionForwarder = updatedServiceFunctionForwarderBuilder.build();
 
-        // The listener will remove the Original Service Function Forwarder Entry and associated RSPs
+        // An ACL entry classifying traffic into the RSP
+        Acl acl = buildAndCommitAccessList(renderedServicePath.getName());
+
+        // The listener will migrate the RSPs to replacement RSPs
         serviceFunctionForwarderListener.update(InstanceIdentifier.create(ServiceFunctionForwarder.class),
                                                 originalServiceFunctionForwarder, updatedServiceFunctionForwarder);
-        assertNull(SfcProviderServicePathAPI.readServiceFunctionPath(
-                renderedServicePath.getParentServiceFunctionPath()));
+        serviceFunctionForwarderListener.awaitMigrations();
+        RenderedServicePath newRenderedServicePath = assertRenderedServicePathMigrated(renderedServicePath);
 
-        // The SFP state is removed in the SFP listener
+        // The classifier has been switched to the replacement RSP
+        Acl switchedAcl = SfcProviderAclAPI.readAccessList(acl.getAclName(), acl.getAclType());
+        assertEquals(newRenderedServicePath.getName().getValue(), ((AclRenderedServicePath) switchedAcl
+                .getAccessListEntries().getAce().get(0).getActions().augmentation(Actions1.class).getSfcAction())
+                .getRenderedServicePath());
 
         assertTrue(SfcDataStoreAPI.deleteTransactionAPI(SfcInstanceIdentifiers.SFF_IID,
                 LogicalDatastoreType.CONFIGURATION));
@@ -230,14 +257,11 @@ public class ServiceFunctionForwarderListenerTest extends AbstractDataStoreManag
         updatedServiceFunctionForwarderBuilder.setServiceNode(null);
         ServiceFunctionForwarder updatedServiceFunctionForwarder = updatedServiceFunctionForwarderBuilder.build();
 
-        // The listener will remove the Original Service Function Forwarder
-        // Entry and associated RSPs
+        // The listener will migrate the RSPs to replacement RSPs
         serviceFunctionForwarderListener.update(InstanceIdentifier.create(ServiceFunctionForwarder.class),
                                                 originalServiceFunctionForwarder, updatedServiceFunctionForwarder);
-        assertNull(SfcProviderServicePathAPI.readServiceFunctionPath(
-                renderedServicePath.getParentServiceFunctionPath()));
-
-        // The SFP state is removed in the SFP listener
+        serviceFunctionForwarderListener.awaitMigrations();
+        assertRenderedServicePathMigrated(renderedServicePath);
 
         assertTrue(SfcDataStoreAPI.deleteTransactionAPI(SfcInstanceIdentifiers.SFF_IID,
                 LogicalDatastoreType.CONFIGURATION));
@@ -279,6 +303,7 @@ public class ServiceFunctionForwarderListenerTest extends AbstractDataStoreManag
         // The listener will NOT remove the RSP
         serviceFunctionForwarderListener.update(InstanceIdentifier.create(ServiceFunctionForwarder.class),
                                                 originalServiceFunctionForwarder, updatedServiceFunctionForwarder);
+        serviceFunctionForwarderListener.awaitMigrations();
         assertNotNull(SfcProviderRenderedPathAPI.readRenderedServicePath(renderedServicePath.getName()));
 
         // Verify that State was NOT removed
@@ -292,6 +317,7 @@ public class ServiceFunctionForwarderListenerTest extends AbstractDataStoreManag
         // The listener will NOT remove the RSP
         serviceFunctionForwarderListener.update(InstanceIdentifier.create(ServiceFunctionForwarder.class),
                                                 originalServiceFunctionForwarder, updatedServiceFunctionForwarder);
+        serviceFunctionForwarderListener.awaitMigrations();
         assertNotNull(SfcProviderRenderedPathAPI.readRenderedServicePath(renderedServicePath.getName()));
 
         // Verify that State was NOT removed
@@ -334,11 +360,18 @@ public class ServiceFunctionForwarderListenerTest extends AbstractDataStoreManag
         updatedServiceFunctionForwarderBuilder.setServiceFunctionDictionary(Collections.emptyList());
         ServiceFunctionForwarder updatedServiceFunctionForwarder = updatedServiceFunctionForwarderBuilder.build();
 
-        // The listener will remove the SFP
+        // The listener will remove the SFP, as there is no other SF to
+        // migrate the RSP to
         serviceFunctionForwarderListener.update(InstanceIdentifier.create(ServiceFunctionForwarder.class),
                                                 originalServiceFunctionForwarder, updatedServiceFunctionForwarder);
+        serviceFunctionForwarderListener.awaitMigrations();
         assertNull(SfcProviderServicePathAPI.readServiceFunctionPath(
                 renderedServicePath.getParentServiceFunctionPath()));
+        RenderedServicePathMigration migration = SfcProviderRenderedPathMigrationAPI
+                .readRenderedServicePathMigration(renderedServicePath.getParentServiceFunctionPath());
+        assertNotNull(migration);
+        assertEquals(RenderedServicePathMigration.Status.Failed, migration.getStatus());
+        assertNull(migration.getNewName());
 
         // The State is removed by the SFP listener
 
@@ -381,6 +414,7 @@ public class ServiceFunctionForwarderListenerTest extends AbstractDataStoreManag
         // The listener will remove the SFP
         serviceFunctionForwarderListener.update(InstanceIdentifier.create(ServiceFunctionForwarder.class),
                                                 originalServiceFunctionForwarder, updatedServiceFunctionForwarder);
+        serviceFunctionForwarderListener.awaitMigrations();
         assertNull(SfcProviderServicePathAPI.readServiceFunctionPath(
                 renderedServicePath.getParentServiceFunctionPath()));
 
@@ -421,6 +455,7 @@ public class ServiceFunctionForwarderListenerTest extends AbstractDataStoreManag
         // The listener will NOT remove the RSP
         serviceFunctionForwarderListener.update(InstanceIdentifier.create(ServiceFunctionForwarder.class),
                                                 originalServiceFunctionForwarder, updatedServiceFunctionForwarder);
+        serviceFunctionForwarderListener.awaitMigrations();
 
         assertNotNull(SfcProviderRenderedPathAPI.readRenderedServicePath(renderedServicePath.getName()));
 
@@ -463,6 +498,7 @@ public class ServiceFunctionForwarderListenerTest extends AbstractDataStoreManag
         // The listener will remove the SFP
         serviceFunctionForwarderListener.update(InstanceIdentifier.create(ServiceFunctionForwarder.class),
                                                 originalServiceFunctionForwarder, updatedServiceFunctionForwarder);
+        serviceFunctionForwarderListener.awaitMigrations();
         assertNull(SfcProviderServicePathAPI.readServiceFunctionPath(
                 renderedServicePath.getParentServiceFunctionPath()));
 
@@ -478,6 +514,69 @@ public class ServiceFunctionForwarderListenerTest extends AbstractDataStoreManag
                 LogicalDatastoreType.CONFIGURATION));
     }
 
+    /**
+     * Assert that a RSP has been migrated to a replacement RSP, without
+     * deleting its SFP.
+     *
+     * @param renderedServicePath the original RSP.
+     * @return the replacement RSP.
+     */
+    private RenderedServicePath assertRenderedServicePathMigrated(RenderedServicePath renderedServicePath) {
+        SfpName sfpName = renderedServicePath.getParentServiceFunctionPath();
+        assertNotNull(SfcProviderServicePathAPI.readServiceFunctionPath(sfpName));
+
+        RenderedServicePathMigration migration = SfcProviderRenderedPathMigrationAPI
+                .readRenderedServicePathMigration(sfpName);
+        assertNotNull(migration);
+        assertEquals(RenderedServicePathMigration.Status.Completed, migration.getStatus());
+        assertEquals(renderedServicePath.getName(), migration.getName());
+        assertNotEquals(renderedServicePath.getPathId(), migration.getNewPathId());
+
+        // The original config RSPs are deleted, the RSP listener deletes the
+        // operational ones
+        assertNull(SfcProviderRenderedPathAPI.readRenderedServicePath(renderedServicePath.getName(),
+                LogicalDatastoreType.CONFIGURATION));
+        assertNull(SfcProviderRenderedPathAPI.readRenderedServicePath(
+                SfcProviderRenderedPathAPI.generateReversedPathName(renderedServicePath.getName()),
+                LogicalDatastoreType.CONFIGURATION));
+
+        RenderedServicePath newRenderedServicePath = SfcProviderRenderedPathAPI
+                .readRenderedServicePath(migration.getNewName());
+        assertNotNull(newRenderedServicePath);
+        assertEquals(migration.getNewPathId(), newRenderedServicePath.getPathId());
+        assertEquals(renderedServicePath.getRenderedServicePathHop().size(),
+                newRenderedServicePath.getRenderedServicePathHop().size());
+        assertNotNull(SfcProviderRenderedPathAPI.readRenderedServicePath(
+                SfcProviderRenderedPathAPI.generateReversedPathName(newRenderedServicePath.getName()),
+                LogicalDatastoreType.CONFIGURATION));
+        assertTrue(SfcProviderServicePathAPI.readServicePathState(sfpName).stream()
+                .anyMatch(sfpRsp -> sfpRsp.getName().equals(newRenderedServicePath.getName())));
+        return newRenderedServicePath;
+    }
+
+    /**
+     * Builds and commits an ACL with a single entry classifying traffic into
+     * the given RSP.
+     *
+     * @param rspName the RSP name.
+     * @return the ACL.
+     */
+    private Acl buildAndCommitAccessList(RspName rspName) {
+        Actions actions = new ActionsBuilder().addAugmentation(Actions1.class, new Actions1Builder()
+                .setSfcAction(new AclRenderedServicePathBuilder().setRenderedServicePath(rspName.getValue()).build())
+                .build()).build();
+        Ace ace = new AceBuilder().setRuleName("unittest-ace-1").withKey(new AceKey("unittest-ace-1"))
+                .setActions(actions).build();
+        Acl acl = new AclBuilder().setAclName("unittest-acl-1").setAclType(Ipv4Acl.class)
+                .withKey(new AclKey("unittest-acl-1", Ipv4Acl.class))
+                .setAccessListEntries(new AccessListEntriesBuilder().setAce(Collections.singletonList(ace)).build())
+                .build();
+        assertTrue(SfcDataStoreAPI.writePutTransactionAPI(
+                InstanceIdentifier.create(AccessLists.class).child(Acl.class, acl.key()), acl,
+                LogicalDatastoreType.CONFIGURATION));
+        return acl;
+    }
+
     private void addSfToSfDict(ServiceFunctionForwarderBuilder sffBuilder) {
         List<ServiceFunctionDictionary> sffSfDict = sffBuilder.getServiceFunctionDictionary();
         List<ServiceFunctionDictionary> newSffSfDict = new ArrayList<>();
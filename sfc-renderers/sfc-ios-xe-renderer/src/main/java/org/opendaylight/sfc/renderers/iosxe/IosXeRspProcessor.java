@@ -14,15 +14,17 @@ import static org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.rsp.manager.r
 
 import com.google.common.base.Preconditions;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionAPI;
-import org.opendaylight.sfc.renderers.iosxe.utils.IosXeDataStoreAPI;
+import org.opendaylight.sfc.renderers.iosxe.utils.IosXeDataStoreBatch;
 import org.opendaylight.sfc.renderers.iosxe.utils.RspStatus;
 import org.opendaylight.sfc.renderers.iosxe.utils.SfcIosXeUtils;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
@@ -48,6 +50,11 @@ import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.serv
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Renders the RSPs on the IOS-XE devices. The service chain edits of an RSP
+ * are collected per device and applied in a single transaction per device,
+ * the devices being configured in parallel.
+ */
 @Singleton
 public class IosXeRspProcessor {
 
@@ -93,6 +100,9 @@ public class IosXeRspProcessor {
             status.writeStatus(Failure);
             return;
         }
+        // The edits of all the devices are applied once the whole RSP is
+        // resolved
+        IosXeDataStoreBatch batch = new IosXeDataStoreBatch(LogicalDatastoreType.CONFIGURATION);
         // New list of services has to be created every time new mountpoint is
         // created
         List<Services> services = new ArrayList<>();
@@ -145,9 +155,7 @@ public class IosXeRspProcessor {
                     status.writeStatus(Failure);
                     return;
                 }
-                new IosXeDataStoreAPI(previousMountPoint, currentRemoteForwarder,
-                                      IosXeDataStoreAPI.Transaction.WRITE_REMOTE, LogicalDatastoreType.CONFIGURATION)
-                        .call();
+                batch.writeRemote(previousMountPoint, currentRemoteForwarder);
                 // Create last service entry to previous node which sends
                 // traffic to current node
                 serviceTypeChoice = buildServiceFunctionForwarderChoice(currentSffName.getValue());
@@ -156,8 +164,7 @@ public class IosXeRspProcessor {
                 // List of services completed for last mountpoint, create
                 // service path entries and write it
                 ServicePath servicePath = createServicePath(pathId, services);
-                new IosXeDataStoreAPI(previousMountPoint, servicePath, IosXeDataStoreAPI.Transaction.WRITE_PATH,
-                                      LogicalDatastoreType.CONFIGURATION).call();
+                batch.writePath(previousMountPoint, servicePath);
                 // Start with new services list
                 services = new ArrayList<>();
                 sfName = hop.getServiceFunctionName();
@@ -181,8 +188,12 @@ public class IosXeRspProcessor {
         // List of services completed for last mountpoint, create last service
         // path entries and write it
         ServicePath servicePath = createServicePath(pathId, services);
-        new IosXeDataStoreAPI(currentMountpoint, servicePath, IosXeDataStoreAPI.Transaction.WRITE_PATH,
-                              LogicalDatastoreType.CONFIGURATION).call();
+        batch.writePath(currentMountpoint, servicePath);
+        if (!batch.submit()) {
+            LOG.error("Rendered service path {} failed to be written", renderedServicePath.getName().getValue());
+            status.writeStatus(Failure);
+            return;
+        }
         LOG.info("Rendered service path {} successfully processed", renderedServicePath.getName().getValue());
         status.writeStatus(Success);
     }
@@ -191,15 +202,24 @@ public class IosXeRspProcessor {
         boolean success = true;
         long pathId = renderedServicePath.getPathId();
         ServicePathKey servicePathKey = new ServicePathKey(pathId);
+        IosXeDataStoreBatch batch = new IosXeDataStoreBatch(LogicalDatastoreType.CONFIGURATION);
+        // Consecutive hops usually share the SFF, each is resolved once
+        Map<SffName, DataBroker> sffMountpoints = new HashMap<>();
         for (RenderedServicePathHop renderedServicePathHop : renderedServicePath.getRenderedServicePathHop()) {
             SffName sffName = renderedServicePathHop.getServiceFunctionForwarder();
+            if (sffMountpoints.containsKey(sffName)) {
+                continue;
+            }
             DataBroker sffDataBroker = getSffMountpoint(sffName);
-            boolean transaction = (boolean) new IosXeDataStoreAPI(sffDataBroker, servicePathKey,
-                                                                  IosXeDataStoreAPI.Transaction.DELETE_PATH,
-                                                                  LogicalDatastoreType.CONFIGURATION).call();
-            if (!transaction) {
+            sffMountpoints.put(sffName, sffDataBroker);
+            if (sffDataBroker == null) {
                 success = false;
+                continue;
             }
+            batch.deletePath(sffDataBroker, servicePathKey);
+        }
+        if (!batch.submit()) {
+            success = false;
         }
         if (success) {
             LOG.info("Service path {} removed", pathId);
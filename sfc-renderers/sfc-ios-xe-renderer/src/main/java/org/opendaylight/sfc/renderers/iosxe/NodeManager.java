@@ -12,9 +12,9 @@ import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -46,9 +46,11 @@ public class NodeManager {
     private final TopologyId topologyId = new TopologyId("topology-netconf");
     private List<String> requiredCapabilities = new ArrayList<>();
 
-    // Data
-    private final Map<NodeId, Node> connectedNodes = new HashMap<>();
-    private final Map<NodeId, DataBroker> activeMountPoints = new HashMap<>();
+    // Data, updated by the node listener and read by the renderers
+    private final Map<NodeId, Node> connectedNodes = new ConcurrentHashMap<>();
+    private final Map<NodeId, DataBroker> activeMountPoints = new ConcurrentHashMap<>();
+    // The nodes with an active mountpoint, by management IP address
+    private final Map<IpAddress, NodeId> nodeIdsByIpAddress = new ConcurrentHashMap<>();
 
     @Inject
     public NodeManager(DataBroker dataBroker, MountPointService mountService) {
@@ -64,13 +66,20 @@ public class NodeManager {
         ConnectionStatus connectionStatus = netconfNode.getConnectionStatus();
         NodeId netconfNodeId = node.getNodeId();
         if (connectionStatus.equals(ConnectionStatus.Connected)) {
-            connectedNodes.put(netconfNodeId, node);
+            Node previousNode = connectedNodes.put(netconfNodeId, node);
+            if (previousNode != null) {
+                removeNodeIpAddress(previousNode);
+            }
             // Get mountpoint
             InstanceIdentifier mountPointIid = getMountPointIid(netconfNodeId);
             DataBroker dataBroker = getNetconfNodeDataBroker(mountPointIid);
             if (dataBroker != null) {
                 LOG.info("Node {} registered by SFC", node.getNodeId().getValue());
                 activeMountPoints.put(netconfNodeId, dataBroker);
+                IpAddress ipAddress = getHostIpAddress(node);
+                if (ipAddress != null) {
+                    nodeIdsByIpAddress.put(ipAddress, netconfNodeId);
+                }
             } else {
                 LOG.debug("Cannot obtain data broker for netconf node {}", netconfNodeId.getValue());
                 connectedNodes.remove(netconfNodeId);
@@ -85,7 +94,8 @@ public class NodeManager {
         NodeId netconfNodeId = node.getNodeId();
         switch (connectionStatus) {
             case Connected:
-                connectedNodes.remove(netconfNodeId);
+                Node previousNode = connectedNodes.remove(netconfNodeId);
+                removeNodeIpAddress(previousNode != null ? previousNode : node);
                 activeMountPoints.remove(netconfNodeId);
                 LOG.info("Netconf node {} removed", netconfNodeId.getValue());
                 break;
@@ -143,12 +153,8 @@ public class NodeManager {
     }
 
     public DataBroker getMountpointFromIpAddress(IpAddress ipAddress) {
-        for (Node node : connectedNodes.values()) {
-            if (ipAddress.equals(getNetconfNodeIp(node))) {
-                return activeMountPoints.get(node.getNodeId());
-            }
-        }
-        return null;
+        NodeId nodeId = nodeIdsByIpAddress.get(ipAddress);
+        return nodeId != null ? activeMountPoints.get(nodeId) : null;
     }
 
     public IpAddress getNetconfNodeIp(Node node) {
@@ -157,6 +163,19 @@ public class NodeManager {
         return netconfNode.getHost().getIpAddress();
     }
 
+    private void removeNodeIpAddress(Node node) {
+        IpAddress ipAddress = getHostIpAddress(node);
+        if (ipAddress != null) {
+            nodeIdsByIpAddress.remove(ipAddress, node.getNodeId());
+        }
+    }
+
+    // The node may be configured with a host name instead of an IP address
+    private static IpAddress getHostIpAddress(Node node) {
+        NetconfNode netconfNode = node.augmentation(NetconfNode.class);
+        return netconfNode != null && netconfNode.getHost() != null ? netconfNode.getHost().getIpAddress() : null;
+    }
+
     public Map<NodeId, Node> getConnectedNodes() {
         return connectedNodes;
     }
@@ -190,30 +190,8 @@ public class IosXeDataStoreAPI implements Callable {
 
     @SuppressWarnings("checkstyle:IllegalCatch")
     private <U extends DataObject> boolean writeMergeTransaction(InstanceIdentifier<U> addIID, U dataObject) {
-        long timeout = 5000L;
-        int attempt = 0;
-        WriteTransaction transaction = null;
-        do {
-            attempt++;
-            try {
-                transaction = mountpoint.newWriteOnlyTransaction();
-            } catch (RuntimeException e) {
-                if (e.getCause().getClass().equals(NetconfDocumentedException.class)) {
-                    LOG.warn("NetconfDocumentedException thrown, retrying ({})...", attempt, e.getCause());
-                    try {
-                        Thread.sleep(timeout);
-                        timeout += 1000L;
-                    } catch (InterruptedException i) {
-                        LOG.error("Thread interrupted while waiting ... {} ", i);
-                    }
-                } else {
-                    LOG.error("Runtime exception ...", e);
-                }
-            }
-        }
-        while (attempt <= 5 && transaction == null);
+        WriteTransaction transaction = newWriteOnlyTransaction(mountpoint);
         if (transaction == null) {
-            LOG.error("Maximum number of attempts reached");
             return false;
         }
         try {
@@ -232,6 +210,33 @@ public class IosXeDataStoreAPI implements Callable {
 
     @SuppressWarnings("checkstyle:IllegalCatch")
     private <U extends DataObject> boolean deleteTransaction(InstanceIdentifier<U> deleteIID) {
+        WriteTransaction transaction = newWriteOnlyTransaction(mountpoint);
+        if (transaction == null) {
+            return false;
+        }
+        try {
+            transaction.delete(Preconditions.checkNotNull(datastoreType), deleteIID);
+            CheckedFuture<Void, TransactionCommitFailedException> submitFuture = transaction.submit();
+            submitFuture.checkedGet();
+            return true;
+        } catch (TransactionCommitFailedException e) {
+            LOG.error("Delete transaction failed", e);
+            return false;
+        } catch (Exception e) {
+            LOG.error("Delete transaction failed", e);
+            return false;
+        }
+    }
+
+    /**
+     * Create a write transaction on a mountpoint, retrying while the device
+     * reports a NETCONF error.
+     *
+     * @param mountpoint the data broker of the device mountpoint
+     * @return the write transaction, or null if it could not be created
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    static WriteTransaction newWriteOnlyTransaction(DataBroker mountpoint) {
         long timeout = 5000L;
         int attempt = 0;
         WriteTransaction transaction = null;
@@ -256,20 +261,8 @@ public class IosXeDataStoreAPI implements Callable {
         while (attempt <= 5 && transaction == null);
         if (transaction == null) {
             LOG.error("Maximum number of attempts reached");
-            return false;
-        }
-        try {
-            transaction.delete(Preconditions.checkNotNull(datastoreType), deleteIID);
-            CheckedFuture<Void, TransactionCommitFailedException> submitFuture = transaction.submit();
-            submitFuture.checkedGet();
-            return true;
-        } catch (TransactionCommitFailedException e) {
-            LOG.error("Delete transaction failed", e);
-            return false;
-        } catch (Exception e) {
-            LOG.error("Delete transaction failed", e);
-            return false;
         }
+        return transaction;
     }
 
     @SuppressWarnings("checkstyle:IllegalCatch")
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.iosxe.utils;
+
+import com.google.common.util.concurrent.CheckedFuture;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServicePath;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServicePathKey;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.service.function.forwarder.ServiceFfName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the edits of the service chain configuration of several devices,
+ * to apply them in a single transaction per device, that is a single
+ * edit-config and commit per NETCONF session.
+ *
+ * <p>
+ * The transactions of the different devices are submitted before waiting
+ * for any of them, so that the devices are configured in parallel.
+ */
+public class IosXeDataStoreBatch {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IosXeDataStoreBatch.class);
+
+    private final LogicalDatastoreType datastoreType;
+    // The edits of each device, in order, by mountpoint
+    private final Map<DataBroker, List<Consumer<WriteTransaction>>> edits = new LinkedHashMap<>();
+
+    public IosXeDataStoreBatch(LogicalDatastoreType datastoreType) {
+        this.datastoreType = datastoreType;
+    }
+
+    public void writeRemote(DataBroker mountpoint, ServiceFfName remoteSff) {
+        addEdit(mountpoint, transaction -> transaction.merge(datastoreType,
+                SfcIosXeUtils.createRemoteSffIid(remoteSff), remoteSff));
+    }
+
+    public void writePath(DataBroker mountpoint, ServicePath path) {
+        addEdit(mountpoint, transaction -> transaction.merge(datastoreType,
+                SfcIosXeUtils.createServicePathIid(path.key()), path));
+    }
+
+    public void deletePath(DataBroker mountpoint, ServicePathKey pathKey) {
+        addEdit(mountpoint, transaction -> transaction.delete(datastoreType,
+                SfcIosXeUtils.createServicePathIid(pathKey)));
+    }
+
+    public int getDeviceCount() {
+        return edits.size();
+    }
+
+    /**
+     * Apply the edits, one transaction per device.
+     *
+     * @return true if the transactions of all the devices succeeded
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    public boolean submit() {
+        boolean success = true;
+        Map<DataBroker, CheckedFuture<Void, TransactionCommitFailedException>> submitFutures = new LinkedHashMap<>();
+        for (Map.Entry<DataBroker, List<Consumer<WriteTransaction>>> deviceEdits : edits.entrySet()) {
+            WriteTransaction transaction = IosXeDataStoreAPI.newWriteOnlyTransaction(deviceEdits.getKey());
+            if (transaction == null) {
+                success = false;
+                continue;
+            }
+            try {
+                deviceEdits.getValue().forEach(edit -> edit.accept(transaction));
+                submitFutures.put(deviceEdits.getKey(), transaction.submit());
+            } catch (RuntimeException e) {
+                LOG.error("Transaction on mountpoint {} failed", deviceEdits.getKey(), e);
+                transaction.cancel();
+                success = false;
+            }
+        }
+        edits.clear();
+
+        for (Map.Entry<DataBroker, CheckedFuture<Void, TransactionCommitFailedException>> submitFuture
+                : submitFutures.entrySet()) {
+            try {
+                submitFuture.getValue().checkedGet();
+            } catch (TransactionCommitFailedException e) {
+                LOG.error("Transaction on mountpoint {} failed", submitFuture.getKey(), e);
+                success = false;
+            }
+        }
+        return success;
+    }
+
+    private void addEdit(DataBroker mountpoint, Consumer<WriteTransaction> edit) {
+        edits.computeIfAbsent(mountpoint, key -> new ArrayList<>()).add(edit);
+    }
+}
@@ -8,7 +8,9 @@
 
 package org.opendaylight.sfc.renderers.iosxe.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
@@ -22,6 +24,9 @@ import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.MountPoint;
 import org.opendaylight.controller.md.sal.binding.api.MountPointService;
 import org.opendaylight.sfc.renderers.iosxe.NodeManager;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Host;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionStatus;
@@ -144,4 +149,38 @@ public class NodeManagerTest {
         assertTrue(manager.getActiveMountPoints().isEmpty());
         assertTrue(manager.getConnectedNodes().isEmpty());
     }
+
+    @Test
+    public void getMountpointFromIpAddress() {
+        IpAddress ipAddress = new IpAddress(new Ipv4Address("10.0.0.1"));
+        // Prepare node
+        NodeBuilder nodeBuilder = new NodeBuilder();
+        NetconfNodeBuilder netconfNodeBuilder = new NetconfNodeBuilder();
+        netconfNodeBuilder.setConnectionStatus(NetconfNodeConnectionStatus.ConnectionStatus.Connected)
+                .setHost(new Host(ipAddress));
+        nodeBuilder.setNodeId(new NodeId(nodeId));
+        nodeBuilder.addAugmentation(NetconfNode.class, netconfNodeBuilder.build());
+
+        when(mountPointService.getMountPoint(any(InstanceIdentifier.class))).thenReturn(optionalMountPointObject);
+        when(mountPoint.getService(eq(DataBroker.class))).thenReturn(optionalDataBrokerObject);
+
+        // Mock getting mountpoint
+        when(optionalMountPointObject.isPresent()).thenReturn(true);
+        //noinspection OptionalGetWithoutIsPresent
+        when(optionalMountPointObject.get()).thenReturn(mountPoint);
+        when(optionalDataBrokerObject.isPresent()).thenReturn(true);
+        //noinspection OptionalGetWithoutIsPresent
+        when(optionalDataBrokerObject.get()).thenReturn(dataBroker);
+
+        manager = new NodeManager(dataBroker, mountPointService);
+        Node testNode = nodeBuilder.build();
+        manager.updateNode(testNode);
+
+        assertEquals(dataBroker, manager.getMountpointFromIpAddress(ipAddress));
+        assertNull(manager.getMountpointFromIpAddress(new IpAddress(new Ipv4Address("10.0.0.2"))));
+
+        manager.removeNode(testNode);
+
+        assertNull(manager.getMountpointFromIpAddress(ipAddress));
+    }
 }
@@ -13,7 +13,11 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.sal.binding.api.NotificationProviderService;
-import org.opendaylight.mdsal.binding.api.RpcConsumerRegistry;
+import org.opendaylight.sfc.genius.util.SfcGeniusRpcClient;
+import org.opendaylight.sfc.provider.api.SfcInstanceIdentifiers;
+import org.opendaylight.sfc.renderers.openflow.listeners.SfcOfNodeDataListener;
+import org.opendaylight.sfc.renderers.openflow.listeners.SfcOfOvsdbBridgeDataListener;
+import org.opendaylight.sfc.renderers.openflow.listeners.SfcOfProviderUtilsDataListener;
 import org.opendaylight.sfc.renderers.openflow.listeners.SfcOfRendererDataListener;
 import org.opendaylight.sfc.renderers.openflow.listeners.SfcOfRspDataListener;
 import org.opendaylight.sfc.renderers.openflow.listeners.SfcOfSfgDataListener;
@@ -21,10 +25,14 @@ import org.opendaylight.sfc.renderers.openflow.openflow.SfcIpv4PacketInHandler;
 import org.opendaylight.sfc.renderers.openflow.openflow.SfcOfFlowProgrammerImpl;
 import org.opendaylight.sfc.renderers.openflow.openflow.SfcOfFlowProgrammerInterface;
 import org.opendaylight.sfc.renderers.openflow.processors.SfcOfRspProcessor;
-import org.opendaylight.sfc.renderers.openflow.utils.SfcOfBaseProviderUtils;
+import org.opendaylight.sfc.renderers.openflow.sfg.SfcOfSfgLoadBalancer;
+import org.opendaylight.sfc.renderers.openflow.sfg.SfcOfSfgLoadBalancerConfig;
 import org.opendaylight.sfc.renderers.openflow.utils.SfcOfProviderUtils;
 import org.opendaylight.sfc.renderers.openflow.utils.SfcSynchronizer;
 import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfg.rev150214.service.function.groups.ServiceFunctionGroup;
 import org.opendaylight.yangtools.concepts.Registration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,32 +44,63 @@ import org.slf4j.LoggerFactory;
 public final class SfcOfRenderer implements AutoCloseable {
     private static final Logger LOG = LoggerFactory.getLogger(SfcOfRenderer.class);
 
+    // Flows are committed in parallel by this many per-SFF ordered shards
+    private static final int FLOW_WRITER_SHARDS = 4;
+
+    // Different RSPs are rendered in parallel by this many workers
+    private static final int RSP_RENDER_WORKERS = 4;
+
     private final SfcOfRspProcessor sfcOfRspProcessor;
     private final SfcOfFlowProgrammerInterface sfcOfFlowProgrammer;
     private final Registration pktInRegistration;
     private final SfcSynchronizer sfcSynchronizer;
+    private final SfcOfSfgLoadBalancer sfcOfSfgLoadBalancer;
 
     private SfcOfRspDataListener openflowRspDataListener;
     private SfcOfSfgDataListener sfcOfSfgDataListener;
+    private SfcOfNodeDataListener sfcOfNodeDataListener;
     private SfcIpv4PacketInHandler packetInHandler;
     private SfcOfRendererDataListener sfcOfRendererListener;
+    private SfcOfProviderUtilsDataListener<ServiceFunction> sfCacheListener;
+    private SfcOfProviderUtilsDataListener<ServiceFunctionForwarder> sffCacheListener;
+    private SfcOfProviderUtilsDataListener<ServiceFunctionGroup> sfgCacheListener;
+    private SfcOfOvsdbBridgeDataListener ovsdbBridgeCacheListener;
 
     @Inject
     public SfcOfRenderer(DataBroker dataBroker, NotificationProviderService notificationService,
-                         RpcConsumerRegistry rpcRegistry) {
+                         SfcGeniusRpcClient geniusRpcClient, SfcOfSfgLoadBalancerConfig sfgLoadBalancerConfig) {
         LOG.info("SfcOfRenderer starting the SfcOfRenderer plugin...");
 
         this.sfcSynchronizer = new SfcSynchronizer();
-        SfcOfFlowWriterImpl sfcofflowwriterimpl = new SfcOfFlowWriterImpl();
+        SfcOfFlowWriterImpl sfcofflowwriterimpl = new SfcOfFlowWriterImpl(FLOW_WRITER_SHARDS);
         sfcofflowwriterimpl.setDataProvider(dataBroker);
         this.sfcOfFlowProgrammer = new SfcOfFlowProgrammerImpl(sfcofflowwriterimpl);
-        SfcOfBaseProviderUtils sfcOfProviderUtils = new SfcOfProviderUtils();
+        SfcOfProviderUtils sfcOfProviderUtils = new SfcOfProviderUtils();
+        this.sfCacheListener = new SfcOfProviderUtilsDataListener<>(dataBroker, SfcInstanceIdentifiers.SF_ENTRY_IID,
+                sf -> sfcOfProviderUtils.invalidateServiceFunction(sf.getName()));
+        this.sffCacheListener = new SfcOfProviderUtilsDataListener<>(dataBroker,
+                SfcInstanceIdentifiers.SFF_ENTRY_IID,
+                sff -> sfcOfProviderUtils.invalidateServiceFunctionForwarder(sff.getName()));
+        // the cached SFFs are augmented with the OpenFlow node id of their bridge
+        this.ovsdbBridgeCacheListener = new SfcOfOvsdbBridgeDataListener(dataBroker,
+                sfcOfProviderUtils::invalidateAllServiceFunctionForwarders);
+        this.sfgCacheListener = new SfcOfProviderUtilsDataListener<>(dataBroker,
+                SfcInstanceIdentifiers.SFG_ENTRY_IID,
+                sfg -> sfcOfProviderUtils.invalidateServiceFunctionGroup(sfg.getName()));
         this.sfcOfRspProcessor = new SfcOfRspProcessor(sfcOfFlowProgrammer, sfcOfProviderUtils, sfcSynchronizer,
-                rpcRegistry, dataBroker);
+                geniusRpcClient, dataBroker);
+
+        // The RSPs rendered before a restart are rendered again as they are
+        // written back to the operational data store, only the flows that
+        // changed are written
+        this.sfcOfFlowProgrammer.recoverFlows();
 
-        this.openflowRspDataListener = new SfcOfRspDataListener(dataBroker, sfcOfRspProcessor);
-        this.sfcOfSfgDataListener = new SfcOfSfgDataListener(dataBroker, sfcOfFlowProgrammer, sfcOfProviderUtils);
+        this.openflowRspDataListener = new SfcOfRspDataListener(dataBroker, sfcOfRspProcessor, RSP_RENDER_WORKERS);
+        this.sfcOfSfgLoadBalancer = new SfcOfSfgLoadBalancer(sfcOfFlowProgrammer,
+                sfgLoadBalancerConfig.getRebalanceIntervalMillis(), sfgLoadBalancerConfig.getWeightHysteresis());
+        this.sfcOfSfgDataListener = new SfcOfSfgDataListener(dataBroker, sfcOfSfgLoadBalancer, sfcOfProviderUtils);
         this.sfcOfRendererListener = new SfcOfRendererDataListener(dataBroker, sfcOfFlowProgrammer, sfcSynchronizer);
+        this.sfcOfNodeDataListener = new SfcOfNodeDataListener(dataBroker, sfcOfFlowProgrammer);
 
         this.packetInHandler = new SfcIpv4PacketInHandler((SfcOfFlowProgrammerImpl) sfcOfFlowProgrammer);
         this.pktInRegistration = notificationService.registerNotificationListener(packetInHandler);
@@ -77,13 +116,21 @@ public final class SfcOfRenderer implements AutoCloseable {
     public void close() throws Exception {
         LOG.info("SfcOfRenderer auto-closed");
         try {
+            // complete the renders in progress before the flow writer stops
+            openflowRspDataListener.close();
+            sfcOfNodeDataListener.closeDataChangeListener();
+            sfcOfSfgDataListener.closeDataChangeListener();
+            sfcOfSfgLoadBalancer.close();
             if (sfcOfFlowProgrammer != null) {
                 sfcOfFlowProgrammer.shutdown();
             }
             if (pktInRegistration != null) {
                 pktInRegistration.close();
             }
-            openflowRspDataListener.close();
+            sfCacheListener.closeDataChangeListener();
+            sffCacheListener.closeDataChangeListener();
+            sfgCacheListener.closeDataChangeListener();
+            ovsdbBridgeCacheListener.closeDataChangeListener();
         } finally {
             openflowRspDataListener = null;
         }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.listeners;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.renderers.openflow.openflow.SfcOfFlowProgrammerInterface;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class will be notified when the switches connect and report their
+ * flows, on the operational data store.
+ *
+ * <p>
+ * When a switch (re)connects, the flows of the RSPs on it are reconciled with
+ * the flows it reports once its flow tables are known, so that only the
+ * missing or stale flows are written again.
+ */
+public class SfcOfNodeDataListener extends SfcOfAbstractDataListener<FlowCapableNode> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOfNodeDataListener.class);
+
+    private final SfcOfFlowProgrammerInterface sfcOfFlowProgrammer;
+
+    // The switches connected whose flow tables are not known yet
+    private final Set<String> switchesToReconcile = ConcurrentHashMap.newKeySet();
+
+    public SfcOfNodeDataListener(DataBroker dataBroker, SfcOfFlowProgrammerInterface sfcOfFlowProgrammer) {
+        this.sfcOfFlowProgrammer = sfcOfFlowProgrammer;
+
+        registerAsDataChangeListener(dataBroker, LogicalDatastoreType.OPERATIONAL,
+                InstanceIdentifier.create(Nodes.class).child(Node.class).augmentation(FlowCapableNode.class));
+    }
+
+    @Override
+    public void onDataTreeChanged(Collection<DataTreeModification<FlowCapableNode>> changes) {
+        for (DataTreeModification<FlowCapableNode> change : changes) {
+            String nodeId = change.getRootPath().getRootIdentifier().firstKeyOf(Node.class).getId().getValue();
+            DataObjectModification<FlowCapableNode> rootNode = change.getRootNode();
+            switch (rootNode.getModificationType()) {
+                case WRITE:
+                case SUBTREE_MODIFIED:
+                    if (rootNode.getDataBefore() == null) {
+                        LOG.debug("SfcOfNodeDataListener.onDataTreeChanged switch {} connected", nodeId);
+                        switchesToReconcile.add(nodeId);
+                    }
+                    FlowCapableNode switchFlows = rootNode.getDataAfter();
+                    if (switchFlows.getTable() != null && !switchFlows.getTable().isEmpty()
+                            && switchesToReconcile.remove(nodeId)) {
+                        LOG.info("SfcOfNodeDataListener.onDataTreeChanged reconciling the flows of switch {}",
+                                nodeId);
+                        sfcOfFlowProgrammer.reconcileSffFlows(nodeId, switchFlows);
+                    }
+                    break;
+                case DELETE:
+                    switchesToReconcile.remove(nodeId);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
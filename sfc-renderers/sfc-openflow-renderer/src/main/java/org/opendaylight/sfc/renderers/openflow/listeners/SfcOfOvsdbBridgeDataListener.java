@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.listeners;
+
+import java.util.Collection;
+import java.util.Objects;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbBridgeAugmentation;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * DataListener invalidating the SFFs cached by SfcOfProviderUtils, along
+ * with their OpenFlow node id, whenever an OVSDB bridge is created or
+ * deleted, or its datapath id changes, as happens when an OVSDB node
+ * reconnects.
+ */
+public class SfcOfOvsdbBridgeDataListener extends SfcOfAbstractDataListener<OvsdbBridgeAugmentation> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOfOvsdbBridgeDataListener.class);
+
+    private final Runnable invalidator;
+
+    public SfcOfOvsdbBridgeDataListener(DataBroker dataBroker, Runnable invalidator) {
+        this.invalidator = invalidator;
+        registerAsDataChangeListener(dataBroker, LogicalDatastoreType.OPERATIONAL,
+                SfcOvsUtil.buildOvsdbTopologyIID().child(Node.class).augmentation(OvsdbBridgeAugmentation.class));
+    }
+
+    @Override
+    public void onDataTreeChanged(Collection<DataTreeModification<OvsdbBridgeAugmentation>> changes) {
+        for (DataTreeModification<OvsdbBridgeAugmentation> change : changes) {
+            DataObjectModification<OvsdbBridgeAugmentation> rootNode = change.getRootNode();
+            OvsdbBridgeAugmentation before = rootNode.getDataBefore();
+            OvsdbBridgeAugmentation after = rootNode.getDataAfter();
+            if (before == null || after == null || !Objects.equals(before.getDatapathId(), after.getDatapathId())) {
+                LOG.debug("onDataTreeChanged: OVSDB bridge {} changed", change.getRootPath().getRootIdentifier());
+                // the SFFs are not indexed by bridge, they are all invalidated
+                invalidator.run();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.listeners;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yangtools.yang.binding.DataObject;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * DataListener invalidating the SFs, SFFs or SFGs cached by
+ * SfcOfProviderUtils whenever they are created, updated or deleted.
+ *
+ * @param <T>
+ *            the cached object type
+ */
+public class SfcOfProviderUtilsDataListener<T extends DataObject> extends SfcOfAbstractDataListener<T> {
+
+    private final Consumer<T> invalidator;
+
+    public SfcOfProviderUtilsDataListener(DataBroker dataBroker, InstanceIdentifier<T> instanceIdentifier,
+            Consumer<T> invalidator) {
+        this.invalidator = invalidator;
+        registerAsDataChangeListener(dataBroker, LogicalDatastoreType.CONFIGURATION, instanceIdentifier);
+    }
+
+    @Override
+    public void onDataTreeChanged(Collection<DataTreeModification<T>> changes) {
+        for (DataTreeModification<T> change : changes) {
+            DataObjectModification<T> rootNode = change.getRootNode();
+            // the key is the same before and after the change
+            T object = rootNode.getDataBefore() != null ? rootNode.getDataBefore() : rootNode.getDataAfter();
+            if (object != null) {
+                invalidator.accept(object);
+            }
+        }
+    }
+}
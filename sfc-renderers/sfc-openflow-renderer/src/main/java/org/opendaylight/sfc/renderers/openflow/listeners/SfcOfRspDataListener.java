@@ -8,18 +8,35 @@
 
 package org.opendaylight.sfc.renderers.openflow.listeners;
 
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nonnull;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeChangeListener;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeIdentifier;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
+import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.provider.api.SfcInstanceIdentifiers;
 import org.opendaylight.sfc.renderers.openflow.processors.SfcOfRspProcessor;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePaths;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,19 +44,82 @@ import org.slf4j.LoggerFactory;
  * This class has will be notified when changes are mad to Rendered Service
  * Paths.
  *
+ * <p>
+ * The RSPs may be rendered by a pool of workers instead of the notification
+ * thread. The changes of a given RSP are always handled by the same worker,
+ * so they are applied in order, while different RSPs are rendered in
+ * parallel.
+ *
+ * <p>
+ * The RSPs found on the config data store when the listener starts are the
+ * ones that already existed, e.g. before a controller restart, and are
+ * written again to the operational data store one at a time. Once all of them
+ * are rendered, or after a timeout if some of them are never rendered, the
+ * flow recovery completes.
+ *
  * @author Brady Johnson (brady.allen.johnson@ericsson.com)
  * @version 0.1
  * @since 2015-01-27
  */
 public class SfcOfRspDataListener implements DataTreeChangeListener<RenderedServicePath>, AutoCloseable {
     private static final Logger LOG = LoggerFactory.getLogger(SfcOfRspDataListener.class);
+    private static final long SHUTDOWN_TIME = 5;
+    private static final long DEFAULT_FLOW_RECOVERY_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final InstanceIdentifier<RenderedServicePaths> RSPS_IID = InstanceIdentifier
+            .create(RenderedServicePaths.class);
     private final SfcOfRspProcessor sfcOfRspProcessor;
     private final ListenerRegistration<SfcOfRspDataListener> rspListenerRegistration;
 
+    // Ordered, single threaded executors rendering the RSPs, empty when the
+    // RSPs are rendered by the notification thread
+    private final List<ExecutorService> renderExecutorServices;
+
+    // The RSPs found on the config data store at startup and not rendered
+    // yet, null if they could not be read
+    private final Set<RspName> rspsPendingRecovery;
+    private final AtomicBoolean flowRecoveryCompleted = new AtomicBoolean();
+    private final ScheduledExecutorService flowRecoveryTimer;
+
     public SfcOfRspDataListener(DataBroker dataBroker, SfcOfRspProcessor sfcOfRspProcessor) {
+        this(dataBroker, sfcOfRspProcessor, 0);
+    }
+
+    public SfcOfRspDataListener(DataBroker dataBroker, SfcOfRspProcessor sfcOfRspProcessor,
+            int numberOfRenderWorkers) {
+        this(dataBroker, sfcOfRspProcessor, numberOfRenderWorkers, DEFAULT_FLOW_RECOVERY_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Create a listener that renders the RSPs with a pool of workers.
+     *
+     * @param dataBroker
+     *            - the data broker to listen to
+     * @param sfcOfRspProcessor
+     *            - the processor rendering the RSPs
+     * @param numberOfRenderWorkers
+     *            - the number of workers; 0 means the RSPs are rendered by
+     *            the notification thread
+     * @param flowRecoveryTimeoutMillis
+     *            - the time to wait for the RSPs that existed at startup to be
+     *            rendered before the flow recovery completes anyway
+     */
+    public SfcOfRspDataListener(DataBroker dataBroker, SfcOfRspProcessor sfcOfRspProcessor,
+            int numberOfRenderWorkers, long flowRecoveryTimeoutMillis) {
+        if (numberOfRenderWorkers < 0) {
+            throw new IllegalArgumentException("Invalid number of RSP render workers: " + numberOfRenderWorkers);
+        }
+        this.sfcOfRspProcessor = sfcOfRspProcessor;
+        this.renderExecutorServices = new ArrayList<>();
+        for (int i = 0; i < numberOfRenderWorkers; i++) {
+            renderExecutorServices.add(Executors.newSingleThreadExecutor());
+        }
+        this.rspsPendingRecovery = readConfigRspNames(dataBroker);
+        this.flowRecoveryTimer = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("sfc-of-flow-recovery-%d").build());
+        flowRecoveryTimer.schedule(() -> afterRendering(this::completeFlowRecovery), flowRecoveryTimeoutMillis,
+                TimeUnit.MILLISECONDS);
         rspListenerRegistration = dataBroker.registerDataTreeChangeListener(
                 new DataTreeIdentifier<>(LogicalDatastoreType.OPERATIONAL, SfcInstanceIdentifiers.RSP_ENTRY_IID), this);
-        this.sfcOfRspProcessor = sfcOfRspProcessor;
     }
 
     @Override
@@ -52,29 +132,149 @@ public class SfcOfRspDataListener implements DataTreeChangeListener<RenderedServ
                 case SUBTREE_MODIFIED:
                     if (rootNode.getDataBefore() == null && rootNode.getDataAfter() != null) {
                         LOG.info("SfcOfRspDataListener.onDataTreeChanged create RSP {}", rootNode.getDataAfter());
-                        sfcOfRspProcessor.processRenderedServicePath(rootNode.getDataAfter());
+                        RenderedServicePath createdRsp = rootNode.getDataAfter();
+                        render(createdRsp, () -> sfcOfRspProcessor.processRenderedServicePath(createdRsp));
                     } else if (rootNode.getDataAfter().equals(rootNode.getDataBefore())) {
                         LOG.info("SfcOfRspDataListener.onDataTreeChanged update RSP Before:{} After:{}",
                                 rootNode.getDataAfter(), rootNode.getDataBefore());
-                        // This clause supports re-rendering of unmodified RSPs
-                        sfcOfRspProcessor.deleteRenderedServicePath(rootNode.getDataBefore());
-                        sfcOfRspProcessor.processRenderedServicePath(rootNode.getDataAfter());
+                        // This clause supports re-rendering of unmodified RSPs,
+                        // only the flows that changed are rewritten
+                        RenderedServicePath updatedRsp = rootNode.getDataAfter();
+                        render(updatedRsp, () -> sfcOfRspProcessor.reconcileRenderedServicePath(updatedRsp));
                     }
                     break;
                 case DELETE:
                     if (rootNode.getDataBefore() != null) {
                         LOG.info("SfcOfRspDataListener.onDataTreeChanged delete RSP {}", rootNode.getDataBefore());
-                        sfcOfRspProcessor.deleteRenderedServicePath(rootNode.getDataBefore());
+                        RenderedServicePath deletedRsp = rootNode.getDataBefore();
+                        render(deletedRsp, () -> sfcOfRspProcessor.deleteRenderedServicePath(deletedRsp));
                     }
                     break;
                 default:
                     break;
             }
         }
+
+        if (!flowRecoveryCompleted.get() && rspsPendingRecovery != null) {
+            afterRendering(() -> {
+                if (rspsPendingRecovery.isEmpty()) {
+                    completeFlowRecovery();
+                }
+            });
+        }
+    }
+
+    /**
+     * Read the names of the RSPs on the config data store.
+     *
+     * @param dataBroker
+     *            - the data broker to read from
+     * @return the RSP names, or null if they could not be read
+     */
+    private static Set<RspName> readConfigRspNames(DataBroker dataBroker) {
+        Optional<RenderedServicePaths> rsps;
+        try (ReadOnlyTransaction readTx = dataBroker.newReadOnlyTransaction()) {
+            rsps = readTx.read(LogicalDatastoreType.CONFIGURATION, RSPS_IID).get();
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.error("SfcOfRspDataListener failed to read the RSPs, the flow recovery will time out", e);
+            return null;
+        }
+
+        Set<RspName> rspNames = ConcurrentHashMap.newKeySet();
+        if (rsps.isPresent() && rsps.get().getRenderedServicePath() != null) {
+            rsps.get().getRenderedServicePath().forEach(rsp -> rspNames.add(rsp.getName()));
+        }
+        LOG.info("SfcOfRspDataListener completing the flow recovery once [{}] RSPs are rendered", rspNames.size());
+        return rspNames;
+    }
+
+    /**
+     * Complete the flow recovery, only once.
+     */
+    private void completeFlowRecovery() {
+        if (flowRecoveryCompleted.compareAndSet(false, true)) {
+            flowRecoveryTimer.shutdown();
+            sfcOfRspProcessor.completeFlowRecovery();
+        }
+    }
+
+    /**
+     * Note the RSP as rendered since the listener started.
+     *
+     * @param rsp
+     *            - the rendered RSP
+     */
+    private void onRendered(RenderedServicePath rsp) {
+        if (rspsPendingRecovery != null) {
+            rspsPendingRecovery.remove(rsp.getName());
+        }
+    }
+
+    /**
+     * Run a task once the changes of the RSPs notified so far are rendered by
+     * all the workers.
+     *
+     * @param task
+     *            - the task to run
+     */
+    private void afterRendering(Runnable task) {
+        if (renderExecutorServices.isEmpty()) {
+            task.run();
+            return;
+        }
+
+        AtomicInteger pendingWorkers = new AtomicInteger(renderExecutorServices.size());
+        renderExecutorServices.forEach(renderExecutorService -> renderExecutorService.execute(() -> {
+            if (pendingWorkers.decrementAndGet() == 0) {
+                task.run();
+            }
+        }));
+    }
+
+    /**
+     * Render a change of an RSP, in the worker handling the RSP if any.
+     *
+     * @param rsp
+     *            - the RSP that changed
+     * @param renderTask
+     *            - renders the change
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void render(RenderedServicePath rsp, Runnable renderTask) {
+        if (renderExecutorServices.isEmpty()) {
+            try {
+                renderTask.run();
+            } finally {
+                onRendered(rsp);
+            }
+            return;
+        }
+
+        // The RSP name is the key of the RSP, hence the same for all its
+        // changes
+        int worker = Math.floorMod(rsp.getName().getValue().hashCode(), renderExecutorServices.size());
+        renderExecutorServices.get(worker).execute(() -> {
+            try {
+                renderTask.run();
+            } catch (Exception e) {
+                LOG.error("SfcOfRspDataListener failed to render RSP {}", rsp.getName().getValue(), e);
+            } finally {
+                onRendered(rsp);
+            }
+        });
     }
 
     @Override
     public void close() throws Exception {
         rspListenerRegistration.close();
+        flowRecoveryTimer.shutdownNow();
+        renderExecutorServices.forEach(ExecutorService::shutdown);
+        for (ExecutorService renderExecutorService : renderExecutorServices) {
+            if (!renderExecutorService.awaitTermination(SHUTDOWN_TIME, TimeUnit.SECONDS)) {
+                List<Runnable> droppedTasks = renderExecutorService.shutdownNow();
+                LOG.error("SfcOfRspDataListener worker was abruptly shut down. [{}] RSPs will not be rendered.",
+                        droppedTasks.size());
+            }
+        }
     }
 }
@@ -19,8 +19,8 @@ import org.opendaylight.sfc.provider.api.SfcInstanceIdentifiers;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionGroupAlgAPI;
-import org.opendaylight.sfc.renderers.openflow.openflow.SfcOfFlowProgrammerInterface;
 import org.opendaylight.sfc.renderers.openflow.sfg.GroupBucketInfo;
+import org.opendaylight.sfc.renderers.openflow.sfg.SfcOfSfgLoadBalancer;
 import org.opendaylight.sfc.renderers.openflow.utils.SfcOfBaseProviderUtils;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
@@ -50,14 +50,14 @@ import org.slf4j.LoggerFactory;
  */
 public class SfcOfSfgDataListener extends SfcOfAbstractDataListener<ServiceFunctionGroup> {
 
-    private final SfcOfFlowProgrammerInterface sfcOfFlowProgrammer;
+    private final SfcOfSfgLoadBalancer sfcOfSfgLoadBalancer;
     private final SfcOfBaseProviderUtils sfcOfProviderUtils;
 
     private static final Logger LOG = LoggerFactory.getLogger(SfcOfSfgDataListener.class);
 
-    public SfcOfSfgDataListener(DataBroker dataBroker, SfcOfFlowProgrammerInterface sfcOfFlowProgrammer,
+    public SfcOfSfgDataListener(DataBroker dataBroker, SfcOfSfgLoadBalancer sfcOfSfgLoadBalancer,
             SfcOfBaseProviderUtils sfcOfProviderUtils) {
-        this.sfcOfFlowProgrammer = sfcOfFlowProgrammer;
+        this.sfcOfSfgLoadBalancer = sfcOfSfgLoadBalancer;
         this.sfcOfProviderUtils = sfcOfProviderUtils;
 
         registerAsDataChangeListener(dataBroker, LogicalDatastoreType.CONFIGURATION,
@@ -117,13 +117,14 @@ public class SfcOfSfgDataListener extends SfcOfAbstractDataListener<ServiceFunct
             bucketsInfo.add(buildBucket(sf, outPort, index));
             index++;
         }
-        this.sfcOfFlowProgrammer.configureGroup(sffName.getValue(), sffNodeId, sfg.getName(), sfg.getGroupId(),
+        this.sfcOfSfgLoadBalancer.configureGroup(sffName.getValue(), sffNodeId, sfg.getName(), sfg.getGroupId(),
                 algorithm.getAlgorithmType().getIntValue(), bucketsInfo, isAdd);
     }
 
     private GroupBucketInfo buildBucket(ServiceFunction sf, String outPort, int index) {
         GroupBucketInfo gbi = new GroupBucketInfo();
         gbi.setIndex(index);
+        gbi.setSfName(sf.getName().getValue());
 
         SfDataPlaneLocator sfDpl = sf.getSfDataPlaneLocator().get(0);
         gbi.setSfMac(getSfDplMac(sfDpl));
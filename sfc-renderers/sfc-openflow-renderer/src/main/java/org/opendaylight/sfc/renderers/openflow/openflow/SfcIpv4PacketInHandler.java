@@ -9,13 +9,8 @@
 package org.opendaylight.sfc.renderers.openflow.openflow;
 
 import java.math.BigInteger;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.opendaylight.sfc.renderers.openflow.utils.SfcPacketInBuffer;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.Metadata;
@@ -39,6 +34,11 @@ import org.slf4j.LoggerFactory;
  * the SF will establish a connection with the client (send TCP SynAck to
  * client), and then establish a separate connection with the server (send TCP
  * Syn to server).
+ *
+ * <p>
+ * Packets already handled are recognized without allocating: the IPv4
+ * addresses are read directly from the payload and packed into the key of a
+ * {@link SfcPacketInBuffer}. The handler may be called from several threads.
  */
 
 public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoCloseable {
@@ -48,22 +48,23 @@ public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoClo
     private static final int PACKET_OFFSET_IP = 14;
     private static final int PACKET_OFFSET_IP_SRC = PACKET_OFFSET_IP + 12;
     private static final int PACKET_OFFSET_IP_DST = PACKET_OFFSET_IP + 16;
+    private static final int PACKET_MIN_LENGTH = PACKET_OFFSET_IP_DST + 4;
     public static final int ETHERTYPE_IPV4 = 0x0800;
     private static final int DEFAULT_MAX_BUFFER_TIME = 60000; // 60 milliseconds
     private static final int DEFAULT_PACKET_COUNT_PURGE = 100;
 
     private final SfcOfFlowProgrammerImpl flowProgrammer;
-    private final Map<String, Long> pktInBuffer;
-    private int maxBufferTime;
-    private int packetCountPurge;
-    private int packetCount;
+    private final SfcPacketInBuffer pktInBuffer;
+    private volatile int maxBufferTime;
+    private volatile int packetCountPurge;
+    private final AtomicInteger packetCount;
 
     public SfcIpv4PacketInHandler(SfcOfFlowProgrammerImpl flowProgrammer) {
         this.flowProgrammer = flowProgrammer;
-        pktInBuffer = new HashMap<>();
+        pktInBuffer = new SfcPacketInBuffer();
         maxBufferTime = DEFAULT_MAX_BUFFER_TIME;
         packetCountPurge = DEFAULT_PACKET_COUNT_PURGE;
-        packetCount = 0;
+        packetCount = new AtomicInteger();
     }
 
     public int getMaxBufferTime() {
@@ -98,10 +99,10 @@ public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoClo
             return;
         }
 
-        ++packetCount;
-        if (packetCount > packetCountPurge) {
-            packetCount = 0;
-            purgePktInBuffer();
+        long currentMillis = System.currentTimeMillis();
+        if (packetCount.incrementAndGet() > packetCountPurge) {
+            packetCount.set(0);
+            pktInBuffer.tick(currentMillis, maxBufferTime);
         }
 
         // Make sure the PacketIn is due to our Classification table pktInAction
@@ -114,6 +115,10 @@ public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoClo
         // the packet for us
 
         final byte[] rawPacket = packetIn.getPayload();
+        if (rawPacket == null || rawPacket.length < PACKET_MIN_LENGTH) {
+            LOG.debug("SfcIpv4PacketInHandler discarding truncated packet");
+            return;
+        }
 
         // Get the EtherType and check that its an IP packet
         if (getEtherType(rawPacket) != ETHERTYPE_IPV4) {
@@ -122,23 +127,14 @@ public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoClo
         }
 
         // Get the SrcIp and DstIp Addresses
-        String pktSrcIpStr = getSrcIpStr(rawPacket);
-        if (pktSrcIpStr == null) {
-            LOG.error("SfcIpv4PacketInHandler Cant get Src IP address, discarding packet");
-            return;
-        }
-
-        String pktDstIpStr = getDstIpStr(rawPacket);
-        if (pktDstIpStr == null) {
-            LOG.error("SfcIpv4PacketInHandler Cant get Src IP address, discarding packet");
-            return;
-        }
+        int pktSrcIp = getIpv4Address(rawPacket, PACKET_OFFSET_IP_SRC);
+        int pktDstIp = getIpv4Address(rawPacket, PACKET_OFFSET_IP_DST);
 
         // Since all packets sent to SF are PktIn, only need to handle the first
         // one
         // In OpenFlow 1.5 we'll be able to do the PktIn on TCP Syn only
-        if (bufferPktIn(pktSrcIpStr, pktDstIpStr)) {
-            LOG.info("SfcIpv4PacketInHandler PacketIn buffered");
+        if (bufferPktIn(pktSrcIp, pktDstIp, currentMillis)) {
+            LOG.debug("SfcIpv4PacketInHandler PacketIn buffered");
             return;
         }
         LOG.info("SfcIpv4PacketInHandler PacketIn NOT buffered");
@@ -160,6 +156,8 @@ public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoClo
         // Assuming the RSP is symmetric
         short dlPathId = (short) (ulPathId + 1);
 
+        String pktSrcIpStr = getIpv4AddressStr(pktSrcIp);
+        String pktDstIpStr = getIpv4AddressStr(pktDstIp);
         LOG.info("SfcIpv4PacketInHandler Src IP [{}] Dst IP [{}] ulPathId [{}] dlPathId [{}]", pktSrcIpStr, pktDstIpStr,
                 ulPathId, dlPathId);
 
@@ -181,6 +179,9 @@ public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoClo
             this.flowProgrammer.setFlowRspId((long) dlPathId);
             this.flowProgrammer.configurePathMapperAclFlow(nodeName, pktDstIpStr, pktSrcIpStr, dlPathId);
         }
+
+        // The flows are buffered by the flow writer per thread, write them
+        this.flowProgrammer.flushFlows();
     }
 
     @Override
@@ -193,61 +194,31 @@ public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoClo
      * @param rawPacket packet
      * @return etherType
      */
-    private short getEtherType(final byte[] rawPacket) {
-        final byte[] etherTypeBytes = Arrays.copyOfRange(rawPacket, PACKET_OFFSET_ETHERTYPE,
-                PACKET_OFFSET_ETHERTYPE + 2);
-        return packShort(etherTypeBytes);
-    }
-
-    /**
-     * Given a raw packet, return the SrcIp.
-     *
-     * @param rawPacket packet
-     * @return srcIp String
-     */
-    private String getSrcIpStr(final byte[] rawPacket) {
-        final byte[] ipSrcBytes = Arrays.copyOfRange(rawPacket, PACKET_OFFSET_IP_SRC, PACKET_OFFSET_IP_SRC + 4);
-        String pktSrcIpStr = null;
-        try {
-            pktSrcIpStr = InetAddress.getByAddress(ipSrcBytes).getHostAddress();
-        } catch (UnknownHostException e) {
-            LOG.error("Exception getting Src IP address [{}]", e.getMessage(), e);
-        }
-        return pktSrcIpStr;
+    private static int getEtherType(final byte[] rawPacket) {
+        return (rawPacket[PACKET_OFFSET_ETHERTYPE] & 0xff) << 8 | rawPacket[PACKET_OFFSET_ETHERTYPE + 1] & 0xff;
     }
 
     /**
-     * Given a raw packet, return the DstIp.
+     * Given a raw packet, return an IPv4 address.
      *
      * @param rawPacket packet
-     * @return dstIp String
+     * @param offset the offset of the address in the packet
+     * @return the address, in network byte order
      */
-    private String getDstIpStr(final byte[] rawPacket) {
-        final byte[] ipDstBytes = Arrays.copyOfRange(rawPacket, PACKET_OFFSET_IP_DST, PACKET_OFFSET_IP_DST + 4);
-        String pktDstIpStr = null;
-        try {
-            pktDstIpStr = InetAddress.getByAddress(ipDstBytes).getHostAddress();
-        } catch (UnknownHostException e) {
-            LOG.error("Exception getting Dst IP address [{}]", e.getMessage(), e);
-        }
-        return pktDstIpStr;
+    private static int getIpv4Address(final byte[] rawPacket, int offset) {
+        return (rawPacket[offset] & 0xff) << 24 | (rawPacket[offset + 1] & 0xff) << 16
+                | (rawPacket[offset + 2] & 0xff) << 8 | rawPacket[offset + 3] & 0xff;
     }
 
     /**
-     * Simple internal utility function to convert from a 2-byte array to a
-     * short.
+     * Given an IPv4 address, return its dotted decimal String.
      *
-     * @param bytes byte array
-     * @return the bytes packed into a short
+     * @param address the address, in network byte order
+     * @return the address String
      */
-    private short packShort(byte[] bytes) {
-        short val = (short) 0;
-        for (int i = 0; i < 2; i++) {
-            val <<= 8;
-            val |= bytes[i] & 0xff;
-        }
-
-        return val;
+    private static String getIpv4AddressStr(int address) {
+        return (address >>> 24) + "." + (address >>> 16 & 0xff) + "." + (address >>> 8 & 0xff) + "."
+                + (address & 0xff);
     }
 
     /**
@@ -255,50 +226,14 @@ public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoClo
      * If they haven't been processed, store the IPs so they will be considered
      * processed.
      *
-     * @param srcIpStr source IP
-     * @param dstIpStr destination IP
+     * @param srcIp source IP
+     * @param dstIp destination IP
+     * @param currentMillis the current time in milliseconds
      * @return True if the src/dst IP has already been processed, False
      *         otherwise
      */
-    private boolean bufferPktIn(final String srcIpStr, final String dstIpStr) {
-        String key = srcIpStr + dstIpStr;
-        long currentMillis = System.currentTimeMillis();
-
-        Long bufferedTime = pktInBuffer.get(key);
-
-        // If the entry does not exist, add it and return false indicating the
-        // packet needs to be processed
-        if (bufferedTime == null) {
-            // Add the entry
-            pktInBuffer.put(key, currentMillis);
-            return false;
-        }
-
-        // If the entry is old, update it and return false indicating the packet
-        // needs to be processed
-        if (currentMillis - bufferedTime > maxBufferTime) {
-            // Update the entry
-            pktInBuffer.put(key, currentMillis);
-            return false;
-        }
-
-        return true;
-    }
-
-    /**
-     * Purge packets that have been in the PktIn buffer too long.
-     */
-    private void purgePktInBuffer() {
-        long currentMillis = System.currentTimeMillis();
-        Iterator<Entry<String, Long>> iter = pktInBuffer.entrySet().iterator();
-        while (iter.hasNext()) {
-            Entry<String, Long> entry = iter.next();
-            Long bufferedTime = entry.getValue();
-            if (currentMillis - bufferedTime > maxBufferTime) {
-                // This also removes the entry from the pktInBuffer map and
-                // doesnt invalidate iteration
-                iter.remove();
-            }
-        }
+    private boolean bufferPktIn(final int srcIp, final int dstIp, long currentMillis) {
+        long key = (long) srcIp << 32 | dstIp & 0xffffffffL;
+        return pktInBuffer.checkAndBuffer(key, currentMillis, maxBufferTime);
     }
 }
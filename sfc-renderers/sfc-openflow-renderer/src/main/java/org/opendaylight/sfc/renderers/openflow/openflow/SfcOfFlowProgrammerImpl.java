@@ -11,8 +11,9 @@ package org.opendaylight.sfc.renderers.openflow.openflow;
 import com.google.common.net.InetAddresses;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
@@ -32,6 +33,8 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.acti
 import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.Action;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.ActionBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.ActionKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.FlowCookie;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.OutputPortValues;
@@ -73,6 +76,8 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     // A common SFC Transport Egress Cookie Base String, allowing
     // all SFC flows to be matched by using cookieStr.startsWith()
     public static final String TRANSPORT_EGRESS_COOKIE_STR_BASE = "BA5EBA11";
+    private static final long TRANSPORT_EGRESS_COOKIE_BASE = Long.parseLong(TRANSPORT_EGRESS_COOKIE_STR_BASE,
+            COOKIE_BIGINT_HEX_RADIX);
     // The 000001** cookies are for NSH VXGPE Transport Egress flows
     public static final String TRANSPORT_EGRESS_NSH_VXGPE_COOKIE = "00000101";
     public static final String TRANSPORT_EGRESS_NSH_VXGPE_NSC_COOKIE = "00000102";
@@ -130,25 +135,39 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     public static final short APP_COEXISTENCE_NOT_SET = -1;
     private static final String LOCALHOST_IP = "127.0.0.1";
 
+    // The leading part of the names, and ids, of the flows written by SFC
+    private static final Set<String> SFC_FLOW_NAMES = new HashSet<>(Arrays.asList(
+            OpenflowConstants.OF_NAME_MATCH_ANY, OpenflowConstants.OF_NAME_MATCH_ANY_DROP,
+            OpenflowConstants.OF_NAME_MATCH_ANY_RESUBMIT, OpenflowConstants.OF_NAME_CLASS_DPDK_OUT,
+            OpenflowConstants.OF_NAME_CLASS_DPDK_IN, OpenflowConstants.OF_NAME_TRANSPORT_INGRESS,
+            OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_NSH, OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_ETH_NSH,
+            OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_ARP, OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_MAC,
+            OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_MPLS, OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_TCP,
+            OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_UDP, OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_VLAN,
+            OpenflowConstants.OF_NAME_PATH_MAPPER, OpenflowConstants.OF_NAME_PATH_MAPPER_ACL,
+            OpenflowConstants.OF_NAME_NEXT_HOP, OpenflowConstants.OF_NAME_TRANSPORT_EGRESS,
+            OpenflowConstants.OF_NAME_LASTHOP_TRANSPORT_EGRESS, OpenflowConstants.OF_NAME_APPCOEXIST_TRANSPORT_EGRESS,
+            OpenflowConstants.OF_NAME_SF_LOOPBACK_INGRESS, OpenflowConstants.OF_NAME_SF_LOOPBACK_EGRESS));
+
     // Instance variables
-    private short tableBase;
+    private volatile short tableBase;
     // Used for app-coexistence
-    private short tableEgress;
-    private Long flowRspId;
+    private volatile short tableEgress;
     private SfcOfFlowWriterInterface sfcOfFlowWriter = null;
 
-    private SfcTableIndexMapper tableIndexMapper = null;
+    // The RSP id and table index mapper of the flows being programmed are
+    // bound to the rendering thread, since RSPs are rendered in parallel
+    private final ThreadLocal<Long> flowRspId = ThreadLocal.withInitial(() -> 0L);
+    private final ThreadLocal<SfcTableIndexMapper> tableIndexMapper = new ThreadLocal<>();
 
     public SfcOfFlowProgrammerImpl() {
         this.tableBase = APP_COEXISTENCE_NOT_SET;
         this.tableEgress = APP_COEXISTENCE_NOT_SET;
-        this.flowRspId = 0L;
     }
 
     public SfcOfFlowProgrammerImpl(SfcOfFlowWriterInterface sfcOfFlowWriter) {
         this.tableBase = APP_COEXISTENCE_NOT_SET;
         this.tableEgress = APP_COEXISTENCE_NOT_SET;
-        this.flowRspId = 0L;
         this.sfcOfFlowWriter = sfcOfFlowWriter;
     }
 
@@ -194,7 +213,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
     @Override
     public void setFlowRspId(Long rspId) {
-        this.flowRspId = rspId;
+        this.flowRspId.set(rspId);
     }
 
     @Override
@@ -205,6 +224,48 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         return nodes;
     }
 
+    @Override
+    public void beginRspReconciliation(long rspId) {
+        this.sfcOfFlowWriter.beginRspReconciliation(rspId);
+    }
+
+    @Override
+    public void reconcileRspFlows(long rspId) {
+        this.sfcOfFlowWriter.reconcileRspFlows(rspId);
+    }
+
+    @Override
+    public void recoverFlows() {
+        // The classifier flows share the tables of SFC, they are not recovered
+        this.sfcOfFlowWriter.recoverFlows(SfcOfFlowProgrammerImpl::isSfcFlow);
+    }
+
+    /**
+     * Check if a flow was written by SFC, from its id.
+     *
+     * @param flow
+     *            - the flow to check
+     * @return true if the flow was written by SFC
+     */
+    public static boolean isSfcFlow(Flow flow) {
+        if (flow.getId() == null || flow.getId().getValue() == null) {
+            return false;
+        }
+        String flowName = flow.getId().getValue();
+        int delimiter = flowName.indexOf(OpenflowConstants.OF_NAME_DELIMITER);
+        return SFC_FLOW_NAMES.contains(delimiter < 0 ? flowName : flowName.substring(0, delimiter));
+    }
+
+    @Override
+    public void completeFlowRecovery() {
+        this.sfcOfFlowWriter.completeFlowRecovery();
+    }
+
+    @Override
+    public void reconcileSffFlows(String sffNodeName, FlowCapableNode switchFlows) {
+        this.sfcOfFlowWriter.reconcileSffFlows(sffNodeName, switchFlows);
+    }
+
     @Override
     public void flushFlows() {
         this.sfcOfFlowWriter.flushFlows();
@@ -224,8 +285,10 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
      *         otherwise
      */
     public boolean compareClassificationTableCookie(FlowCookie cookie) {
-        return cookie != null && cookie.getValue() != null && cookie.toString().toUpperCase(Locale.getDefault())
-                .startsWith(TRANSPORT_EGRESS_COOKIE_STR_BASE);
+        // the cookie base is the upper half of the 64 bits cookie, compare
+        // it without formatting the cookie since it is checked per PacketIn
+        return cookie != null && cookie.getValue() != null
+                && cookie.getValue().longValue() >>> Integer.SIZE == TRANSPORT_EGRESS_COOKIE_BASE;
 
     }
 
@@ -256,7 +319,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder flowBuilder = configureTableMatchAnyFlow(getTableId(TABLE_INDEX_CLASSIFIER),
                 getTableId(TABLE_INDEX_TRANSPORT_INGRESS));
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, flowBuilder);
     }
 
     /**
@@ -292,7 +355,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder classifierDpdkOutputFlow = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_CLASSIFIER),
                 OF_PRIORITY_CLASSIFIER, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, classifierDpdkOutputFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, classifierDpdkOutputFlow);
     }
 
     /**
@@ -327,7 +390,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder classifierDpdkInputFlow = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_CLASSIFIER),
                 OF_PRIORITY_CLASSIFIER, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, classifierDpdkInputFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, classifierDpdkInputFlow);
     }
 
     /**
@@ -344,7 +407,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         }
 
         FlowBuilder flowBuilder = configureTableMatchAnyDropFlow(getTableId(TABLE_INDEX_TRANSPORT_INGRESS));
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, flowBuilder);
     }
 
     /**
@@ -364,7 +427,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder flowBuilder = configureTableMatchAnyFlowResubmit(getTableId(TABLE_INDEX_TRANSPORT_INGRESS),
                  nextTableId);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, flowBuilder);
     }
 
     /**
@@ -378,7 +441,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     public void configurePathMapperTableMatchAny(final String sffNodeName) {
         FlowBuilder flowBuilder = configureTableMatchAnyFlow(getTableId(TABLE_INDEX_PATH_MAPPER),
                 getTableId(TABLE_INDEX_PATH_MAPPER_ACL));
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, flowBuilder);
     }
 
     /**
@@ -392,7 +455,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     public void configurePathMapperAclTableMatchAny(final String sffNodeName) {
         FlowBuilder flowBuilder = configureTableMatchAnyFlow(getTableId(TABLE_INDEX_PATH_MAPPER_ACL),
                 getTableId(TABLE_INDEX_NEXT_HOP));
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, flowBuilder);
     }
 
     /**
@@ -406,7 +469,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     public void configureNextHopTableMatchAny(final String sffNodeName) {
         FlowBuilder flowBuilder = configureTableMatchAnyFlow(getTableId(TABLE_INDEX_NEXT_HOP),
                 getTableId(TABLE_INDEX_TRANSPORT_EGRESS));
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, flowBuilder);
     }
 
     /**
@@ -420,7 +483,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         // This is the last table, can't set next table AND doDrop should be
         // false
         FlowBuilder flowBuilder = configureTableMatchAnyDropFlow(getTableId(TABLE_INDEX_TRANSPORT_EGRESS));
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, flowBuilder);
     }
 
     @Override
@@ -428,7 +491,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder flowBuilder = configureTableMatchAnyFlowResubmit(getTableId(TABLE_INDEX_TRANSPORT_EGRESS),
                 nextTableId);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, flowBuilder);
     }
 
     /**
@@ -537,11 +600,11 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     public void configureIpv4TransportIngressFlow(final String sffNodeName) {
         FlowBuilder transportIngressFlowTcp = configureTransportIngressFlow(SfcOpenflowUtils.ETHERTYPE_IPV4,
                 SfcOpenflowUtils.IP_PROTOCOL_TCP, OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_TCP);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlowTcp);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, transportIngressFlowTcp);
 
         FlowBuilder transportIngressFlowUdp = configureTransportIngressFlow(SfcOpenflowUtils.ETHERTYPE_IPV4,
                 SfcOpenflowUtils.IP_PROTOCOL_UDP, OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_UDP);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlowUdp);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, transportIngressFlowUdp);
     }
 
     /**
@@ -564,7 +627,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportIngressFlow =
                 configureTransportIngressFlow(match, OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_VLAN);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, transportIngressFlow);
     }
 
     /**
@@ -579,7 +642,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportIngressFlow =
                 configureTransportIngressFlow(match, OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_MAC);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, transportIngressFlow);
     }
 
     /**
@@ -595,7 +658,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
                 (short) -1,
                 getTableId(TABLE_INDEX_NEXT_HOP),
                 OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_ETH_NSH);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, transportIngressFlow);
     }
 
     /**
@@ -619,7 +682,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
                 getTableId(TABLE_INDEX_NEXT_HOP),
                 OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_NSH,
                 actionList);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, transportIngressFlow);
     }
 
     /**
@@ -633,7 +696,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     public void configureMplsTransportIngressFlow(final String sffNodeName) {
         FlowBuilder transportIngressFlow = configureTransportIngressFlow(
                 SfcOpenflowUtils.ETHERTYPE_MPLS_UCAST, OpenflowConstants.OF_NAME_TRANSPORT_INGRESS_MPLS);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, transportIngressFlow);
     }
 
     /**
@@ -758,7 +821,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
                 getTableId(TABLE_INDEX_TRANSPORT_INGRESS), OF_PRIORITY_ARP_TRANSPORT_INGRESS,
                 flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, arpTransportIngressFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, arpTransportIngressFlow);
     }
 
     @Override
@@ -786,7 +849,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder sfFlow = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_INGRESS),
                 OF_PRIORITY_ARP_TRANSPORT_INGRESS, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, sfFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, sfFlow);
     }
 
     @Override
@@ -813,7 +876,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder sfFlow = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_INGRESS),
                 OF_PRIORITY_ARP_TRANSPORT_INGRESS, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, sfFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, sfFlow);
     }
 
     //
@@ -847,7 +910,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         } else {
             pathMapperFlow = configurePathMapperFlow(pathId, match, actionList);
         }
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, pathMapperFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, pathMapperFlow);
     }
 
     /**
@@ -877,7 +940,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         } else {
             pathMapperFlow = configurePathMapperFlow(pathId, match, actionList);
         }
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, pathMapperFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, pathMapperFlow);
     }
 
     /**
@@ -986,7 +1049,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         // Set an idle timeout on this flow
         ingressFlow.setIdleTimeout(PKTIN_IDLE_TIMEOUT);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, ingressFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, ingressFlow);
     }
 
     //
@@ -1032,7 +1095,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         flowName.add(OpenflowConstants.OF_NAME_NEXT_HOP).add(String.valueOf(pathId)).add(srcMac).add(dstMac);
 
         FlowBuilder nextHopFlow = configureNextHopFlow(match, actionList, flowPriority, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, nextHopFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, nextHopFlow);
     }
 
     /**
@@ -1077,7 +1140,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         flowName.add(OpenflowConstants.OF_NAME_NEXT_HOP).add(vmac).add(nextVMac).add(dstSfMac);
 
         FlowBuilder nextHopFlow = configureNextHopFlow(match, actionList, OF_PRIORITY_NEXT_HOP, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, nextHopFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, nextHopFlow);
     }
 
     /**
@@ -1118,7 +1181,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         flowName.add(OpenflowConstants.OF_NAME_NEXT_HOP).add(String.valueOf(nshNsi)).add(String.valueOf(nshNsp));
 
         FlowBuilder nextHopFlow = configureNextHopFlow(match, actionList, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, nextHopFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, nextHopFlow);
     }
 
     /**
@@ -1149,7 +1212,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         MatchBuilder match = SfcOpenflowUtils.getNshMatches(nsp, nsi);
 
         FlowBuilder nextHopFlow = configureNextHopFlow(match, actionList, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, nextHopFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, nextHopFlow);
     }
 
     /**
@@ -1218,7 +1281,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
                                                                        OF_PRIORITY_TRANSPORT_EGRESS,
                                                                        TRANSPORT_EGRESS_MAC_CHAINING_COOKIE,
                                                                        flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, transportEgressFlow);
     }
 
     @Override
@@ -1244,7 +1307,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureMacTransportEgressFlow(match, actionList, port, pathId, srcMac,
                 dstMac, TRANSPORT_EGRESS_VLAN_SF_COOKIE);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, transportEgressFlow);
     }
 
     /**
@@ -1335,7 +1398,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureMacTransportEgressFlow(match, actionList, port, pathId, srcMac,
                 dstMac, cookieStr);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, transportEgressFlow);
     }
 
     /**
@@ -1425,7 +1488,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureMacTransportEgressFlow(match, actionList, port, pathId, srcMac,
                 dstMac, cookieStr);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, transportEgressFlow);
     }
 
     /**
@@ -1493,7 +1556,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureTransportEgressFlow(match, actionList, theOutPortToSet, flowPriority,
                 TRANSPORT_EGRESS_NSH_VXGPE_LASTHOP_COOKIE, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, transportEgressFlow);
     }
 
     /**
@@ -1554,7 +1617,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder fb = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_EGRESS),
                 OF_PRIORITY_TRANSPORT_EGRESS_PIPELINE, cookie, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, fb);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, fb);
     }
 
     @Override
@@ -1643,7 +1706,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder fb = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_EGRESS),
                 OF_PRIORITY_TRANSPORT_EGRESS_TUNNEL_REMOTE, cookie, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, fb);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, fb);
     }
 
     /**
@@ -1711,7 +1774,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder fb = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_EGRESS),
                 OF_PRIORITY_TRANSPORT_EGRESS_TUNNEL_LOCAL, cookie, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, fb);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, fb);
     }
 
     /**
@@ -1765,7 +1828,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder fb = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_EGRESS),
                 OF_PRIORITY_TRANSPORT_EGRESS_NSH_LOCAL, cookie, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, fb);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, fb);
     }
 
     /**
@@ -1822,7 +1885,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder fb = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_EGRESS),
                 OF_PRIORITY_TRANSPORT_EGRESS_NSH_REMOTE, cookie, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, fb);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, fb);
     }
 
     @Override
@@ -1877,7 +1940,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureTransportEgressFlow(match, actionList, theOutPortToSet, flowPriority,
                 TRANSPORT_EGRESS_NSH_VXGPE_COOKIE, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, transportEgressFlow);
     }
 
     /**
@@ -1915,7 +1978,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureTransportEgressFlow(match, actionList, port,
                 OF_PRIORITY_TRANSPORT_EGRESS + 10, TRANSPORT_EGRESS_NSH_VXGPE_NSC_COOKIE, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, transportEgressFlow);
     }
 
     @Override
@@ -1948,7 +2011,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureTransportEgressFlow(match, actionList, EMPTY_SWITCH_PORT,
                 OF_PRIORITY_TRANSPORT_EGRESS + 10, TRANSPORT_EGRESS_NSH_VXGPE_APPCOEXIST_COOKIE, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, transportEgressFlow);
     }
 
     /**
@@ -1975,7 +2038,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         List<Action> actionList = new ArrayList<>();
         FlowBuilder transportEgressFlow = configureTransportEgressFlow(match, actionList, port,
                 OF_PRIORITY_TRANSPORT_EGRESS, TRANSPORT_EGRESS_NSH_ETH_COOKIE, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, transportEgressFlow);
     }
 
     @Override
@@ -1988,7 +2051,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
     @Override
     public void setTableIndexMapper(SfcTableIndexMapper tableIndexMapper) {
-        this.tableIndexMapper = tableIndexMapper;
+        this.tableIndexMapper.set(tableIndexMapper);
     }
 
     /**
@@ -2086,7 +2149,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlowBuilder = SfcOpenflowUtils.createFlowBuilder(
                 getTableId(TABLE_INDEX_TRANSPORT_EGRESS), flowPriority, cookie, flowName, match, isb);
-        sfcOfFlowWriter.writeFlow(flowRspId, openflowName, transportEgressFlowBuilder);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), openflowName, transportEgressFlowBuilder);
     }
 
     @Override
@@ -2119,6 +2182,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         BucketId bucketId = new BucketId((long) bucketInfo.getIndex());
         bb.setBucketId(bucketId);
         bb.withKey(new BucketKey(bucketId));
+        bb.setWeight(bucketInfo.getWeight());
         String sfMac = bucketInfo.getSfMac();
         String sfIp = bucketInfo.getSfIp();
         List<Action> actionList = new ArrayList<>();
@@ -2190,7 +2254,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         // Create and configure the FlowBuilder
         FlowBuilder nextHopFlow = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_NEXT_HOP), flowPriority,
                 OpenflowConstants.OF_NAME_NEXT_HOP, match, isb);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, nextHopFlow);
+        sfcOfFlowWriter.writeFlow(flowRspId.get(), sffNodeName, nextHopFlow);
     }
 
     private static BigInteger getMetadataSFP(long sfpId) {
@@ -2211,8 +2275,9 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         // A transport processor can provide a table index mapper in order
         // to retrieve table positions
-        if (tableIndexMapper != null && tableIndexMapper.getTableIndex(tableIndex).isPresent()) {
-            return tableIndexMapper.getTableIndex(tableIndex).get();
+        SfcTableIndexMapper mapper = tableIndexMapper.get();
+        if (mapper != null && mapper.getTableIndex(tableIndex).isPresent()) {
+            return mapper.getTableIndex(tableIndex).get();
         }
 
         if (getTableBase() > APP_COEXISTENCE_NOT_SET) {
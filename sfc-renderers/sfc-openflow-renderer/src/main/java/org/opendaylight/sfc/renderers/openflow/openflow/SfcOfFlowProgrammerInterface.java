@@ -17,6 +17,7 @@ import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterInterface;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev130715.MacAddress;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.Action;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
 
 /**
@@ -56,6 +57,25 @@ public interface SfcOfFlowProgrammerInterface {
      */
     Set<NodeId> deleteRspFlows(long rspId);
 
+    // Start reconciling the flows of an already rendered RSP: the flows
+    // created for the RSP from now on are the desired ones
+    void beginRspReconciliation(long rspId);
+
+    // Write only the differences between the buffered flows of an RSP being
+    // reconciled and its previous flows
+    void reconcileRspFlows(long rspId);
+
+    // Recover the flows already on the data store, so that the RSPs rendered
+    // again after a restart only write the flows that changed
+    void recoverFlows();
+
+    // Stop using the recovered flows, once the RSPs have been rendered again,
+    // and delete the recovered flows not claimed by any RSP
+    void completeFlowRecovery();
+
+    // Write again the flows of an SFF missing or different on its switch
+    void reconcileSffFlows(String sffNodeName, FlowCapableNode switchFlows);
+
     // Write any buffered flows to the data store
     void flushFlows();
 
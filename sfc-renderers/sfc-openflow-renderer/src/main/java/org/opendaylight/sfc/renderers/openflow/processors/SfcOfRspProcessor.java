@@ -8,16 +8,23 @@
 
 package org.opendaylight.sfc.renderers.openflow.processors;
 
+import com.google.common.util.concurrent.Striped;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.genius.mdsalutil.NwConstants;
-import org.opendaylight.mdsal.binding.api.RpcConsumerRegistry;
 import org.opendaylight.sfc.genius.util.SfcGeniusDataUtils;
 import org.opendaylight.sfc.genius.util.SfcGeniusRpcClient;
 import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
@@ -49,14 +56,28 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Renders RSPs as OpenFlow flows. Different RSPs may be rendered in parallel
+ * by different threads: each render keeps its own transport processor, and
+ * the RSP id and table index mapper set on the flow programmer, as well as
+ * the flows buffered on the flow writer, are bound to the rendering thread.
+ * Renders only share the SFF initialization state, which is updated
+ * atomically per SFF so each SFF is initialized once. A render holds the
+ * shared lock of its SFFs from the initialization check until the flows of
+ * the RSP are stored, and deletes check for orphan SFFs holding the exclusive
+ * lock of every SFF, so an SFF is never cleared while an RSP is using it.
+ */
 public class SfcOfRspProcessor {
     private static final Logger LOG = LoggerFactory.getLogger(SfcOfRspProcessor.class);
+    private static final int NUM_SFF_LOCK_STRIPES = 64;
     private final SfcOfFlowProgrammerInterface sfcOfFlowProgrammer;
     private final SfcOfBaseProviderUtils sfcOfProviderUtils;
     private final SfcSynchronizer sfcSynchronizer;
     private final Map<NodeId, Boolean> sffInitialized;
+    // Keeps the SFFs being rendered from being cleared by parallel deletes
+    private final Striped<ReadWriteLock> sffInitializationLocks;
     private final OperDsUpdateHandlerInterface operDsHandler;
-    private final Map<String, SfcRspTransportProcessorBase> rspTransportProcessors;
+    private final Map<String, Supplier<SfcRspTransportProcessorBase>> rspTransportProcessors;
     private final SfcGeniusRpcClient theGeniusRpcClient;
     private static final String TRANSPORT_ENCAP_SEPARATOR_STRING = "//";
 
@@ -71,29 +92,30 @@ public class SfcOfRspProcessor {
 
     public SfcOfRspProcessor(SfcOfFlowProgrammerInterface sfcOfFlowProgrammer,
                              SfcOfBaseProviderUtils sfcOfProviderUtils, SfcSynchronizer sfcSynchronizer,
-                             RpcConsumerRegistry rpcRegistry, DataBroker dataBroker) {
+                             SfcGeniusRpcClient geniusRpcClient, DataBroker dataBroker) {
         this.sfcOfFlowProgrammer = sfcOfFlowProgrammer;
         this.sfcOfProviderUtils = sfcOfProviderUtils;
         this.sfcSynchronizer = sfcSynchronizer;
-        this.sffInitialized = new HashMap<>();
-        this.theGeniusRpcClient = new SfcGeniusRpcClient(rpcRegistry);
+        this.sffInitialized = new ConcurrentHashMap<>();
+        this.sffInitializationLocks = Striped.readWriteLock(NUM_SFF_LOCK_STRIPES);
+        this.theGeniusRpcClient = geniusRpcClient;
         this.operDsHandler = new OperDsUpdateHandlerLSFFImpl(dataBroker);
         this.rspTransportProcessors = new HashMap<>();
 
+        // The transport processors keep the RSP being rendered, hence each
+        // render gets its own instance
         this.rspTransportProcessors.put(getTransportEncapName(VxlanGpe.class.getName(), Nsh.class.getName()),
-                new SfcRspProcessorNshVxgpe());
+                SfcRspProcessorNshVxgpe::new);
         this.rspTransportProcessors.put(getTransportEncapName(Mac.class.getName(), Nsh.class.getName()),
-                new SfcRspProcessorNshEth());
+                SfcRspProcessorNshEth::new);
         this.rspTransportProcessors.put(getTransportEncapName(Mpls.class.getName(), Transport.class.getName()),
-                new SfcRspProcessorMpls());
+                SfcRspProcessorMpls::new);
         this.rspTransportProcessors.put(getTransportEncapName(Mac.class.getName(), Transport.class.getName()),
-                new SfcRspProcessorVlan());
+                SfcRspProcessorVlan::new);
         this.rspTransportProcessors.put(getTransportEncapName(Mac.class.getName(), MacChaining.class.getName()),
-                new SfcRspProcessorMacChaining());
+                SfcRspProcessorMacChaining::new);
         this.rspTransportProcessors.put(LOGICAL_SFF_TRANSPORT_PROCESSOR_KEY,
-                new SfcRspProcessorLogicalSff(getGeniusRpcClient(), getOperDsHandler()));
-        rspTransportProcessors.forEach((key, value) -> value.setFlowProgrammer(sfcOfFlowProgrammer));
-        rspTransportProcessors.forEach((key, value) -> value.setSfcProviderUtils(sfcOfProviderUtils));
+            () -> new SfcRspProcessorLogicalSff(getGeniusRpcClient(), getOperDsHandler()));
     }
 
     /**
@@ -104,12 +126,34 @@ public class SfcOfRspProcessor {
      *            - a newly created/updated Rendered Service Path
      */
     public void processRenderedServicePath(RenderedServicePath rsp) {
-        // if this method takes too long, consider launching it in a thread
+        processRenderedServicePath(rsp, false);
+    }
+
+    /**
+     * Re-render an already rendered RSP without removing its flows first. The
+     * flows of the RSP are computed again and compared with the flows
+     * previously written for it; only the new, modified and no longer needed
+     * flows are written to the switches, so traffic is not disrupted.
+     *
+     * @param rsp
+     *            - the Rendered Service Path to re-render
+     */
+    public void reconcileRenderedServicePath(RenderedServicePath rsp) {
+        processRenderedServicePath(rsp, true);
+    }
+
+    private void processRenderedServicePath(RenderedServicePath rsp, boolean reconcile) {
+        List<Lock> sffLocks = Collections.emptyList();
         try {
-            // This call blocks until the lock is obtained
-            sfcSynchronizer.lock();
+            // This call blocks until the lock is obtained. Other RSPs may be
+            // rendered in parallel, but not while the renderer configuration
+            // is being changed
+            sfcSynchronizer.lockShared();
 
             sfcOfProviderUtils.addRsp(rsp.getPathId());
+            if (reconcile) {
+                sfcOfFlowProgrammer.beginRspReconciliation(rsp.getPathId());
+            }
 
             //
             // Populate the SFF Connection Graph
@@ -117,6 +161,10 @@ public class SfcOfRspProcessor {
             SffGraph sffGraph = populateSffGraph(rsp);
             SfcRspTransportProcessorBase transportProcessor = getTransportProcessor(sffGraph, rsp);
 
+            // The SFFs must not be cleared by a parallel delete until the
+            // flows of this RSP are stored
+            sffLocks = lockSffs(getSffNodeIds(sffGraph));
+
             //
             // Populate the SFF ingress and egress DPLs from the sffGraph
             //
@@ -150,7 +198,14 @@ public class SfcOfRspProcessor {
                 configureTransportEgressFlows(entry, sffGraph, transportProcessor);
             }
 
+            // The flows of the RSP are stored, the SFFs are not orphans anymore
+            sffLocks.forEach(Lock::unlock);
+            sffLocks = Collections.emptyList();
+
             // Flush the flows to the data store
+            if (reconcile) {
+                this.sfcOfFlowProgrammer.reconcileRspFlows(rsp.getPathId());
+            }
             this.sfcOfFlowProgrammer.flushFlows();
 
             // Update the operational datastore if necessary (without blocking)
@@ -161,10 +216,11 @@ public class SfcOfRspProcessor {
         } catch (SfcRenderingException e) {
             LOG.error("SfcRenderingException in processRenderedServicePath: ", e.getMessage(), e);
         } finally {
+            sffLocks.forEach(Lock::unlock);
             // If there were any errors, purge any remaining flows so they're
             // not written
             this.sfcOfFlowProgrammer.purgeFlows();
-            sfcSynchronizer.unlock();
+            sfcSynchronizer.unlockShared();
             sfcOfProviderUtils.removeRsp(rsp.getPathId());
         }
     }
@@ -176,9 +232,19 @@ public class SfcOfRspProcessor {
      *            - the Rendered Service Path to delete
      */
     public void deleteRenderedServicePath(RenderedServicePath rsp) {
-        Set<NodeId> clearedSffNodeIDs = sfcOfFlowProgrammer.deleteRspFlows(rsp.getPathId());
-        for (NodeId sffNodeId : clearedSffNodeIDs) {
-            setSffInitialized(sffNodeId, false);
+        // Any SFF may be found orphan, so no SFF may be in use by a render
+        // while the flows are deleted
+        List<Lock> sffLocks = new ArrayList<>();
+        for (int i = 0; i < sffInitializationLocks.size(); i++) {
+            Lock sffLock = sffInitializationLocks.getAt(i).writeLock();
+            sffLock.lock();
+            sffLocks.add(sffLock);
+        }
+        try {
+            Set<NodeId> clearedSffNodeIDs = sfcOfFlowProgrammer.deleteRspFlows(rsp.getPathId());
+            clearedSffNodeIDs.forEach(sffNodeId -> setSffInitialized(sffNodeId, false));
+        } finally {
+            sffLocks.forEach(Lock::unlock);
         }
 
         // not necessary to build a transport processor; simply update SFF state
@@ -187,13 +253,21 @@ public class SfcOfRspProcessor {
         getOperDsHandler().onRspDeletion(rsp);
     }
 
+    /**
+     * Stop using the flows recovered from the data store, once the RSPs that
+     * existed before a restart have been rendered again.
+     */
+    public void completeFlowRecovery() {
+        sfcOfFlowProgrammer.completeFlowRecovery();
+    }
+
     private OperDsUpdateHandlerInterface getOperDsHandler() {
         return operDsHandler;
     }
 
     /**
      * Given the RSP transport type + encapsulation (and the rsp graph, for
-     * lsff), return a RSP Transport Processor that will call the appropriate
+     * lsff), create a RSP Transport Processor that will call the appropriate
      * FlowProgrammer methods.
      *
      * @param sffGraph
@@ -203,14 +277,18 @@ public class SfcOfRspProcessor {
      *
      * @return an RSP Transport Processor for the RSP.
      */
-    private SfcRspTransportProcessorBase getReusableTransportProcessor(SffGraph sffGraph, RenderedServicePath rsp) {
+    private SfcRspTransportProcessorBase createTransportProcessor(SffGraph sffGraph, RenderedServicePath rsp) {
         String transportProcessorKey = sffGraph.isUsingLogicalSFF() ? LOGICAL_SFF_TRANSPORT_PROCESSOR_KEY
                 : getTransportEncapName(rsp.getTransportType().getName(), rsp.getSfcEncapsulation().getName());
-        SfcRspTransportProcessorBase transportProcessor = rspTransportProcessors.get(transportProcessorKey);
-        if (transportProcessor == null) {
+        Supplier<SfcRspTransportProcessorBase> transportProcessorFactory =
+                rspTransportProcessors.get(transportProcessorKey);
+        if (transportProcessorFactory == null) {
             throw new SfcRenderingException("getTransportProcessor no processor for transport ["
                     + rsp.getTransportType().getName() + "] encap [" + rsp.getSfcEncapsulation() + "] ");
         }
+        SfcRspTransportProcessorBase transportProcessor = transportProcessorFactory.get();
+        transportProcessor.setFlowProgrammer(sfcOfFlowProgrammer);
+        transportProcessor.setSfcProviderUtils(sfcOfProviderUtils);
         LOG.debug("getTransportProcessor :: transport [{}] encap [{} selected transport processor [{}]]",
                 rsp.getTransportType().getName(), rsp.getSfcEncapsulation(), transportProcessor.getClass());
         return transportProcessor;
@@ -228,7 +306,7 @@ public class SfcOfRspProcessor {
      * @return an RSP Transport Processor for the RSP.
      */
     public SfcRspTransportProcessorBase getTransportProcessor(SffGraph sffGraph, RenderedServicePath rsp) {
-        SfcRspTransportProcessorBase transportProcessor = getReusableTransportProcessor(sffGraph, rsp);
+        SfcRspTransportProcessorBase transportProcessor = createTransportProcessor(sffGraph, rsp);
         transportProcessor.setRsp(rsp);
         transportProcessor.setSffGraph(sffGraph);
         return transportProcessor;
@@ -533,8 +611,14 @@ public class SfcOfRspProcessor {
             throw new SfcRenderingException("initializeSff SFF [" + entry.getDstSff().getValue() + "] does not exist");
         }
 
+        // Another RSP may be initializing the same SFF in parallel
         NodeId sffNodeId = new NodeId(sffNodeName);
-        if (!getSffInitialized(sffNodeId)) {
+        if (!claimSffInitialization(sffNodeId)) {
+            return;
+        }
+
+        boolean initialized = false;
+        try {
             LOG.debug("Initializing SFF [{}] node [{}]", entry.getDstSff().getValue(), sffNodeName);
 
             /* For OVS DPDK, add default NORMAL action flows */
@@ -559,9 +643,56 @@ public class SfcOfRspProcessor {
             this.sfcOfFlowProgrammer.configurePathMapperTableMatchAny(sffNodeName);
             this.sfcOfFlowProgrammer.configurePathMapperAclTableMatchAny(sffNodeName);
             this.sfcOfFlowProgrammer.configureNextHopTableMatchAny(sffNodeName);
+            initialized = true;
+        } finally {
+            if (!initialized) {
+                // Leave the SFF to be initialized by the next RSP
+                setSffInitialized(sffNodeId, false);
+            }
+        }
+    }
 
-            setSffInitialized(sffNodeId, true);
+    /**
+     * Get the OpenFlow node IDs of the SFFs initialized by initializeSff() when
+     * rendering the given graph.
+     *
+     * @param sffGraph
+     *            - the SFF graph of the RSP being rendered
+     * @return the SFF node IDs
+     */
+    private Set<NodeId> getSffNodeIds(SffGraph sffGraph) {
+        Set<NodeId> sffNodeIds = new HashSet<>();
+        Iterator<SffGraph.SffGraphEntry> sffGraphIter = sffGraph.getGraphEntryIterator();
+        while (sffGraphIter.hasNext()) {
+            SffGraph.SffGraphEntry entry = sffGraphIter.next();
+            if (entry.getDstSff().equals(SffGraph.EGRESS)) {
+                continue;
+            }
+            String sffNodeName = sfcOfProviderUtils.getSffOpenFlowNodeName(entry.getDstSff(), entry.getPathId(),
+                    entry.getDstDpnId());
+            if (sffNodeName != null) {
+                sffNodeIds.add(new NodeId(sffNodeName));
+            }
+        }
+        return sffNodeIds;
+    }
+
+    /**
+     * Take the shared lock of the given SFFs. The locks are taken in stripe
+     * order, the same order deleteRenderedServicePath() takes them in.
+     *
+     * @param sffNodeIds
+     *            - the SFFs to lock
+     * @return the locks taken, to be released by the caller
+     */
+    private List<Lock> lockSffs(Set<NodeId> sffNodeIds) {
+        List<Lock> sffLocks = new ArrayList<>();
+        for (ReadWriteLock sffLock : sffInitializationLocks.bulkGet(sffNodeIds)) {
+            // different SFFs may share the stripe, the read lock is reentrant
+            sffLock.readLock().lock();
+            sffLocks.add(sffLock.readLock());
         }
+        return sffLocks;
     }
 
     //
@@ -569,25 +700,20 @@ public class SfcOfRspProcessor {
     //
 
     /**
-     * Given an SFF name, determine if its been initialized yet or not. Called
-     * by initializeSff()
+     * Given an SFF name, set it as initialized unless it has been initialized
+     * already. Called by initializeSff()
      *
      * @param sffNodeId
      *            The SFF node ID to check
-     * @return true if its been initialized, false otherwise
+     * @return true if the caller has to initialize the SFF, false otherwise
      */
-    private boolean getSffInitialized(final NodeId sffNodeId) {
-        Boolean isInitialized = sffInitialized.get(sffNodeId);
-
-        if (isInitialized == null) {
-            return false;
-        }
-
-        return isInitialized;
+    private boolean claimSffInitialization(final NodeId sffNodeId) {
+        return !Boolean.TRUE.equals(sffInitialized.put(new NodeId(sffNodeId), Boolean.TRUE));
     }
 
     /**
-     * Set a given SFF as initialized. Called by initializeSff()
+     * Set a given SFF as initialized or not. Called by initializeSff() and
+     * deleteRenderedServicePath()
      *
      * @param sffNodeId
      *            - the SFF to set
@@ -14,6 +14,9 @@ public class GroupBucketInfo {
     private String sfIp;
     private String outPort;
     private int index;
+    private String sfName;
+    // The bucket weight of a select group, none for an equal share
+    private Integer weight;
 
     public String getSfMac() {
         return sfMac;
@@ -47,8 +50,25 @@ public class GroupBucketInfo {
         this.index = index;
     }
 
+    public String getSfName() {
+        return sfName;
+    }
+
+    public void setSfName(String sfName) {
+        this.sfName = sfName;
+    }
+
+    public Integer getWeight() {
+        return weight;
+    }
+
+    public void setWeight(Integer weight) {
+        this.weight = weight;
+    }
+
     @Override
     public String toString() {
-        return "GroupBucketInfo [sfMac=" + sfMac + ", sfIp=" + sfIp + ", outPort=" + outPort + ", index=" + index + "]";
+        return "GroupBucketInfo [sfMac=" + sfMac + ", sfIp=" + sfIp + ", outPort=" + outPort + ", index=" + index
+                + ", sfName=" + sfName + ", weight=" + weight + "]";
     }
 }
@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.sfg;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.sfc.renderers.openflow.openflow.SfcOfFlowProgrammerInterface;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.ServiceFunctionsState;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.state.ServiceFunctionState;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.state.ServiceFunctionStateKey;
+import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.sf.desc.mon.rev141201.ServiceFunctionState1;
+import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.sf.desc.mon.rev141201.service.functions.state.service.function.state.SfcSfDescMon;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.GroupTypes;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Programs the service function groups, weighting the buckets of the select
+ * groups by the spare CPU of their service functions, as reported in their
+ * description and monitoring state. This is the same load information the
+ * load balance scheduler uses to select a service function.
+ *
+ * <p>
+ * The weights are recomputed periodically and the groups whose weights
+ * moved by at least the hysteresis are written again, with the same group
+ * and bucket identifiers, so that the switches modify the group in place.
+ * The flows of the rendered service paths, which only refer to the group
+ * identifier, are untouched.
+ *
+ * <p>
+ * The service function state is read and the select groups are written on
+ * the load balancer thread, never on the thread of the caller, which is
+ * typically a data tree change listener.
+ */
+public class SfcOfSfgLoadBalancer implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOfSfgLoadBalancer.class);
+
+    static final int MIN_WEIGHT = 1;
+    static final int MAX_WEIGHT = 100;
+
+    private final SfcOfFlowProgrammerInterface sfcOfFlowProgrammer;
+    private final int hysteresis;
+    private final ScheduledExecutorService scheduler;
+
+    // The select groups, by name
+    private final Map<String, WeightedGroup> groups = new ConcurrentHashMap<>();
+
+    private final AtomicLong rebalanced = new AtomicLong();
+    private final AtomicLong modified = new AtomicLong();
+    private final AtomicLong withinHysteresis = new AtomicLong();
+
+    private static final class WeightedGroup {
+        private final String sffName;
+        private final String openflowNodeId;
+        private final String sfgName;
+        private final long groupId;
+        private final List<GroupBucketInfo> bucketInfos;
+        // Guarded by the SfcOfSfgLoadBalancer
+        private List<Integer> weights;
+
+        WeightedGroup(String sffName, String openflowNodeId, String sfgName, long groupId,
+                List<GroupBucketInfo> bucketInfos) {
+            this.sffName = sffName;
+            this.openflowNodeId = openflowNodeId;
+            this.sfgName = sfgName;
+            this.groupId = groupId;
+            this.bucketInfos = bucketInfos;
+        }
+
+        List<SfName> getSfNames() {
+            List<SfName> sfNames = new ArrayList<>();
+            bucketInfos.forEach(bucketInfo -> sfNames.add(new SfName(bucketInfo.getSfName())));
+            return sfNames;
+        }
+    }
+
+    public SfcOfSfgLoadBalancer(SfcOfFlowProgrammerInterface sfcOfFlowProgrammer, long intervalMillis,
+            int hysteresis) {
+        this(sfcOfFlowProgrammer, intervalMillis, hysteresis, Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("sfc-of-sfg-load-balancer-%d").build()));
+    }
+
+    SfcOfSfgLoadBalancer(SfcOfFlowProgrammerInterface sfcOfFlowProgrammer, long intervalMillis, int hysteresis,
+            ScheduledExecutorService scheduler) {
+        this.sfcOfFlowProgrammer = sfcOfFlowProgrammer;
+        this.hysteresis = hysteresis;
+        this.scheduler = scheduler;
+        this.scheduler.scheduleWithFixedDelay(this::rebalanceSafely, intervalMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        LOG.info("SfcOfSfgLoadBalancer closed: rebalanced {}, modified {}, within hysteresis {}",
+                getRebalancedCount(), getModifiedCount(), getWithinHysteresisCount());
+    }
+
+    /**
+     * Program a service function group, weighting its buckets if it is a
+     * select group. The select groups are weighted and written
+     * asynchronously, on the load balancer thread.
+     *
+     * @param sffName the SFF of the group service functions
+     * @param openflowNodeId the OpenFlow node of the SFF
+     * @param sfgName the group name
+     * @param groupId the group identifier
+     * @param groupType the OpenFlow group type
+     * @param bucketInfos the buckets, one per service function
+     * @param isAdd true to add or update the group, false to remove it
+     */
+    public void configureGroup(String sffName, String openflowNodeId, String sfgName, long groupId, int groupType,
+            List<GroupBucketInfo> bucketInfos, boolean isAdd) {
+        if (!isAdd || groupType != GroupTypes.GroupSelect.getIntValue()) {
+            synchronized (this) {
+                groups.remove(sfgName);
+                sfcOfFlowProgrammer.configureGroup(sffName, openflowNodeId, sfgName, groupId, groupType,
+                        bucketInfos, isAdd);
+            }
+            return;
+        }
+
+        WeightedGroup group = new WeightedGroup(sffName, openflowNodeId, sfgName, groupId, bucketInfos);
+        groups.put(sfgName, group);
+        try {
+            scheduler.execute(() -> addGroupSafely(group));
+        } catch (RejectedExecutionException e) {
+            LOG.debug("SFG {} not written, the load balancer is closed", sfgName);
+        }
+    }
+
+    public int getGroupCount() {
+        return groups.size();
+    }
+
+    public long getRebalancedCount() {
+        return rebalanced.get();
+    }
+
+    public long getModifiedCount() {
+        return modified.get();
+    }
+
+    public long getWithinHysteresisCount() {
+        return withinHysteresis.get();
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void addGroupSafely(WeightedGroup group) {
+        try {
+            List<SfName> sfNames = group.getSfNames();
+            List<Integer> weights = computeWeights(sfNames, readCpuUtilizations(sfNames));
+            synchronized (this) {
+                // Skip the group if updated or removed in the meantime
+                if (groups.get(group.sfgName) == group) {
+                    writeGroup(group, weights);
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Error writing the service function group {}", group.sfgName, e);
+        }
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void rebalanceSafely() {
+        try {
+            rebalance();
+        } catch (RuntimeException e) {
+            LOG.error("Error rebalancing the service function groups", e);
+        }
+    }
+
+    /**
+     * Recompute the weights of all the select groups and write again the
+     * groups whose weights moved by at least the hysteresis.
+     */
+    void rebalance() {
+        List<WeightedGroup> toRebalance = new ArrayList<>(groups.values());
+        if (toRebalance.isEmpty()) {
+            return;
+        }
+        rebalanced.incrementAndGet();
+
+        // A service function may be a member of several groups
+        Set<SfName> sfNames = new LinkedHashSet<>();
+        toRebalance.forEach(group -> sfNames.addAll(group.getSfNames()));
+        Map<SfName, Long> cpuUtilizations = readCpuUtilizations(sfNames);
+
+        for (WeightedGroup group : toRebalance) {
+            List<Integer> weights = computeWeights(group.getSfNames(), cpuUtilizations);
+            synchronized (this) {
+                // Skip the groups updated or removed in the meantime
+                if (groups.get(group.sfgName) != group) {
+                    continue;
+                }
+                if (!isBeyondHysteresis(group.weights, weights, hysteresis)) {
+                    withinHysteresis.incrementAndGet();
+                    continue;
+                }
+                LOG.debug("Rebalance SFG {} from weights {} to {}", group.sfgName, group.weights, weights);
+                writeGroup(group, weights);
+                modified.incrementAndGet();
+            }
+        }
+    }
+
+    // Called with the lock held, so that the writes of a group are ordered.
+    // The weights are set on copies of the buckets, which the caller of
+    // configureGroup may still hold.
+    private void writeGroup(WeightedGroup group, List<Integer> weights) {
+        List<GroupBucketInfo> bucketInfos = new ArrayList<>();
+        for (int i = 0; i < group.bucketInfos.size(); i++) {
+            GroupBucketInfo bucketInfo = copyOf(group.bucketInfos.get(i));
+            bucketInfo.setWeight(weights.get(i));
+            bucketInfos.add(bucketInfo);
+        }
+        sfcOfFlowProgrammer.configureGroup(group.sffName, group.openflowNodeId, group.sfgName, group.groupId,
+                GroupTypes.GroupSelect.getIntValue(), bucketInfos, true);
+        group.weights = weights;
+    }
+
+    private static GroupBucketInfo copyOf(GroupBucketInfo bucketInfo) {
+        GroupBucketInfo copy = new GroupBucketInfo();
+        copy.setSfMac(bucketInfo.getSfMac());
+        copy.setSfIp(bucketInfo.getSfIp());
+        copy.setOutPort(bucketInfo.getOutPort());
+        copy.setIndex(bucketInfo.getIndex());
+        copy.setSfName(bucketInfo.getSfName());
+        copy.setWeight(bucketInfo.getWeight());
+        return copy;
+    }
+
+    /**
+     * Read the CPU utilization of service functions, all in a single read
+     * transaction.
+     *
+     * @param sfNames the service function names
+     * @return the CPU utilization percentage of the service functions which
+     *         report it, by name
+     */
+    protected Map<SfName, Long> readCpuUtilizations(Collection<SfName> sfNames) {
+        Map<SfName, ListenableFuture<ServiceFunctionState>> reads = new LinkedHashMap<>();
+        try (SfcDataStoreAPI.ReadBatch readBatch = SfcDataStoreAPI.newReadBatch()) {
+            for (SfName sfName : sfNames) {
+                InstanceIdentifier<ServiceFunctionState> sfStateIid = InstanceIdentifier
+                        .builder(ServiceFunctionsState.class)
+                        .child(ServiceFunctionState.class, new ServiceFunctionStateKey(sfName)).build();
+                reads.put(sfName, readBatch.read(sfStateIid, LogicalDatastoreType.OPERATIONAL));
+            }
+        }
+
+        Map<SfName, Long> cpuUtilizations = new HashMap<>();
+        reads.forEach((sfName, read) -> {
+            Long cpuUtilization = getCpuUtilization(SfcDataStoreAPI.getResult(read));
+            if (cpuUtilization != null) {
+                cpuUtilizations.put(sfName, cpuUtilization);
+            }
+        });
+        return cpuUtilizations;
+    }
+
+    private static Long getCpuUtilization(ServiceFunctionState sfState) {
+        if (sfState == null || sfState.augmentation(ServiceFunctionState1.class) == null) {
+            return null;
+        }
+        SfcSfDescMon sfcSfDescMon = sfState.augmentation(ServiceFunctionState1.class).getSfcSfDescMon();
+        if (sfcSfDescMon == null || sfcSfDescMon.getMonitoringInfo() == null
+                || sfcSfDescMon.getMonitoringInfo().getResourceUtilization() == null) {
+            return null;
+        }
+        return sfcSfDescMon.getMonitoringInfo().getResourceUtilization().getCPUUtilization();
+    }
+
+    /**
+     * Compute the bucket weights of a group, the spare CPU percentage of
+     * each service function. A service function which does not report its
+     * load gets the average weight of the others, or the maximum weight if
+     * none of them reports it.
+     *
+     * @param sfNames the service functions of the group buckets, in order
+     * @param cpuUtilizations the known CPU utilization percentages, by name
+     * @return the bucket weights, in order
+     */
+    static List<Integer> computeWeights(List<SfName> sfNames, Map<SfName, Long> cpuUtilizations) {
+        long knownSum = 0;
+        int knownCount = 0;
+        for (SfName sfName : sfNames) {
+            Long cpuUtilization = cpuUtilizations.get(sfName);
+            if (cpuUtilization != null) {
+                knownSum += toWeight(cpuUtilization);
+                knownCount++;
+            }
+        }
+        int defaultWeight = knownCount > 0 ? (int) (knownSum / knownCount) : MAX_WEIGHT;
+
+        List<Integer> weights = new ArrayList<>();
+        for (SfName sfName : sfNames) {
+            Long cpuUtilization = cpuUtilizations.get(sfName);
+            weights.add(cpuUtilization != null ? toWeight(cpuUtilization) : defaultWeight);
+        }
+        return weights;
+    }
+
+    private static int toWeight(long cpuUtilization) {
+        return (int) Math.max(MIN_WEIGHT, Math.min(MAX_WEIGHT, MAX_WEIGHT - cpuUtilization));
+    }
+
+    static boolean isBeyondHysteresis(List<Integer> currentWeights, List<Integer> weights, int hysteresis) {
+        if (currentWeights == null || currentWeights.size() != weights.size()) {
+            return true;
+        }
+        for (int i = 0; i < weights.size(); i++) {
+            if (Math.abs(weights.get(i) - currentWeights.get(i)) >= hysteresis) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
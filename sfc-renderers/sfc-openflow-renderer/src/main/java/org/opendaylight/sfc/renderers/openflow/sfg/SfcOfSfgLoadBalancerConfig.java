@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.sfg;
+
+/**
+ * The settings of the {@link SfcOfSfgLoadBalancer}, from the
+ * org.opendaylight.sfc.openflow.renderer configuration.
+ */
+public class SfcOfSfgLoadBalancerConfig {
+
+    private final long rebalanceIntervalMillis;
+    private final int weightHysteresis;
+
+    /**
+     * Constructor.
+     *
+     * @param rebalanceIntervalMillis the period at which the select group
+     *            bucket weights follow the service function load
+     * @param weightHysteresis the least weight change for a select group to
+     *            be written again
+     */
+    public SfcOfSfgLoadBalancerConfig(long rebalanceIntervalMillis, int weightHysteresis) {
+        this.rebalanceIntervalMillis = rebalanceIntervalMillis;
+        this.weightHysteresis = weightHysteresis;
+    }
+
+    public long getRebalanceIntervalMillis() {
+        return rebalanceIntervalMillis;
+    }
+
+    public int getWeightHysteresis() {
+        return weightHysteresis;
+    }
+}
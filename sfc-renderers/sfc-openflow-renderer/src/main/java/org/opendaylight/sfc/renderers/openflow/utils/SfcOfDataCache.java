@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Thread safe cache of data store objects shared by all the RSPs rendered by
+ * the OpenFlow renderer, with hit and miss counters.
+ *
+ * <p>
+ * Objects are loaded on the first miss and kept until invalidated by a data
+ * tree change listener. Loads run outside of the map, so that a slow data
+ * store read does not block the other keys. An object loaded while any
+ * invalidation happened is not kept, as it may have been read before the
+ * update; stale objects are never kept. Objects that are not found are not
+ * cached.
+ *
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            the cached object type
+ */
+public class SfcOfDataCache<K, V> {
+
+    private final ConcurrentMap<K, V> objects = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // Incremented on every invalidation
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Get an object from the cache, loading it on a miss.
+     *
+     * @param key
+     *            the object key
+     * @param loader
+     *            loads the object from the data store, returns null if not
+     *            found
+     * @return the object, or null if not found
+     */
+    public V get(K key, Function<K, V> loader) {
+        return get(key, loader, object -> true);
+    }
+
+    /**
+     * Get an object from the cache, loading it on a miss. The loaded object
+     * is only cached if it is complete enough to be reused by other RSPs.
+     *
+     * @param key
+     *            the object key
+     * @param loader
+     *            loads the object from the data store, returns null if not
+     *            found
+     * @param cacheable
+     *            tells whether a loaded object can be cached
+     * @return the object, or null if not found
+     */
+    public V get(K key, Function<K, V> loader, Predicate<V> cacheable) {
+        V object = objects.get(key);
+        if (object != null) {
+            hits.increment();
+            return object;
+        }
+
+        misses.increment();
+        long invalidationsBeforeLoad = invalidations.get();
+        V loadedObject = loader.apply(key);
+        if (loadedObject == null || !cacheable.test(loadedObject)) {
+            return loadedObject;
+        }
+
+        object = objects.putIfAbsent(key, loadedObject);
+        if (object != null) {
+            // loaded concurrently by another thread
+            return object;
+        }
+        if (invalidations.get() != invalidationsBeforeLoad) {
+            // the object may have been read before an invalidation
+            objects.remove(key, loadedObject);
+        }
+        return loadedObject;
+    }
+
+    /**
+     * Remove an object from the cache.
+     *
+     * @param key
+     *            the object key
+     */
+    public void invalidate(K key) {
+        invalidations.incrementAndGet();
+        objects.remove(key);
+    }
+
+    /**
+     * Remove all the objects from the cache.
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        objects.clear();
+    }
+
+    public int size() {
+        return objects.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
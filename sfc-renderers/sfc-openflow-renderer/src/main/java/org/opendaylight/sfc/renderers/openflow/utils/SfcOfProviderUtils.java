@@ -9,10 +9,7 @@
 package org.opendaylight.sfc.renderers.openflow.utils;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
@@ -49,37 +46,60 @@ import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 public class SfcOfProviderUtils extends SfcOfBaseProviderUtils {
 
-    // Since this class can be called by multiple threads,
-    // store these objects per RSP id to avoid collisions
-    private static class RspContext {
+    // The SFs, SFFs and SFGs are shared by all the RSPs rendered, store them
+    // internally so we dont have to query the DataStore repeatedly for the
+    // same thing. The entries are invalidated by data tree change listeners,
+    // see SfcOfProviderUtilsDataListener and SfcOfOvsdbBridgeDataListener.
+    private final SfcOfDataCache<SfName, ServiceFunction> serviceFunctions = new SfcOfDataCache<>();
+    private final SfcOfDataCache<String, ServiceFunctionGroup> serviceFunctionGroups = new SfcOfDataCache<>();
+    private final SfcOfDataCache<SffName, ServiceFunctionForwarder> serviceFunctionFowarders =
+            new SfcOfDataCache<>();
 
-        // store the SFs and SFFs internally so we dont have to
-        // query the DataStore repeatedly for the same thing
-        private final Map<SfName, ServiceFunction> serviceFunctions;
-        private final Map<String, ServiceFunctionGroup> serviceFunctionGroups;
-        private final Map<SffName, ServiceFunctionForwarder> serviceFunctionFowarders;
+    @Override
+    public void addRsp(long rspId) {
+        // The cached objects are shared by all the RSPs
+    }
 
-        RspContext() {
-            serviceFunctions = Collections.synchronizedMap(new HashMap<SfName, ServiceFunction>());
-            serviceFunctionGroups = Collections.synchronizedMap(new HashMap<String, ServiceFunctionGroup>());
-            serviceFunctionFowarders = Collections.synchronizedMap(new HashMap<SffName, ServiceFunctionForwarder>());
-        }
+    @Override
+    public void removeRsp(long rspId) {
+        // The cached objects are shared by all the RSPs
+        LOG.debug("removeRsp: cache hits {} misses {}", getCacheHits(), getCacheMisses());
     }
 
-    private final Map<Long, RspContext> rspIdToContext;
+    public void invalidateServiceFunction(SfName sfName) {
+        serviceFunctions.invalidate(sfName);
+    }
 
-    public SfcOfProviderUtils() {
-        rspIdToContext = new HashMap<>();
+    public void invalidateServiceFunctionForwarder(SffName sffName) {
+        serviceFunctionFowarders.invalidate(sffName);
     }
 
-    @Override
-    public void addRsp(long rspId) {
-        rspIdToContext.put(rspId, new RspContext());
+    public void invalidateAllServiceFunctionForwarders() {
+        serviceFunctionFowarders.invalidateAll();
     }
 
-    @Override
-    public void removeRsp(long rspId) {
-        rspIdToContext.remove(rspId);
+    public void invalidateServiceFunctionGroup(String sfgName) {
+        serviceFunctionGroups.invalidate(sfgName);
+    }
+
+    /**
+     * Get the number of SF, SFF and SFG lookups answered from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getCacheHits() {
+        return serviceFunctions.getHits() + serviceFunctionFowarders.getHits() + serviceFunctionGroups.getHits();
+    }
+
+    /**
+     * Get the number of SF, SFF and SFG lookups that had to go to the
+     * DataStore.
+     *
+     * @return the number of cache misses
+     */
+    public long getCacheMisses() {
+        return serviceFunctions.getMisses() + serviceFunctionFowarders.getMisses()
+                + serviceFunctionGroups.getMisses();
     }
 
     /**
@@ -98,17 +118,7 @@ public class SfcOfProviderUtils extends SfcOfBaseProviderUtils {
             return null;
         }
 
-        RspContext rspContext = rspIdToContext.get(rspId);
-
-        ServiceFunction sf = rspContext.serviceFunctions.get(sfName);
-        if (sf == null) {
-            sf = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
-            if (sf != null) {
-                rspContext.serviceFunctions.put(sfName, sf);
-            }
-        }
-
-        return sf;
+        return serviceFunctions.get(sfName, SfcProviderServiceFunctionAPI::readServiceFunction);
     }
 
     /**
@@ -126,7 +136,9 @@ public class SfcOfProviderUtils extends SfcOfBaseProviderUtils {
     /**
      * Return the named ServiceFunctionForwarder Acts as a local cache to not
      * have to go to DataStore so often First look in internal storage, if its
-     * not there get it from the DataStore and store it internally.
+     * not there get it from the DataStore and store it internally. SFFs whose
+     * OpenFlow node is not known yet are not cached, so that the node is
+     * looked up again for the next RSP.
      *
      * @param sffName
      *            - The SFF Name to search for
@@ -139,33 +151,19 @@ public class SfcOfProviderUtils extends SfcOfBaseProviderUtils {
             return null;
         }
 
-        RspContext rspContext = rspIdToContext.get(rspId);
-
-        ServiceFunctionForwarder sff = rspContext.serviceFunctionFowarders.get(sffName);
-        if (sff == null) {
-            sff = SfcProviderServiceForwarderAPI.readServiceFunctionForwarder(sffName);
-            if (sff != null) {
-                sff = SfcOvsUtil.augmentSffWithOpenFlowNodeId(sff);
-                rspContext.serviceFunctionFowarders.put(sffName, sff);
-            }
-        }
-
-        return sff;
+        return serviceFunctionFowarders.get(sffName, name -> {
+            ServiceFunctionForwarder sff = SfcProviderServiceForwarderAPI.readServiceFunctionForwarder(name);
+            return sff == null ? null : SfcOvsUtil.augmentSffWithOpenFlowNodeId(sff);
+        }, sff -> getSffOpenFlowNodeName(sff) != null);
     }
 
     @Override
     public ServiceFunctionGroup getServiceFunctionGroup(final String sfgName, long rspId) {
-        RspContext rspContext = rspIdToContext.get(rspId);
-
-        ServiceFunctionGroup sfg = rspContext.serviceFunctionGroups.get(sfgName);
-        if (sfg == null) {
-            sfg = SfcProviderServiceFunctionGroupAPI.readServiceFunctionGroup(sfgName);
-            if (sfg != null) {
-                rspContext.serviceFunctionGroups.put(sfgName, sfg);
-            }
+        if (sfgName == null) {
+            return null;
         }
 
-        return sfg;
+        return serviceFunctionGroups.get(sfgName, SfcProviderServiceFunctionGroupAPI::readServiceFunctionGroup);
     }
 
     /**
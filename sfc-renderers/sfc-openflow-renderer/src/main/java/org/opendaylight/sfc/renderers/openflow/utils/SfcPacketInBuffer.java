@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread safe buffer of the packet flows already handled by a PacketIn
+ * handler, keyed by a primitive long and expired by age.
+ *
+ * <p>
+ * The buffer is split in segments, each one an open addressing hash table of
+ * primitive keys and timestamps guarded by its own lock, so buffering a flow
+ * does not allocate unless a segment grows. The segments are also the slots
+ * of a timer wheel: every tick sweeps the expired flows of the next segment
+ * only, hence the whole buffer is swept once every {@link #NUM_SEGMENTS}
+ * ticks instead of being scanned on every tick.
+ */
+public class SfcPacketInBuffer {
+
+    public static final int NUM_SEGMENTS = 16;
+    private static final int SEGMENT_SHIFT = Integer.SIZE - Integer.numberOfTrailingZeros(NUM_SEGMENTS);
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments;
+    private final AtomicInteger nextSweptSegment;
+
+    public SfcPacketInBuffer() {
+        segments = new Segment[NUM_SEGMENTS];
+        for (int i = 0; i < NUM_SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+        nextSweptSegment = new AtomicInteger();
+    }
+
+    /**
+     * Check if a flow has been buffered for less than the given time. If not,
+     * buffer it with the current time so it is considered handled.
+     *
+     * @param key
+     *            the flow key
+     * @param currentMillis
+     *            the current time in milliseconds, must be positive
+     * @param maxBufferTime
+     *            the time in milliseconds a flow stays buffered
+     * @return true if the flow was already buffered, false otherwise
+     */
+    public boolean checkAndBuffer(long key, long currentMillis, long maxBufferTime) {
+        int hash = hash(key);
+        return segments[hash >>> SEGMENT_SHIFT].checkAndBuffer(key, hash, currentMillis, maxBufferTime);
+    }
+
+    /**
+     * Advance the timer wheel, removing the expired flows of the next
+     * segment.
+     *
+     * @param currentMillis
+     *            the current time in milliseconds
+     * @param maxBufferTime
+     *            the time in milliseconds a flow stays buffered
+     */
+    public void tick(long currentMillis, long maxBufferTime) {
+        int segment = Math.floorMod(nextSweptSegment.getAndIncrement(), NUM_SEGMENTS);
+        segments[segment].sweep(currentMillis, maxBufferTime);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private static int hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * An open addressing hash table with linear probing. A slot is free when
+     * its timestamp is 0.
+     */
+    private static final class Segment {
+        private long[] keys = new long[INITIAL_SEGMENT_CAPACITY];
+        private long[] timestamps = new long[INITIAL_SEGMENT_CAPACITY];
+        private int size;
+
+        synchronized boolean checkAndBuffer(long key, int hash, long currentMillis, long maxBufferTime) {
+            int mask = keys.length - 1;
+            int slot = hash & mask;
+            while (timestamps[slot] != 0) {
+                if (keys[slot] == key) {
+                    if (currentMillis - timestamps[slot] > maxBufferTime) {
+                        timestamps[slot] = currentMillis;
+                        return false;
+                    }
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            keys[slot] = key;
+            timestamps[slot] = currentMillis;
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+            return false;
+        }
+
+        synchronized void sweep(long currentMillis, long maxBufferTime) {
+            int slot = 0;
+            while (slot < keys.length) {
+                if (timestamps[slot] != 0 && currentMillis - timestamps[slot] > maxBufferTime) {
+                    // another flow may be shifted into the slot, check it again
+                    remove(slot);
+                } else {
+                    slot++;
+                }
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        // Backward shift deletion, keeps the probe sequences without tombstones
+        private void remove(int slot) {
+            int mask = keys.length - 1;
+            int free = slot;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                if (timestamps[next] == 0) {
+                    break;
+                }
+                int home = hash(keys[next]) & mask;
+                if (((next - home) & mask) >= ((next - free) & mask)) {
+                    keys[free] = keys[next];
+                    timestamps[free] = timestamps[next];
+                    free = next;
+                }
+            }
+            keys[free] = 0;
+            timestamps[free] = 0;
+            size--;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldTimestamps = timestamps;
+            keys = new long[oldKeys.length * 2];
+            timestamps = new long[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldTimestamps[i] == 0) {
+                    continue;
+                }
+                int slot = hash(oldKeys[i]) & mask;
+                while (timestamps[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                timestamps[slot] = oldTimestamps[i];
+            }
+        }
+    }
+}
@@ -8,42 +8,61 @@
 
 package org.opendaylight.sfc.renderers.openflow.utils;
 
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * A simple synchronization class used to synchronize different events in SFC.
- * Encapsulates the usage of a ReentrantLock.
+ * Encapsulates the usage of a ReentrantReadWriteLock: events that can run in
+ * parallel with each other, such as rendering different RSPs, take the lock
+ * shared, while events that must run alone, such as changing the renderer
+ * configuration, take it exclusively.
  *
  * @author ebrjohn
  *
  */
 public class SfcSynchronizer {
-    private final ReentrantLock lock;
+    private final ReentrantReadWriteLock lock;
 
     public SfcSynchronizer() {
-        lock = new ReentrantLock();
+        lock = new ReentrantReadWriteLock();
     }
 
     /**
-     * To be called by threads that need to lock. This is a blocking call.
+     * To be called by threads that need to lock exclusively. This is a
+     * blocking call.
      */
     public void lock() {
-        lock.lock();
+        lock.writeLock().lock();
+    }
+
+    /**
+     * To be called by threads that can run in parallel with each other, but
+     * not with a thread holding the lock exclusively. This is a blocking call.
+     */
+    public void lockShared() {
+        lock.readLock().lock();
     }
 
     /**
      * Query if the lock is available.
      *
-     * @return true if no threads are waiting on the lock, false otherwise
+     * @return true if the lock is held exclusively, false otherwise
      */
     public boolean isLocked() {
-        return lock.isLocked();
+        return lock.isWriteLocked();
     }
 
     /**
-     * Release the lock.
+     * Release the exclusive lock.
      */
     public void unlock() {
-        lock.unlock();
+        lock.writeLock().unlock();
+    }
+
+    /**
+     * Release the shared lock.
+     */
+    public void unlockShared() {
+        lock.readLock().unlock();
     }
 }
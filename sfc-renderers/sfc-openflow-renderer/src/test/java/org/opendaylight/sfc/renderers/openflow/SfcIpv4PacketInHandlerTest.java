@@ -61,6 +61,7 @@ public class SfcIpv4PacketInHandlerTest {
         verify(this.flowProgrammerMock, times(2)).setFlowRspId(anyLong());
         verify(this.flowProgrammerMock, times(2)).configurePathMapperAclFlow(anyString(), anyString(), anyString(),
                 anyShort());
+        verify(this.flowProgrammerMock, times(1)).flushFlows();
         verify(this.flowProgrammerMock, times(1)).compareClassificationTableCookie((FlowCookie) anyObject());
         verifyNoMoreInteractions(this.flowProgrammerMock);
     }
@@ -75,6 +76,7 @@ public class SfcIpv4PacketInHandlerTest {
         verify(this.flowProgrammerMock, times(2)).setFlowRspId(anyLong());
         verify(this.flowProgrammerMock, times(2)).configurePathMapperAclFlow(anyString(), anyString(), anyString(),
                 anyShort());
+        verify(this.flowProgrammerMock, times(1)).flushFlows();
         verify(this.flowProgrammerMock, times(1)).compareClassificationTableCookie((FlowCookie) anyObject());
         verifyNoMoreInteractions(this.flowProgrammerMock);
 
@@ -96,6 +98,7 @@ public class SfcIpv4PacketInHandlerTest {
         verify(this.flowProgrammerMock, times(2)).setFlowRspId(anyLong());
         verify(this.flowProgrammerMock, times(2)).configurePathMapperAclFlow(anyString(), anyString(), anyString(),
                 anyShort());
+        verify(this.flowProgrammerMock, times(1)).flushFlows();
         verify(this.flowProgrammerMock, times(1)).compareClassificationTableCookie((FlowCookie) anyObject());
         verifyNoMoreInteractions(this.flowProgrammerMock);
 
@@ -108,6 +111,7 @@ public class SfcIpv4PacketInHandlerTest {
         verify(this.flowProgrammerMock, times(2)).setFlowRspId(anyLong());
         verify(this.flowProgrammerMock, times(2)).configurePathMapperAclFlow(anyString(), anyString(), anyString(),
                 anyShort());
+        verify(this.flowProgrammerMock, times(1)).flushFlows();
         verify(this.flowProgrammerMock, times(1)).compareClassificationTableCookie((FlowCookie) anyObject());
         verifyNoMoreInteractions(this.flowProgrammerMock);
     }
@@ -123,6 +127,7 @@ public class SfcIpv4PacketInHandlerTest {
         verify(this.flowProgrammerMock, times(2)).setFlowRspId(anyLong());
         verify(this.flowProgrammerMock, times(2)).configurePathMapperAclFlow(anyString(), anyString(), anyString(),
                 anyShort());
+        verify(this.flowProgrammerMock, times(1)).flushFlows();
         verify(this.flowProgrammerMock, times(1)).compareClassificationTableCookie((FlowCookie) anyObject());
         verifyNoMoreInteractions(this.flowProgrammerMock);
         assertEquals(this.pktInHandler.getBufferSize(), 1);
@@ -136,6 +141,7 @@ public class SfcIpv4PacketInHandlerTest {
         verify(this.flowProgrammerMock, times(2)).setFlowRspId(anyLong());
         verify(this.flowProgrammerMock, times(2)).configurePathMapperAclFlow(anyString(), anyString(), anyString(),
                 anyShort());
+        verify(this.flowProgrammerMock, times(1)).flushFlows();
         verify(this.flowProgrammerMock, times(1)).compareClassificationTableCookie((FlowCookie) anyObject());
         verifyNoMoreInteractions(this.flowProgrammerMock);
         assertEquals(this.pktInHandler.getBufferSize(), 1);
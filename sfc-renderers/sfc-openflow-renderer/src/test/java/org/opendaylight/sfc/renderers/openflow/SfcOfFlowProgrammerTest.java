@@ -9,6 +9,7 @@
 package org.opendaylight.sfc.renderers.openflow;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyLong;
@@ -18,6 +19,7 @@ import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 
 import com.google.common.net.InetAddresses;
+import java.math.BigInteger;
 import java.util.List;
 import org.junit.Test;
 import org.opendaylight.genius.mdsalutil.NwConstants;
@@ -37,6 +39,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.acti
 import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.Action;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.FlowCookie;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.flow.Instructions;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.Instruction;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.instruction.ApplyActionsCase;
@@ -117,6 +120,18 @@ public class SfcOfFlowProgrammerTest {
         this.sfcOfFlowProgrammer = new SfcOfFlowProgrammerImpl(sfcOfFlowWriter);
     }
 
+    @Test
+    public void compareClassificationTableCookie() {
+        assertTrue(sfcOfFlowProgrammer.compareClassificationTableCookie(new FlowCookie(new BigInteger(
+                SfcOfFlowProgrammerImpl.TRANSPORT_EGRESS_COOKIE_STR_BASE
+                        + SfcOfFlowProgrammerImpl.TRANSPORT_EGRESS_NSH_VXGPE_COOKIE,
+                SfcOfFlowProgrammerImpl.COOKIE_BIGINT_HEX_RADIX))));
+        assertFalse(sfcOfFlowProgrammer.compareClassificationTableCookie(new FlowCookie(new BigInteger(
+                SfcOfFlowProgrammerImpl.TRANSPORT_EGRESS_NSH_VXGPE_COOKIE,
+                SfcOfFlowProgrammerImpl.COOKIE_BIGINT_HEX_RADIX))));
+        assertFalse(sfcOfFlowProgrammer.compareClassificationTableCookie(null));
+    }
+
     /**
      * Unit test to check match and action fields.
      *
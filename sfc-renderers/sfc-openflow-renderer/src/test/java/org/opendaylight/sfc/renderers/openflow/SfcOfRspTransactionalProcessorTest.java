@@ -35,6 +35,7 @@ import org.mockito.Mockito;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.mdsal.binding.api.RpcConsumerRegistry;
+import org.opendaylight.sfc.genius.util.SfcGeniusRpcClient;
 import org.opendaylight.sfc.renderers.openflow.openflow.SfcOfFlowProgrammerImpl;
 import org.opendaylight.sfc.renderers.openflow.openflow.SfcOfFlowProgrammerInterface;
 import org.opendaylight.sfc.renderers.openflow.processors.SfcOfRspProcessor;
@@ -43,7 +44,6 @@ import org.opendaylight.sfc.renderers.openflow.utils.SfcSynchronizer;
 import org.opendaylight.sfc.util.openflow.OpenflowConstants;
 import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
 import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
-import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterInterface;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Nsh;
@@ -87,7 +87,7 @@ public class SfcOfRspTransactionalProcessorTest {
     private final List<SftTypeName> serviceFunctionChain2;
     private RenderedServicePath nshRsp;
     private RenderedServicePath nshRsp2;
-    private final SfcOfFlowWriterInterface sfcFlowWriterTestMock;
+    private final SfcOfFlowWriterImpl sfcFlowWriterTestMock;
     private final DataBroker dataBroker;
 
     public SfcOfRspTransactionalProcessorTest() {
@@ -108,7 +108,7 @@ public class SfcOfRspTransactionalProcessorTest {
         this.sfcUtilsTestMock = new SfcOfProviderUtilsTestMock();
         // spied in order to check private methods
         this.sfcOfRspProcessor = PowerMockito.spy(new SfcOfRspProcessor(this.flowProgrammerTestMock,
-                this.sfcUtilsTestMock, new SfcSynchronizer(), rpcRegistry, dataBroker));
+                this.sfcUtilsTestMock, new SfcSynchronizer(), new SfcGeniusRpcClient(rpcRegistry), dataBroker));
 
         this.rspBuilder = new RspBuilder(this.sfcUtilsTestMock);
         this.sfTypes = new ArrayList<>();
@@ -148,7 +148,7 @@ public class SfcOfRspTransactionalProcessorTest {
     @Test
     public void deleteNonExistentRsp() {
         sfcFlowWriterTestMock.deleteRspFlows((long) 31);
-        Set<FlowDetails> flowsToDelete = Whitebox.getInternalState(sfcFlowWriterTestMock, "setOfFlowsToDelete");
+        Set<FlowDetails> flowsToDelete = sfcFlowWriterTestMock.getFlowsToDelete();
         Assert.assertTrue(flowsToDelete.isEmpty());
     }
 
@@ -182,7 +182,7 @@ public class SfcOfRspTransactionalProcessorTest {
                 Matchers.eq(false));
 
         // fetch the list of flows to be deleted
-        Set<FlowDetails> deletedFlows = Whitebox.getInternalState(sfcFlowWriterTestMock, "setOfFlowsToDelete");
+        Set<FlowDetails> deletedFlows = sfcFlowWriterTestMock.getFlowsToDelete();
 
         // fetch the flow cache
         Map<Long, Map<String, List<FlowDetails>>> theMap = Whitebox.getInternalState(sfcFlowWriterTestMock,
@@ -278,7 +278,7 @@ public class SfcOfRspTransactionalProcessorTest {
                 "rspNameToFlowsMap");
         verify(sfcFlowWriterTestMock).deleteFlowSet();
 
-        Set<FlowDetails> deletedFlowsRsp2 = Whitebox.getInternalState(sfcFlowWriterTestMock, "setOfFlowsToDelete");
+        Set<FlowDetails> deletedFlowsRsp2 = sfcFlowWriterTestMock.getFlowsToDelete();
 
         LOG.debug(
                 "testMultiRSPDeletionSymmetrical: After deletion of RSP2: "
@@ -300,7 +300,7 @@ public class SfcOfRspTransactionalProcessorTest {
         verify(sfcFlowWriterTestMock, times(2)).deleteFlowSet();
 
         // get the list of deleted flows belonging to RSP1
-        Set<FlowDetails> allDeletedFlows = Whitebox.getInternalState(sfcFlowWriterTestMock, "setOfFlowsToDelete");
+        Set<FlowDetails> allDeletedFlows = sfcFlowWriterTestMock.getFlowsToDelete();
 
         LOG.debug(
                 "testMultiRSPDeletionSymmetrical: After deletion of RSP2: "
@@ -416,7 +416,7 @@ public class SfcOfRspTransactionalProcessorTest {
                 "rspNameToFlowsMap");
         verify(sfcFlowWriterTestMock, times(2)).deleteFlowSet();
 
-        Set<FlowDetails> deletedFlowsRsp1 = Whitebox.getInternalState(sfcFlowWriterTestMock, "setOfFlowsToDelete");
+        Set<FlowDetails> deletedFlowsRsp1 = sfcFlowWriterTestMock.getFlowsToDelete();
 
         LOG.debug(
                 "testMultiRSPDeletionSymmetrical: After deletion of RSP2: "
@@ -443,7 +443,7 @@ public class SfcOfRspTransactionalProcessorTest {
                 "rspNameToFlowsMap");
         verify(sfcFlowWriterTestMock, times(3)).deleteFlowSet();
 
-        Set<FlowDetails> deleteAllFlows = Whitebox.getInternalState(sfcFlowWriterTestMock, "setOfFlowsToDelete");
+        Set<FlowDetails> deleteAllFlows = sfcFlowWriterTestMock.getFlowsToDelete();
 
         LOG.debug(
                 "testMultiRSPDeletionASymmetrical: After deletion of RSP2: "
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.listeners;
+
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeIdentifier;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.renderers.openflow.openflow.SfcOfFlowProgrammerInterface;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SfcOfNodeDataListenerTest {
+    private static final String SFF_NODE_NAME = "openflow:1";
+
+    @Mock
+    DataBroker dataBroker;
+
+    @Mock
+    SfcOfFlowProgrammerInterface sfcOfFlowProgrammer;
+
+    @Mock
+    DataTreeModification<FlowCapableNode> dataTreeModificationNode;
+
+    @Mock
+    DataObjectModification<FlowCapableNode> dataObjectModificationNode;
+
+    Collection<DataTreeModification<FlowCapableNode>> nodeModifications;
+
+    SfcOfNodeDataListener sfcOfNodeDataListener;
+
+    @Before
+    public void setup() {
+        sfcOfNodeDataListener = new SfcOfNodeDataListener(dataBroker, sfcOfFlowProgrammer);
+        nodeModifications = Collections.singletonList(dataTreeModificationNode);
+        when(dataTreeModificationNode.getRootPath()).thenReturn(new DataTreeIdentifier<>(
+                LogicalDatastoreType.OPERATIONAL, InstanceIdentifier.create(Nodes.class)
+                        .child(Node.class, new NodeKey(new NodeId(SFF_NODE_NAME)))
+                        .augmentation(FlowCapableNode.class)));
+        when(dataTreeModificationNode.getRootNode()).thenReturn(dataObjectModificationNode);
+        when(dataObjectModificationNode.getModificationType())
+                .thenReturn(DataObjectModification.ModificationType.WRITE);
+    }
+
+    @Test
+    public void onDataTreeChangedReconcilesOnceTheTablesAreReported() throws Exception {
+        FlowCapableNode connectedNode = new FlowCapableNodeBuilder().build();
+        FlowCapableNode reportedNode = new FlowCapableNodeBuilder()
+                .setTable(Collections.singletonList(new TableBuilder().setId((short) 0).build())).build();
+
+        when(dataObjectModificationNode.getDataAfter()).thenReturn(connectedNode);
+        sfcOfNodeDataListener.onDataTreeChanged(nodeModifications);
+        verifyNoMoreInteractions(sfcOfFlowProgrammer);
+
+        when(dataObjectModificationNode.getDataBefore()).thenReturn(connectedNode);
+        when(dataObjectModificationNode.getDataAfter()).thenReturn(reportedNode);
+        sfcOfNodeDataListener.onDataTreeChanged(nodeModifications);
+        verify(sfcOfFlowProgrammer).reconcileSffFlows(eq(SFF_NODE_NAME), same(reportedNode));
+
+        // further flow updates of the same connection are not reconciled
+        when(dataObjectModificationNode.getDataBefore()).thenReturn(reportedNode);
+        sfcOfNodeDataListener.onDataTreeChanged(nodeModifications);
+        verifyNoMoreInteractions(sfcOfFlowProgrammer);
+    }
+
+    @Test
+    public void onDataTreeChangedReconcilesAgainOnReconnection() throws Exception {
+        FlowCapableNode reportedNode = new FlowCapableNodeBuilder()
+                .setTable(Collections.singletonList(new TableBuilder().setId((short) 0).build())).build();
+
+        when(dataObjectModificationNode.getDataAfter()).thenReturn(reportedNode);
+        sfcOfNodeDataListener.onDataTreeChanged(nodeModifications);
+
+        when(dataObjectModificationNode.getModificationType())
+                .thenReturn(DataObjectModification.ModificationType.DELETE);
+        when(dataObjectModificationNode.getDataBefore()).thenReturn(reportedNode);
+        sfcOfNodeDataListener.onDataTreeChanged(nodeModifications);
+
+        when(dataObjectModificationNode.getModificationType())
+                .thenReturn(DataObjectModification.ModificationType.WRITE);
+        when(dataObjectModificationNode.getDataBefore()).thenReturn(null);
+        sfcOfNodeDataListener.onDataTreeChanged(nodeModifications);
+
+        verify(sfcOfFlowProgrammer, times(2)).reconcileSffFlows(eq(SFF_NODE_NAME),
+                same(reportedNode));
+        verifyNoMoreInteractions(sfcOfFlowProgrammer);
+    }
+}
@@ -8,13 +8,23 @@
 
 package org.opendaylight.sfc.renderers.openflow.listeners;
 
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.stream.Collectors;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -23,10 +33,16 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
+import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.renderers.openflow.processors.SfcOfRspProcessor;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePaths;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePathsBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePathBuilder;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 @RunWith(MockitoJUnitRunner.class)
 public class SfcOfRspDataListenerTest {
@@ -42,12 +58,17 @@ public class SfcOfRspDataListenerTest {
     @Mock
     DataObjectModification<RenderedServicePath> dataObjectModificationRsp;
 
+    @Mock
+    ReadOnlyTransaction readOnlyTransaction;
+
     Collection<DataTreeModification<RenderedServicePath>> rspModifications;
 
     SfcOfRspDataListener sfcOfRspDataListener;
 
     @Before
     public void setup() {
+        when(dataBroker.newReadOnlyTransaction()).thenReturn(readOnlyTransaction);
+        setConfigRsps();
         sfcOfRspDataListener = new SfcOfRspDataListener(dataBroker, sfcOfRspProcessor);
         rspModifications = Collections.singletonList(dataTreeModificationRsp);
         when(dataTreeModificationRsp.getRootNode()).thenReturn(dataObjectModificationRsp);
@@ -60,6 +81,7 @@ public class SfcOfRspDataListenerTest {
         when(dataObjectModificationRsp.getDataAfter()).thenReturn(addedRsp);
         sfcOfRspDataListener.onDataTreeChanged(rspModifications);
         verify(sfcOfRspProcessor).processRenderedServicePath(same(addedRsp));
+        verify(sfcOfRspProcessor).completeFlowRecovery();
         verifyNoMoreInteractions(sfcOfRspProcessor);
     }
 
@@ -70,8 +92,8 @@ public class SfcOfRspDataListenerTest {
         when(dataObjectModificationRsp.getDataAfter()).thenReturn(rerenderRsp);
         when(dataObjectModificationRsp.getDataBefore()).thenReturn(rerenderRsp);
         sfcOfRspDataListener.onDataTreeChanged(rspModifications);
-        verify(sfcOfRspProcessor).processRenderedServicePath(same(rerenderRsp));
-        verify(sfcOfRspProcessor).deleteRenderedServicePath(same(rerenderRsp));
+        verify(sfcOfRspProcessor).reconcileRenderedServicePath(same(rerenderRsp));
+        verify(sfcOfRspProcessor).completeFlowRecovery();
         verifyNoMoreInteractions(sfcOfRspProcessor);
     }
 
@@ -83,6 +105,7 @@ public class SfcOfRspDataListenerTest {
         when(dataObjectModificationRsp.getDataAfter()).thenReturn(newRsp);
         when(dataObjectModificationRsp.getDataBefore()).thenReturn(oldRsp);
         sfcOfRspDataListener.onDataTreeChanged(rspModifications);
+        verify(sfcOfRspProcessor).completeFlowRecovery();
         verifyNoMoreInteractions(sfcOfRspProcessor);
     }
 
@@ -94,6 +117,100 @@ public class SfcOfRspDataListenerTest {
         when(dataObjectModificationRsp.getDataBefore()).thenReturn(oldRsp);
         sfcOfRspDataListener.onDataTreeChanged(rspModifications);
         verify(sfcOfRspProcessor).deleteRenderedServicePath(same(oldRsp));
+        verify(sfcOfRspProcessor).completeFlowRecovery();
+        verifyNoMoreInteractions(sfcOfRspProcessor);
+    }
+
+    @Test
+    public void onDataTreeChangedCompletesFlowRecoveryOnce() throws Exception {
+        RenderedServicePath addedRsp = new RenderedServicePathBuilder().setName(new RspName("RSP1")).build();
+        when(dataObjectModificationRsp.getModificationType()).thenReturn(DataObjectModification.ModificationType.WRITE);
+        when(dataObjectModificationRsp.getDataAfter()).thenReturn(addedRsp);
+        sfcOfRspDataListener.onDataTreeChanged(rspModifications);
+        sfcOfRspDataListener.onDataTreeChanged(rspModifications);
+        verify(sfcOfRspProcessor, times(2)).processRenderedServicePath(same(addedRsp));
+        verify(sfcOfRspProcessor).completeFlowRecovery();
+        verifyNoMoreInteractions(sfcOfRspProcessor);
+    }
+
+    @Test
+    public void onDataTreeChangedCompletesFlowRecoveryOncePreExistingRspsAreRendered() throws Exception {
+        setConfigRsps("RSP1", "RSP2", "RSP3");
+        SfcOfRspDataListener restartedRspDataListener = new SfcOfRspDataListener(dataBroker, sfcOfRspProcessor);
+
+        // the RSPs are written to the operational data store one at a time
+        restartedRspDataListener.onDataTreeChanged(addedRspModifications("RSP1"));
+        restartedRspDataListener.onDataTreeChanged(addedRspModifications("RSP3"));
+        verify(sfcOfRspProcessor, never()).completeFlowRecovery();
+
+        restartedRspDataListener.onDataTreeChanged(addedRspModifications("RSP2"));
+        verify(sfcOfRspProcessor).completeFlowRecovery();
+
+        restartedRspDataListener.onDataTreeChanged(addedRspModifications("RSP4"));
+        verify(sfcOfRspProcessor, times(4)).processRenderedServicePath(any(RenderedServicePath.class));
+        verify(sfcOfRspProcessor).completeFlowRecovery();
         verifyNoMoreInteractions(sfcOfRspProcessor);
     }
+
+    @Test
+    public void onDataTreeChangedCompletesFlowRecoveryOnTimeout() throws Exception {
+        setConfigRsps("RSP1", "RSP2");
+        SfcOfRspDataListener restartedRspDataListener = new SfcOfRspDataListener(dataBroker, sfcOfRspProcessor, 0,
+                100);
+
+        // RSP2 is never rendered
+        restartedRspDataListener.onDataTreeChanged(addedRspModifications("RSP1"));
+        verify(sfcOfRspProcessor, timeout(5000)).completeFlowRecovery();
+        verify(sfcOfRspProcessor).processRenderedServicePath(any(RenderedServicePath.class));
+        verifyNoMoreInteractions(sfcOfRspProcessor);
+    }
+
+    @Test
+    public void onDataTreeChangedCompletesFlowRecoveryWithRenderWorkers() throws Exception {
+        doReturn(mock(ListenerRegistration.class)).when(dataBroker).registerDataTreeChangeListener(any(), any());
+        setConfigRsps("RSP1", "RSP2", "RSP3");
+        SfcOfRspDataListener parallelRspDataListener = new SfcOfRspDataListener(dataBroker, sfcOfRspProcessor, 2);
+        parallelRspDataListener.onDataTreeChanged(addedRspModifications("RSP1"));
+        parallelRspDataListener.onDataTreeChanged(addedRspModifications("RSP2"));
+        verify(sfcOfRspProcessor, timeout(5000).times(2)).processRenderedServicePath(any(RenderedServicePath.class));
+
+        parallelRspDataListener.onDataTreeChanged(addedRspModifications("RSP3"));
+        verify(sfcOfRspProcessor, timeout(5000)).completeFlowRecovery();
+        parallelRspDataListener.close();
+        verify(sfcOfRspProcessor, times(3)).processRenderedServicePath(any(RenderedServicePath.class));
+        verifyNoMoreInteractions(sfcOfRspProcessor);
+    }
+
+    @Test
+    public void onDataTreeChangedAddWithRenderWorkers() throws Exception {
+        doReturn(mock(ListenerRegistration.class)).when(dataBroker).registerDataTreeChangeListener(any(), any());
+        SfcOfRspDataListener parallelRspDataListener = new SfcOfRspDataListener(dataBroker, sfcOfRspProcessor, 2);
+        RenderedServicePath addedRsp = new RenderedServicePathBuilder().setName(new RspName("RSP1")).build();
+        when(dataObjectModificationRsp.getModificationType()).thenReturn(DataObjectModification.ModificationType.WRITE);
+        when(dataObjectModificationRsp.getDataAfter()).thenReturn(addedRsp);
+        parallelRspDataListener.onDataTreeChanged(rspModifications);
+        verify(sfcOfRspProcessor, timeout(5000)).processRenderedServicePath(same(addedRsp));
+        verify(sfcOfRspProcessor, timeout(5000)).completeFlowRecovery();
+        parallelRspDataListener.close();
+        verifyNoMoreInteractions(sfcOfRspProcessor);
+    }
+
+    private void setConfigRsps(String... rspNames) {
+        RenderedServicePaths rsps = new RenderedServicePathsBuilder().setRenderedServicePath(Arrays.stream(rspNames)
+                .map(rspName -> new RenderedServicePathBuilder().setName(new RspName(rspName)).build())
+                .collect(Collectors.toList())).build();
+        doReturn(Futures.immediateCheckedFuture(Optional.of(rsps))).when(readOnlyTransaction)
+                .read(LogicalDatastoreType.CONFIGURATION, InstanceIdentifier.create(RenderedServicePaths.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<DataTreeModification<RenderedServicePath>> addedRspModifications(String rspName) {
+        DataTreeModification<RenderedServicePath> modification = mock(DataTreeModification.class);
+        DataObjectModification<RenderedServicePath> rootNode = mock(DataObjectModification.class);
+        when(modification.getRootNode()).thenReturn(rootNode);
+        when(rootNode.getModificationType()).thenReturn(DataObjectModification.ModificationType.WRITE);
+        when(rootNode.getDataAfter()).thenReturn(new RenderedServicePathBuilder().setName(new RspName(rspName))
+                .build());
+        return Collections.singletonList(modification);
+    }
 }
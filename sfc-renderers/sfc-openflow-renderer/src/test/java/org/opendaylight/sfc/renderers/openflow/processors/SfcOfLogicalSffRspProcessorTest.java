@@ -122,7 +122,6 @@ import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
-import org.powermock.reflect.Whitebox;
 
 /**
  * Component tests to test the Logical Sff feature.
@@ -196,7 +195,7 @@ public class SfcOfLogicalSffRspProcessorTest {
         logicalSffProcessor.setFlowProgrammer(flowProgrammer);
 
         sfcOfRspProcessor = PowerMockito.spy(new SfcOfRspProcessor(flowProgrammer, sfcUtils, new SfcSynchronizer(),
-                rpcRegistry, dataBroker));
+                geniusClient, dataBroker));
         PowerMockito.when(sfcOfRspProcessor, "getOperDsHandler").thenReturn(operDsUpdateHandler);
 
         rspBuilder = new RspBuilder(sfcUtils);
@@ -227,7 +226,7 @@ public class SfcOfLogicalSffRspProcessorTest {
 
         Mockito.when(dataBroker.newWriteOnlyTransaction()).thenReturn(Mockito.mock(WriteTransaction.class));
         PowerMockito.when(sfcOfRspProcessor, "getGeniusRpcClient").thenReturn(geniusClient);
-        PowerMockito.doReturn(logicalSffProcessor).when(sfcOfRspProcessor, "getReusableTransportProcessor", any(),
+        PowerMockito.doReturn(logicalSffProcessor).when(sfcOfRspProcessor, "createTransportProcessor", any(),
                 any());
 
         String ifName0 = rspBuilder.getLogicalInterfaceName(0);
@@ -313,7 +312,7 @@ public class SfcOfLogicalSffRspProcessorTest {
                 .getDpidFromInterface(any(GetDpidFromInterfaceInput.class));
 
         // fetch the set of added flows from the openflow writer
-        Set<FlowDetails> addedFlows = Whitebox.getInternalState(ofFlowWriter, "setOfFlowsToAdd");
+        Set<FlowDetails> addedFlows = ofFlowWriter.getFlowsToAdd();
 
         // Make sure we have the right amount of flows in each relevant table
 
@@ -467,7 +466,7 @@ public class SfcOfLogicalSffRspProcessorTest {
                 .getDpidFromInterface(any(GetDpidFromInterfaceInput.class));
 
         // fetch the set of added flows from the openflow writer
-        Set<FlowDetails> addedFlows = Whitebox.getInternalState(ofFlowWriter, "setOfFlowsToAdd");
+        Set<FlowDetails> addedFlows = ofFlowWriter.getFlowsToAdd();
 
         // Make sure we have the right amount of flows in each relevant table
 
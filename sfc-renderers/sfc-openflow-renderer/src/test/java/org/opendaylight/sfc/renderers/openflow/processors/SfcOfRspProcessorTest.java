@@ -8,6 +8,8 @@
 
 package org.opendaylight.sfc.renderers.openflow.processors;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
@@ -16,17 +18,26 @@ import static org.mockito.Matchers.anyShort;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
+import com.google.common.util.concurrent.Futures;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.mdsal.binding.api.RpcConsumerRegistry;
+import org.opendaylight.sfc.genius.util.SfcGeniusRpcClient;
 import org.opendaylight.sfc.renderers.openflow.RspBuilder;
 import org.opendaylight.sfc.renderers.openflow.openflow.SfcOfFlowProgrammerImpl;
 import org.opendaylight.sfc.renderers.openflow.openflow.SfcOfFlowProgrammerInterface;
@@ -81,7 +92,8 @@ public class SfcOfRspProcessorTest {
         this.sfcUtilsTestMock = new SfcOfProviderUtilsTestMock();
         RpcConsumerRegistry rpcRegistry = mock(RpcConsumerRegistry.class);
         this.sfcOfRspProcessor = new SfcOfRspProcessor(this.flowProgrammerTestMoc, this.sfcUtilsTestMock,
-                                                       new SfcSynchronizer(), rpcRegistry, null);
+                                                       new SfcSynchronizer(), new SfcGeniusRpcClient(rpcRegistry),
+                                                       null);
         this.rspBuilder = new RspBuilder(this.sfcUtilsTestMock);
 
         this.sfTypes = new ArrayList<>();
@@ -109,6 +121,45 @@ public class SfcOfRspProcessorTest {
     // TODO tests to add:
     // - An SFF with > 1 SF
 
+    @Test
+    public void testDeleteWaitsForTheSffsBeingRendered() throws Exception {
+        LOG.info("SfcOfRspProcessorTest testDeleteWaitsForTheSffsBeingRendered");
+
+        DataBroker dataBroker = mock(DataBroker.class);
+        WriteTransaction writeTransaction = mock(WriteTransaction.class);
+        when(dataBroker.newWriteOnlyTransaction()).thenReturn(writeTransaction);
+        when(writeTransaction.submit()).thenReturn(Futures.immediateCheckedFuture(null));
+        SfcOfRspProcessor processor = new SfcOfRspProcessor(this.flowProgrammerTestMoc, this.sfcUtilsTestMock,
+                new SfcSynchronizer(), new SfcGeniusRpcClient(mock(RpcConsumerRegistry.class)), dataBroker);
+
+        // the render stops once it has checked that SFF_0 is initialized
+        CountDownLatch renderStarted = new CountDownLatch(1);
+        CountDownLatch renderResumed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            renderStarted.countDown();
+            renderResumed.await();
+            return null;
+        }).when(this.flowProgrammerTestMoc).configureNextHopTableMatchAny("SFF_0");
+
+        RenderedServicePath nshRsp = rspBuilder.createRspFromSfTypes(this.sfTypes, VxlanGpe.class, Nsh.class);
+        Thread render = new Thread(() -> processor.processRenderedServicePath(nshRsp));
+        render.start();
+        assertTrue(renderStarted.await(10, TimeUnit.SECONDS));
+
+        // the orphan SFFs are not looked for until the render stores its flows
+        Thread delete = new Thread(() -> processor.deleteRenderedServicePath(nshRsp));
+        delete.start();
+        delete.join(200);
+        assertTrue(delete.isAlive());
+        verify(this.flowProgrammerTestMoc, never()).deleteRspFlows(anyLong());
+
+        renderResumed.countDown();
+        render.join(10000);
+        delete.join(10000);
+        assertFalse(delete.isAlive());
+        verify(this.flowProgrammerTestMoc).deleteRspFlows(nshRsp.getPathId());
+    }
+
     @Test
     public void testVlanFlowCreation() {
         LOG.info("SfcOfRspProcessorTest testVlanFlowCreation");
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.sfg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opendaylight.sfc.renderers.openflow.openflow.SfcOfFlowProgrammerInterface;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.GroupTypes;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SfcOfSfgLoadBalancerTest {
+    private static final String SFF_NAME = "sff1";
+    private static final String SFF_NODE_ID = "openflow:1";
+    private static final String SFG_NAME = "sfg1";
+    private static final long SFG_ID = 1L;
+    private static final int SELECT = GroupTypes.GroupSelect.getIntValue();
+    private static final int HYSTERESIS = 10;
+
+    @Mock
+    SfcOfFlowProgrammerInterface sfcOfFlowProgrammer;
+
+    // The CPU utilization reported by each SF
+    private final Map<SfName, Long> cpuUtilizations = new HashMap<>();
+
+    private ScheduledExecutorService scheduler;
+    private SfcOfSfgLoadBalancer sfcOfSfgLoadBalancer;
+    private List<GroupBucketInfo> bucketInfos;
+
+    @Before
+    public void setup() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        // The periodic rebalance is not expected to run during the tests
+        sfcOfSfgLoadBalancer = new SfcOfSfgLoadBalancer(sfcOfFlowProgrammer, 3600000, HYSTERESIS, scheduler) {
+            @Override
+            protected Map<SfName, Long> readCpuUtilizations(Collection<SfName> sfNames) {
+                return new HashMap<>(cpuUtilizations);
+            }
+        };
+        bucketInfos = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            GroupBucketInfo bucketInfo = new GroupBucketInfo();
+            bucketInfo.setIndex(i);
+            bucketInfo.setSfName("sf" + i);
+            bucketInfos.add(bucketInfo);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        sfcOfSfgLoadBalancer.close();
+    }
+
+    // Wait for the tasks queued on the load balancer thread
+    private void awaitLoadBalancer() throws InterruptedException, ExecutionException {
+        scheduler.submit(() -> { }).get();
+    }
+
+    // The weights of the buckets last written to the switch
+    @SuppressWarnings("unchecked")
+    private List<Integer> getWrittenWeights(int writes) {
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(sfcOfFlowProgrammer, times(writes)).configureGroup(eq(SFF_NAME), eq(SFF_NODE_ID), eq(SFG_NAME),
+                eq(SFG_ID), eq(SELECT), captor.capture(), eq(true));
+        List<Integer> weights = new ArrayList<>();
+        ((List<GroupBucketInfo>) captor.getValue()).forEach(bucketInfo -> weights.add(bucketInfo.getWeight()));
+        return weights;
+    }
+
+    @Test
+    public void configureGroupWeightsTheSelectGroupBuckets() throws Exception {
+        cpuUtilizations.put(new SfName("sf0"), 20L);
+        cpuUtilizations.put(new SfName("sf1"), 90L);
+
+        sfcOfSfgLoadBalancer.configureGroup(SFF_NAME, SFF_NODE_ID, SFG_NAME, SFG_ID, SELECT, bucketInfos, true);
+        awaitLoadBalancer();
+
+        // sf2 does not report its load, it gets the average weight
+        assertEquals(Arrays.asList(80, 10, 45), getWrittenWeights(1));
+        assertEquals(1, sfcOfSfgLoadBalancer.getGroupCount());
+        // the buckets of the caller are left untouched
+        bucketInfos.forEach(bucketInfo -> assertNull(bucketInfo.getWeight()));
+    }
+
+    @Test
+    public void configureGroupDoesNotWeightOtherGroups() {
+        int all = GroupTypes.GroupAll.getIntValue();
+        cpuUtilizations.put(new SfName("sf0"), 20L);
+
+        sfcOfSfgLoadBalancer.configureGroup(SFF_NAME, SFF_NODE_ID, SFG_NAME, SFG_ID, all, bucketInfos, true);
+
+        verify(sfcOfFlowProgrammer).configureGroup(SFF_NAME, SFF_NODE_ID, SFG_NAME, SFG_ID, all, bucketInfos, true);
+        assertNull(bucketInfos.get(0).getWeight());
+        assertEquals(0, sfcOfSfgLoadBalancer.getGroupCount());
+    }
+
+    @Test
+    public void rebalanceModifiesTheGroupBeyondTheHysteresis() throws Exception {
+        cpuUtilizations.put(new SfName("sf0"), 50L);
+        cpuUtilizations.put(new SfName("sf1"), 50L);
+        cpuUtilizations.put(new SfName("sf2"), 50L);
+        sfcOfSfgLoadBalancer.configureGroup(SFF_NAME, SFF_NODE_ID, SFG_NAME, SFG_ID, SELECT, bucketInfos, true);
+        awaitLoadBalancer();
+
+        // A small load change does not modify the group
+        cpuUtilizations.put(new SfName("sf0"), 55L);
+        sfcOfSfgLoadBalancer.rebalance();
+        assertEquals(Arrays.asList(50, 50, 50), getWrittenWeights(1));
+        assertEquals(1, sfcOfSfgLoadBalancer.getWithinHysteresisCount());
+
+        // A hot SF gets less traffic
+        cpuUtilizations.put(new SfName("sf0"), 95L);
+        sfcOfSfgLoadBalancer.rebalance();
+        assertEquals(Arrays.asList(5, 50, 50), getWrittenWeights(2));
+        assertEquals(1, sfcOfSfgLoadBalancer.getModifiedCount());
+
+        verify(sfcOfFlowProgrammer, times(2)).configureGroup(eq(SFF_NAME), eq(SFF_NODE_ID), eq(SFG_NAME),
+                eq(SFG_ID), eq(SELECT), anyListOf(GroupBucketInfo.class), eq(true));
+        verifyNoMoreInteractions(sfcOfFlowProgrammer);
+    }
+
+    @Test
+    public void removedGroupIsNotRebalanced() throws Exception {
+        // Hold the load balancer thread so that the group is removed before
+        // its add is processed
+        CountDownLatch latch = new CountDownLatch(1);
+        scheduler.execute(() -> {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        sfcOfSfgLoadBalancer.configureGroup(SFF_NAME, SFF_NODE_ID, SFG_NAME, SFG_ID, SELECT, bucketInfos, true);
+        sfcOfSfgLoadBalancer.configureGroup(SFF_NAME, SFF_NODE_ID, SFG_NAME, SFG_ID, SELECT, bucketInfos, false);
+        assertEquals(0, sfcOfSfgLoadBalancer.getGroupCount());
+        latch.countDown();
+
+        cpuUtilizations.put(new SfName("sf0"), 95L);
+        awaitLoadBalancer();
+        sfcOfSfgLoadBalancer.rebalance();
+
+        // The pending add of the removed group is not written either
+        verify(sfcOfFlowProgrammer).configureGroup(SFF_NAME, SFF_NODE_ID, SFG_NAME, SFG_ID, SELECT, bucketInfos,
+                false);
+        verifyNoMoreInteractions(sfcOfFlowProgrammer);
+        assertEquals(0, sfcOfSfgLoadBalancer.getRebalancedCount());
+    }
+
+    @Test
+    public void computeWeights() {
+        List<SfName> sfNames = Arrays.asList(new SfName("sf0"), new SfName("sf1"));
+        assertEquals(Arrays.asList(100, 100), SfcOfSfgLoadBalancer.computeWeights(sfNames, new HashMap<>()));
+
+        Map<SfName, Long> loads = new HashMap<>();
+        loads.put(new SfName("sf0"), 100L);
+        loads.put(new SfName("sf1"), 0L);
+        assertEquals(Arrays.asList(SfcOfSfgLoadBalancer.MIN_WEIGHT, SfcOfSfgLoadBalancer.MAX_WEIGHT),
+                SfcOfSfgLoadBalancer.computeWeights(sfNames, loads));
+    }
+
+    @Test
+    public void isBeyondHysteresis() {
+        assertTrue(SfcOfSfgLoadBalancer.isBeyondHysteresis(null, Arrays.asList(50, 50), HYSTERESIS));
+        assertFalse(SfcOfSfgLoadBalancer.isBeyondHysteresis(Arrays.asList(50, 50), Arrays.asList(59, 41),
+                HYSTERESIS));
+        assertTrue(SfcOfSfgLoadBalancer.isBeyondHysteresis(Arrays.asList(50, 50), Arrays.asList(60, 50),
+                HYSTERESIS));
+    }
+}
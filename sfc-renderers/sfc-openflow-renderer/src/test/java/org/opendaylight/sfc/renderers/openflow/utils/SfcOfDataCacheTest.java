@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SfcOfDataCacheTest {
+
+    private SfcOfDataCache<String, String> cache;
+    private AtomicInteger loads;
+
+    @Before
+    public void setUp() {
+        cache = new SfcOfDataCache<>();
+        loads = new AtomicInteger();
+    }
+
+    private String load(String key) {
+        loads.incrementAndGet();
+        return "missing".equals(key) ? null : key + "-" + loads.get();
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("sff" + i % 20 + "-" + (i % 20 + 1), cache.get("sff" + i % 20, this::load));
+        }
+        assertEquals(20, loads.get());
+        assertEquals(20, cache.getMisses());
+        assertEquals(980, cache.getHits());
+        assertEquals(20, cache.size());
+    }
+
+    @Test
+    public void testInvalidate() {
+        assertEquals("sf1-1", cache.get("sf1", this::load));
+        assertEquals("sf1-1", cache.get("sf1", this::load));
+
+        cache.invalidate("sf1");
+        assertEquals("sf1-2", cache.get("sf1", this::load));
+        assertEquals(1, cache.size());
+
+        assertEquals("sf2-3", cache.get("sf2", this::load));
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals("sf1-4", cache.get("sf1", this::load));
+    }
+
+    @Test
+    public void testNotCached() {
+        assertNull(cache.get("missing", this::load));
+        assertNull(cache.get("missing", this::load));
+        assertEquals(2, loads.get());
+
+        // not cacheable objects are returned but loaded again next time
+        assertEquals("sff1-3", cache.get("sff1", this::load, object -> false));
+        assertEquals("sff1-4", cache.get("sff1", this::load, object -> false));
+        assertEquals(0, cache.size());
+        assertEquals(4, cache.getMisses());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testInvalidatedWhileLoading() {
+        // the object read before the invalidation is returned but not kept
+        assertEquals("sf1-1", cache.get("sf1", key -> {
+            String object = load(key);
+            cache.invalidate(key);
+            return object;
+        }));
+        assertEquals(0, cache.size());
+        assertEquals("sf1-2", cache.get("sf1", this::load));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testLoadDoesNotBlockOtherKeys() {
+        // a load may use the cache for another key
+        assertEquals("sff1-2", cache.get("sff1", key -> {
+            cache.get("sf1", this::load);
+            return load(key);
+        }));
+        assertEquals(2, cache.size());
+        assertEquals("sf1-1", cache.get("sf1", this::load));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.renderers.openflow.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SfcPacketInBufferTest {
+
+    private static final long MAX_BUFFER_TIME = 100;
+    private static final int NUM_FLOWS = 1000;
+
+    private SfcPacketInBuffer buffer;
+
+    @Before
+    public void setUp() {
+        buffer = new SfcPacketInBuffer();
+    }
+
+    @Test
+    public void flowsAreBufferedUntilExpired() {
+        assertFalse(buffer.checkAndBuffer(1L, 1000, MAX_BUFFER_TIME));
+        assertTrue(buffer.checkAndBuffer(1L, 1050, MAX_BUFFER_TIME));
+        assertFalse(buffer.checkAndBuffer(2L, 1050, MAX_BUFFER_TIME));
+
+        // expired, buffered again from now on
+        assertFalse(buffer.checkAndBuffer(1L, 1101, MAX_BUFFER_TIME));
+        assertTrue(buffer.checkAndBuffer(1L, 1150, MAX_BUFFER_TIME));
+        assertEquals(2, buffer.size());
+    }
+
+    @Test
+    public void ticksSweepTheExpiredFlows() {
+        for (long key = 0; key < NUM_FLOWS; key++) {
+            assertFalse(buffer.checkAndBuffer(key << 32 | key, key < NUM_FLOWS / 2 ? 1000 : 2000, MAX_BUFFER_TIME));
+        }
+        assertEquals(NUM_FLOWS, buffer.size());
+
+        // a full turn of the wheel sweeps every segment once
+        for (int i = 0; i < SfcPacketInBuffer.NUM_SEGMENTS; i++) {
+            buffer.tick(2050, MAX_BUFFER_TIME);
+        }
+        assertEquals(NUM_FLOWS / 2, buffer.size());
+
+        // the flows that were not expired are still found after the sweep
+        for (long key = NUM_FLOWS / 2; key < NUM_FLOWS; key++) {
+            assertTrue(buffer.checkAndBuffer(key << 32 | key, 2050, MAX_BUFFER_TIME));
+        }
+        for (long key = 0; key < NUM_FLOWS / 2; key++) {
+            assertFalse(buffer.checkAndBuffer(key << 32 | key, 2050, MAX_BUFFER_TIME));
+        }
+        assertEquals(NUM_FLOWS, buffer.size());
+    }
+}
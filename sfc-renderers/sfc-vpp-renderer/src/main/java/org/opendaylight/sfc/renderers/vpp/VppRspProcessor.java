@@ -15,6 +15,8 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionAPI;
+import org.opendaylight.sfc.util.vpp.SfcVppChangeSet;
+import org.opendaylight.sfc.util.vpp.SfcVppChangeSets;
 import org.opendaylight.sfc.util.vpp.SfcVppUtils;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
@@ -42,9 +44,20 @@ public class VppRspProcessor {
 
     public void updateRsp(RenderedServicePath renderedServicePath) {
         Preconditions.checkNotNull(renderedServicePath);
+        // the edits of each VPP node are committed in one transaction
+        SfcVppChangeSets changeSets = new SfcVppChangeSets();
+        try {
+            updateRsp(renderedServicePath, changeSets);
+        } finally {
+            changeSets.commit();
+        }
+    }
+
+    private void updateRsp(RenderedServicePath renderedServicePath, SfcVppChangeSets changeSets) {
         Long pathId = renderedServicePath.getPathId();
-        DataBroker previousMountPoint;
-        DataBroker currentMountpoint = null;
+        SfcVppChangeSet previousChangeSet;
+        SfcVppChangeSet currentChangeSet = null;
+        DataBroker currentMountpoint;
         SffName previousSffName;
         SffName currentSffName = null;
         SfName sfName;
@@ -62,7 +75,7 @@ public class VppRspProcessor {
 
         for (RenderedServicePathHop renderedServicePathHop : renderedServicePath.getRenderedServicePathHop()) {
             previousSffName = currentSffName;
-            previousMountPoint = currentMountpoint;
+            previousChangeSet = currentChangeSet;
             preLocalIp = localIp;
             RenderedServicePathHop hop = renderedServicePathHop;
             currentSffName = hop.getServiceFunctionForwarder();
@@ -72,6 +85,7 @@ public class VppRspProcessor {
                           renderedServicePath.getName().getValue(), currentSffName.getValue());
                 return;
             }
+            currentChangeSet = changeSets.get(currentMountpoint, currentSffName.getValue());
 
             sfName = hop.getServiceFunctionName();
             final Short serviceIndex = hop.getServiceIndex();
@@ -91,16 +105,16 @@ public class VppRspProcessor {
 
             /* Create BridgeDomain */
             if (!bridgeDomainCreated.containsKey(currentSffName.getValue())) {
-                SfcVppUtils.addDummyBridgeDomain(currentMountpoint, DUMMY_BD_NAME, currentSffName.getValue());
-                SfcVppUtils.addDummyNshEntry(currentMountpoint, 0L, (short) 1, currentSffName.getValue());
-                SfcVppUtils.addDummyNshMap(currentMountpoint, 0L, (short) 1, 0L, (short) 1, "local0",
+                SfcVppUtils.addDummyBridgeDomain(currentChangeSet, DUMMY_BD_NAME, currentSffName.getValue());
+                SfcVppUtils.addDummyNshEntry(currentChangeSet, 0L, (short) 1, currentSffName.getValue());
+                SfcVppUtils.addDummyNshMap(currentChangeSet, 0L, (short) 1, 0L, (short) 1, "local0",
                                            currentSffName.getValue());
-                SfcVppUtils.addBridgeDomain(currentMountpoint, SFC_BD_NAME, currentSffName.getValue());
+                SfcVppUtils.addBridgeDomain(currentChangeSet, SFC_BD_NAME, currentSffName.getValue());
                 bridgeDomainCreated.put(currentSffName.getValue(), SFC_BD_NAME);
             }
 
             ret = SfcVppUtils
-                    .configureVxlanGpeNsh(currentMountpoint, currentSffName, SFC_BD_NAME, localIp, remoteIp, pathId,
+                    .configureVxlanGpeNsh(currentChangeSet, currentSffName, SFC_BD_NAME, localIp, remoteIp, pathId,
                                           serviceIndex);
             if (!ret) {
                 LOG.error("failed to configure VxLAN-gpe and NSH for RSP {} in SFF {} for SF hop",
@@ -111,7 +125,7 @@ public class VppRspProcessor {
             //previous SFF <-> current SFF
             if (previousSffName != null && !previousSffName.equals(currentSffName)) {
                 ret = SfcVppUtils
-                        .configureVxlanGpeNsh(previousMountPoint, previousSffName, SFC_BD_NAME, preLocalIp, localIp,
+                        .configureVxlanGpeNsh(previousChangeSet, previousSffName, SFC_BD_NAME, preLocalIp, localIp,
                                               pathId, serviceIndex);
                 if (!ret) {
                     LOG.error("failed to configure VxLAN-gpe and NSH for RSP {} in SFF {} for SFF hop",
@@ -125,11 +139,22 @@ public class VppRspProcessor {
     }
 
     public void deleteRsp(RenderedServicePath renderedServicePath) {
-        boolean ret;
         Preconditions.checkNotNull(renderedServicePath);
+        // the edits of each VPP node are committed in one transaction
+        SfcVppChangeSets changeSets = new SfcVppChangeSets();
+        try {
+            deleteRsp(renderedServicePath, changeSets);
+        } finally {
+            changeSets.commit();
+        }
+    }
+
+    private void deleteRsp(RenderedServicePath renderedServicePath, SfcVppChangeSets changeSets) {
+        boolean ret;
         Long pathId = renderedServicePath.getPathId();
-        DataBroker previousMountPoint;
-        DataBroker currentMountpoint = null;
+        SfcVppChangeSet previousChangeSet;
+        SfcVppChangeSet currentChangeSet = null;
+        DataBroker currentMountpoint;
         SffName previousSffName;
         SffName currentSffName = null;
         SfName sfName;
@@ -146,7 +171,7 @@ public class VppRspProcessor {
 
         for (RenderedServicePathHop renderedServicePathHop : renderedServicePath.getRenderedServicePathHop()) {
             previousSffName = currentSffName;
-            previousMountPoint = currentMountpoint;
+            previousChangeSet = currentChangeSet;
             preLocalIp = localIp;
             RenderedServicePathHop hop = renderedServicePathHop;
             currentSffName = hop.getServiceFunctionForwarder();
@@ -156,6 +181,7 @@ public class VppRspProcessor {
                           renderedServicePath.getName().getValue(), currentSffName.getValue());
                 return;
             }
+            currentChangeSet = changeSets.get(currentMountpoint, currentSffName.getValue());
 
             sfName = hop.getServiceFunctionName();
             final Short serviceIndex = hop.getServiceIndex();
@@ -174,7 +200,7 @@ public class VppRspProcessor {
             remoteIp = ipList.get(1);
 
             ret = SfcVppUtils
-                    .removeVxlanGpeNsh(currentMountpoint, currentSffName, localIp, remoteIp, pathId, serviceIndex);
+                    .removeVxlanGpeNsh(currentChangeSet, currentSffName, localIp, remoteIp, pathId, serviceIndex);
             if (!ret) {
                 LOG.error("failed to remove VxLAN-gpe and NSH for RSP {} in SFF {}",
                           renderedServicePath.getName().getValue(), currentSffName.getValue());
@@ -183,7 +209,7 @@ public class VppRspProcessor {
 
             //previous SFF <-> current SFF
             if (previousSffName != null && !previousSffName.equals(currentSffName)) {
-                ret = SfcVppUtils.removeVxlanGpeNsh(previousMountPoint, previousSffName, preLocalIp, localIp, pathId,
+                ret = SfcVppUtils.removeVxlanGpeNsh(previousChangeSet, previousSffName, preLocalIp, localIp, pathId,
                                                     serviceIndex);
                 if (!ret) {
                     LOG.error("failed to remove VxLAN-gpe and NSH for RSP {} in SFF {}",
@@ -7,7 +7,6 @@
  */
 package org.opendaylight.sfc.sbrest.provider.listener;
 
-import java.util.concurrent.ExecutorService;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -16,6 +15,7 @@ import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeChangeListener;
 import org.opendaylight.sfc.provider.api.SfcInstanceIdentifiers;
 import org.opendaylight.sfc.sbrest.provider.task.RestOperation;
+import org.opendaylight.sfc.sbrest.provider.task.SbRestDeliveryService;
 import org.opendaylight.sfc.sbrest.provider.task.SbRestRspTask;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 
@@ -28,12 +28,12 @@ public class SbRestRspEntryDataListener extends AbstractSyncDataTreeChangeListen
 
     private static final Logger LOG = LoggerFactory.getLogger(SbRestRspEntryDataListener.class);
 
-    private final ExecutorService executorService;
+    private final SbRestDeliveryService sbRestDeliveryService;
 
     @Inject
-    public SbRestRspEntryDataListener(DataBroker dataBroker, ExecutorService executorService) {
+    public SbRestRspEntryDataListener(DataBroker dataBroker, SbRestDeliveryService sbRestDeliveryService) {
         super(dataBroker, LogicalDatastoreType.OPERATIONAL, SfcInstanceIdentifiers.RSP_ENTRY_IID);
-        this.executorService = executorService;
+        this.sbRestDeliveryService = sbRestDeliveryService;
     }
 
     @Override
@@ -47,7 +47,7 @@ public class SbRestRspEntryDataListener extends AbstractSyncDataTreeChangeListen
     public void remove(@Nonnull InstanceIdentifier<RenderedServicePath> instanceIdentifier,
                        @Nonnull RenderedServicePath renderedServicePath) {
         LOG.debug("Deleted Rendered Service Path Name: {}", renderedServicePath.getName());
-        new SbRestRspTask(RestOperation.DELETE, renderedServicePath, executorService).run();
+        new SbRestRspTask(RestOperation.DELETE, renderedServicePath, sbRestDeliveryService).run();
     }
 
     @Override
@@ -55,6 +55,6 @@ public class SbRestRspEntryDataListener extends AbstractSyncDataTreeChangeListen
                        @Nonnull RenderedServicePath originalRenderedServicePath,
                        @Nonnull RenderedServicePath updatedRenderedServicePath) {
         LOG.debug("Updated Rendered Service Path: {}", updatedRenderedServicePath.getName());
-        new SbRestRspTask(RestOperation.PUT, updatedRenderedServicePath, executorService).run();
+        new SbRestRspTask(RestOperation.PUT, updatedRenderedServicePath, sbRestDeliveryService).run();
     }
 }
@@ -7,7 +7,6 @@
  */
 package org.opendaylight.sfc.sbrest.provider.listener;
 
-import java.util.concurrent.ExecutorService;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -18,6 +17,7 @@ import org.opendaylight.sfc.provider.api.SfcInstanceIdentifiers;
 import org.opendaylight.sfc.provider.api.SfcProviderAclAPI;
 import org.opendaylight.sfc.sbrest.provider.task.RestOperation;
 import org.opendaylight.sfc.sbrest.provider.task.SbRestAclTask;
+import org.opendaylight.sfc.sbrest.provider.task.SbRestDeliveryService;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.ServiceFunctionClassifier;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.Acl;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
@@ -29,12 +29,12 @@ public class SbRestScfEntryDataListener extends AbstractSyncDataTreeChangeListen
 
     private static final Logger LOG = LoggerFactory.getLogger(SbRestScfEntryDataListener.class);
 
-    private final ExecutorService executorService;
+    private final SbRestDeliveryService sbRestDeliveryService;
 
     @Inject
-    public SbRestScfEntryDataListener(DataBroker dataBroker, ExecutorService executorService) {
+    public SbRestScfEntryDataListener(DataBroker dataBroker, SbRestDeliveryService sbRestDeliveryService) {
         super(dataBroker, LogicalDatastoreType.CONFIGURATION, SfcInstanceIdentifiers.SCF_ENTRY_IID);
-        this.executorService = executorService;
+        this.sbRestDeliveryService = sbRestDeliveryService;
     }
 
     @Override
@@ -51,7 +51,7 @@ public class SbRestScfEntryDataListener extends AbstractSyncDataTreeChangeListen
         if (serviceFunctionClassifier.getAcl() != null) {
             new SbRestAclTask(RestOperation.DELETE, serviceFunctionClassifier.getAcl().getName(),
                               serviceFunctionClassifier.getAcl().getType(),
-                              serviceFunctionClassifier.getSclServiceFunctionForwarder(), executorService).run();
+                              serviceFunctionClassifier.getSclServiceFunctionForwarder(), sbRestDeliveryService).run();
         }
     }
 
@@ -65,7 +65,8 @@ public class SbRestScfEntryDataListener extends AbstractSyncDataTreeChangeListen
             Acl accessList = SfcProviderAclAPI.readAccessList(updatedServiceFunctionClassifier.getAcl().getName(),
                                                               updatedServiceFunctionClassifier.getAcl().getType());
             new SbRestAclTask(RestOperation.PUT, accessList,
-                              updatedServiceFunctionClassifier.getSclServiceFunctionForwarder(), executorService).run();
+                              updatedServiceFunctionClassifier.getSclServiceFunctionForwarder(),
+                              sbRestDeliveryService).run();
         }
     }
 }
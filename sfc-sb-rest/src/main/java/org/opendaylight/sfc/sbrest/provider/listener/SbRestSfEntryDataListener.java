@@ -7,7 +7,6 @@
  */
 package org.opendaylight.sfc.sbrest.provider.listener;
 
-import java.util.concurrent.ExecutorService;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -16,6 +15,7 @@ import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeChangeListener;
 import org.opendaylight.sfc.provider.api.SfcInstanceIdentifiers;
 import org.opendaylight.sfc.sbrest.provider.task.RestOperation;
+import org.opendaylight.sfc.sbrest.provider.task.SbRestDeliveryService;
 import org.opendaylight.sfc.sbrest.provider.task.SbRestSfTask;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
@@ -27,12 +27,12 @@ public class SbRestSfEntryDataListener extends AbstractSyncDataTreeChangeListene
 
     private static final Logger LOG = LoggerFactory.getLogger(SbRestSfEntryDataListener.class);
 
-    private final ExecutorService executorService;
+    private final SbRestDeliveryService sbRestDeliveryService;
 
     @Inject
-    public SbRestSfEntryDataListener(DataBroker dataBroker, ExecutorService executorService) {
+    public SbRestSfEntryDataListener(DataBroker dataBroker, SbRestDeliveryService sbRestDeliveryService) {
         super(dataBroker, LogicalDatastoreType.CONFIGURATION, SfcInstanceIdentifiers.SF_ENTRY_IID);
-        this.executorService = executorService;
+        this.sbRestDeliveryService = sbRestDeliveryService;
     }
 
     @Override
@@ -45,13 +45,13 @@ public class SbRestSfEntryDataListener extends AbstractSyncDataTreeChangeListene
     public void remove(@Nonnull InstanceIdentifier<ServiceFunction> instanceIdentifier,
                        @Nonnull ServiceFunction serviceFunction) {
         LOG.debug("Deleted Service Function Name: {}", serviceFunction.getName());
-        new SbRestSfTask(RestOperation.DELETE, serviceFunction, executorService).run();
+        new SbRestSfTask(RestOperation.DELETE, serviceFunction, sbRestDeliveryService).run();
     }
 
     @Override
     public void update(@Nonnull InstanceIdentifier<ServiceFunction> instanceIdentifier,
                        @Nonnull ServiceFunction originalDataObject, @Nonnull ServiceFunction updatedServiceFunction) {
         LOG.debug("Updated Service Function Name: {}", updatedServiceFunction.getName());
-        new SbRestSfTask(RestOperation.PUT, updatedServiceFunction, executorService).run();
+        new SbRestSfTask(RestOperation.PUT, updatedServiceFunction, sbRestDeliveryService).run();
     }
 }
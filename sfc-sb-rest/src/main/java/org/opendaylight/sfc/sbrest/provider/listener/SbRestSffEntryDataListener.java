@@ -7,7 +7,6 @@
  */
 package org.opendaylight.sfc.sbrest.provider.listener;
 
-import java.util.concurrent.ExecutorService;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -16,6 +15,7 @@ import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeChangeListener;
 import org.opendaylight.sfc.provider.api.SfcInstanceIdentifiers;
 import org.opendaylight.sfc.sbrest.provider.task.RestOperation;
+import org.opendaylight.sfc.sbrest.provider.task.SbRestDeliveryService;
 import org.opendaylight.sfc.sbrest.provider.task.SbRestSffTask;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
 
@@ -28,12 +28,12 @@ public class SbRestSffEntryDataListener extends AbstractSyncDataTreeChangeListen
 
     private static final Logger LOG = LoggerFactory.getLogger(SbRestSffEntryDataListener.class);
 
-    private final ExecutorService executorService;
+    private final SbRestDeliveryService sbRestDeliveryService;
 
     @Inject
-    public SbRestSffEntryDataListener(DataBroker dataBroker, ExecutorService executorService) {
+    public SbRestSffEntryDataListener(DataBroker dataBroker, SbRestDeliveryService sbRestDeliveryService) {
         super(dataBroker, LogicalDatastoreType.CONFIGURATION, SfcInstanceIdentifiers.SFF_ENTRY_IID);
-        this.executorService = executorService;
+        this.sbRestDeliveryService = sbRestDeliveryService;
     }
 
     @Override
@@ -46,7 +46,7 @@ public class SbRestSffEntryDataListener extends AbstractSyncDataTreeChangeListen
     public void remove(@Nonnull InstanceIdentifier<ServiceFunctionForwarder> instanceIdentifier,
                        @Nonnull ServiceFunctionForwarder serviceFunctionForwarder) {
         LOG.debug("Deleted Service Function Forwarder Name: {}", serviceFunctionForwarder.getName());
-        new SbRestSffTask(RestOperation.DELETE, serviceFunctionForwarder, executorService).run();
+        new SbRestSffTask(RestOperation.DELETE, serviceFunctionForwarder, sbRestDeliveryService).run();
     }
 
     @Override
@@ -54,6 +54,6 @@ public class SbRestSffEntryDataListener extends AbstractSyncDataTreeChangeListen
                        @Nonnull ServiceFunctionForwarder originalServiceFunctionForwarder,
                        @Nonnull ServiceFunctionForwarder updatedServiceFunctionForwarder) {
         LOG.debug("Updated Service Function Forwarder Name: {}", updatedServiceFunctionForwarder.getName());
-        new SbRestSffTask(RestOperation.PUT, updatedServiceFunctionForwarder, executorService).run();
+        new SbRestSffTask(RestOperation.PUT, updatedServiceFunctionForwarder, sbRestDeliveryService).run();
     }
 }
@@ -7,7 +7,6 @@
  */
 package org.opendaylight.sfc.sbrest.provider.listener;
 
-import java.util.concurrent.ExecutorService;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -16,6 +15,7 @@ import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeChangeListener;
 import org.opendaylight.sfc.provider.api.SfcInstanceIdentifiers;
 import org.opendaylight.sfc.sbrest.provider.task.RestOperation;
+import org.opendaylight.sfc.sbrest.provider.task.SbRestDeliveryService;
 import org.opendaylight.sfc.sbrest.provider.task.SbRestSfgTask;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfg.rev150214.service.function.groups.ServiceFunctionGroup;
 
@@ -28,12 +28,12 @@ public class SbRestSfgEntryDataListener extends AbstractSyncDataTreeChangeListen
 
     private static final Logger LOG = LoggerFactory.getLogger(SbRestSfgEntryDataListener.class);
 
-    private final ExecutorService executorService;
+    private final SbRestDeliveryService sbRestDeliveryService;
 
     @Inject
-    public SbRestSfgEntryDataListener(DataBroker dataBroker, ExecutorService executorService) {
+    public SbRestSfgEntryDataListener(DataBroker dataBroker, SbRestDeliveryService sbRestDeliveryService) {
         super(dataBroker, LogicalDatastoreType.CONFIGURATION, SfcInstanceIdentifiers.SFG_ENTRY_IID);
-        this.executorService = executorService;
+        this.sbRestDeliveryService = sbRestDeliveryService;
     }
 
     @Override
@@ -46,7 +46,7 @@ public class SbRestSfgEntryDataListener extends AbstractSyncDataTreeChangeListen
     public void remove(@Nonnull InstanceIdentifier<ServiceFunctionGroup> instanceIdentifier,
                        @Nonnull ServiceFunctionGroup serviceFunctionGroup) {
         LOG.debug("Deleted Service Function Name: {}", serviceFunctionGroup.getName());
-        new SbRestSfgTask(RestOperation.DELETE, serviceFunctionGroup, executorService).run();
+        new SbRestSfgTask(RestOperation.DELETE, serviceFunctionGroup, sbRestDeliveryService).run();
     }
 
     @Override
@@ -54,6 +54,6 @@ public class SbRestSfgEntryDataListener extends AbstractSyncDataTreeChangeListen
                        @Nonnull ServiceFunctionGroup originalServiceFunctionGroup,
                        @Nonnull ServiceFunctionGroup updatedServiceFunctionGroup) {
         LOG.debug("Modified Service Function Name: {}", updatedServiceFunctionGroup.getName());
-        new SbRestSfgTask(RestOperation.PUT, updatedServiceFunctionGroup, executorService).run();
+        new SbRestSfgTask(RestOperation.PUT, updatedServiceFunctionGroup, sbRestDeliveryService).run();
     }
 }
@@ -10,8 +10,9 @@ package org.opendaylight.sfc.sbrest.provider.task;
 import com.google.common.annotations.VisibleForTesting;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
+import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.opendaylight.sfc.sbrest.json.ExporterFactory;
@@ -19,15 +20,16 @@ import org.opendaylight.yangtools.yang.binding.DataObject;
 
 public abstract class SbRestAbstractTask implements Runnable {
 
-    private final ExecutorService odlExecutor;
+    private final SbRestDeliveryService deliveryService;
     private final RestOperation restOperation;
     private final String jsonObject;
-    private final List<String> restUriList = new ArrayList<>();
+    // The same REST URI may be added several times, e.g. for an SFF on several hops of an RSP
+    private final Set<String> restUriList = new LinkedHashSet<>();
 
     public SbRestAbstractTask(@Nonnull RestOperation restOperation, @Nonnull ExporterFactory exporterFactory,
-            @Nullable DataObject dataObject, @Nonnull ExecutorService odlExecutor) {
+            @Nullable DataObject dataObject, @Nonnull SbRestDeliveryService deliveryService) {
         this.restOperation = restOperation;
-        this.odlExecutor = odlExecutor;
+        this.deliveryService = deliveryService;
 
         if (dataObject == null) {
             this.jsonObject = null;
@@ -45,7 +47,7 @@ public abstract class SbRestAbstractTask implements Runnable {
     @Override
     public void run() {
         for (String restUri : this.restUriList) {
-            odlExecutor.execute(new WsTask(restUri, restOperation, jsonObject));
+            deliveryService.submit(restUri, restOperation, jsonObject);
         }
     }
 
@@ -60,6 +62,6 @@ public abstract class SbRestAbstractTask implements Runnable {
 
     @VisibleForTesting
     List<String> getRestUriListCopy() {
-        return Collections.unmodifiableList(restUriList);
+        return Collections.unmodifiableList(new ArrayList<>(restUriList));
     }
 }
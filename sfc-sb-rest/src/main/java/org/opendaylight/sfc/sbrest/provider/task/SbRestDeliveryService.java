@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.sbrest.provider.task;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation.Builder;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import org.glassfish.jersey.client.ClientProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivers the REST updates to the SFF agents, asynchronously on the
+ * SbRestAbstractTask executor, through a single shared HTTP client, so that
+ * the connections to the agents are kept alive and reused.
+ *
+ * <p>
+ * At most one update is in flight per REST URI and at most
+ * maxInFlightPerEndpoint per REST endpoint (scheme, host and port). An
+ * update submitted while another one is pending for the same REST URI
+ * replaces it, only the latest state of an object is sent. Updates that
+ * fail because of a connection error or a server error are retried with an
+ * exponential backoff, unless a newer update for the same REST URI is
+ * pending by then. The connections and the responses time out, so an agent
+ * that does not answer does not hold its REST URI forever.
+ */
+public class SbRestDeliveryService implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SbRestDeliveryService.class);
+
+    private final ExecutorService executor;
+    private final ScheduledExecutorService retryScheduler;
+    private final Client client;
+    private final int maxInFlightPerEndpoint;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+
+    // Guarded by this
+    private final Map<String, Endpoint> endpoints = new HashMap<>();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private static final class Update {
+        private final String uri;
+        private final RestOperation restOperation;
+        private final String json;
+        private final int attempt;
+
+        Update(String uri, RestOperation restOperation, String json, int attempt) {
+            this.uri = uri;
+            this.restOperation = restOperation;
+            this.json = json;
+            this.attempt = attempt;
+        }
+
+        Update nextAttempt() {
+            return new Update(uri, restOperation, json, attempt + 1);
+        }
+    }
+
+    private static final class Endpoint {
+        // The latest update of each REST URI not sent yet, in submission order
+        private final Map<String, Update> pending = new LinkedHashMap<>();
+        // The REST URIs with an update in flight or waiting to be retried
+        private final Set<String> busy = new HashSet<>();
+    }
+
+    public SbRestDeliveryService(ExecutorService executor, int maxInFlightPerEndpoint, int maxRetries,
+            long retryBackoffMillis, int connectTimeoutMillis, int readTimeoutMillis) {
+        this.executor = executor;
+        this.maxInFlightPerEndpoint = maxInFlightPerEndpoint;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("sfc-sb-rest-retry-%d").build());
+        this.client = ClientBuilder.newBuilder().property(ClientProperties.CONNECT_TIMEOUT, connectTimeoutMillis)
+                .property(ClientProperties.READ_TIMEOUT, readTimeoutMillis).build();
+    }
+
+    @Override
+    public void close() {
+        retryScheduler.shutdownNow();
+        client.close();
+        LOG.info("SbRestDeliveryService closed: submitted {}, coalesced {}, delivered {}, retried {}, failed {}",
+                getSubmittedCount(), getCoalescedCount(), getDeliveredCount(), getRetriedCount(), getFailedCount());
+    }
+
+    /**
+     * Queue an update for delivery.
+     *
+     * @param uri
+     *            the REST URI to send the update to
+     * @param restOperation
+     *            the HTTP operation
+     * @param json
+     *            the body of the update, unused for a DELETE
+     */
+    public void submit(String uri, RestOperation restOperation, String json) {
+        submitted.incrementAndGet();
+        List<Update> toSend;
+        synchronized (this) {
+            Endpoint endpoint = endpoints.computeIfAbsent(getEndpointKey(uri), key -> new Endpoint());
+            if (endpoint.pending.put(uri, new Update(uri, restOperation, json, 0)) != null) {
+                coalesced.incrementAndGet();
+                LOG.debug("Coalesced {} update to {}", restOperation, uri);
+            }
+            toSend = dispatch(endpoint);
+        }
+        toSend.forEach(this::execute);
+    }
+
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    public long getRetriedCount() {
+        return retried.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public synchronized int getPendingCount() {
+        return endpoints.values().stream().mapToInt(endpoint -> endpoint.pending.size()).sum();
+    }
+
+    public synchronized int getInFlightCount() {
+        return endpoints.values().stream().mapToInt(endpoint -> endpoint.busy.size()).sum();
+    }
+
+    // Take the pending updates that can be sent, under the lock
+    private List<Update> dispatch(Endpoint endpoint) {
+        List<Update> toSend = new ArrayList<>();
+        Iterator<Update> iterator = endpoint.pending.values().iterator();
+        while (endpoint.busy.size() < maxInFlightPerEndpoint && iterator.hasNext()) {
+            Update update = iterator.next();
+            if (endpoint.busy.add(update.uri)) {
+                iterator.remove();
+                toSend.add(update);
+            }
+        }
+        return toSend;
+    }
+
+    private void execute(Update update) {
+        try {
+            executor.execute(() -> send(update));
+        } catch (RejectedExecutionException e) {
+            LOG.error("{} operation to {} rejected", update.restOperation, update.uri, e);
+            failed.incrementAndGet();
+            complete(update.uri);
+        }
+    }
+
+    private void send(Update update) {
+        boolean retry;
+        try {
+            // Closing the response releases the connection to be reused
+            Response response = invoke(update);
+            Response.Status.Family family = response.getStatusInfo().getFamily();
+            response.close();
+            if (family == Response.Status.Family.SUCCESSFUL) {
+                delivered.incrementAndGet();
+                complete(update.uri);
+                return;
+            }
+            LOG.error("{} operation to {} failed with HTTP status code {}", update.restOperation, update.uri,
+                    response.getStatus());
+            // A client error will not be fixed by sending the same update again
+            retry = family == Response.Status.Family.SERVER_ERROR;
+        } catch (WebApplicationException | ProcessingException e) {
+            // Connection errors and timeouts
+            LOG.error("{} operation to {} failed", update.restOperation, update.uri, e);
+            retry = true;
+        } catch (IllegalArgumentException e) {
+            LOG.error("{} operation to {} failed", update.restOperation, update.uri, e);
+            retry = false;
+        }
+
+        if (retry && update.attempt < maxRetries) {
+            retried.incrementAndGet();
+            try {
+                retryScheduler.schedule(() -> retry(update), retryBackoffMillis << update.attempt,
+                        TimeUnit.MILLISECONDS);
+                return;
+            } catch (RejectedExecutionException e) {
+                LOG.debug("SbRestDeliveryService closed, not retrying {} operation to {}", update.restOperation,
+                        update.uri);
+            }
+        }
+        failed.incrementAndGet();
+        complete(update.uri);
+    }
+
+    private Response invoke(Update update) {
+        Builder builder = client.target(update.uri).request(MediaType.APPLICATION_JSON);
+        switch (update.restOperation) {
+            case PUT:
+                return builder.put(Entity.entity(update.json, MediaType.APPLICATION_JSON));
+            case POST:
+                return builder.post(Entity.entity(update.json, MediaType.APPLICATION_JSON));
+            case DELETE:
+                return builder.delete();
+            default:
+                throw new IllegalArgumentException(update.restOperation + " operation not implemented");
+        }
+    }
+
+    // Send the update again, or the newer update of its REST URI if any
+    private void retry(Update update) {
+        Update toSend;
+        synchronized (this) {
+            Update newer = endpoints.get(getEndpointKey(update.uri)).pending.remove(update.uri);
+            if (newer != null) {
+                coalesced.incrementAndGet();
+            }
+            toSend = newer != null ? newer : update.nextAttempt();
+        }
+        execute(toSend);
+    }
+
+    private void complete(String uri) {
+        List<Update> toSend;
+        synchronized (this) {
+            String endpointKey = getEndpointKey(uri);
+            Endpoint endpoint = endpoints.get(endpointKey);
+            endpoint.busy.remove(uri);
+            toSend = dispatch(endpoint);
+            if (endpoint.busy.isEmpty() && endpoint.pending.isEmpty()) {
+                endpoints.remove(endpointKey);
+            }
+        }
+        toSend.forEach(this::execute);
+    }
+
+    private static String getEndpointKey(String uri) {
+        try {
+            URI parsedUri = URI.create(uri);
+            if (parsedUri.getAuthority() != null) {
+                return parsedUri.getScheme() + "://" + parsedUri.getAuthority();
+            }
+        } catch (IllegalArgumentException e) {
+            LOG.debug("Invalid REST URI {}", uri, e);
+        }
+        return uri;
+    }
+}
@@ -7,11 +7,13 @@
  */
 package org.opendaylight.sfc.sbrest.provider.task;
 
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
+import java.util.Set;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
 import org.opendaylight.sfc.sbrest.json.RspExporterFactory;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
@@ -24,8 +26,9 @@ public class SbRestRspTask extends SbRestAbstractTask {
             "/operational/rendered-service-path:rendered-service-paths/rendered-service-path/";
     private static final Logger LOG = LoggerFactory.getLogger(SbRestRspTask.class);
 
-    public SbRestRspTask(RestOperation restOperation, RenderedServicePath dataObject, ExecutorService odlExecutor) {
-        super(restOperation, new RspExporterFactory(), dataObject, odlExecutor);
+    public SbRestRspTask(RestOperation restOperation, RenderedServicePath dataObject,
+            SbRestDeliveryService deliveryService) {
+        super(restOperation, new RspExporterFactory(), dataObject, deliveryService);
         setRestUriList(dataObject);
     }
 
@@ -33,9 +36,11 @@ public class SbRestRspTask extends SbRestAbstractTask {
         List<RenderedServicePathHop> hopList = obj.getRenderedServicePathHop();
 
         if (hopList != null) {
-            for (RenderedServicePathHop hop : hopList) {
-                ServiceFunctionForwarder sff = SfcProviderServiceForwarderAPI
-                        .readServiceFunctionForwarder(hop.getServiceFunctionForwarder());
+            // An SFF on several hops is sent the RSP once
+            Set<SffName> sffNames = new LinkedHashSet<>();
+            hopList.forEach(hop -> sffNames.add(hop.getServiceFunctionForwarder()));
+            for (SffName sffName : sffNames) {
+                ServiceFunctionForwarder sff = SfcProviderServiceForwarderAPI.readServiceFunctionForwarder(sffName);
                 if (sff != null && sff.getRestUri() != null) {
                     RspName rspName = obj.getName();
                     if (rspName != null) {
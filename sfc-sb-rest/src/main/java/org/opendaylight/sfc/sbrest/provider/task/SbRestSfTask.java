@@ -7,7 +7,6 @@
  */
 package org.opendaylight.sfc.sbrest.provider.task;
 
-import java.util.concurrent.ExecutorService;
 import org.opendaylight.sfc.sbrest.json.SfExporterFactory;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
@@ -19,8 +18,9 @@ public class SbRestSfTask extends SbRestAbstractTask {
     private static final String SF_REST_URI = "/config/service-function:service-functions/service-function/";
     private static final Logger LOG = LoggerFactory.getLogger(SbRestSfTask.class);
 
-    public SbRestSfTask(RestOperation restOperation, ServiceFunction dataObject, ExecutorService odlExecutor) {
-        super(restOperation, new SfExporterFactory(), dataObject, odlExecutor);
+    public SbRestSfTask(RestOperation restOperation, ServiceFunction dataObject,
+            SbRestDeliveryService deliveryService) {
+        super(restOperation, new SfExporterFactory(), dataObject, deliveryService);
         setRestUriList(dataObject);
     }
 
@@ -7,7 +7,6 @@
  */
 package org.opendaylight.sfc.sbrest.provider.task;
 
-import java.util.concurrent.ExecutorService;
 import org.opendaylight.sfc.sbrest.json.SffExporterFactory;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
@@ -20,8 +19,8 @@ public class SbRestSffTask extends SbRestAbstractTask {
     private static final Logger LOG = LoggerFactory.getLogger(SbRestSffTask.class);
 
     public SbRestSffTask(RestOperation restOperation, ServiceFunctionForwarder dataObject,
-            ExecutorService odlExecutor) {
-        super(restOperation, new SffExporterFactory(), dataObject, odlExecutor);
+            SbRestDeliveryService deliveryService) {
+        super(restOperation, new SffExporterFactory(), dataObject, deliveryService);
         setRestUriList(dataObject);
     }
 
@@ -7,7 +7,6 @@
  */
 package org.opendaylight.sfc.sbrest.provider.task;
 
-import java.util.concurrent.ExecutorService;
 import org.opendaylight.sfc.sbrest.json.SfgExporterFactory;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfg.rev150214.service.function.groups.ServiceFunctionGroup;
 import org.slf4j.Logger;
@@ -19,8 +18,9 @@ public class SbRestSfgTask extends SbRestAbstractTask {
             "/config/service-function-group:service-function-groups/service-function-group/";
     private static final Logger LOG = LoggerFactory.getLogger(SbRestSfgTask.class);
 
-    public SbRestSfgTask(RestOperation restOperation, ServiceFunctionGroup dataObject, ExecutorService odlExecutor) {
-        super(restOperation, new SfgExporterFactory(), dataObject, odlExecutor);
+    public SbRestSfgTask(RestOperation restOperation, ServiceFunctionGroup dataObject,
+            SbRestDeliveryService deliveryService) {
+        super(restOperation, new SfgExporterFactory(), dataObject, deliveryService);
         setRestUriList(dataObject);
     }
 
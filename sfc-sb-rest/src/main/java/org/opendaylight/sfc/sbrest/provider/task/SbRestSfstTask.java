@@ -7,7 +7,6 @@
  */
 package org.opendaylight.sfc.sbrest.provider.task;
 
-import java.util.concurrent.ExecutorService;
 import org.opendaylight.sfc.sbrest.json.SfstExporterFactory;
 import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.yang.sfc.sfst.rev150312.service.function.scheduler.types.ServiceFunctionSchedulerType;
 import org.slf4j.Logger;
@@ -19,8 +18,8 @@ public class SbRestSfstTask extends SbRestAbstractTask {
     private static final Logger LOG = LoggerFactory.getLogger(SbRestSfstTask.class);
 
     public SbRestSfstTask(RestOperation restOperation, ServiceFunctionSchedulerType dataObject,
-            ExecutorService odlExecutor) {
-        super(restOperation, new SfstExporterFactory(), dataObject, odlExecutor);
+            SbRestDeliveryService deliveryService) {
+        super(restOperation, new SfstExporterFactory(), dataObject, deliveryService);
         setRestUriList(dataObject);
     }
 
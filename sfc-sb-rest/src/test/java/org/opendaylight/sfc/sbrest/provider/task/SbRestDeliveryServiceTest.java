@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.sbrest.provider.task;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class contains unit tests for SbRestDeliveryService, against a local
+ * stub HTTP server.
+ */
+public class SbRestDeliveryServiceTest {
+
+    private static final String RSP_PATH = "/operational/rendered-service-path:rendered-service-paths/";
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    private HttpServer httpServer;
+    private ExecutorService httpServerExecutor;
+    private String restUri;
+    private ExecutorService executorService;
+    private SbRestDeliveryService deliveryService;
+
+    // The bodies received by the stub server, and the responses it returns
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresToReturn = new AtomicInteger();
+    private volatile CountDownLatch requestBlocker = new CountDownLatch(0);
+
+    @Before
+    public void init() throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        httpServer.createContext("/", this::handle);
+        httpServerExecutor = Executors.newCachedThreadPool();
+        httpServer.setExecutor(httpServerExecutor);
+        httpServer.start();
+        restUri = "http://127.0.0.1:" + httpServer.getAddress().getPort() + RSP_PATH;
+
+        executorService = Executors.newFixedThreadPool(4);
+        deliveryService = new SbRestDeliveryService(executorService, 2, 2, 10, (int) TIMEOUT_MILLIS,
+                (int) TIMEOUT_MILLIS);
+    }
+
+    @After
+    public void tearDown() {
+        deliveryService.close();
+        executorService.shutdownNow();
+        httpServer.stop(0);
+        httpServerExecutor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requestBlocker.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String body = new String(ByteStreams.toByteArray(exchange.getRequestBody()), StandardCharsets.UTF_8);
+        int status = failuresToReturn.getAndDecrement() > 0 ? 503 : 200;
+        if (status == 200) {
+            received.add(exchange.getRequestMethod() + " " + body);
+        }
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        awaitIdle(deliveryService);
+    }
+
+    private static void awaitIdle(SbRestDeliveryService service) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (service.getPendingCount() + service.getInFlightCount() > 0) {
+            assertTrue("Deliveries not completed in time", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testDelivery() throws InterruptedException {
+        deliveryService.submit(restUri + "rsp1", RestOperation.PUT, "{\"rsp\":1}");
+        deliveryService.submit(restUri + "rsp2", RestOperation.DELETE, null);
+        awaitIdle();
+
+        assertEquals(2, received.size());
+        assertTrue(received.contains("PUT {\"rsp\":1}"));
+        assertTrue(received.contains("DELETE "));
+        assertEquals(2, deliveryService.getSubmittedCount());
+        assertEquals(2, deliveryService.getDeliveredCount());
+        assertEquals(0, deliveryService.getFailedCount());
+    }
+
+    @Test
+    public void testCoalescing() throws InterruptedException {
+        requestBlocker = new CountDownLatch(1);
+        deliveryService.submit(restUri + "rsp1", RestOperation.PUT, "{\"version\":1}");
+        // The first update is in flight, the next ones replace each other
+        deliveryService.submit(restUri + "rsp1", RestOperation.PUT, "{\"version\":2}");
+        deliveryService.submit(restUri + "rsp1", RestOperation.PUT, "{\"version\":3}");
+        deliveryService.submit(restUri + "rsp1", RestOperation.PUT, "{\"version\":4}");
+        assertEquals(1, deliveryService.getPendingCount());
+        requestBlocker.countDown();
+        awaitIdle();
+
+        assertEquals(2, received.size());
+        assertEquals("PUT {\"version\":1}", received.get(0));
+        assertEquals("PUT {\"version\":4}", received.get(1));
+        assertEquals(2, deliveryService.getCoalescedCount());
+        assertEquals(2, deliveryService.getDeliveredCount());
+    }
+
+    @Test
+    public void testMaxInFlightPerEndpoint() throws InterruptedException {
+        requestBlocker = new CountDownLatch(1);
+        for (int i = 0; i < 5; i++) {
+            deliveryService.submit(restUri + "rsp" + i, RestOperation.PUT, "{}");
+        }
+        assertEquals(2, deliveryService.getInFlightCount());
+        assertEquals(3, deliveryService.getPendingCount());
+        requestBlocker.countDown();
+        awaitIdle();
+
+        assertEquals(5, received.size());
+        assertEquals(5, deliveryService.getDeliveredCount());
+    }
+
+    @Test
+    public void testRetry() throws InterruptedException {
+        failuresToReturn.set(2);
+        deliveryService.submit(restUri + "rsp1", RestOperation.PUT, "{}");
+        awaitIdle();
+
+        assertEquals(1, received.size());
+        assertEquals(2, deliveryService.getRetriedCount());
+        assertEquals(1, deliveryService.getDeliveredCount());
+        assertEquals(0, deliveryService.getFailedCount());
+    }
+
+    @Test
+    public void testRetriesExhausted() throws InterruptedException {
+        failuresToReturn.set(3);
+        deliveryService.submit(restUri + "rsp1", RestOperation.PUT, "{}");
+        awaitIdle();
+
+        assertTrue(received.isEmpty());
+        assertEquals(2, deliveryService.getRetriedCount());
+        assertEquals(0, deliveryService.getDeliveredCount());
+        assertEquals(1, deliveryService.getFailedCount());
+    }
+
+    @Test
+    public void testReadTimeoutReleasesTheUri() throws InterruptedException {
+        SbRestDeliveryService timingOutService = new SbRestDeliveryService(executorService, 2, 0, 10,
+                (int) TIMEOUT_MILLIS, 100);
+        requestBlocker = new CountDownLatch(1);
+        try {
+            // The agent does not answer in time
+            timingOutService.submit(restUri + "rsp1", RestOperation.PUT, "{\"version\":1}");
+            awaitIdle(timingOutService);
+            assertEquals(1, timingOutService.getFailedCount());
+
+            // The next update of the same REST URI is sent
+            timingOutService.submit(restUri + "rsp1", RestOperation.PUT, "{\"version\":2}");
+            awaitIdle(timingOutService);
+            assertEquals(2, timingOutService.getFailedCount());
+            assertEquals(0, timingOutService.getDeliveredCount());
+        } finally {
+            requestBlocker.countDown();
+            timingOutService.close();
+        }
+    }
+}
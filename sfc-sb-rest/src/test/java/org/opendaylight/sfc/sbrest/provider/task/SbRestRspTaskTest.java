@@ -8,6 +8,7 @@
 
 package org.opendaylight.sfc.sbrest.provider.task;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -17,8 +18,6 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -54,11 +53,11 @@ public class SbRestRspTaskTest {
     private static final SffName SFF_NAME = new SffName("Dummy_SFF");
     private static final String REST_URI = "http://localhost:5000";
     private final ObjectMapper mapper = new ObjectMapper();
-    private ExecutorService executorService;
+    private SbRestDeliveryService deliveryService;
 
     @Before
     public void init() {
-        executorService = Executors.newFixedThreadPool(10);
+        deliveryService = Mockito.mock(SbRestDeliveryService.class);
 
         PowerMockito.mockStatic(SfcProviderServiceForwarderAPI.class);
         Mockito.when(SfcProviderServiceForwarderAPI.readServiceFunctionForwarder(SFF_NAME))
@@ -68,7 +67,7 @@ public class SbRestRspTaskTest {
     @Test
     public void testSbRestRspTask() throws IOException {
         SbRestRspTask sbRestRspTask = new SbRestRspTask(RestOperation.PUT, this.buildRenderedServicePath(),
-                executorService);
+                deliveryService);
 
         JsonNode jsonObject = mapper.readTree(sbRestRspTask.getJsonObject());
         assertTrue("Must be true", jsonObject.equals(this.buildRenderedServicePathObjectNode()));
@@ -78,7 +77,7 @@ public class SbRestRspTaskTest {
     @Test
     public void testSbRestRspTask1() throws IOException {
         SbRestRspTask sbRestRspTask = new SbRestRspTask(RestOperation.DELETE, this.buildRenderedServicePath(),
-                executorService);
+                deliveryService);
 
         JsonNode jsonObject = mapper.readTree(sbRestRspTask.getJsonObject());
         assertTrue("Must be true", jsonObject.equals(this.buildRenderedServicePathObjectNode1()));
@@ -92,13 +91,32 @@ public class SbRestRspTaskTest {
                 .thenReturn(new ServiceFunctionForwarderBuilder().build());
 
         SbRestRspTask sbRestRspTask = new SbRestRspTask(RestOperation.PUT, new RenderedServicePathBuilder().build(),
-                executorService);
+                deliveryService);
 
         JsonNode jsonObject = mapper.readTree(sbRestRspTask.getJsonObject());
         assertTrue("Must be true", jsonObject.equals(this.buildRenderedServicePathTopNode()));
         assertTrue("Must be empty", sbRestRspTask.getRestUriListCopy().isEmpty());
     }
 
+    @Test
+    public void testSbRestRspTaskSameSff() {
+        RenderedServicePathHopBuilder renderedServicePathHopBuilder = new RenderedServicePathHopBuilder();
+        renderedServicePathHopBuilder.setServiceFunctionForwarder(SFF_NAME);
+        List<RenderedServicePathHop> renderedServicePathHopList = new ArrayList<>();
+        renderedServicePathHopList.add(renderedServicePathHopBuilder.setHopNumber((short) 0).build());
+        renderedServicePathHopList.add(renderedServicePathHopBuilder.setHopNumber((short) 1).build());
+        RenderedServicePath renderedServicePath = new RenderedServicePathBuilder().setName(RSP_NAME)
+                .setRenderedServicePathHop(renderedServicePathHopList).build();
+
+        SbRestRspTask sbRestRspTask = new SbRestRspTask(RestOperation.PUT, renderedServicePath, deliveryService);
+        sbRestRspTask.run();
+
+        // The RSP is sent once to an SFF on several hops
+        assertEquals(1, sbRestRspTask.getRestUriListCopy().size());
+        Mockito.verify(deliveryService).submit(Mockito.startsWith(REST_URI), Mockito.eq(RestOperation.PUT),
+                Mockito.anyString());
+    }
+
     // build rendered service path, which is needed to create SbRestRspTask
     // object
     private RenderedServicePath buildRenderedServicePath() {
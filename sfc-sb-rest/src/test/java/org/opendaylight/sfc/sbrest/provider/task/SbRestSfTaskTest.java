@@ -15,10 +15,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.IOException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Mockito;
 import org.opendaylight.sfc.sbrest.json.SfExporterFactory;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
@@ -38,16 +37,16 @@ public class SbRestSfTaskTest {
     private static final SfName SF_NAME = new SfName("Dummy_SF");
     private static final String REST_URI = "http://localhost:5000";
     private final ObjectMapper mapper = new ObjectMapper();
-    private ExecutorService executorService;
+    private SbRestDeliveryService deliveryService;
 
     @Before
     public void init() {
-        executorService = Executors.newFixedThreadPool(10);
+        deliveryService = Mockito.mock(SbRestDeliveryService.class);
     }
 
     @Test
     public void testSbRestSfTask() throws IOException {
-        SbRestSfTask sbRestSfTask = new SbRestSfTask(RestOperation.PUT, this.buildServiceFunction(), executorService);
+        SbRestSfTask sbRestSfTask = new SbRestSfTask(RestOperation.PUT, this.buildServiceFunction(), deliveryService);
 
         JsonNode jsonObject = mapper.readTree(sbRestSfTask.getJsonObject());
         assertTrue("Must be true", jsonObject.equals(this.buildServiceFunctionObjectNode()));
@@ -57,7 +56,7 @@ public class SbRestSfTaskTest {
     @Test
     public void testSbRestSfTask1() throws IOException {
         SbRestSfTask sbRestSfTask = new SbRestSfTask(RestOperation.DELETE, this.buildServiceFunction(),
-                executorService);
+                deliveryService);
 
         JsonNode jsonObject = mapper.readTree(sbRestSfTask.getJsonObject());
         assertTrue("Must be true", jsonObject.equals(buildServiceFunctionObjectNode1()));
@@ -67,7 +66,7 @@ public class SbRestSfTaskTest {
     @Test
     public void testSbRestSfTaskEmpty() throws IOException {
         SbRestSfTask sbRestSfTask = new SbRestSfTask(RestOperation.PUT, new ServiceFunctionBuilder().build(),
-                executorService);
+                deliveryService);
 
         JsonNode jsonObject = mapper.readTree(sbRestSfTask.getJsonObject());
         assertTrue("Must be true", jsonObject.equals(this.buildServiceFunctionTopNode()));
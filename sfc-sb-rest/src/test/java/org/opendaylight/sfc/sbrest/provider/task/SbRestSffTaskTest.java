@@ -15,10 +15,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.IOException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Mockito;
 import org.opendaylight.sfc.sbrest.json.SffExporterFactory;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
@@ -38,18 +37,18 @@ public class SbRestSffTaskTest {
     private static final SffName SFF_NAME = new SffName("Dummy_SFF");
     private static final String REST_URI = "http://localhost:5000";
 
-    private ExecutorService executorService;
+    private SbRestDeliveryService deliveryService;
     private final ObjectMapper mapper = new ObjectMapper();
 
     @Before
     public void init() {
-        executorService = Executors.newFixedThreadPool(10);
+        deliveryService = Mockito.mock(SbRestDeliveryService.class);
     }
 
     @Test
     public void testSbRestSffTask() throws IOException {
         SbRestSffTask sbRestSffTask = new SbRestSffTask(RestOperation.PUT, this.buildServiceFunctionForwarder(),
-                executorService);
+                deliveryService);
 
         JsonNode jsonObject = mapper.readTree(sbRestSffTask.getJsonObject());
         assertTrue("Must be true", jsonObject.equals(this.buildServiceFunctionForwarderObjectNode()));
@@ -59,7 +58,7 @@ public class SbRestSffTaskTest {
     @Test
     public void testSbRestSffTask1() throws IOException {
         SbRestSffTask sbRestSffTask = new SbRestSffTask(RestOperation.DELETE, this.buildServiceFunctionForwarder(),
-                executorService);
+                deliveryService);
 
         JsonNode jsonObject = mapper.readTree(sbRestSffTask.getJsonObject());
         assertTrue("Must be true", jsonObject.equals(this.buildServiceFunctionForwarderObjectNode1()));
@@ -69,7 +68,7 @@ public class SbRestSffTaskTest {
     @Test
     public void testSbRestSffTaskEmpty() throws IOException {
         SbRestSffTask sbRestSffTask = new SbRestSffTask(RestOperation.PUT,
-                new ServiceFunctionForwarderBuilder().build(), executorService);
+                new ServiceFunctionForwarderBuilder().build(), deliveryService);
 
         JsonNode jsonObject = mapper.readTree(sbRestSffTask.getJsonObject());
         assertTrue("Must be true", jsonObject.equals(this.buildServiceFunctionForwarderTopNode()));
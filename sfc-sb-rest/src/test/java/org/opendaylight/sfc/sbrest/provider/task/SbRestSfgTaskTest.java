@@ -16,10 +16,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.IOException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Mockito;
 import org.opendaylight.sfc.sbrest.json.SfExporterFactory;
 import org.opendaylight.sfc.sbrest.json.SfgExporterFactory;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfg.rev150214.service.function.groups.ServiceFunctionGroup;
@@ -40,11 +39,11 @@ public class SbRestSfgTaskTest {
     private static final String SFG_NAME = "Dummy_SFG";
     private static final String REST_URI = "http://localhost:5000";
     private final ObjectMapper mapper = new ObjectMapper();
-    private ExecutorService executorService;
+    private SbRestDeliveryService deliveryService;
 
     @Before
     public void init() {
-        executorService = Executors.newFixedThreadPool(10);
+        deliveryService = Mockito.mock(SbRestDeliveryService.class);
     }
 
     @Test
@@ -55,7 +54,7 @@ public class SbRestSfgTaskTest {
     // this jsonObject is then compared with object node created in this class
     public void testSbRestSfgTask() throws IOException {
         SbRestSfgTask sbRestSfgTask = new SbRestSfgTask(RestOperation.PUT, this.buildServiceFunctionGroup(),
-                executorService);
+                deliveryService);
 
         JsonNode jsonObject = mapper.readTree(sbRestSfgTask.getJsonObject());
         assertNotNull("Must not be null", sbRestSfgTask.getRestUriListCopy());
@@ -66,7 +65,7 @@ public class SbRestSfgTaskTest {
     @Test
     public void testSbRestSfgTask1() throws IOException {
         SbRestSfgTask sbRestSfgTask = new SbRestSfgTask(RestOperation.DELETE, this.buildServiceFunctionGroup1(),
-                executorService);
+                deliveryService);
 
         JsonNode jsonObject = mapper.readTree(sbRestSfgTask.getJsonObject());
         assertTrue("Must be empty", sbRestSfgTask.getRestUriListCopy().isEmpty());
@@ -15,10 +15,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.IOException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Mockito;
 import org.opendaylight.sfc.sbrest.json.SfstExporterFactory;
 import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.yang.sfc.sfst.rev150312.service.function.scheduler.types.ServiceFunctionSchedulerType;
 import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.yang.sfc.sfst.rev150312.service.function.scheduler.types.ServiceFunctionSchedulerTypeBuilder;
@@ -38,11 +37,11 @@ public class SbRestSfstTaskTest {
     private static final String SFST_REST_URI =
             "/config/service-function-scheduler-type:service-function-scheduler-types/service-function-scheduler-type/";
     private final ObjectMapper mapper = new ObjectMapper();
-    private ExecutorService executorService;
+    private SbRestDeliveryService deliveryService;
 
     @Before
     public void init() {
-        executorService = Executors.newFixedThreadPool(10);
+        deliveryService = Mockito.mock(SbRestDeliveryService.class);
     }
 
     @Test
@@ -53,7 +52,7 @@ public class SbRestSfstTaskTest {
     // this jsonObject is then compared with object node created in this class
     public void testSbRestSfstTask() throws IOException {
         SbRestSfstTask sbRestSfstTask = new SbRestSfstTask(RestOperation.PUT, this.buildServiceFunctionSchedulerType(),
-                executorService);
+                deliveryService);
 
         JsonNode jsonObject = mapper.readTree(sbRestSfstTask.getJsonObject());
         assertTrue("Must be true", jsonObject.equals(this.buildServiceFunctionSchedulerTypeObjectNode()));
@@ -63,7 +62,7 @@ public class SbRestSfstTaskTest {
     @Test
     public void testSbRestSfstTask1() throws IOException {
         SbRestSfstTask sbRestSfstTask = new SbRestSfstTask(RestOperation.DELETE,
-                this.buildServiceFunctionSchedulerType(), executorService);
+                this.buildServiceFunctionSchedulerType(), deliveryService);
 
         JsonNode jsonObject = mapper.readTree(sbRestSfstTask.getJsonObject());
         assertTrue("Must be true", jsonObject.equals(buildServiceFunctionSchedulerTypeObjectNode()));
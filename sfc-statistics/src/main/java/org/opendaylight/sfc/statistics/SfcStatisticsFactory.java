@@ -16,6 +16,7 @@ import org.opendaylight.sfc.statistics.handlers.SfcStatisticsHandlerBase;
 import org.opendaylight.sfc.statistics.handlers.SffStatisticsHandler;
 import org.opendaylight.sfc.statistics.readers.SfcIosXeStatisticsReader;
 import org.opendaylight.sfc.statistics.readers.SfcOpenFlowLogicalSffStatisticsReader;
+import org.opendaylight.sfc.statistics.readers.SfcOpenFlowStatisticsCache;
 import org.opendaylight.sfc.statistics.readers.SfcOpenFlowStatisticsReader;
 import org.opendaylight.sfc.statistics.readers.SfcStatisticsReaderBase;
 import org.opendaylight.sfc.statistics.readers.SfcVppStatisticsReader;
@@ -73,18 +74,36 @@ public final class SfcStatisticsFactory {
     }
 
     private static SfcStatisticsReaderBase getStatsReader(RenderedServicePath rsp, ServiceFunctionForwarder sff) {
+        return getStatsReader(rsp, sff, null);
+    }
+
+    /**
+     * Get the statistics reader of an SFF of an RSP, the OpenFlow readers
+     * reading through the cache of a statistics collection.
+     *
+     * @param rsp
+     *            the RSP
+     * @param sff
+     *            the SFF of the RSP
+     * @param cache
+     *            the OpenFlow cache of the collection, or null to read the
+     *            data store directly
+     * @return the statistics reader, or null if it can not be created
+     */
+    public static SfcStatisticsReaderBase getStatsReader(RenderedServicePath rsp, ServiceFunctionForwarder sff,
+            SfcOpenFlowStatisticsCache cache) {
         try {
             SffOvsBridgeAugmentation sffOvsBridgeAugmentation =
                     sff.augmentation(SffOvsBridgeAugmentation.class);
             if (sffOvsBridgeAugmentation != null) {
                 // OVS-based SFF
-                return new SfcOpenFlowStatisticsReader(sff);
+                return new SfcOpenFlowStatisticsReader(sff, cache);
             }
 
             // Its a logical SFF, which is also OpenFlow-based
             if (hasLogicalSff(rsp, sff)) {
                 // OVS-based SFF
-                return new SfcOpenFlowLogicalSffStatisticsReader(sff, rsp);
+                return new SfcOpenFlowLogicalSffStatisticsReader(sff, rsp, cache);
             }
 
             SffNetconfAugmentation sffNetconfAugmentation = sff.augmentation(SffNetconfAugmentation.class);
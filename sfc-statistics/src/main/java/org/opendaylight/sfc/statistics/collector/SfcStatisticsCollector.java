@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2018 Inocybe Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.statistics.collector;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
+import org.opendaylight.sfc.statistics.SfcStatisticsFactory;
+import org.opendaylight.sfc.statistics.collector.SfcStatisticsStore.Counters;
+import org.opendaylight.sfc.statistics.readers.SfcOpenFlowStatisticsCache;
+import org.opendaylight.sfc.statistics.readers.SfcOpenFlowStatisticsReader;
+import org.opendaylight.sfc.statistics.readers.SfcStatisticsReaderBase;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePaths;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ss.rev140701.statistic.fields.ServiceStatistic;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the statistics of all the RSPs, SFFs and SFs periodically into
+ * the {@link SfcStatisticsStore}, so that the statistics RPCs are answered
+ * from memory.
+ *
+ * <p>
+ * The statistics are taken from the next hop flow of each RSP hop, counting
+ * the packets the SFF of the hop sends to its SF:
+ * <ul>
+ * <li>an RSP receives the packets of its first hop and transmits the
+ * packets of its last hop</li>
+ * <li>an SFF transmits the packets of its hops, over all the RSPs</li>
+ * <li>an SF receives the packets of its hops, over all the RSPs</li>
+ * </ul>
+ * The flows of each switch table are read once per collection. Only the
+ * OpenFlow SFFs are collected, the statistics of the other SFF types not
+ * being implemented yet.
+ */
+public class SfcStatisticsCollector implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcStatisticsCollector.class);
+
+    private final SfcStatisticsStore store;
+    private final long pollIntervalSeconds;
+    private final ScheduledExecutorService executor;
+
+    public SfcStatisticsCollector(SfcStatisticsStore store, long pollIntervalSeconds) {
+        this.store = store;
+        this.pollIntervalSeconds = pollIntervalSeconds;
+        this.executor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("sfc-statistics-collector-%d").build());
+    }
+
+    public void start() {
+        LOG.info("SfcStatisticsCollector collecting every {} seconds", pollIntervalSeconds);
+        executor.scheduleWithFixedDelay(this::collectSafely, 0, pollIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // A scheduled task that throws is not run again
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void collectSafely() {
+        try {
+            collect();
+        } catch (RuntimeException e) {
+            LOG.error("SfcStatisticsCollector failed to collect the statistics", e);
+        }
+    }
+
+    /**
+     * Collect the statistics of all the RSPs, SFFs and SFs once.
+     */
+    public void collect() {
+        final long timestamp = System.currentTimeMillis();
+        SfcOpenFlowStatisticsCache cache = new SfcOpenFlowStatisticsCache();
+        Map<SffName, Optional<ServiceFunctionForwarder>> sffs = new HashMap<>();
+        Map<String, Counters> rspCounters = new HashMap<>();
+        Map<String, Counters> sffCounters = new HashMap<>();
+        Map<String, Counters> sfCounters = new HashMap<>();
+
+        for (RenderedServicePath rsp : getAllRenderedServicePaths()) {
+            List<RenderedServicePathHop> hops = rsp.getRenderedServicePathHop();
+            if (hops == null || hops.isEmpty()) {
+                continue;
+            }
+
+            Optional<ServiceStatistic> firstHopStats = Optional.empty();
+            Optional<ServiceStatistic> lastHopStats = Optional.empty();
+            for (int i = 0; i < hops.size(); i++) {
+                RenderedServicePathHop hop = hops.get(i);
+                if (hop.getServiceFunctionForwarder() == null || hop.getServiceIndex() == null) {
+                    continue;
+                }
+                Optional<ServiceFunctionForwarder> sff = sffs.computeIfAbsent(hop.getServiceFunctionForwarder(),
+                    sffName -> Optional.ofNullable(SfcProviderServiceForwarderAPI.readServiceFunctionForwarder(
+                            sffName)));
+                if (!sff.isPresent()) {
+                    continue;
+                }
+
+                Optional<ServiceStatistic> hopStats = getNextHopStatistics(rsp, hop, sff.get(), cache);
+                if (!hopStats.isPresent()) {
+                    continue;
+                }
+                long bytes = hopStats.get().getBytesIn().getValue().longValue();
+                long packets = hopStats.get().getPacketsIn().getValue().longValue();
+                sffCounters.computeIfAbsent(hop.getServiceFunctionForwarder().getValue(), name -> new Counters())
+                        .addOut(bytes, packets);
+                if (hop.getServiceFunctionName() != null) {
+                    sfCounters.computeIfAbsent(hop.getServiceFunctionName().getValue(), name -> new Counters())
+                            .addIn(bytes, packets);
+                }
+                if (i == 0) {
+                    firstHopStats = hopStats;
+                }
+                if (i == hops.size() - 1) {
+                    lastHopStats = hopStats;
+                }
+            }
+
+            if (!firstHopStats.isPresent() || !lastHopStats.isPresent()) {
+                LOG.debug("SfcStatisticsCollector no statistics for RSP [{}]", rsp.getName().getValue());
+                continue;
+            }
+            Counters counters = new Counters();
+            counters.addIn(firstHopStats.get().getBytesIn().getValue().longValue(),
+                    firstHopStats.get().getPacketsIn().getValue().longValue());
+            counters.addOut(lastHopStats.get().getBytesIn().getValue().longValue(),
+                    lastHopStats.get().getPacketsIn().getValue().longValue());
+            rspCounters.put(rsp.getName().getValue(), counters);
+        }
+
+        store.record(timestamp, rspCounters, sffCounters, sfCounters);
+        LOG.debug("SfcStatisticsCollector collected the statistics of {} RSPs in {} ms", rspCounters.size(),
+                System.currentTimeMillis() - timestamp);
+    }
+
+    // The counters of the next hop flow of an RSP hop, as input statistics
+    private Optional<ServiceStatistic> getNextHopStatistics(RenderedServicePath rsp, RenderedServicePathHop hop,
+            ServiceFunctionForwarder sff, SfcOpenFlowStatisticsCache cache) {
+        SfcStatisticsReaderBase statsReader = SfcStatisticsFactory.getStatsReader(rsp, sff, cache);
+        if (!(statsReader instanceof SfcOpenFlowStatisticsReader)) {
+            return Optional.empty();
+        }
+        return statsReader.getNextHopStatistics(true, sff, rsp.getPathId(), hop.getServiceIndex());
+    }
+
+    private List<RenderedServicePath> getAllRenderedServicePaths() {
+        RenderedServicePaths rsps = SfcDataStoreAPI.readTransactionAPI(InstanceIdentifier.create(
+                RenderedServicePaths.class), LogicalDatastoreType.OPERATIONAL);
+        if (rsps == null || rsps.getRenderedServicePath() == null) {
+            return Collections.emptyList();
+        }
+        return rsps.getRenderedServicePath();
+    }
+}
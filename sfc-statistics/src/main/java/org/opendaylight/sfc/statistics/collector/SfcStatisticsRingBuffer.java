@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2018 Inocybe Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.statistics.collector;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ss.rev140701.service.statistics.group.StatisticByTimestamp;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ss.rev140701.service.statistics.group.StatisticByTimestampBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ss.rev140701.service.statistics.group.StatisticByTimestampKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ss.rev140701.statistic.fields.ServiceStatisticBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev130715.ZeroBasedCounter64;
+import org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215.statistics.rate.Rate;
+import org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215.statistics.rate.RateBuilder;
+
+/**
+ * The last samples of the counters of an RSP, SFF or SF, in a fixed size
+ * ring buffer of primitive arrays: adding a sample overwrites the oldest one
+ * once the buffer is full and does not allocate.
+ *
+ * <p>
+ * A counter that is not collected is stored as {@link #NO_VALUE}. Counters
+ * are expected to stay below 2^63.
+ */
+public class SfcStatisticsRingBuffer {
+
+    public static final long NO_VALUE = -1L;
+
+    private final long[] timestamps;
+    private final long[] bytesIn;
+    private final long[] packetsIn;
+    private final long[] bytesOut;
+    private final long[] packetsOut;
+    // The index of the next sample to write, and the number of samples
+    private int next = 0;
+    private int size = 0;
+
+    public SfcStatisticsRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid statistics ring buffer capacity " + capacity);
+        }
+        this.timestamps = new long[capacity];
+        this.bytesIn = new long[capacity];
+        this.packetsIn = new long[capacity];
+        this.bytesOut = new long[capacity];
+        this.packetsOut = new long[capacity];
+    }
+
+    /**
+     * Add a sample, overwriting the oldest one if the buffer is full.
+     *
+     * @param timestamp
+     *            the time of the sample, in milliseconds since the epoch
+     * @param theBytesIn
+     *            the received bytes, or {@link #NO_VALUE}
+     * @param thePacketsIn
+     *            the received packets, or {@link #NO_VALUE}
+     * @param theBytesOut
+     *            the transmitted bytes, or {@link #NO_VALUE}
+     * @param thePacketsOut
+     *            the transmitted packets, or {@link #NO_VALUE}
+     */
+    public synchronized void add(long timestamp, long theBytesIn, long thePacketsIn, long theBytesOut,
+            long thePacketsOut) {
+        timestamps[next] = timestamp;
+        bytesIn[next] = theBytesIn;
+        packetsIn[next] = thePacketsIn;
+        bytesOut[next] = theBytesOut;
+        packetsOut[next] = thePacketsOut;
+        next = (next + 1) % timestamps.length;
+        size = Math.min(size + 1, timestamps.length);
+    }
+
+    /**
+     * Get the samples taken since a given time, oldest first.
+     *
+     * @param since
+     *            the time in milliseconds since the epoch, 0 for all the
+     *            samples
+     * @return the samples
+     */
+    public synchronized List<StatisticByTimestamp> getStatistics(long since) {
+        List<StatisticByTimestamp> statistics = new ArrayList<>();
+        for (int i = getFirstSample(since); i < size; i++) {
+            int index = getIndex(i);
+            ServiceStatisticBuilder serviceStatisticBuilder = new ServiceStatisticBuilder();
+            serviceStatisticBuilder.setBytesIn(toCounter(bytesIn[index]));
+            serviceStatisticBuilder.setPacketsIn(toCounter(packetsIn[index]));
+            serviceStatisticBuilder.setBytesOut(toCounter(bytesOut[index]));
+            serviceStatisticBuilder.setPacketsOut(toCounter(packetsOut[index]));
+
+            StatisticByTimestampKey key = new StatisticByTimestampKey(BigInteger.valueOf(timestamps[index]));
+            statistics.add(new StatisticByTimestampBuilder().withKey(key).setTimestamp(key.getTimestamp())
+                    .setServiceStatistic(serviceStatisticBuilder.build()).build());
+        }
+        return statistics;
+    }
+
+    /**
+     * Get the average rates of the counters over the samples taken since a
+     * given time. A counter decreasing between two samples, as when its flow
+     * is re-created, does not count for that interval.
+     *
+     * @param since
+     *            the time in milliseconds since the epoch, 0 for all the
+     *            samples
+     * @return the rates per second, or null if there are less than two
+     *         samples to compute them from
+     */
+    public synchronized Rate getRate(long since) {
+        int first = getFirstSample(since);
+        if (size - first < 2) {
+            return null;
+        }
+        long elapsedMillis = timestamps[getIndex(size - 1)] - timestamps[getIndex(first)];
+        if (elapsedMillis <= 0) {
+            return null;
+        }
+        return new RateBuilder()
+                .setBytesIn(getRate(bytesIn, first, elapsedMillis))
+                .setPacketsIn(getRate(packetsIn, first, elapsedMillis))
+                .setBytesOut(getRate(bytesOut, first, elapsedMillis))
+                .setPacketsOut(getRate(packetsOut, first, elapsedMillis))
+                .build();
+    }
+
+    private BigInteger getRate(long[] counters, int first, long elapsedMillis) {
+        long delta = 0;
+        boolean collected = false;
+        for (int i = first + 1; i < size; i++) {
+            long previous = counters[getIndex(i - 1)];
+            long current = counters[getIndex(i)];
+            if (previous == NO_VALUE || current == NO_VALUE) {
+                continue;
+            }
+            collected = true;
+            if (current >= previous) {
+                delta += current - previous;
+            }
+        }
+        return collected
+                ? BigInteger.valueOf(delta).multiply(BigInteger.valueOf(1000)).divide(BigInteger.valueOf(elapsedMillis))
+                : null;
+    }
+
+    // The position, from the oldest, of the first sample taken since a given time
+    private int getFirstSample(long since) {
+        int first = 0;
+        while (first < size && timestamps[getIndex(first)] < since) {
+            first++;
+        }
+        return first;
+    }
+
+    // The array index of a sample, by position from the oldest
+    private int getIndex(int position) {
+        return (next - size + position + timestamps.length) % timestamps.length;
+    }
+
+    private static ZeroBasedCounter64 toCounter(long value) {
+        return value == NO_VALUE ? null : new ZeroBasedCounter64(BigInteger.valueOf(value));
+    }
+}
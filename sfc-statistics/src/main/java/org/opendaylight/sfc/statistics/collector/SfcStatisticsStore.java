@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2018 Inocybe Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.statistics.collector;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The statistics collected for the RSPs, SFFs and SFs, one
+ * {@link SfcStatisticsRingBuffer} for each, by name. The statistics of an
+ * RSP, SFF or SF that is no longer collected are kept for a number of
+ * collections, so that a collection that misses it, such as while its switch
+ * reconnects, does not lose its history, and are dropped afterwards.
+ */
+public class SfcStatisticsStore {
+
+    private final int samplesPerStatistic;
+    private final int graceCollections;
+    private volatile long collections = 0;
+    private final ConcurrentMap<String, SfcStatisticsRingBuffer> rspStatistics = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SfcStatisticsRingBuffer> sffStatistics = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SfcStatisticsRingBuffer> sfStatistics = new ConcurrentHashMap<>();
+    // The last collection of each RSP, SFF and SF, by name
+    private final Map<String, Long> rspCollections = new HashMap<>();
+    private final Map<String, Long> sffCollections = new HashMap<>();
+    private final Map<String, Long> sfCollections = new HashMap<>();
+
+    /**
+     * The counters of an RSP, SFF or SF accumulated during a collection.
+     */
+    static final class Counters {
+        private long bytesIn = SfcStatisticsRingBuffer.NO_VALUE;
+        private long packetsIn = SfcStatisticsRingBuffer.NO_VALUE;
+        private long bytesOut = SfcStatisticsRingBuffer.NO_VALUE;
+        private long packetsOut = SfcStatisticsRingBuffer.NO_VALUE;
+
+        void addIn(long bytes, long packets) {
+            bytesIn = add(bytesIn, bytes);
+            packetsIn = add(packetsIn, packets);
+        }
+
+        void addOut(long bytes, long packets) {
+            bytesOut = add(bytesOut, bytes);
+            packetsOut = add(packetsOut, packets);
+        }
+
+        private static long add(long counter, long value) {
+            return counter == SfcStatisticsRingBuffer.NO_VALUE ? value : counter + value;
+        }
+    }
+
+    public SfcStatisticsStore(int samplesPerStatistic, int graceCollections) {
+        this.samplesPerStatistic = samplesPerStatistic;
+        this.graceCollections = graceCollections;
+    }
+
+    /**
+     * Whether the statistics were collected at least once.
+     *
+     * @return false until the first collection is recorded
+     */
+    public boolean isCollected() {
+        return collections > 0;
+    }
+
+    public Map<String, SfcStatisticsRingBuffer> getRspStatistics() {
+        return Collections.unmodifiableMap(rspStatistics);
+    }
+
+    public Map<String, SfcStatisticsRingBuffer> getSffStatistics() {
+        return Collections.unmodifiableMap(sffStatistics);
+    }
+
+    public Map<String, SfcStatisticsRingBuffer> getSfStatistics() {
+        return Collections.unmodifiableMap(sfStatistics);
+    }
+
+    /**
+     * Record the counters of a collection, dropping the statistics of the
+     * RSPs, SFFs and SFs that were not collected for more than the grace
+     * number of collections.
+     *
+     * @param timestamp
+     *            the time of the collection, in milliseconds since the epoch
+     * @param rspCounters
+     *            the counters of the RSPs, by name
+     * @param sffCounters
+     *            the counters of the SFFs, by name
+     * @param sfCounters
+     *            the counters of the SFs, by name
+     */
+    synchronized void record(long timestamp, Map<String, Counters> rspCounters, Map<String, Counters> sffCounters,
+            Map<String, Counters> sfCounters) {
+        final long collection = collections + 1;
+        record(timestamp, collection, rspCounters, rspStatistics, rspCollections);
+        record(timestamp, collection, sffCounters, sffStatistics, sffCollections);
+        record(timestamp, collection, sfCounters, sfStatistics, sfCollections);
+        collections = collection;
+    }
+
+    private void record(long timestamp, long collection, Map<String, Counters> counters,
+            ConcurrentMap<String, SfcStatisticsRingBuffer> statistics, Map<String, Long> lastCollections) {
+        counters.forEach((name, theCounters) -> {
+            statistics.computeIfAbsent(name, key -> new SfcStatisticsRingBuffer(samplesPerStatistic))
+                    .add(timestamp, theCounters.bytesIn, theCounters.packetsIn, theCounters.bytesOut,
+                            theCounters.packetsOut);
+            lastCollections.put(name, collection);
+        });
+        lastCollections.entrySet().removeIf(entry -> {
+            if (collection - entry.getValue() <= graceCollections) {
+                return false;
+            }
+            statistics.remove(entry.getKey());
+            return true;
+        });
+    }
+}
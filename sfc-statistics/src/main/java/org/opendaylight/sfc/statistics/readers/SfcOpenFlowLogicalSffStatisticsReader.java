@@ -29,6 +29,12 @@ public class SfcOpenFlowLogicalSffStatisticsReader extends SfcOpenFlowStatistics
         this.rsp = rsp;
     }
 
+    public SfcOpenFlowLogicalSffStatisticsReader(ServiceFunctionForwarder sff, RenderedServicePath rsp,
+            SfcOpenFlowStatisticsCache cache) {
+        super(sff, cache);
+        this.rsp = rsp;
+    }
+
     @Override
     protected Optional<NodeId> getSffNodeId(ServiceFunctionForwarder sff, long nsp, short nsi) {
         List<RenderedServicePathHop> rspHops = this.rsp.getRenderedServicePathHop();
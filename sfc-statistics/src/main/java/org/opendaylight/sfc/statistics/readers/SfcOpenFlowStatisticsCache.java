@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2018 Inocybe Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.statistics.readers;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.of.renderer.rev151123.SfcOfTableOffsets;
+import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.of.renderer.rev151123.sfc.of.table.offsets.SfcOfTablesByBaseTable;
+import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.of.renderer.rev151123.sfc.of.table.offsets.SfcOfTablesByBaseTableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.Table;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * The operational OpenFlow data read by the OpenFlow statistics readers
+ * during one statistics collection: the table offsets of the SFFs and the
+ * flows of the switch tables. Each table of a switch is read once, with all
+ * its flows and their statistics, instead of reading each flow separately.
+ *
+ * <p>
+ * Not thread safe, a cache is meant to be used by a single collection.
+ */
+public class SfcOpenFlowStatisticsCache {
+    private final Map<SffName, Optional<SfcOfTablesByBaseTable>> tableOffsets = new HashMap<>();
+    private final Map<InstanceIdentifier<Table>, Map<FlowKey, Flow>> flowsByTable = new HashMap<>();
+
+    public SfcOfTablesByBaseTable getTableOffsets(SffName sffName) {
+        return tableOffsets.computeIfAbsent(sffName, name -> Optional.ofNullable(SfcDataStoreAPI.readTransactionAPI(
+                InstanceIdentifier.create(SfcOfTableOffsets.class)
+                        .child(SfcOfTablesByBaseTable.class, new SfcOfTablesByBaseTableKey(name)),
+                LogicalDatastoreType.OPERATIONAL))).orElse(null);
+    }
+
+    public Flow getFlow(NodeId nodeId, short tableId, FlowKey flowKey) {
+        InstanceIdentifier<Table> tableIid = InstanceIdentifier.builder(Nodes.class)
+                .child(Node.class, new NodeKey(nodeId))
+                .augmentation(FlowCapableNode.class)
+                .child(Table.class, new TableKey(tableId)).build();
+        return flowsByTable.computeIfAbsent(tableIid, SfcOpenFlowStatisticsCache::readFlows).get(flowKey);
+    }
+
+    private static Map<FlowKey, Flow> readFlows(InstanceIdentifier<Table> tableIid) {
+        Table table = SfcDataStoreAPI.readTransactionAPI(tableIid, LogicalDatastoreType.OPERATIONAL);
+        List<Flow> flows = table == null || table.getFlow() == null ? Collections.emptyList() : table.getFlow();
+        Map<FlowKey, Flow> flowsByKey = new HashMap<>();
+        flows.forEach(flow -> flowsByKey.put(flow.key(), flow));
+        return flowsByKey;
+    }
+}
@@ -40,13 +40,32 @@ import org.slf4j.LoggerFactory;
 public class SfcOpenFlowStatisticsReader extends SfcStatisticsReaderBase {
     private static final Logger LOG = LoggerFactory.getLogger(SfcOpenFlowStatisticsReader.class);
     private SfcOfTablesByBaseTable sfcOfTableOffsets;
+    private final SfcOpenFlowStatisticsCache cache;
 
     public SfcOpenFlowStatisticsReader(ServiceFunctionForwarder sff) {
-        // Get the table offsets for the SFF
-        InstanceIdentifier<SfcOfTablesByBaseTable> iid = InstanceIdentifier.create(SfcOfTableOffsets.class)
-                .child(SfcOfTablesByBaseTable.class, new SfcOfTablesByBaseTableKey(sff.getName()));
+        this(sff, null);
+    }
 
-        this.sfcOfTableOffsets = SfcDataStoreAPI.readTransactionAPI(iid, LogicalDatastoreType.OPERATIONAL);
+    /**
+     * Constructor reading the table offsets and the flows through a cache,
+     * shared by the readers of a statistics collection.
+     *
+     * @param sff
+     *            the SFF to read the statistics of
+     * @param cache
+     *            the cache of the collection, or null to read the data store
+     *            directly
+     */
+    public SfcOpenFlowStatisticsReader(ServiceFunctionForwarder sff, SfcOpenFlowStatisticsCache cache) {
+        this.cache = cache;
+        if (cache != null) {
+            this.sfcOfTableOffsets = cache.getTableOffsets(sff.getName());
+        } else {
+            // Get the table offsets for the SFF
+            InstanceIdentifier<SfcOfTablesByBaseTable> iid = InstanceIdentifier.create(SfcOfTableOffsets.class)
+                    .child(SfcOfTablesByBaseTable.class, new SfcOfTablesByBaseTableKey(sff.getName()));
+            this.sfcOfTableOffsets = SfcDataStoreAPI.readTransactionAPI(iid, LogicalDatastoreType.OPERATIONAL);
+        }
         if (this.sfcOfTableOffsets == null) {
             throw new IllegalArgumentException("No OfTableOffsets exist for SFF: " + sff.getName().getValue());
         }
@@ -63,12 +82,18 @@ public class SfcOpenFlowStatisticsReader extends SfcStatisticsReaderBase {
         String flowName = getNextHopFlowName(nsp, nsi);
         FlowKey flowKey = new FlowKey(new FlowId(flowName));
 
-        InstanceIdentifier<Flow> iidFlow = InstanceIdentifier.builder(Nodes.class)
-                .child(Node.class, new NodeKey(nodeId.get()))
-                .augmentation(FlowCapableNode.class)
-                .child(Table.class, new TableKey(this.sfcOfTableOffsets.getNextHopTable().shortValue()))
-                .child(Flow.class, flowKey).build();
-        Flow flow = SfcDataStoreAPI.readTransactionAPI(iidFlow, LogicalDatastoreType.OPERATIONAL);
+        short nextHopTable = this.sfcOfTableOffsets.getNextHopTable().shortValue();
+        Flow flow;
+        if (cache != null) {
+            flow = cache.getFlow(nodeId.get(), nextHopTable, flowKey);
+        } else {
+            InstanceIdentifier<Flow> iidFlow = InstanceIdentifier.builder(Nodes.class)
+                    .child(Node.class, new NodeKey(nodeId.get()))
+                    .augmentation(FlowCapableNode.class)
+                    .child(Table.class, new TableKey(nextHopTable))
+                    .child(Flow.class, flowKey).build();
+            flow = SfcDataStoreAPI.readTransactionAPI(iidFlow, LogicalDatastoreType.OPERATIONAL);
+        }
         if (flow == null) {
             LOG.warn("getSffNextHopStats flow null for flowName [{}]", flowName);
             return Optional.empty();
@@ -8,94 +8,69 @@
 
 package org.opendaylight.sfc.statistics.rpc;
 
-import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
-import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
-import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
-import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
-import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
-import org.opendaylight.sfc.statistics.SfcStatisticsFactory;
-import org.opendaylight.sfc.statistics.handlers.SfcStatisticsHandlerBase;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePaths;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ss.rev140701.service.statistics.group.StatisticByTimestamp;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.opendaylight.sfc.statistics.collector.SfcStatisticsRingBuffer;
+import org.opendaylight.sfc.statistics.collector.SfcStatisticsStore;
 import org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215.GetRspStatisticsInput;
 import org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215.GetRspStatisticsOutput;
 import org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215.GetRspStatisticsOutputBuilder;
 import org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215.GetSfStatisticsInput;
 import org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215.GetSfStatisticsOutput;
+import org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215.GetSfStatisticsOutputBuilder;
 import org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215.GetSffStatisticsInput;
 import org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215.GetSffStatisticsOutput;
+import org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215.GetSffStatisticsOutputBuilder;
 import org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215.SfcStatisticsOperationsService;
 import org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215.get.rsp.statistics.output.Statistics;
 import org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215.get.rsp.statistics.output.StatisticsBuilder;
-import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.opendaylight.yangtools.yang.common.RpcError;
 import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * The statistics RPCs, answered from the statistics collected in the
+ * {@link SfcStatisticsStore} by the SfcStatisticsCollector. Until the first
+ * collection, the RPCs return no statistics rather than an error.
+ */
 public class SfcStatisticsRpc implements SfcStatisticsOperationsService {
 
     private static final Logger LOG = LoggerFactory.getLogger(SfcStatisticsRpc.class);
 
+    private final SfcStatisticsStore statisticsStore;
+
+    public SfcStatisticsRpc(SfcStatisticsStore statisticsStore) {
+        this.statisticsStore = statisticsStore;
+    }
+
     @Override
     public ListenableFuture<RpcResult<GetRspStatisticsOutput>> getRspStatistics(GetRspStatisticsInput input) {
-        List<RenderedServicePath> rspList;
-
-        if (input.getName() == null) {
-            // If the name is not present, then return the stats for ALL RSPs
-            rspList = getAllRenderedServicePaths();
-        } else {
-            RenderedServicePath rsp = SfcProviderRenderedPathAPI.readRenderedServicePath(new RspName(input.getName()));
-            if (rsp == null) {
-                return RpcResultBuilder.<GetRspStatisticsOutput>failed().withError(
-                                RpcError.ErrorType.APPLICATION, "RSP does not exist.").buildFuture();
-            }
-
-            rspList = Collections.singletonList(rsp);
+        // Nothing was collected yet, which is not an error
+        if (!statisticsStore.isCollected()) {
+            return RpcResultBuilder.success(new GetRspStatisticsOutputBuilder()
+                    .setStatistics(Collections.emptyList())).buildFuture();
         }
 
-        List<Statistics> statsList = new ArrayList<>();
-        for (RenderedServicePath rsp : rspList) {
-            Optional<ServiceFunctionForwarder> sff = getFirstSffFromRsp(rsp);
-            if (!sff.isPresent()) {
-                LOG.warn("There are no SFFs on this RSP [{}]", rsp.getName().getValue());
-                continue;
-            }
-
-            SfcStatisticsHandlerBase rspStatsHandler = SfcStatisticsFactory.getRspHandler(rsp, sff.get());
-            if (rspStatsHandler == null) {
-                LOG.warn("Unable to get RspHandler for SFF [{}]", sff.get().getName().getValue());
-                continue;
-            }
-
-            List<StatisticByTimestamp> rspStatsList = rspStatsHandler.getStatistics(rsp);
-            if (rspStatsList.isEmpty()) {
-                LOG.warn("No statistics available for RSP [{}]", rsp.getName().getValue());
-                continue;
-            }
-
-            StatisticsBuilder statsBuilder = new StatisticsBuilder();
-            statsBuilder.setName(rsp.getName().getValue());
-            statsBuilder.setStatisticByTimestamp(rspStatsList);
-            statsList.add(statsBuilder.build());
-        }
+        final long since = getSince(input.getWindow());
+        List<Statistics> statsList = getStatistics(statisticsStore.getRspStatistics(), input.getName()).entrySet()
+                .stream()
+                .map(entry -> new StatisticsBuilder().setName(entry.getKey())
+                        .setStatisticByTimestamp(entry.getValue().getStatistics(since))
+                        .setRate(entry.getValue().getRate(since)).build())
+                .filter(stats -> !stats.getStatisticByTimestamp().isEmpty())
+                .collect(Collectors.toList());
 
         // No stats were collected
         if (statsList.isEmpty()) {
-            return Futures.immediateFuture(
-                    RpcResultBuilder.<GetRspStatisticsOutput>failed().withError(
-                            RpcError.ErrorType.APPLICATION, "SFF statistics is not implemented yet.").build());
+            LOG.warn("No statistics available for RSP [{}]", input.getName());
+            return RpcResultBuilder.<GetRspStatisticsOutput>failed().withError(
+                            RpcError.ErrorType.APPLICATION, "No RSP statistics available.").buildFuture();
         }
 
         GetRspStatisticsOutputBuilder output = new GetRspStatisticsOutputBuilder();
@@ -106,54 +81,76 @@ public class SfcStatisticsRpc implements SfcStatisticsOperationsService {
 
     @Override
     public ListenableFuture<RpcResult<GetSffStatisticsOutput>> getSffStatistics(GetSffStatisticsInput input) {
-        return RpcResultBuilder.<GetSffStatisticsOutput>failed().withError(
-                        RpcError.ErrorType.APPLICATION, "SFF statistics is not implemented yet.").buildFuture();
-    }
-
-    @Override
-    public ListenableFuture<RpcResult<GetSfStatisticsOutput>> getSfStatistics(GetSfStatisticsInput input) {
-        return RpcResultBuilder.<GetSfStatisticsOutput>failed().withError(
-                        RpcError.ErrorType.APPLICATION, "SF statistics is not implemented yet.").buildFuture();
-    }
-
-    private List<RenderedServicePath> getAllRenderedServicePaths() {
-        RenderedServicePaths rsps = SfcDataStoreAPI.readTransactionAPI(InstanceIdentifier.create(
-                RenderedServicePaths.class), LogicalDatastoreType.OPERATIONAL);
+        // Nothing was collected yet, which is not an error
+        if (!statisticsStore.isCollected()) {
+            return RpcResultBuilder.success(new GetSffStatisticsOutputBuilder()
+                    .setStatistics(Collections.emptyList())).buildFuture();
+        }
 
-        if (rsps == null) {
-            LOG.warn("No RSPs exist");
-            return Collections.emptyList();
+        final long since = getSince(input.getWindow());
+        GetSffStatisticsOutputBuilder output = new GetSffStatisticsOutputBuilder();
+        output.setStatistics(getStatistics(statisticsStore.getSffStatistics(), input.getName()).entrySet()
+                .stream()
+                .map(entry -> new org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215
+                        .get.sff.statistics.output.StatisticsBuilder().setName(entry.getKey())
+                        .setStatisticByTimestamp(entry.getValue().getStatistics(since))
+                        .setRate(entry.getValue().getRate(since)).build())
+                .filter(stats -> !stats.getStatisticByTimestamp().isEmpty())
+                .collect(Collectors.toList()));
+
+        if (output.getStatistics().isEmpty()) {
+            LOG.warn("No statistics available for SFF [{}]", input.getName());
+            return RpcResultBuilder.<GetSffStatisticsOutput>failed().withError(
+                            RpcError.ErrorType.APPLICATION, "No SFF statistics available.").buildFuture();
         }
 
-        List<RenderedServicePath> rspList = rsps.getRenderedServicePath();
-        return rspList == null
-                ? Collections.emptyList()
-                : rspList;
+        return RpcResultBuilder.success(output).buildFuture();
     }
 
-    private Optional<ServiceFunctionForwarder> getFirstSffFromRsp(RenderedServicePath rsp) {
-        List<RenderedServicePathHop> rspHopList = rsp.getRenderedServicePathHop();
-        if (rspHopList == null) {
-            return Optional.empty();
+    @Override
+    public ListenableFuture<RpcResult<GetSfStatisticsOutput>> getSfStatistics(GetSfStatisticsInput input) {
+        // Nothing was collected yet, which is not an error
+        if (!statisticsStore.isCollected()) {
+            return RpcResultBuilder.success(new GetSfStatisticsOutputBuilder()
+                    .setStatistics(Collections.emptyList())).buildFuture();
         }
 
-        if (rspHopList.isEmpty()) {
-            return Optional.empty();
+        final long since = getSince(input.getWindow());
+        GetSfStatisticsOutputBuilder output = new GetSfStatisticsOutputBuilder();
+        output.setStatistics(getStatistics(statisticsStore.getSfStatistics(), input.getName()).entrySet()
+                .stream()
+                .map(entry -> new org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215
+                        .get.sf.statistics.output.StatisticsBuilder().setName(entry.getKey())
+                        .setStatisticByTimestamp(entry.getValue().getStatistics(since))
+                        .setRate(entry.getValue().getRate(since)).build())
+                .filter(stats -> !stats.getStatisticByTimestamp().isEmpty())
+                .collect(Collectors.toList()));
+
+        if (output.getStatistics().isEmpty()) {
+            LOG.warn("No statistics available for SF [{}]", input.getName());
+            return RpcResultBuilder.<GetSfStatisticsOutput>failed().withError(
+                            RpcError.ErrorType.APPLICATION, "No SF statistics available.").buildFuture();
         }
 
-        RenderedServicePathHop firstHop = rspHopList.get(0);
-        if (firstHop == null) {
-            return Optional.empty();
-        }
+        return RpcResultBuilder.success(output).buildFuture();
+    }
 
-        SffName sffName = firstHop.getServiceFunctionForwarder();
-        if (sffName == null) {
-            return Optional.empty();
+    // The statistics of the named element, or of all the elements if no name is given
+    private static Map<String, SfcStatisticsRingBuffer> getStatistics(Map<String, SfcStatisticsRingBuffer> statistics,
+            String name) {
+        if (name == null) {
+            return statistics;
         }
+        SfcStatisticsRingBuffer namedStatistics = statistics.get(name);
+        return namedStatistics == null
+                ? Collections.emptyMap()
+                : Collections.singletonMap(name, namedStatistics);
+    }
 
-        ServiceFunctionForwarder sff =
-                SfcProviderServiceForwarderAPI.readServiceFunctionForwarder(sffName);
-
-        return Optional.ofNullable(sff);
+    // The start time of a statistics window given in seconds, 0 for no window
+    private static long getSince(Long window) {
+        return window == null
+                ? 0
+                : System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(window);
     }
 }
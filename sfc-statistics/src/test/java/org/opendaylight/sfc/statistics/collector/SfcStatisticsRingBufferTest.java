@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2018 Inocybe Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.statistics.collector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ss.rev140701.service.statistics.group.StatisticByTimestamp;
+import org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215.statistics.rate.Rate;
+
+public class SfcStatisticsRingBufferTest {
+
+    @Test
+    public void getStatisticsWrapAroundTest() {
+        SfcStatisticsRingBuffer ringBuffer = new SfcStatisticsRingBuffer(3);
+        assertTrue(ringBuffer.getStatistics(0).isEmpty());
+
+        for (long i = 1; i <= 5; i++) {
+            ringBuffer.add(i * 1000, i * 100, i, SfcStatisticsRingBuffer.NO_VALUE, SfcStatisticsRingBuffer.NO_VALUE);
+        }
+
+        // Only the last 3 samples are kept, oldest first
+        List<StatisticByTimestamp> statsList = ringBuffer.getStatistics(0);
+        assertEquals(3, statsList.size());
+        for (int i = 0; i < statsList.size(); i++) {
+            StatisticByTimestamp stats = statsList.get(i);
+            assertEquals((i + 3) * 1000, stats.getTimestamp().longValue());
+            assertEquals((i + 3) * 100, stats.getServiceStatistic().getBytesIn().getValue().longValue());
+            assertEquals(i + 3, stats.getServiceStatistic().getPacketsIn().getValue().longValue());
+            assertNull(stats.getServiceStatistic().getBytesOut());
+            assertNull(stats.getServiceStatistic().getPacketsOut());
+        }
+    }
+
+    @Test
+    public void getStatisticsWindowTest() {
+        SfcStatisticsRingBuffer ringBuffer = new SfcStatisticsRingBuffer(10);
+        for (long i = 1; i <= 5; i++) {
+            ringBuffer.add(i * 1000, i, i, i, i);
+        }
+
+        List<StatisticByTimestamp> statsList = ringBuffer.getStatistics(4000);
+        assertEquals(2, statsList.size());
+        assertEquals(4000, statsList.get(0).getTimestamp().longValue());
+        assertEquals(5000, statsList.get(1).getTimestamp().longValue());
+        assertTrue(ringBuffer.getStatistics(6000).isEmpty());
+    }
+
+    @Test
+    public void getRateTest() {
+        SfcStatisticsRingBuffer ringBuffer = new SfcStatisticsRingBuffer(10);
+        ringBuffer.add(1000, 0, 0, SfcStatisticsRingBuffer.NO_VALUE, 0);
+        assertNull(ringBuffer.getRate(0));
+
+        ringBuffer.add(2000, 1000, 10, SfcStatisticsRingBuffer.NO_VALUE, 20);
+        ringBuffer.add(3000, 3000, 30, SfcStatisticsRingBuffer.NO_VALUE, 40);
+
+        Rate rate = ringBuffer.getRate(0);
+        assertEquals(1500, rate.getBytesIn().longValue());
+        assertEquals(15, rate.getPacketsIn().longValue());
+        assertNull(rate.getBytesOut());
+        assertEquals(20, rate.getPacketsOut().longValue());
+
+        // Only the samples in the window are used
+        rate = ringBuffer.getRate(2000);
+        assertEquals(2000, rate.getBytesIn().longValue());
+        assertNull(ringBuffer.getRate(3000));
+    }
+
+    @Test
+    public void getRateCounterResetTest() {
+        SfcStatisticsRingBuffer ringBuffer = new SfcStatisticsRingBuffer(10);
+        ringBuffer.add(1000, 5000, 50, 0, 0);
+        // The flow was re-created, its counters restarted from 0
+        ringBuffer.add(2000, 1000, 10, 0, 0);
+        ringBuffer.add(3000, 3000, 30, 0, 0);
+
+        Rate rate = ringBuffer.getRate(0);
+        assertEquals(1000, rate.getBytesIn().longValue());
+        assertEquals(10, rate.getPacketsIn().longValue());
+        assertEquals(0, rate.getBytesOut().longValue());
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2018 Inocybe Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.statistics.collector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.opendaylight.sfc.statistics.collector.SfcStatisticsStore.Counters;
+
+public class SfcStatisticsStoreTest {
+
+    private static final String RSP_NAME = "rsp1";
+
+    private static Map<String, Counters> rspCounters(long packets) {
+        Counters counters = new Counters();
+        counters.addIn(packets * 100, packets);
+        return Collections.singletonMap(RSP_NAME, counters);
+    }
+
+    @Test
+    public void isCollectedTest() {
+        SfcStatisticsStore store = new SfcStatisticsStore(10, 2);
+        assertFalse(store.isCollected());
+
+        store.record(1000, Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+        assertTrue(store.isCollected());
+    }
+
+    @Test
+    public void statisticsAreKeptDuringTheGraceCollectionsTest() {
+        SfcStatisticsStore store = new SfcStatisticsStore(10, 2);
+        store.record(1000, rspCounters(1), Collections.emptyMap(), Collections.emptyMap());
+
+        // Missing from 2 collections, the RSP keeps its history
+        store.record(2000, Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+        store.record(3000, Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+        assertEquals(1, store.getRspStatistics().get(RSP_NAME).getStatistics(0).size());
+
+        // Collected again, its history goes on
+        store.record(4000, rspCounters(4), Collections.emptyMap(), Collections.emptyMap());
+        assertEquals(2, store.getRspStatistics().get(RSP_NAME).getStatistics(0).size());
+    }
+
+    @Test
+    public void statisticsAreDroppedAfterTheGraceCollectionsTest() {
+        SfcStatisticsStore store = new SfcStatisticsStore(10, 2);
+        store.record(1000, rspCounters(1), Collections.emptyMap(), Collections.emptyMap());
+        for (long timestamp = 2000; timestamp <= 4000; timestamp += 1000) {
+            store.record(timestamp, Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+        }
+
+        assertTrue(store.getRspStatistics().isEmpty());
+    }
+}
@@ -19,12 +19,16 @@ import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.opendaylight.sfc.statistics.collector.SfcStatisticsCollector;
+import org.opendaylight.sfc.statistics.collector.SfcStatisticsStore;
 import org.opendaylight.sfc.statistics.testutils.AbstractDataStoreManager;
 import org.opendaylight.sfc.statistics.testutils.SfcStatisticsTestUtils;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ss.rev140701.service.statistics.group.StatisticByTimestamp;
 import org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215.GetRspStatisticsInputBuilder;
 import org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215.GetRspStatisticsOutput;
 import org.opendaylight.yang.gen.v1.urn.inocybe.params.xml.ns.yang.sfc.stats.ops.rev171215.GetSfStatisticsInputBuilder;
@@ -39,16 +43,24 @@ public class SfcStatisticsRpcTest extends AbstractDataStoreManager {
 
     private static String RSP_NAME_NON_EXISTANT = "RspDoesntExist";
 
+    private SfcStatisticsCollector sfcStatisticsCollector;
     private SfcStatisticsRpc sfcStatisticsRpc;
     private SfcStatisticsTestUtils sfcStatsTestUtils;
 
     @Before
     public void setUp() {
         setupSfc();
-        sfcStatisticsRpc = new SfcStatisticsRpc();
+        SfcStatisticsStore sfcStatisticsStore = new SfcStatisticsStore(10, 1);
+        sfcStatisticsCollector = new SfcStatisticsCollector(sfcStatisticsStore, 10);
+        sfcStatisticsRpc = new SfcStatisticsRpc(sfcStatisticsStore);
         sfcStatsTestUtils = new SfcStatisticsTestUtils();
     }
 
+    @After
+    public void tearDown() {
+        sfcStatisticsCollector.close();
+    }
+
     // Internal util method to check GetRspStatisticsOutput failures
     private void assertRspApplicationError(Future<RpcResult<GetRspStatisticsOutput>> resultFuture)
             throws InterruptedException, ExecutionException {
@@ -65,8 +77,30 @@ public class SfcStatisticsRpcTest extends AbstractDataStoreManager {
         assertEquals(RpcError.ErrorType.APPLICATION, rpcErrors.iterator().next().getErrorType());
     }
 
+    @Test
+    public void getStatisticsBeforeCollectionTest() throws Exception {
+        sfcStatsTestUtils.createOperationalRsps(1, false);
+
+        // No statistics, rather than an error, until the first collection
+        RpcResult<GetRspStatisticsOutput> rspResult =
+                sfcStatisticsRpc.getRspStatistics(new GetRspStatisticsInputBuilder().build()).get();
+        assertTrue(rspResult.isSuccessful());
+        assertTrue(rspResult.getResult().getStatistics().isEmpty());
+
+        RpcResult<GetSffStatisticsOutput> sffResult =
+                sfcStatisticsRpc.getSffStatistics(new GetSffStatisticsInputBuilder().build()).get();
+        assertTrue(sffResult.isSuccessful());
+        assertTrue(sffResult.getResult().getStatistics().isEmpty());
+
+        RpcResult<GetSfStatisticsOutput> sfResult =
+                sfcStatisticsRpc.getSfStatistics(new GetSfStatisticsInputBuilder().build()).get();
+        assertTrue(sfResult.isSuccessful());
+        assertTrue(sfResult.getResult().getStatistics().isEmpty());
+    }
+
     @Test
     public void getRspStatisticsNoRspsTest() throws Exception {
+        sfcStatisticsCollector.collect();
         GetRspStatisticsInputBuilder getRspStatisticsInputBuilder = new GetRspStatisticsInputBuilder();
         Future<RpcResult<GetRspStatisticsOutput>> result =
                 sfcStatisticsRpc.getRspStatistics(getRspStatisticsInputBuilder.build());
@@ -80,6 +114,7 @@ public class SfcStatisticsRpcTest extends AbstractDataStoreManager {
         // Create 1 RSP
         List<RenderedServicePath> rspList = sfcStatsTestUtils.createOperationalRsps(1, false);
         assertEquals(1, rspList.size());
+        sfcStatisticsCollector.collect();
 
         GetRspStatisticsInputBuilder getRspStatisticsInputBuilder = new GetRspStatisticsInputBuilder();
         getRspStatisticsInputBuilder.setName(RSP_NAME_NON_EXISTANT);
@@ -95,6 +130,7 @@ public class SfcStatisticsRpcTest extends AbstractDataStoreManager {
         // Create 1 RSP
         List<RenderedServicePath> rspList = sfcStatsTestUtils.createOperationalRsps(1, false);
         assertEquals(1, rspList.size());
+        sfcStatisticsCollector.collect();
 
         RenderedServicePath rsp = rspList.get(0);
         GetRspStatisticsInputBuilder getRspStatisticsInputBuilder = new GetRspStatisticsInputBuilder();
@@ -121,6 +157,7 @@ public class SfcStatisticsRpcTest extends AbstractDataStoreManager {
         // Create 2 RSPs and give an empty RSP name, it should return stats for all RSPs
         List<RenderedServicePath> rspList = sfcStatsTestUtils.createOperationalRsps(2, true);
         assertEquals(4, rspList.size());
+        sfcStatisticsCollector.collect();
 
         Future<RpcResult<GetRspStatisticsOutput>> result =
                 sfcStatisticsRpc.getRspStatistics(new GetRspStatisticsInputBuilder().build());
@@ -149,12 +186,35 @@ public class SfcStatisticsRpcTest extends AbstractDataStoreManager {
 
     @Test
     public void getSffStatisticsTest() throws Exception {
+        // Create 1 RSP, both its hops are on the same SFF
+        sfcStatsTestUtils.createOperationalRsps(1, false);
+        sfcStatisticsCollector.collect();
+
         GetSffStatisticsInputBuilder getSffStatisticsInputBuilder = new GetSffStatisticsInputBuilder();
+        getSffStatisticsInputBuilder.setName(SfcStatisticsTestUtils.SFF_NAMES.get(0).getValue());
         Future<RpcResult<GetSffStatisticsOutput>> result =
                 sfcStatisticsRpc.getSffStatistics(getSffStatisticsInputBuilder.build());
 
-        // getSffStatistics is not implemented yet, so it should return an error
+        assertNotNull(result);
+        assertTrue(result.get().isSuccessful());
+        GetSffStatisticsOutput output = result.get().getResult();
+        assertEquals(1, output.getStatistics().size());
+
+        // The SFF transmits the packets of both hops to their SFs
+        List<StatisticByTimestamp> statsList = output.getStatistics().get(0).getStatisticByTimestamp();
+        assertEquals(1, statsList.size());
+        sfcStatsTestUtils.checkStatistics(statsList.get(0).getServiceStatistic(), false,
+                2 * SfcStatisticsTestUtils.STATS_COUNTER_BYTES, 2 * SfcStatisticsTestUtils.STATS_COUNTER_PACKETS);
+        assertNull(statsList.get(0).getServiceStatistic().getBytesIn());
+    }
+
+    @Test
+    public void getSffStatisticsNoSffsTest() throws Exception {
+        sfcStatisticsCollector.collect();
+        Future<RpcResult<GetSffStatisticsOutput>> result =
+                sfcStatisticsRpc.getSffStatistics(new GetSffStatisticsInputBuilder().build());
 
+        // An error should be returned when no statistics were collected
         assertNotNull(result);
         assertNotNull(result.get());
         assertNull(result.get().getResult());
@@ -172,20 +232,25 @@ public class SfcStatisticsRpcTest extends AbstractDataStoreManager {
 
     @Test
     public void getSfStatisticsTest() throws Exception {
-        GetSfStatisticsInputBuilder getSfStatisticsInputBuilder = new GetSfStatisticsInputBuilder();
-        Future<RpcResult<GetSfStatisticsOutput>> result =
-                sfcStatisticsRpc.getSfStatistics(getSfStatisticsInputBuilder.build());
+        // Create 1 RSP, with one hop per SF
+        sfcStatsTestUtils.createOperationalRsps(1, false);
+        sfcStatisticsCollector.collect();
 
-        // getSfStatistics is not implemented yet, so it should return an error
+        Future<RpcResult<GetSfStatisticsOutput>> result =
+                sfcStatisticsRpc.getSfStatistics(new GetSfStatisticsInputBuilder().build());
 
         assertNotNull(result);
-        assertNotNull(result.get());
-        assertNull(result.get().getResult());
-        assertFalse(result.get().isSuccessful());
-
-        Collection<RpcError> rpcErrors = result.get().getErrors();
-        assertNotNull(rpcErrors);
-        assertEquals(1, rpcErrors.size());
-        assertEquals(RpcError.ErrorType.APPLICATION, rpcErrors.iterator().next().getErrorType());
+        assertTrue(result.get().isSuccessful());
+        GetSfStatisticsOutput output = result.get().getResult();
+        assertEquals(2, output.getStatistics().size());
+
+        // Each SF receives the packets of its hop
+        for (int i = 0; i < output.getStatistics().size(); i++) {
+            List<StatisticByTimestamp> statsList = output.getStatistics().get(i).getStatisticByTimestamp();
+            assertEquals(1, statsList.size());
+            sfcStatsTestUtils.checkStatistics(statsList.get(0).getServiceStatistic(), true,
+                    SfcStatisticsTestUtils.STATS_COUNTER_BYTES, SfcStatisticsTestUtils.STATS_COUNTER_PACKETS);
+            assertNull(statsList.get(0).getServiceStatistic().getBytesOut());
+        }
     }
 }
@@ -8,14 +8,30 @@
 package org.opendaylight.sfc.genius.util;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.mdsal.binding.api.RpcConsumerRegistry;
+import org.opendaylight.sfc.genius.util.listeners.SfcGeniusInterfaceStateCacheListener;
+import org.opendaylight.sfc.genius.util.listeners.SfcGeniusItmTunnelCacheListener;
 import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.sff.logical.rev160620.DpnIdType;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.Action;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rev160406.TunnelTypeBase;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rev160406.TunnelTypeVxlan;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rev160406.TunnelTypeVxlanGpe;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rpcs.rev160406.GetDpidFromInterfaceInput;
@@ -39,25 +55,91 @@ import org.slf4j.LoggerFactory;
  * This class centralizes all Genius RPC accesses which SFC openflow renderer
  * needs when using logical SFFs.
  *
+ * <p>
+ * The RPCs are invoked asynchronously. The tunnel interface between two
+ * DPNs, the endpoint IPs of a DPN and the DPN of an interface are cached,
+ * as they seldom change, when the client is given a data broker to listen
+ * to the ITM tunnel and interface state changes that invalidate them.
+ * Failed and empty results are not cached. The listeners are registered by
+ * {@link #init()}; a single client is shared by the OpenFlow renderer and
+ * classifier, as a blueprint service of this bundle.
+ *
  * @author Diego Granados (diego.jesus.granados.lopez@ericsson.com)
  */
-public class SfcGeniusRpcClient {
+public class SfcGeniusRpcClient implements AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(SfcGeniusRpcClient.class);
+    private static final long CACHE_MAX_SIZE = 10000;
     private final ItmRpcService itmRpcService;
     private final OdlInterfaceRpcService ifmRpcService;
 
+    // The tunnel interface names by [source DPN, destination DPN]
+    private final Cache<List<BigInteger>, ListenableFuture<Optional<String>>> tunnelInterfaceCache;
+    private final Cache<BigInteger, ListenableFuture<List<IpAddress>>> dpnIpCache;
+    private final Cache<String, ListenableFuture<Optional<DpnIdType>>> interfaceDpnCache;
+
+    private final DataBroker dataBroker;
+    private SfcGeniusItmTunnelCacheListener itmTunnelCacheListener;
+    private SfcGeniusInterfaceStateCacheListener interfaceStateCacheListener;
+
     /**
-     * Constructor.
+     * Constructor. The results of the RPCs are not cached.
      *
      * @param rpcRegistry
      *            The registry used to retrieve RPC services
      */
     public SfcGeniusRpcClient(RpcConsumerRegistry rpcRegistry) {
+        this(rpcRegistry, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param rpcRegistry
+     *            The registry used to retrieve RPC services
+     * @param dataBroker
+     *            The data broker used to listen to the changes invalidating
+     *            the cached results, or null not to cache the results
+     * @see #init()
+     */
+    public SfcGeniusRpcClient(RpcConsumerRegistry rpcRegistry, @Nullable DataBroker dataBroker) {
         LOG.debug("SfcGeniusRpcClient: starting");
         Preconditions.checkNotNull(rpcRegistry);
         itmRpcService = rpcRegistry.getRpcService(ItmRpcService.class);
         ifmRpcService = rpcRegistry.getRpcService(OdlInterfaceRpcService.class);
+
+        long cacheMaxSize = dataBroker == null ? 0 : CACHE_MAX_SIZE;
+        tunnelInterfaceCache = CacheBuilder.newBuilder().maximumSize(cacheMaxSize).recordStats().build();
+        dpnIpCache = CacheBuilder.newBuilder().maximumSize(cacheMaxSize).recordStats().build();
+        interfaceDpnCache = CacheBuilder.newBuilder().maximumSize(cacheMaxSize).recordStats().build();
+        this.dataBroker = dataBroker;
+    }
+
+    /**
+     * Start listening to the changes invalidating the cached results, if the
+     * client was given a data broker.
+     */
+    public void init() {
+        if (dataBroker == null) {
+            return;
+        }
+        itmTunnelCacheListener = new SfcGeniusItmTunnelCacheListener(dataBroker, this);
+        interfaceStateCacheListener = new SfcGeniusInterfaceStateCacheListener(dataBroker, this);
+        itmTunnelCacheListener.register();
+        interfaceStateCacheListener.register();
+    }
+
+    @Override
+    public void close() {
+        if (itmTunnelCacheListener != null) {
+            itmTunnelCacheListener.close();
+        }
+        if (interfaceStateCacheListener != null) {
+            interfaceStateCacheListener.close();
+        }
+        LOG.debug("SfcGeniusRpcClient: closed, hit rates tunnel interfaces {}, DPN IPs {}, interface DPNs {}",
+                getTunnelInterfaceCacheStats().hitRate(), getDpnIpCacheStats().hitRate(),
+                getInterfaceDpnCacheStats().hitRate());
     }
 
     /**
@@ -77,10 +159,30 @@ public class SfcGeniusRpcClient {
      */
     public Optional<List<Action>> getEgressActionsFromGeniusRPC(String targetInterfaceName,
             boolean interfaceIsPartOfTheTransportZone, int actionOffset) {
+        try {
+            return getEgressActions(targetInterfaceName, interfaceIsPartOfTheTransportZone, actionOffset).get();
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.error("failed to retrieve egress instructions for interface {}: ", targetInterfaceName, e);
+        }
+        return Optional.empty();
+    }
 
-        Optional<List<Action>> result = Optional.empty();
-        boolean successful = false;
-
+    /**
+     * Retrieve egress actions from Genius, asynchronously.
+     *
+     * @param targetInterfaceName
+     *            the interface to use
+     * @param interfaceIsPartOfTheTransportZone
+     *            true when the interface is part of the transport zone
+     * @param actionOffset
+     *            offsets the order parameter of the actions gotten from genius
+     *            RPC
+     * @return a future of the egress instructions to use, empty when the RPC
+     *         invocation failed
+     * @see #getEgressActionsFromGeniusRPC(String, boolean, int)
+     */
+    public ListenableFuture<Optional<List<Action>>> getEgressActions(String targetInterfaceName,
+            boolean interfaceIsPartOfTheTransportZone, int actionOffset) {
         LOG.debug("getEgressActionsFromGeniusRPC: starting (target interface={} in the transport zone:{})",
                 targetInterfaceName, interfaceIsPartOfTheTransportZone);
         GetEgressActionsForInterfaceInputBuilder builder = new GetEgressActionsForInterfaceInputBuilder()
@@ -90,28 +192,21 @@ public class SfcGeniusRpcClient {
         }
 
         GetEgressActionsForInterfaceInput input = builder.build();
-        try {
-            OdlInterfaceRpcService service = getIfmRpcService();
-            if (service != null) {
-                RpcResult<GetEgressActionsForInterfaceOutput> output = service.getEgressActionsForInterface(input)
-                        .get();
-                if (output.isSuccessful()) {
-                    result = Optional.of(output.getResult().getAction());
-                    LOG.debug("getEgressInstructionsFromGeniusRPC({}) succeeded", input);
-                    successful = true;
-                } else {
+        OdlInterfaceRpcService service = getIfmRpcService();
+        if (service == null) {
+            LOG.error("getEgressInstructionsFromGeniusRPC({}) failed (service couldn't be retrieved)", input);
+            return Futures.immediateFuture(Optional.empty());
+        }
+
+        return Futures.transform(service.getEgressActionsForInterface(input),
+            (RpcResult<GetEgressActionsForInterfaceOutput> output) -> {
+                if (!output.isSuccessful()) {
                     LOG.error("getEgressInstructionsFromGeniusRPC({}) failed", input);
+                    return Optional.empty();
                 }
-            } else {
-                LOG.error("getEgressInstructionsFromGeniusRPC({}) failed (service couldn't be retrieved)", input);
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            LOG.error("failed to retrieve egress instructions for input {}: ", input, e);
-        }
-        if (!successful) {
-            result = Optional.empty();
-        }
-        return result;
+                LOG.debug("getEgressInstructionsFromGeniusRPC({}) succeeded", input);
+                return Optional.of(output.getResult().getAction());
+            }, MoreExecutors.directExecutor());
     }
 
     /**
@@ -130,47 +225,72 @@ public class SfcGeniusRpcClient {
      *         retrieval)
      */
     public Optional<String> getTargetInterfaceFromGeniusRPC(DpnIdType srcDpid, DpnIdType dstDpid) {
+        try {
+            return getTargetInterface(srcDpid, dstDpid).get();
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.error("getTargetInterfaceFromGeniusRPC exception when trying to retrieve target interface name: ", e);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Asynchronously get the interface to use for sending traffic from a data
+     * plane node to another, from the cache or from Genius.
+     *
+     * @param srcDpid
+     *            DPN ID for the source dataplane node
+     * @param dstDpid
+     *            DPN ID for the target dataplane node
+     * @return a future of the interface to use, empty when it could not be
+     *         retrieved
+     * @see #getTargetInterfaceFromGeniusRPC(DpnIdType, DpnIdType)
+     */
+    public ListenableFuture<Optional<String>> getTargetInterface(DpnIdType srcDpid, DpnIdType dstDpid) {
+        return getCached(tunnelInterfaceCache, Arrays.asList(srcDpid.getValue(), dstDpid.getValue()),
+            () -> readTargetInterface(srcDpid, dstDpid), Optional::isPresent);
+    }
+
+    private ListenableFuture<Optional<String>> readTargetInterface(DpnIdType srcDpid, DpnIdType dstDpid) {
         LOG.debug("getTargetInterfaceFromGeniusRPC: starting (src dpnid:{} dst dpnid:{})", srcDpid, dstDpid);
 
         final ItmRpcService service = getItmRpcService();
         if (service == null) {
             LOG.error("getTargetInterfaceFromGeniusRPC failed (service couldn't be retrieved)");
-            return Optional.empty();
+            return Futures.immediateFuture(Optional.empty());
         }
 
+        // Try first a specific VxlanGpe interface type. If not, try with
+        // standard vxlan type, it might also have gpe enabled
+        return Futures.transformAsync(readTunnelInterface(service, srcDpid, dstDpid, TunnelTypeVxlanGpe.class),
+            interfaceName -> {
+                if (interfaceName.isPresent()) {
+                    LOG.debug("getTargetInterfaceFromGeniusRPC found VxlanGpe interface {}", interfaceName);
+                    return Futures.immediateFuture(interfaceName);
+                }
+                return Futures.transform(readTunnelInterface(service, srcDpid, dstDpid, TunnelTypeVxlan.class),
+                    vxlanInterfaceName -> {
+                        if (vxlanInterfaceName.isPresent()) {
+                            LOG.debug("getTargetInterfaceFromGeniusRPC found Vxlan interface {}", vxlanInterfaceName);
+                        } else {
+                            LOG.debug("getTargetInterfaceFromGeniusRPC did not find target interface name");
+                        }
+                        return vxlanInterfaceName;
+                    }, MoreExecutors.directExecutor());
+            }, MoreExecutors.directExecutor());
+    }
+
+    private static ListenableFuture<Optional<String>> readTunnelInterface(ItmRpcService service, DpnIdType srcDpid,
+            DpnIdType dstDpid, Class<? extends TunnelTypeBase> tunnelType) {
         GetTunnelInterfaceNameInputBuilder builder = new GetTunnelInterfaceNameInputBuilder();
         builder.setSourceDpid(srcDpid.getValue());
         builder.setDestinationDpid(dstDpid.getValue());
-        Optional<String> interfaceName;
-        RpcResult<GetTunnelInterfaceNameOutput> output;
-
-        try {
-            // Try first a specific VxlanGpe interface type
-            builder.setTunnelType(TunnelTypeVxlanGpe.class);
-            output = service.getTunnelInterfaceName(builder.build()).get();
-            interfaceName = Optional.ofNullable(output)
-                    .map(RpcResult::getResult)
-                    .map(GetTunnelInterfaceNameOutput::getInterfaceName);
-            if (output.isSuccessful() && interfaceName.isPresent()) {
-                LOG.debug("getTargetInterfaceFromGeniusRPC found VxlanGpe interface {}", interfaceName);
-                return interfaceName;
-            }
-
-            // If not, try with standard vxlan type, it might also have gpe enabled
-            builder.setTunnelType(TunnelTypeVxlan.class);
-            output = service.getTunnelInterfaceName(builder.build()).get();
-            interfaceName = Optional.ofNullable(output)
+        builder.setTunnelType(tunnelType);
+        return Futures.transform(service.getTunnelInterfaceName(builder.build()),
+            (RpcResult<GetTunnelInterfaceNameOutput> output) -> Optional.ofNullable(output)
+                    .filter(RpcResult::isSuccessful)
                     .map(RpcResult::getResult)
-                    .map(GetTunnelInterfaceNameOutput::getInterfaceName);
-            if (output.isSuccessful() && interfaceName.isPresent()) {
-                LOG.debug("getTargetInterfaceFromGeniusRPC found Vxlan interface {}", interfaceName);
-                return interfaceName;
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            LOG.error("getTargetInterfaceFromGeniusRPC exception when trying to retrieve target interface name: ", e);
-        }
-        LOG.debug("getTargetInterfaceFromGeniusRPC did not find target interface name");
-        return Optional.empty();
+                    .map(GetTunnelInterfaceNameOutput::getInterfaceName),
+            MoreExecutors.directExecutor());
     }
 
     /**
@@ -184,36 +304,50 @@ public class SfcGeniusRpcClient {
      *         SF, or empty when the value cannot be retrieved
      */
     public Optional<DpnIdType> getDpnIdFromInterfaceNameFromGeniusRPC(String logicalInterfaceName) {
-        Optional<DpnIdType> dpnid = Optional.empty();
-        boolean successful = false;
+        try {
+            return getDpnIdFromInterfaceName(logicalInterfaceName).get();
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.error("failed to retrieve target interface name: ", e);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Asynchronously get the DPN ID for the dataplane node where a Neutron
+     * interface is attached, from the cache or from Genius.
+     *
+     * @param logicalInterfaceName
+     *            the Neutron interface that the SF is attached to
+     * @return a future of the DPN ID, empty when it cannot be retrieved
+     * @see #getDpnIdFromInterfaceNameFromGeniusRPC(String)
+     */
+    public ListenableFuture<Optional<DpnIdType>> getDpnIdFromInterfaceName(String logicalInterfaceName) {
+        return getCached(interfaceDpnCache, logicalInterfaceName, () -> readDpnIdFromInterfaceName(
+                logicalInterfaceName), Optional::isPresent);
+    }
 
+    private ListenableFuture<Optional<DpnIdType>> readDpnIdFromInterfaceName(String logicalInterfaceName) {
         LOG.debug("getDpnIdFromInterfaceNameFromGeniusRPC: starting (logical interface={})", logicalInterfaceName);
         GetDpidFromInterfaceInputBuilder builder = new GetDpidFromInterfaceInputBuilder();
         builder.setIntfName(logicalInterfaceName);
         GetDpidFromInterfaceInput input = builder.build();
 
-        try {
-            OdlInterfaceRpcService service = getIfmRpcService();
-            if (service != null) {
-                LOG.debug("getDpnIdFromInterfaceNameFromGeniusRPC: service is not null, invoking rpc");
-                RpcResult<GetDpidFromInterfaceOutput> output = service.getDpidFromInterface(input).get();
-                if (output.isSuccessful()) {
-                    dpnid = Optional.of(new DpnIdType(output.getResult().getDpid()));
-                    LOG.debug("getDpnIdFromInterfaceNameFromGeniusRPC({}) succeeded: {}", input, output);
-                    successful = true;
-                } else {
+        OdlInterfaceRpcService service = getIfmRpcService();
+        if (service == null) {
+            LOG.error("getDpnIdFromInterfaceNameFromGeniusRPC({}) failed (service couldn't be retrieved)", input);
+            return Futures.immediateFuture(Optional.empty());
+        }
+
+        LOG.debug("getDpnIdFromInterfaceNameFromGeniusRPC: service is not null, invoking rpc");
+        return Futures.transform(service.getDpidFromInterface(input),
+            (RpcResult<GetDpidFromInterfaceOutput> output) -> {
+                if (!output.isSuccessful()) {
                     LOG.error("getDpnIdFromInterfaceNameFromGeniusRPC({}) failed: {}", input, output);
+                    return Optional.empty();
                 }
-            } else {
-                LOG.error("getDpnIdFromInterfaceNameFromGeniusRPC({}) failed (service couldn't be retrieved)", input);
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            LOG.error("failed to retrieve target interface name: ", e);
-        }
-        if (!successful) {
-            dpnid = Optional.empty();
-        }
-        return dpnid;
+                LOG.debug("getDpnIdFromInterfaceNameFromGeniusRPC({}) succeeded: {}", input, output);
+                return Optional.of(new DpnIdType(output.getResult().getDpid()));
+            }, MoreExecutors.directExecutor());
     }
 
     /**
@@ -223,6 +357,30 @@ public class SfcGeniusRpcClient {
      * @return the IP addresses.
      */
     public List<IpAddress> getDpnIpFromGeniusRPC(DpnIdType theDpnIdType) {
+        try {
+            return getDpnIp(theDpnIdType).get();
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.error("getDpnIpFromGeniusRPC failed due to exception", e);
+            throw new SfcGeniusRuntimeException(e);
+        }
+    }
+
+    /**
+     * Asynchronously get the IP addresses of a DPN, from the cache or from
+     * Genius.
+     *
+     * @param theDpnIdType the dataplane id.
+     * @return a future of the IP addresses, failed with a
+     *         {@link SfcGeniusRuntimeException} if the Genius RPC service is
+     *         not available
+     * @see #getDpnIpFromGeniusRPC(DpnIdType)
+     */
+    public ListenableFuture<List<IpAddress>> getDpnIp(DpnIdType theDpnIdType) {
+        return getCached(dpnIpCache, theDpnIdType.getValue(), () -> readDpnIp(theDpnIdType),
+            localIps -> !localIps.isEmpty());
+    }
+
+    private ListenableFuture<List<IpAddress>> readDpnIp(DpnIdType theDpnIdType) {
         GetEndpointIpForDpnInputBuilder builder = new GetEndpointIpForDpnInputBuilder();
         builder.setDpid(theDpnIdType.getValue());
         GetEndpointIpForDpnInput input = builder.build();
@@ -230,26 +388,98 @@ public class SfcGeniusRpcClient {
 
         if (service == null) {
             LOG.error("Genius RPC service not available", input);
-            throw new SfcGeniusRuntimeException(new RuntimeException("Genius RPC service not available"));
+            return Futures.immediateFailedFuture(
+                    new SfcGeniusRuntimeException(new RuntimeException("Genius RPC service not available")));
         }
 
+        return Futures.transform(service.getEndpointIpForDpn(input),
+            (RpcResult<GetEndpointIpForDpnOutput> output) -> {
+                if (!output.isSuccessful()) {
+                    LOG.warn("getDpnIpFromGeniusRPC({}) failed: {}", input, output);
+                    return Collections.emptyList();
+                }
+                List<IpAddress> localIps = output.getResult().getLocalIps();
+                LOG.trace("getDpnIpFromGeniusRPC({}) succeeded: {}", input, output);
+                return localIps != null ? localIps : Collections.emptyList();
+            }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Invalidate the cached tunnel interfaces between two DPNs, and their
+     * cached endpoint IPs.
+     *
+     * @param srcDpid
+     *            DPN ID for the source dataplane node
+     * @param dstDpid
+     *            DPN ID for the target dataplane node
+     */
+    public void invalidateTunnel(BigInteger srcDpid, BigInteger dstDpid) {
+        LOG.debug("invalidateTunnel: src dpnid:{} dst dpnid:{}", srcDpid, dstDpid);
+        tunnelInterfaceCache.invalidate(Arrays.asList(srcDpid, dstDpid));
+        dpnIpCache.invalidate(srcDpid);
+        dpnIpCache.invalidate(dstDpid);
+    }
+
+    /**
+     * Invalidate the cached DPN of an interface.
+     *
+     * @param interfaceName
+     *            the interface name
+     */
+    public void invalidateInterface(String interfaceName) {
+        LOG.debug("invalidateInterface: interface:{}", interfaceName);
+        interfaceDpnCache.invalidate(interfaceName);
+    }
+
+    public CacheStats getTunnelInterfaceCacheStats() {
+        return tunnelInterfaceCache.stats();
+    }
+
+    public CacheStats getDpnIpCacheStats() {
+        return dpnIpCache.stats();
+    }
+
+    public CacheStats getInterfaceDpnCacheStats() {
+        return interfaceDpnCache.stats();
+    }
+
+    /*
+     * Get the future result for a key from a cache, invoking the RPC on a
+     * miss. Concurrent requests for the same key share the RPC in progress.
+     * A result that fails, or that the predicate deems not cacheable, is
+     * removed from the cache once known.
+     */
+    private static <K, V> ListenableFuture<V> getCached(Cache<K, ListenableFuture<V>> cache, K key,
+            Supplier<ListenableFuture<V>> rpc, Predicate<V> cacheable) {
+        ListenableFuture<V> future;
         try {
-            RpcResult<GetEndpointIpForDpnOutput> output = service.getEndpointIpForDpn(input).get();
-            if (!output.isSuccessful()) {
-                LOG.warn("getDpnIpFromGeniusRPC({}) failed: {}", input, output);
-                return Collections.emptyList();
-            }
-            List<IpAddress> localIps = output.getResult().getLocalIps();
-            LOG.trace("getDpnIpFromGeniusRPC({}) succeeded: {}", input, output);
-            if (localIps != null) {
-                return localIps;
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            LOG.error("getDpnIpFromGeniusRPC failed due to exception", e);
-            throw new SfcGeniusRuntimeException(e);
+            future = cache.get(key, () -> {
+                ListenableFuture<V> rpcFuture = rpc.get();
+                rpcFuture.addListener(() -> removeIfNotCacheable(cache, key, rpcFuture, cacheable),
+                        MoreExecutors.directExecutor());
+                return rpcFuture;
+            });
+        } catch (ExecutionException e) {
+            return Futures.immediateFailedFuture(e.getCause());
+        }
+        // The RPC may have completed before its future was cached
+        if (future.isDone()) {
+            removeIfNotCacheable(cache, key, future, cacheable);
         }
+        return future;
+    }
 
-        return Collections.emptyList();
+    private static <K, V> void removeIfNotCacheable(Cache<K, ListenableFuture<V>> cache, K key,
+            ListenableFuture<V> future, Predicate<V> cacheable) {
+        boolean isCacheable;
+        try {
+            isCacheable = cacheable.test(Futures.getDone(future));
+        } catch (ExecutionException | CancellationException e) {
+            isCacheable = false;
+        }
+        if (!isCacheable) {
+            cache.asMap().remove(key, future);
+        }
     }
 
     private ItmRpcService getItmRpcService() {
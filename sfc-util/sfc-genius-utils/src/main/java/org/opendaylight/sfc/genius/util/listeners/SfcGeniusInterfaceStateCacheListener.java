@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2018 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.genius.util.listeners;
+
+import javax.annotation.Nonnull;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.genius.util.SfcGeniusRpcClient;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.interfaces.rev140508.InterfacesState;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.interfaces.rev140508.interfaces.state.Interface;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * This class listens to changes in the interface state to invalidate the
+ * interface DPNs cached by the {@link SfcGeniusRpcClient}, as an interface
+ * may move to another DPN when its VM migrates.
+ */
+public class SfcGeniusInterfaceStateCacheListener extends AbstractSyncDataTreeChangeListener<Interface> {
+
+    private final SfcGeniusRpcClient rpcClient;
+
+    public SfcGeniusInterfaceStateCacheListener(DataBroker dataBroker, SfcGeniusRpcClient rpcClient) {
+        super(dataBroker, LogicalDatastoreType.OPERATIONAL,
+              InstanceIdentifier.create(InterfacesState.class).child(Interface.class));
+        this.rpcClient = rpcClient;
+    }
+
+    @Override
+    public void add(@Nonnull InstanceIdentifier<Interface> instanceIdentifier, @Nonnull Interface newInterface) {
+        rpcClient.invalidateInterface(newInterface.getName());
+    }
+
+    @Override
+    public void remove(@Nonnull InstanceIdentifier<Interface> instanceIdentifier,
+                       @Nonnull Interface removedInterface) {
+        rpcClient.invalidateInterface(removedInterface.getName());
+    }
+
+    @Override
+    public void update(@Nonnull InstanceIdentifier<Interface> instanceIdentifier,
+                       @Nonnull Interface originalInterface,
+                       @Nonnull Interface updatedInterface) {
+        rpcClient.invalidateInterface(updatedInterface.getName());
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2018 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.genius.util.listeners;
+
+import javax.annotation.Nonnull;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.serviceutils.tools.mdsal.listener.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.genius.util.SfcGeniusRpcClient;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.itm.op.rev160406.TunnelList;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.itm.op.rev160406.tunnel.list.InternalTunnel;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * This class listens to changes in the ITM internal tunnels to invalidate
+ * the tunnel interfaces and DPN IPs cached by the {@link SfcGeniusRpcClient}.
+ */
+public class SfcGeniusItmTunnelCacheListener extends AbstractSyncDataTreeChangeListener<InternalTunnel> {
+
+    private final SfcGeniusRpcClient rpcClient;
+
+    public SfcGeniusItmTunnelCacheListener(DataBroker dataBroker, SfcGeniusRpcClient rpcClient) {
+        super(dataBroker, LogicalDatastoreType.CONFIGURATION,
+              InstanceIdentifier.create(TunnelList.class).child(InternalTunnel.class));
+        this.rpcClient = rpcClient;
+    }
+
+    @Override
+    public void add(@Nonnull InstanceIdentifier<InternalTunnel> instanceIdentifier,
+                    @Nonnull InternalTunnel tunnel) {
+        // A previous lookup may have cached the fallback tunnel type
+        invalidate(tunnel);
+    }
+
+    @Override
+    public void remove(@Nonnull InstanceIdentifier<InternalTunnel> instanceIdentifier,
+                       @Nonnull InternalTunnel tunnel) {
+        invalidate(tunnel);
+    }
+
+    @Override
+    public void update(@Nonnull InstanceIdentifier<InternalTunnel> instanceIdentifier,
+                       @Nonnull InternalTunnel originalTunnel,
+                       @Nonnull InternalTunnel updatedTunnel) {
+        invalidate(updatedTunnel);
+    }
+
+    private void invalidate(InternalTunnel tunnel) {
+        rpcClient.invalidateTunnel(tunnel.getSourceDPN(), tunnel.getDestinationDPN());
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2018 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.genius.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.mdsal.binding.api.RpcConsumerRegistry;
+import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.sff.logical.rev160620.DpnIdType;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rpcs.rev160406.GetDpidFromInterfaceOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rpcs.rev160406.GetDpidFromInterfaceOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rpcs.rev160406.GetEndpointIpForDpnOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rpcs.rev160406.GetEndpointIpForDpnOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rpcs.rev160406.OdlInterfaceRpcService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.itm.rpcs.rev160406.GetTunnelInterfaceNameOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.itm.rpcs.rev160406.GetTunnelInterfaceNameOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.itm.rpcs.rev160406.ItmRpcService;
+import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
+
+/**
+ * This class contains unit tests for the caching of the Genius RPC results
+ * by SfcGeniusRpcClient.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SfcGeniusRpcClientTest {
+
+    private static final String INTERFACE_NAME = "tap0";
+    private static final String TUNNEL_INTERFACE_NAME = "tun0";
+    private static final DpnIdType SRC_DPN = new DpnIdType(BigInteger.ONE);
+    private static final DpnIdType DST_DPN = new DpnIdType(BigInteger.TEN);
+    private static final List<IpAddress> DPN_IPS = Collections.singletonList(
+            new IpAddress(new Ipv4Address("192.168.0.1")));
+
+    @Mock
+    private RpcConsumerRegistry rpcRegistry;
+
+    @Mock
+    private DataBroker dataBroker;
+
+    @Mock
+    private ItmRpcService itmRpcService;
+
+    @Mock
+    private OdlInterfaceRpcService interfaceRpcService;
+
+    private SfcGeniusRpcClient rpcClient;
+
+    @Before
+    public void setUp() {
+        when(rpcRegistry.getRpcService(ItmRpcService.class)).thenReturn(itmRpcService);
+        when(rpcRegistry.getRpcService(OdlInterfaceRpcService.class)).thenReturn(interfaceRpcService);
+        GetTunnelInterfaceNameOutput tunnelOutput = new GetTunnelInterfaceNameOutputBuilder()
+                .setInterfaceName(TUNNEL_INTERFACE_NAME).build();
+        when(itmRpcService.getTunnelInterfaceName(any()))
+                .thenReturn(RpcResultBuilder.success(tunnelOutput).buildFuture());
+        GetDpidFromInterfaceOutput dpidOutput = new GetDpidFromInterfaceOutputBuilder()
+                .setDpid(SRC_DPN.getValue()).build();
+        when(interfaceRpcService.getDpidFromInterface(any()))
+                .thenReturn(RpcResultBuilder.success(dpidOutput).buildFuture());
+        GetEndpointIpForDpnOutput ipOutput = new GetEndpointIpForDpnOutputBuilder().setLocalIps(DPN_IPS).build();
+        when(interfaceRpcService.getEndpointIpForDpn(any()))
+                .thenReturn(RpcResultBuilder.success(ipOutput).buildFuture());
+        rpcClient = new SfcGeniusRpcClient(rpcRegistry, dataBroker);
+    }
+
+    @Test
+    public void listenersAreRegisteredOnInit() {
+        verifyZeroInteractions(dataBroker);
+        rpcClient.init();
+        verify(dataBroker, times(2)).registerDataTreeChangeListener(any(), any());
+    }
+
+    @Test
+    public void targetInterfaceIsCached() {
+        assertThat(rpcClient.getTargetInterfaceFromGeniusRPC(SRC_DPN, DST_DPN), is(Optional.of(
+                TUNNEL_INTERFACE_NAME)));
+        assertThat(rpcClient.getTargetInterfaceFromGeniusRPC(SRC_DPN, DST_DPN), is(Optional.of(
+                TUNNEL_INTERFACE_NAME)));
+        verify(itmRpcService, times(1)).getTunnelInterfaceName(any());
+        assertThat(rpcClient.getTunnelInterfaceCacheStats().hitCount(), is(1L));
+
+        rpcClient.invalidateTunnel(SRC_DPN.getValue(), DST_DPN.getValue());
+        rpcClient.getTargetInterfaceFromGeniusRPC(SRC_DPN, DST_DPN);
+        verify(itmRpcService, times(2)).getTunnelInterfaceName(any());
+    }
+
+    @Test
+    public void targetInterfaceNotFoundIsNotCached() {
+        when(itmRpcService.getTunnelInterfaceName(any())).thenReturn(
+                RpcResultBuilder.<GetTunnelInterfaceNameOutput>failed().buildFuture());
+        assertThat(rpcClient.getTargetInterfaceFromGeniusRPC(SRC_DPN, DST_DPN), is(Optional.empty()));
+        assertThat(rpcClient.getTargetInterfaceFromGeniusRPC(SRC_DPN, DST_DPN), is(Optional.empty()));
+        // Both the vxlan-gpe and the vxlan tunnel types are tried each time
+        verify(itmRpcService, times(4)).getTunnelInterfaceName(any());
+    }
+
+    @Test
+    public void dpnIdIsCached() {
+        assertThat(rpcClient.getDpnIdFromInterfaceNameFromGeniusRPC(INTERFACE_NAME), is(Optional.of(SRC_DPN)));
+        assertThat(rpcClient.getDpnIdFromInterfaceNameFromGeniusRPC(INTERFACE_NAME), is(Optional.of(SRC_DPN)));
+        verify(interfaceRpcService, times(1)).getDpidFromInterface(any());
+
+        rpcClient.invalidateInterface(INTERFACE_NAME);
+        rpcClient.getDpnIdFromInterfaceNameFromGeniusRPC(INTERFACE_NAME);
+        verify(interfaceRpcService, times(2)).getDpidFromInterface(any());
+    }
+
+    @Test
+    public void dpnIpIsCachedAndInvalidatedWithTunnel() {
+        assertThat(rpcClient.getDpnIpFromGeniusRPC(DST_DPN), is(DPN_IPS));
+        assertThat(rpcClient.getDpnIpFromGeniusRPC(DST_DPN), is(DPN_IPS));
+        verify(interfaceRpcService, times(1)).getEndpointIpForDpn(any());
+
+        rpcClient.invalidateTunnel(SRC_DPN.getValue(), DST_DPN.getValue());
+        rpcClient.getDpnIpFromGeniusRPC(DST_DPN);
+        verify(interfaceRpcService, times(2)).getEndpointIpForDpn(any());
+    }
+
+    @Test(expected = SfcGeniusRuntimeException.class)
+    public void dpnIpFailureIsNotCached() {
+        when(interfaceRpcService.getEndpointIpForDpn(any())).thenReturn(
+                RpcResultBuilder.<GetEndpointIpForDpnOutput>failed().buildFuture());
+        assertThat(rpcClient.getDpnIpFromGeniusRPC(DST_DPN).isEmpty(), is(true));
+        assertThat(rpcClient.getDpnIpFromGeniusRPC(DST_DPN).isEmpty(), is(true));
+        verify(interfaceRpcService, times(2)).getEndpointIpForDpn(any());
+
+        when(rpcRegistry.getRpcService(OdlInterfaceRpcService.class)).thenReturn(null);
+        new SfcGeniusRpcClient(rpcRegistry, dataBroker).getDpnIpFromGeniusRPC(DST_DPN);
+    }
+
+    @Test
+    public void resultsAreNotCachedWithoutDataBroker() {
+        rpcClient = new SfcGeniusRpcClient(rpcRegistry);
+        rpcClient.getDpnIdFromInterfaceNameFromGeniusRPC(INTERFACE_NAME);
+        rpcClient.getDpnIdFromInterfaceNameFromGeniusRPC(INTERFACE_NAME);
+        verify(interfaceRpcService, times(2)).getDpidFromInterface(any());
+    }
+}
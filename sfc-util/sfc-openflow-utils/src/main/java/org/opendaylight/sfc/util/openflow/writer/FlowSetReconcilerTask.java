@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2018 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.openflow.writer;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.Table;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A thread class used to reconcile the flows of a switch on the data store. It
+ * receives the flows to write and the flows to remove at object instantiation
+ * time - AKA constructor. The flows are written and removed together in a
+ * single data store transaction, so the switch never misses the flows that
+ * did not change.
+ */
+public class FlowSetReconcilerTask implements Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(FlowSetReconcilerTask.class);
+    private final Set<FlowDetails> flowsToWrite = new HashSet<>();
+    private final Set<FlowDetails> flowsToDelete = new HashSet<>();
+    private final DataBroker dataProvider;
+
+    public FlowSetReconcilerTask(DataBroker dataProvider, Set<FlowDetails> flowsToWrite,
+            Set<FlowDetails> flowsToDelete) {
+        this.dataProvider = dataProvider;
+        this.flowsToWrite.addAll(flowsToWrite);
+        this.flowsToDelete.addAll(flowsToDelete);
+    }
+
+    @Override
+    public void run() {
+        WriteTransaction trans = dataProvider.newWriteOnlyTransaction();
+
+        LOG.debug("FlowSetReconcilerTask: starting addition of {} flows and deletion of {} flows",
+                flowsToWrite.size(), flowsToDelete.size());
+
+        for (FlowDetails f : flowsToDelete) {
+            trans.delete(LogicalDatastoreType.CONFIGURATION, getFlowIid(f));
+        }
+
+        for (FlowDetails f : flowsToWrite) {
+            trans.put(LogicalDatastoreType.CONFIGURATION, getFlowIid(f), f.getFlow(), true);
+        }
+
+        ListenableFuture<Void> submitFuture = trans.submit();
+
+        try {
+            submitFuture.get();
+        } catch (ExecutionException | InterruptedException e) {
+            LOG.error("FlowSetReconcilerTask: Transaction failed. Message: {}", e.getMessage(), e);
+        }
+    }
+
+    private static InstanceIdentifier<Flow> getFlowIid(FlowDetails f) {
+        NodeKey theKey = new NodeKey(new NodeId(f.getSffNodeName()));
+        return InstanceIdentifier.builder(Nodes.class).child(Node.class, theKey)
+                .augmentation(FlowCapableNode.class).child(Table.class, f.getTableKey())
+                .child(Flow.class, f.getFlowKey()).build();
+    }
+}
@@ -8,14 +8,17 @@
 
 package org.opendaylight.sfc.util.openflow.writer;
 
+import com.google.common.base.Optional;
 import com.google.common.eventbus.EventBus;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
@@ -24,13 +27,17 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
 import org.opendaylight.sfc.util.openflow.OpenflowConstants;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.Table;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.Group;
@@ -62,18 +69,43 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
 
     private final ExecutorService threadPoolExecutorService;
 
-    private FlowBuilder flowBuilder;
+    // Ordered, single threaded executors used when the writer is sharded. The
+    // flows of a given SFF are always handled by the same shard, so ordering
+    // is kept per switch while different switches are committed in parallel
+    private final List<ExecutorService> shardExecutorServices;
+
+    private volatile FlowBuilder flowBuilder;
 
     // Store all flows associated w/ each rendered service path,
-    // indexed by the corresponding SFFs
+    // indexed by the corresponding SFFs. Guarded by itself, since RSPs
+    // are rendered in parallel
     private final Map<Long, Map<String, List<FlowDetails>>> rspNameToFlowsMap;
 
+    // Flows previously stored for the RSPs being reconciled, indexed by the
+    // corresponding SFFs. See beginRspReconciliation()
+    private final Map<Long, Map<String, List<FlowDetails>>> rspFlowsBeingReconciled;
+
+    // Flows found on the config data store by recoverFlows(), indexed by
+    // their location, until claimed by the RSP they belong to
+    private final Map<FlowDetails, Flow> recoveredFlows;
+
+    // The SFFs whose flows have been recovered so far
+    private final Set<String> recoveredSffNodeNames;
+
+    // Tells the flows of this writer apart while the flows are being
+    // recovered, null otherwise
+    private volatile Predicate<Flow> recoveredFlowFilter;
+
+    // The RSPs being reconciled by each thread, restored by purgeFlows()
+    private final ThreadLocal<Set<Long>> rspIdsBeingReconciled;
+
     // temporary list of flows to be deleted. All of them will be deleted when
-    // deleteFlowSet() is called
-    private final Set<FlowDetails> setOfFlowsToDelete;
+    // deleteFlowSet() is called. The flows are buffered per thread, so that
+    // each RSP rendered in parallel flushes or purges only its own flows
+    private final ThreadLocal<Set<FlowDetails>> setOfFlowsToDelete;
     // temporary list of flows to be added. All of them will be deleted when
-    // flushFlows() is called
-    private final Set<FlowDetails> setOfFlowsToAdd;
+    // flushFlows() is called. Buffered per thread as well
+    private final ThreadLocal<Set<FlowDetails>> setOfFlowsToAdd;
 
     private DataBroker dataProvider;
 
@@ -82,11 +114,38 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
     private final EventBus eventBus;
 
     public SfcOfFlowWriterImpl() {
+        this(1);
+    }
+
+    /**
+     * Create a flow writer that shards the pending flows by SFF node ID.
+     * Each shard is an ordered queue which commits its flows in its own write
+     * transaction, hence the flows of a single switch are written in order
+     * while independent switches are committed in parallel. When sharded, the
+     * writer neither uses nor publishes a shared transaction for the flows.
+     *
+     * @param numberOfShards
+     *            - the number of shards; 1 means a non sharded writer
+     */
+    public SfcOfFlowWriterImpl(int numberOfShards) {
+        if (numberOfShards < 1) {
+            throw new IllegalArgumentException("Invalid number of flow writer shards: " + numberOfShards);
+        }
         this.threadPoolExecutorService = Executors.newSingleThreadExecutor();
+        this.shardExecutorServices = new ArrayList<>();
+        if (numberOfShards > 1) {
+            for (int i = 0; i < numberOfShards; i++) {
+                shardExecutorServices.add(Executors.newSingleThreadExecutor());
+            }
+        }
         this.rspNameToFlowsMap = new ConcurrentHashMap<>();
+        this.rspFlowsBeingReconciled = new ConcurrentHashMap<>();
+        this.recoveredFlows = new ConcurrentHashMap<>();
+        this.recoveredSffNodeNames = ConcurrentHashMap.newKeySet();
+        this.rspIdsBeingReconciled = ThreadLocal.withInitial(HashSet::new);
         this.flowBuilder = null;
-        this.setOfFlowsToDelete = new HashSet<>();
-        this.setOfFlowsToAdd = new HashSet<>();
+        this.setOfFlowsToDelete = ThreadLocal.withInitial(HashSet::new);
+        this.setOfFlowsToAdd = ThreadLocal.withInitial(HashSet::new);
         eventBus = new EventBus();
     }
 
@@ -96,12 +155,17 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
         tx = dataProvider.newWriteOnlyTransaction();
     }
 
+    public SfcOfFlowWriterImpl(DataBroker theDataBroker, int numberOfShards) {
+        this(numberOfShards);
+        dataProvider = theDataBroker;
+    }
+
     public void setDataProvider(DataBroker dataBroker) {
         dataProvider = dataBroker;
     }
 
     @Override
-    public void injectTransaction(WriteTransaction theTx) {
+    public synchronized void injectTransaction(WriteTransaction theTx) {
         tx = theTx;
         eventBus.post(tx);
     }
@@ -118,16 +182,33 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
      */
     @Override
     public void shutdown() throws ExecutionException, InterruptedException {
-        // When we close this service we need to shutdown our executor!
+        // When we close this service we need to shutdown our executors!
         threadPoolExecutorService.shutdown();
-        if (!threadPoolExecutorService.awaitTermination(SHUTDOWN_TIME, TimeUnit.SECONDS)) {
+        shardExecutorServices.forEach(ExecutorService::shutdown);
+        shutdownExecutor(threadPoolExecutorService);
+        for (ExecutorService shardExecutorService : shardExecutorServices) {
+            shutdownExecutor(shardExecutorService);
+        }
+    }
+
+    private static void shutdownExecutor(ExecutorService executorService) throws InterruptedException {
+        if (!executorService.awaitTermination(SHUTDOWN_TIME, TimeUnit.SECONDS)) {
             LOG.error("SfcOfFlowProgrammerImpl Executor did not terminate in the specified time.");
-            List<Runnable> droppedTasks = threadPoolExecutorService.shutdownNow();
+            List<Runnable> droppedTasks = executorService.shutdownNow();
             LOG.error("SfcOfFlowProgrammerImpl Executor was abruptly shut down. [{}] tasks will not be executed.",
                     droppedTasks.size());
         }
     }
 
+    /**
+     * Check if this writer shards the flows per SFF.
+     *
+     * @return true if the flows are written by several ordered shards
+     */
+    public boolean isSharded() {
+        return !shardExecutorServices.isEmpty();
+    }
+
     @Override
     public void registerTransactionListener(Object interestedParty) {
         eventBus.register(interestedParty);
@@ -155,11 +236,12 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
         LOG.debug("writeFlow storing flow to Node {}, table {}", sffNodeName, flow.getTableId());
 
         // Add the flow to the set of flows to be added in a single transaction
-        setOfFlowsToAdd.add(new FlowDetails(sffNodeName, flow.key(), new TableKey(flow.getTableId()),
-                flowBuilder.build(), rspId));
+        FlowDetails flowDetails = new FlowDetails(sffNodeName, flow.key(), new TableKey(flow.getTableId()),
+                flow.build(), rspId);
+        setOfFlowsToAdd.get().add(flowDetails);
 
         // This will store the flow info and rspId for removal later
-        storeFlowDetails(rspId, sffNodeName, flow.key(), flow.getTableId());
+        storeFlowDetails(flowDetails);
     }
 
     @Override
@@ -168,17 +250,15 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
                 theFlowData.getFlow().getTableId());
 
         // Add the flow to the set of flows to be added in a single transaction
-        setOfFlowsToAdd.add(theFlowData);
+        setOfFlowsToAdd.get().add(theFlowData);
 
-        storeFlowDetails(theFlowData.getRspId(), theFlowData.getSffNodeName(), theFlowData.getFlowKey(),
-                theFlowData.getTableKey().getId());
+        storeFlowDetails(theFlowData);
     }
 
     @Override
     public boolean writeFlows(Collection<FlowDetails> theFlows) {
-        theFlows.forEach(flow -> storeFlowDetails(flow.getRspId(), flow.getSffNodeName(), flow.getFlowKey(),
-                flow.getTableKey().getId()));
-        return setOfFlowsToAdd.addAll(theFlows);
+        theFlows.forEach(this::storeFlowDetails);
+        return setOfFlowsToAdd.get().addAll(theFlows);
     }
 
     @Override
@@ -187,7 +267,7 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
 
         FlowDetails flowDetail = new FlowDetails(sffNodeName, flowKey, tableKey);
 
-        setOfFlowsToDelete.add(flowDetail);
+        setOfFlowsToDelete.get().add(flowDetail);
     }
 
     @Override
@@ -195,74 +275,383 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
         LOG.debug("removeFlow: removing flow with key {} from table {} in sff {}",
                 theFlowData.getFlowKey().getId().getValue(), theFlowData.getTableKey().getId(),
                 theFlowData.getSffNodeName());
-        setOfFlowsToDelete.add(theFlowData);
+        setOfFlowsToDelete.get().add(theFlowData);
     }
 
     @Override
     public boolean removeFlows(Collection<FlowDetails> theFlows) {
-        return setOfFlowsToDelete.addAll(theFlows);
+        return setOfFlowsToDelete.get().addAll(theFlows);
     }
 
     /**
      * From previous calls to writeFlowToConfig(), flows were stored per table
      * and per SFF. Now the flows will be written, one table at at time per SFF.
+     * Only the flows buffered by the calling thread are written.
      */
     @Override
     @SuppressWarnings("checkstyle:IllegalCatch")
     public void flushFlows() {
-        LOG.info("flushFlows: creating flowWriter task, writing [{}] flows.", setOfFlowsToAdd.size());
+        Set<FlowDetails> flowsToAdd = setOfFlowsToAdd.get();
+        Predicate<Flow> isOwnFlow = recoveredFlowFilter;
+        if (isOwnFlow != null) {
+            claimRecoveredFlows(flowsToAdd, isOwnFlow);
+        }
+        LOG.info("flushFlows: creating flowWriter task, writing [{}] flows.", flowsToAdd.size());
 
-        if (setOfFlowsToAdd.isEmpty()) {
+        if (flowsToAdd.isEmpty()) {
             return;
         }
 
-        FlowSetWriterTask writerThread = tx == null ? new FlowSetWriterTask(dataProvider, setOfFlowsToAdd)
-                : new FlowSetWriterTask(setOfFlowsToAdd, tx);
+        if (isSharded()) {
+            try {
+                shardFlows(flowsToAdd).forEach((shard, flows) -> shardExecutorServices.get(shard)
+                        .execute(new FlowSetWriterTask(dataProvider, flows)));
+            } catch (Exception ex) {
+                LOG.error(LOGSTR_THREAD_EXCEPTION, ex.toString(), ex);
+            }
+            flowsToAdd.clear();
+            return;
+        }
 
-        try {
-            threadPoolExecutorService.execute(writerThread);
-        } catch (Exception ex) {
-            LOG.error(LOGSTR_THREAD_EXCEPTION, ex.toString(), ex);
-        } finally {
-            updateTransactionObject();
+        // the task gets its own copy, the buffer of this thread is reused
+        Set<FlowDetails> flows = new HashSet<>(flowsToAdd);
+        synchronized (this) {
+            FlowSetWriterTask writerThread = tx == null ? new FlowSetWriterTask(dataProvider, flows)
+                    : new FlowSetWriterTask(flows, tx);
+
+            try {
+                threadPoolExecutorService.execute(writerThread);
+            } catch (Exception ex) {
+                LOG.error(LOGSTR_THREAD_EXCEPTION, ex.toString(), ex);
+            } finally {
+                updateTransactionObject();
+            }
         }
         // Clear the entries
-        setOfFlowsToAdd.clear();
+        flowsToAdd.clear();
     }
 
     /**
      * Purge any unwritten flows not written-deleted yet. This should be called
-     * upon errors, when the remaining buffered flows should not be persisted
+     * upon errors, when the remaining buffered flows should not be persisted.
+     * Only the flows buffered by the calling thread are purged, and only the
+     * reconciliations started by the calling thread are rolled back.
      */
     @Override
     public void purgeFlows() {
-        setOfFlowsToAdd.clear();
-        setOfFlowsToDelete.clear();
+        setOfFlowsToAdd.get().clear();
+        setOfFlowsToDelete.get().clear();
+
+        // Reconciliations not completed keep the flows previously written
+        Set<Long> reconciledRspIds = rspIdsBeingReconciled.get();
+        synchronized (rspNameToFlowsMap) {
+            reconciledRspIds.forEach(rspId -> {
+                Map<String, List<FlowDetails>> previousFlows = rspFlowsBeingReconciled.remove(rspId);
+                if (previousFlows != null) {
+                    rspNameToFlowsMap.put(rspId, previousFlows);
+                }
+            });
+        }
+        reconciledRspIds.clear();
     }
 
     /**
-     * storeFlowDetails Store the flow details so the flows are easy to delete.
-     * later
+     * Get the flows buffered by the calling thread to be added. Used mainly in
+     * Unit Testing.
      *
-     * @param sffNodeName
-     *            - the SFF the flow is written to
-     * @param flowKey
-     *            - the flow key of the new flow
-     * @param tableId
-     *            - the table the flow was written to
+     * @return the flows to be added when flushFlows() is called
+     */
+    public Set<FlowDetails> getFlowsToAdd() {
+        return setOfFlowsToAdd.get();
+    }
+
+    /**
+     * Get the flows buffered by the calling thread to be deleted. Used mainly
+     * in Unit Testing.
+     *
+     * @return the flows to be deleted when deleteFlowSet() is called
+     */
+    public Set<FlowDetails> getFlowsToDelete() {
+        return setOfFlowsToDelete.get();
+    }
+
+    /**
+     * storeFlowDetails Store the flow details so the flows are easy to delete
+     * later, and to compare with when the RSP is reconciled.
+     *
+     * @param flowDetails
+     *            - the flow written, with its SFF, table, key and rspId
      */
-    private void storeFlowDetails(final Long rspId, final String sffNodeName, FlowKey flowKey, short tableId) {
+    private void storeFlowDetails(FlowDetails flowDetails) {
+        final Long rspId = flowDetails.getRspId();
+        final String sffNodeName = flowDetails.getSffNodeName();
         LOG.debug("storeFlowDetails - gonna store rspId: {}, sffName: {}", rspId, sffNodeName);
-        if (!rspNameToFlowsMap.containsKey(rspId)) {
-            rspNameToFlowsMap.put(rspId, new HashMap<>());
+        synchronized (rspNameToFlowsMap) {
+            rspNameToFlowsMap.computeIfAbsent(rspId, theRspId -> new HashMap<>())
+                    .computeIfAbsent(sffNodeName, theSffNodeName -> new ArrayList<>()).add(flowDetails);
         }
+    }
 
-        if (!rspNameToFlowsMap.get(rspId).containsKey(sffNodeName)) {
-            rspNameToFlowsMap.get(rspId).put(sffNodeName, new ArrayList<>());
+    /**
+     * Start reconciling the flows of an already rendered RSP. The flows stored
+     * so far for the RSP are set aside; the flows written for the RSP from now
+     * on are the desired flows, which are compared against the previous ones
+     * when reconcileRspFlows() is called.
+     *
+     * @param rspId
+     *            - the rspId to reconcile the flows of
+     */
+    @Override
+    public void beginRspReconciliation(final Long rspId) {
+        synchronized (rspNameToFlowsMap) {
+            Map<String, List<FlowDetails>> previousFlows = rspNameToFlowsMap.remove(rspId);
+            rspFlowsBeingReconciled.put(rspId, previousFlows == null ? new HashMap<>() : previousFlows);
         }
+        rspIdsBeingReconciled.get().add(rspId);
+    }
 
-        rspNameToFlowsMap.get(rspId).get(sffNodeName)
-                .add(new FlowDetails(sffNodeName, flowKey, new TableKey(tableId), rspId));
+    /**
+     * Write only the differences between the desired flows of an RSP, buffered
+     * since beginRspReconciliation() was called, and the flows previously
+     * written for it: new and modified flows are written, and flows no longer
+     * desired are removed. Unchanged flows are not touched. The differences
+     * of each SFF are committed in a single transaction. Buffered flows of
+     * other RSPs are left to be written by flushFlows().
+     *
+     * @param rspId
+     *            - the rspId to reconcile the flows of
+     */
+    @Override
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    public void reconcileRspFlows(final Long rspId) {
+        rspIdsBeingReconciled.get().remove(rspId);
+        Map<String, List<FlowDetails>> previousFlows = rspFlowsBeingReconciled.remove(rspId);
+        if (previousFlows == null) {
+            LOG.warn("reconcileRspFlows() RSP [{}] is not being reconciled", rspId);
+            return;
+        }
+
+        Map<FlowDetails, Flow> previousFlowsByLocation = new HashMap<>();
+        previousFlows.values().forEach(flowsPerSff -> flowsPerSff
+            .forEach(flow -> previousFlowsByLocation.put(getFlowLocation(flow), flow.getFlow())));
+
+        Map<String, Set<FlowDetails>> flowsToWritePerSff = new HashMap<>();
+        Map<String, Set<FlowDetails>> flowsToDeletePerSff = new HashMap<>();
+        Set<FlowDetails> desiredLocations = new HashSet<>();
+        int unchangedFlows = 0;
+        Iterator<FlowDetails> flowsToAddIter = setOfFlowsToAdd.get().iterator();
+        while (flowsToAddIter.hasNext()) {
+            FlowDetails flow = flowsToAddIter.next();
+            if (!rspId.equals(flow.getRspId())) {
+                continue;
+            }
+            flowsToAddIter.remove();
+            FlowDetails location = getFlowLocation(flow);
+            desiredLocations.add(location);
+            if (Objects.equals(previousFlowsByLocation.get(location), flow.getFlow())) {
+                unchangedFlows++;
+            } else {
+                flowsToWritePerSff.computeIfAbsent(flow.getSffNodeName(), sff -> new HashSet<>()).add(flow);
+            }
+        }
+        previousFlowsByLocation.keySet().stream().filter(location -> !desiredLocations.contains(location))
+            .forEach(location -> flowsToDeletePerSff.computeIfAbsent(location.getSffNodeName(),
+                sff -> new HashSet<>()).add(location));
+
+        LOG.info("reconcileRspFlows: RSP [{}] writing [{}] flows, removing [{}] flows, [{}] flows unchanged", rspId,
+                flowsToWritePerSff.values().stream().mapToInt(Set::size).sum(),
+                flowsToDeletePerSff.values().stream().mapToInt(Set::size).sum(), unchangedFlows);
+
+        Set<String> sffNodeNames = new HashSet<>(flowsToWritePerSff.keySet());
+        sffNodeNames.addAll(flowsToDeletePerSff.keySet());
+        for (String sffNodeName : sffNodeNames) {
+            try {
+                getExecutorService(sffNodeName).execute(new FlowSetReconcilerTask(dataProvider,
+                        flowsToWritePerSff.getOrDefault(sffNodeName, new HashSet<>()),
+                        flowsToDeletePerSff.getOrDefault(sffNodeName, new HashSet<>())));
+            } catch (Exception ex) {
+                LOG.error(LOGSTR_THREAD_EXCEPTION, ex.toString(), ex);
+            }
+        }
+    }
+
+    /**
+     * Recover the flows already on the config data store, typically after a
+     * controller restart, when the flows of the RSPs are not known anymore.
+     * The flows of each SFF are read the first time the SFF is rendered or
+     * reconnects, and indexed by location: the RSPs rendered from now on
+     * claim the recovered flows at the location of their own flows, and the
+     * flows found unchanged are not written again. Hence rendering again the
+     * RSPs after a restart only writes the flows that changed.
+     *
+     * @param isOwnFlow
+     *            - tells the flows written by this writer from the flows of
+     *            other applications on the same tables, such as the classifier
+     */
+    @Override
+    public void recoverFlows(Predicate<Flow> isOwnFlow) {
+        recoveredFlows.clear();
+        recoveredSffNodeNames.clear();
+        recoveredFlowFilter = isOwnFlow;
+        LOG.info("recoverFlows: recovering the flows of each SFF when first rendered");
+    }
+
+    /**
+     * Read the flows of an SFF from the config data store, if not read yet
+     * since the recovery started.
+     *
+     * @param sffNodeName
+     *            - the SFF node name
+     * @param isOwnFlow
+     *            - tells the flows to recover
+     */
+    private void recoverSffFlows(String sffNodeName, Predicate<Flow> isOwnFlow) {
+        if (!recoveredSffNodeNames.add(sffNodeName)) {
+            return;
+        }
+
+        InstanceIdentifier<FlowCapableNode> nodeIid = InstanceIdentifier.builder(Nodes.class)
+                .child(Node.class, new NodeKey(new NodeId(sffNodeName))).augmentation(FlowCapableNode.class).build();
+        Optional<FlowCapableNode> configFlows;
+        try (ReadOnlyTransaction readTx = dataProvider.newReadOnlyTransaction()) {
+            configFlows = readTx.read(LogicalDatastoreType.CONFIGURATION, nodeIid).get();
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.error("recoverSffFlows: failed to read the flows of SFF [{}] from the data store", sffNodeName, e);
+            return;
+        }
+
+        if (configFlows == null || !configFlows.isPresent() || configFlows.get().getTable() == null) {
+            LOG.debug("recoverSffFlows: no flows to recover on SFF [{}]", sffNodeName);
+            return;
+        }
+        int numRecoveredFlows = 0;
+        for (Table table : configFlows.get().getTable()) {
+            if (table.getFlow() == null) {
+                continue;
+            }
+            for (Flow flow : table.getFlow()) {
+                if (isOwnFlow.test(flow)) {
+                    recoveredFlows.put(new FlowDetails(sffNodeName, flow.key(), table.key()), flow);
+                    numRecoveredFlows++;
+                }
+            }
+        }
+        LOG.info("recoverSffFlows: recovered [{}] flows on SFF [{}]", numRecoveredFlows, sffNodeName);
+    }
+
+    /**
+     * Stop claiming the recovered flows, once the RSPs have been rendered
+     * again. The recovered flows not claimed by any RSP belong to RSPs or SFFs
+     * removed while the controller was down, and are deleted; the flows of
+     * other applications were not recovered, hence are left untouched.
+     */
+    @Override
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    public void completeFlowRecovery() {
+        recoveredFlowFilter = null;
+        Map<String, Set<FlowDetails>> staleFlowsPerSff = new HashMap<>();
+        recoveredFlows.keySet().forEach(location -> staleFlowsPerSff.computeIfAbsent(location.getSffNodeName(),
+            sff -> new HashSet<>()).add(location));
+        LOG.info("completeFlowRecovery: deleting [{}] recovered flows not claimed by any RSP",
+                recoveredFlows.size());
+        recoveredFlows.clear();
+        recoveredSffNodeNames.clear();
+
+        staleFlowsPerSff.forEach((sffNodeName, staleFlows) -> {
+            try {
+                getExecutorService(sffNodeName).execute(new FlowSetRemoverTask(dataProvider, staleFlows));
+            } catch (Exception ex) {
+                LOG.error(LOGSTR_THREAD_EXCEPTION, ex.toString(), ex);
+            }
+        });
+    }
+
+    /**
+     * Claim the recovered flows at the location of the given flows, and drop
+     * from the given flows the ones already on the data store, unchanged.
+     *
+     * @param flows
+     *            - the flows about to be written
+     * @param isOwnFlow
+     *            - tells the flows to recover
+     */
+    private void claimRecoveredFlows(Set<FlowDetails> flows, Predicate<Flow> isOwnFlow) {
+        flows.stream().map(FlowDetails::getSffNodeName).distinct().collect(Collectors.toList())
+                .forEach(sffNodeName -> recoverSffFlows(sffNodeName, isOwnFlow));
+        int unchangedFlows = flows.size();
+        flows.removeIf(flow -> Objects.equals(recoveredFlows.remove(getFlowLocation(flow)), flow.getFlow()));
+        unchangedFlows -= flows.size();
+        LOG.debug("claimRecoveredFlows: [{}] flows recovered unchanged", unchangedFlows);
+    }
+
+    /**
+     * Reconcile the flows of an SFF with the flows actually installed on the
+     * switch, typically when the switch reconnects. The flows written for the
+     * RSPs are told apart from the flows on the switch by their table and flow
+     * id; the flows the switch is missing, or has with a different cookie,
+     * priority or instructions, are written again in a single transaction.
+     * The flows the switch has unchanged are not touched.
+     *
+     * @param sffNodeName
+     *            - the SFF node name
+     * @param switchFlows
+     *            - the flows installed on the switch, as found on the
+     *            operational data store
+     */
+    @Override
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    public void reconcileSffFlows(String sffNodeName, FlowCapableNode switchFlows) {
+        // The flows of a switch reconnecting while recovering are recovered
+        // now, they are deleted on completion if no RSP claims them
+        Predicate<Flow> isOwnFlow = recoveredFlowFilter;
+        if (isOwnFlow != null) {
+            recoverSffFlows(sffNodeName, isOwnFlow);
+        }
+
+        List<FlowDetails> expectedFlows = new ArrayList<>();
+        synchronized (rspNameToFlowsMap) {
+            rspNameToFlowsMap.values().forEach(flowsPerSff -> expectedFlows.addAll(
+                    flowsPerSff.getOrDefault(sffNodeName, new ArrayList<>())));
+        }
+
+        Map<FlowDetails, Flow> flowsOnSwitch = new HashMap<>();
+        if (switchFlows != null && switchFlows.getTable() != null) {
+            switchFlows.getTable().stream().filter(table -> table.getFlow() != null)
+                    .forEach(table -> table.getFlow().forEach(flow -> flowsOnSwitch.put(
+                            new FlowDetails(sffNodeName, flow.key(), table.key()), flow)));
+        }
+
+        Set<FlowDetails> flowsToRepair = new HashSet<>();
+        for (FlowDetails expectedFlow : expectedFlows) {
+            Flow flow = expectedFlow.getFlow();
+            if (flow == null) {
+                continue;
+            }
+            Flow flowOnSwitch = flowsOnSwitch.get(getFlowLocation(expectedFlow));
+            if (flowOnSwitch == null || !Objects.equals(flowOnSwitch.getCookie(), flow.getCookie())
+                    || !Objects.equals(flowOnSwitch.getPriority(), flow.getPriority())
+                    || !Objects.equals(flowOnSwitch.getInstructions(), flow.getInstructions())) {
+                flowsToRepair.add(expectedFlow);
+            }
+        }
+
+        LOG.info("reconcileSffFlows: SFF [{}] repairing [{}] of [{}] flows", sffNodeName, flowsToRepair.size(),
+                expectedFlows.size());
+        if (flowsToRepair.isEmpty()) {
+            return;
+        }
+
+        try {
+            getExecutorService(sffNodeName).execute(new FlowSetReconcilerTask(dataProvider, flowsToRepair,
+                    new HashSet<>()));
+        } catch (Exception ex) {
+            LOG.error(LOGSTR_THREAD_EXCEPTION, ex.toString(), ex);
+        }
+    }
+
+    // The location of a flow on the switches, regardless of its contents
+    private static FlowDetails getFlowLocation(FlowDetails flow) {
+        return new FlowDetails(flow.getSffNodeName(), flow.getFlowKey(), flow.getTableKey());
     }
 
     @Override
@@ -304,48 +693,96 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
      */
     @Override
     public void deleteRspFlows(final Long rspId) {
-        if (!rspNameToFlowsMap.containsKey(rspId)) {
-            LOG.warn("deleteRspFlows() Attempting to delete RSP [{}], and it does not exist", rspId);
-            return;
-        }
-
         List<FlowDetails> flowDetailsList = new ArrayList<>();
-        rspNameToFlowsMap.get(rspId).forEach((sffName, flowsPerSff) -> {
-            flowDetailsList.addAll(flowsPerSff);
-            flowsPerSff.clear();
-        });
+        synchronized (rspNameToFlowsMap) {
+            if (!rspNameToFlowsMap.containsKey(rspId)) {
+                LOG.warn("deleteRspFlows() Attempting to delete RSP [{}], and it does not exist", rspId);
+                return;
+            }
 
-        if (flowDetailsList.isEmpty()) {
-            LOG.warn("deleteRspFlows() no flows exist for RSP [{}]", rspId);
-            return;
-        }
+            rspNameToFlowsMap.get(rspId).forEach((sffName, flowsPerSff) -> {
+                flowDetailsList.addAll(flowsPerSff);
+                flowsPerSff.clear();
+            });
+
+            if (flowDetailsList.isEmpty()) {
+                LOG.warn("deleteRspFlows() no flows exist for RSP [{}]", rspId);
+                return;
+            }
 
-        rspNameToFlowsMap.remove(rspId);
-        setOfFlowsToDelete.addAll(flowDetailsList);
-        LOG.debug("deleteRspFlows() added {} flows to the delete list", setOfFlowsToDelete.size());
+            rspNameToFlowsMap.remove(rspId);
+        }
+        setOfFlowsToDelete.get().addAll(flowDetailsList);
+        LOG.debug("deleteRspFlows() added {} flows to the delete list", setOfFlowsToDelete.get().size());
     }
 
     @Override
     @SuppressWarnings("checkstyle:IllegalCatch")
     public void deleteFlowSet() {
-        LOG.info("deleteFlowSet: deleting {} flows", setOfFlowsToDelete.size());
+        Set<FlowDetails> flowsToDelete = setOfFlowsToDelete.get();
+        LOG.info("deleteFlowSet: deleting {} flows", flowsToDelete.size());
 
-        if (setOfFlowsToDelete.isEmpty()) {
+        if (flowsToDelete.isEmpty()) {
             return;
         }
-        FlowSetRemoverTask fsrt = tx == null ? new FlowSetRemoverTask(dataProvider, setOfFlowsToDelete)
-                : new FlowSetRemoverTask(setOfFlowsToDelete, tx);
 
-        try {
-            threadPoolExecutorService.execute(fsrt);
-        } catch (Exception ex) {
-            LOG.error(LOGSTR_THREAD_EXCEPTION, ex.toString(), ex);
-        } finally {
-            updateTransactionObject();
+        if (isSharded()) {
+            try {
+                shardFlows(flowsToDelete).forEach((shard, flows) -> shardExecutorServices.get(shard)
+                        .execute(new FlowSetRemoverTask(dataProvider, flows)));
+            } catch (Exception ex) {
+                LOG.error(LOGSTR_THREAD_EXCEPTION, ex.toString(), ex);
+            }
+            flowsToDelete.clear();
+            return;
+        }
+
+        // the task gets its own copy, the buffer of this thread is reused
+        Set<FlowDetails> flows = new HashSet<>(flowsToDelete);
+        synchronized (this) {
+            FlowSetRemoverTask fsrt = tx == null ? new FlowSetRemoverTask(dataProvider, flows)
+                    : new FlowSetRemoverTask(flows, tx);
+
+            try {
+                threadPoolExecutorService.execute(fsrt);
+            } catch (Exception ex) {
+                LOG.error(LOGSTR_THREAD_EXCEPTION, ex.toString(), ex);
+            } finally {
+                updateTransactionObject();
+            }
         }
 
         // Clear the entries
-        setOfFlowsToDelete.clear();
+        flowsToDelete.clear();
+    }
+
+    /**
+     * Split a set of flows in the shards that will handle them. All the flows
+     * of an SFF are always assigned to the same shard.
+     *
+     * @param flows
+     *            - the flows to split
+     * @return the flows to handle by each shard, indexed by shard number
+     */
+    private Map<Integer, Set<FlowDetails>> shardFlows(Set<FlowDetails> flows) {
+        return flows.stream().collect(Collectors.groupingBy(flow -> getShard(flow.getSffNodeName()),
+            Collectors.toSet()));
+    }
+
+    private int getShard(String sffNodeName) {
+        return Math.floorMod(sffNodeName.hashCode(), shardExecutorServices.size());
+    }
+
+    /**
+     * Get the executor that handles the flows of an SFF, so that they are
+     * written in order with the rest of the flows of the SFF.
+     *
+     * @param sffNodeName
+     *            - the SFF node name
+     * @return the executor handling the SFF
+     */
+    private ExecutorService getExecutorService(String sffNodeName) {
+        return isSharded() ? shardExecutorServices.get(getShard(sffNodeName)) : threadPoolExecutorService;
     }
 
     /**
@@ -356,6 +793,12 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
      */
     @Override
     public Set<NodeId> clearSffsIfNoRspExists() {
+        synchronized (rspNameToFlowsMap) {
+            return clearOrphanSffs();
+        }
+    }
+
+    private Set<NodeId> clearOrphanSffs() {
         Set<NodeId> sffNodeIDs = new HashSet<>();
 
         if (!rspNameToFlowsMap.containsKey(OpenflowConstants.SFC_FLOWS)) {
@@ -375,7 +818,7 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
             // mark this SFF as orphan
             sffNodeIDs.add(new NodeId(sffName));
             // mark the set of flows to remove from the switches
-            setOfFlowsToDelete.addAll(theInitializationFlows.get(sffName));
+            setOfFlowsToDelete.get().addAll(theInitializationFlows.get(sffName));
             // delete the cache of initialization flows of orphan SFFs
             theInitializationFlows.remove(sffName);
         });
@@ -385,7 +828,8 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
 
     /**
      * Given the name of an sff, returns the number of times that SFF is
-     * featured in RSPs.
+     * featured in RSPs. The RSPs being reconciled still feature the SFFs of
+     * their previous flows, even if they have not been written again yet.
      *
      * @param sffName
      *            the name of a service function forwarder
@@ -394,7 +838,8 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
     private long timesFeaturedInRsps(String sffName) {
         Predicate<Entry<Long, Map<String, List<FlowDetails>>>> isSffFeatured = theInputEntry -> theInputEntry.getValue()
                 .containsKey(sffName);
-        return rspNameToFlowsMap.entrySet().stream().filter(isSffFeatured).count();
+        return Stream.concat(rspNameToFlowsMap.entrySet().stream(), rspFlowsBeingReconciled.entrySet().stream())
+                .filter(isSffFeatured).map(Entry::getKey).distinct().count();
     }
 
     /**
@@ -402,7 +847,7 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
      * through the {@link EventBus}.
      */
     @Override
-    public void updateTransactionObject() {
+    public synchronized void updateTransactionObject() {
         LOG.debug("Updating the transaction object...");
         tx = dataProvider.newWriteOnlyTransaction();
         eventBus.post(tx);
@@ -11,8 +11,11 @@ package org.opendaylight.sfc.util.openflow.writer;
 import java.util.Collection;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.GroupBuilder;
@@ -63,6 +66,52 @@ public interface SfcOfFlowWriterInterface {
      */
     void deleteRspFlows(Long rspId);
 
+    /**
+     * Start reconciling the flows of an already rendered RSP: the flows
+     * written for the RSP from now on are the desired ones.
+     *
+     * @param rspId
+     *            the ID of the RSP
+     */
+    void beginRspReconciliation(Long rspId);
+
+    /**
+     * Write only the differences between the desired flows of an RSP, written
+     * since the reconciliation began, and its previous flows.
+     *
+     * @param rspId
+     *            the ID of the RSP
+     */
+    void reconcileRspFlows(Long rspId);
+
+    /**
+     * Recover the flows already on the data store, so that the RSPs rendered
+     * again after a restart only write the flows that changed. The flows of
+     * each SFF are read when the SFF is first rendered or reconnects.
+     *
+     * @param isOwnFlow
+     *            tells the flows written by this writer from the flows of
+     *            other applications on the same tables
+     */
+    void recoverFlows(Predicate<Flow> isOwnFlow);
+
+    /**
+     * Stop using the recovered flows, once the RSPs have been rendered again,
+     * and delete the recovered flows not claimed by any RSP.
+     */
+    void completeFlowRecovery();
+
+    /**
+     * Write again, in a single transaction, the flows of an SFF that its
+     * switch is missing or has with different contents.
+     *
+     * @param sffNodeName
+     *            the SFF node name
+     * @param switchFlows
+     *            the flows installed on the switch
+     */
+    void reconcileSffFlows(String sffNodeName, FlowCapableNode switchFlows);
+
     /**
      * Delete initialization flows from SFFs whenever they're no longer featured
      * in a RenderedServicePath.
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.openflow.writer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.Futures;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+public class SfcOfFlowWriterConcurrencyTest {
+
+    private static final String SFF = "openflow:1";
+
+    // the ids of the flows written to the data store
+    private Set<String> writtenFlows;
+    private SfcOfFlowWriterImpl writer;
+
+    @Before
+    public void setUp() {
+        writtenFlows = new HashSet<>();
+        DataBroker dataBroker = mock(DataBroker.class);
+        when(dataBroker.newWriteOnlyTransaction()).thenAnswer(invocation -> newTransaction());
+        writer = new SfcOfFlowWriterImpl(dataBroker, 2);
+    }
+
+    @Test
+    public void eachThreadFlushesOrPurgesItsOwnFlows() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch flowsBuffered = new CountDownLatch(2);
+        Future<?> flushed = executor.submit(() -> {
+            writer.writeFlow(1L, SFF, flow("A"));
+            writer.writeFlow(1L, SFF, flow("B"));
+            awaitQuietly(flowsBuffered);
+            writer.flushFlows();
+        });
+        Future<?> purged = executor.submit(() -> {
+            writer.writeFlow(2L, SFF, flow("C"));
+            awaitQuietly(flowsBuffered);
+            writer.purgeFlows();
+        });
+        flushed.get();
+        purged.get();
+        executor.shutdown();
+        writer.shutdown();
+
+        assertEquals(new HashSet<>(Arrays.asList("A", "B")), writtenFlows);
+        assertTrue(writer.getFlowsToAdd().isEmpty());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static FlowBuilder flow(String flowId) {
+        return new FlowBuilder().setId(new FlowId(flowId)).withKey(new FlowKey(new FlowId(flowId)))
+                .setTableId((short) 1).setPriority(100);
+    }
+
+    @SuppressWarnings("unchecked")
+    private WriteTransaction newTransaction() {
+        WriteTransaction tx = mock(WriteTransaction.class);
+        doAnswer(invocation -> {
+            InstanceIdentifier<?> iid = (InstanceIdentifier<?>) invocation.getArguments()[1];
+            synchronized (writtenFlows) {
+                return writtenFlows.add(iid.firstKeyOf(Flow.class).getId().getValue());
+            }
+        }).when(tx).put(eq(LogicalDatastoreType.CONFIGURATION), any(InstanceIdentifier.class), any(Flow.class),
+                anyBoolean());
+        when(tx.submit()).thenReturn(Futures.immediateCheckedFuture(null));
+        return tx;
+    }
+}
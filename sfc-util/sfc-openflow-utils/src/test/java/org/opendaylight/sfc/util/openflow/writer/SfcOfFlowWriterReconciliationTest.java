@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2018 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.openflow.writer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.util.openflow.OpenflowConstants;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.FlowCookie;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+public class SfcOfFlowWriterReconciliationTest {
+
+    private static final long RSP_ID = 1L;
+    private static final String SFF1 = "openflow:1";
+    private static final String SFF2 = "openflow:2";
+
+    // the committed transactions, each one as a set of "put/delete sff flowId"
+    private List<Set<String>> committedTransactions;
+    private DataBroker dataBroker;
+    private SfcOfFlowWriterImpl writer;
+
+    @Before
+    public void setUp() {
+        committedTransactions = new ArrayList<>();
+        dataBroker = mock(DataBroker.class);
+        when(dataBroker.newWriteOnlyTransaction()).thenAnswer(invocation -> newTransaction());
+        writer = new SfcOfFlowWriterImpl(dataBroker, 1);
+
+        writer.writeFlow(RSP_ID, SFF1, flow("A", 100));
+        writer.writeFlow(RSP_ID, SFF1, flow("B", 100));
+        writer.writeFlow(RSP_ID, SFF1, flow("C", 100));
+        writer.writeFlow(RSP_ID, SFF2, flow("D", 100));
+        writer.flushFlows();
+    }
+
+    @Test
+    public void reconcileWritesOnlyTheDifferences() throws Exception {
+        writer.beginRspReconciliation(RSP_ID);
+        writer.writeFlow(RSP_ID, SFF1, flow("A", 100));
+        writer.writeFlow(RSP_ID, SFF1, flow("B", 200));
+        writer.writeFlow(RSP_ID, SFF1, flow("E", 100));
+        writer.reconcileRspFlows(RSP_ID);
+        writer.flushFlows();
+        writer.shutdown();
+
+        // one transaction per SFF, in any order
+        assertEquals(3, committedTransactions.size());
+        Set<Set<String>> reconcileTransactions = new HashSet<>(committedTransactions.subList(1, 3));
+        assertTrue(reconcileTransactions.contains(new HashSet<>(Arrays.asList("put openflow:1 B",
+                "put openflow:1 E", "delete openflow:1 C"))));
+        assertTrue(reconcileTransactions.contains(new HashSet<>(Arrays.asList("delete openflow:2 D"))));
+    }
+
+    @Test
+    public void reconcileUnchangedRsp() throws Exception {
+        writer.beginRspReconciliation(RSP_ID);
+        writer.writeFlow(RSP_ID, SFF1, flow("A", 100));
+        writer.writeFlow(RSP_ID, SFF1, flow("B", 100));
+        writer.writeFlow(RSP_ID, SFF1, flow("C", 100));
+        writer.writeFlow(RSP_ID, SFF2, flow("D", 100));
+        writer.reconcileRspFlows(RSP_ID);
+        writer.flushFlows();
+
+        // the reconciled flows are the ones removed with the RSP
+        writer.deleteRspFlows(RSP_ID);
+        writer.deleteFlowSet();
+        writer.shutdown();
+
+        assertEquals(2, committedTransactions.size());
+        assertEquals(4, committedTransactions.get(1).size());
+        assertTrue(committedTransactions.get(1).stream().allMatch(operation -> operation.startsWith("delete")));
+    }
+
+    @Test
+    public void purgeRestoresTheFlowsBeingReconciled() throws Exception {
+        writer.beginRspReconciliation(RSP_ID);
+        writer.writeFlow(RSP_ID, SFF1, flow("E", 100));
+        writer.purgeFlows();
+
+        writer.deleteRspFlows(RSP_ID);
+        writer.deleteFlowSet();
+        writer.shutdown();
+
+        assertEquals(2, committedTransactions.size());
+        assertEquals(new HashSet<>(Arrays.asList("delete openflow:1 A", "delete openflow:1 B",
+                "delete openflow:1 C", "delete openflow:2 D")), committedTransactions.get(1));
+    }
+
+    @Test
+    public void sffOfRspBeingReconciledIsNotOrphan() throws Exception {
+        writer.writeFlow(OpenflowConstants.SFC_FLOWS, SFF1, flow("INIT", 0));
+        writer.flushFlows();
+
+        // another RSP is deleted while this one is being reconciled
+        writer.beginRspReconciliation(RSP_ID);
+        assertTrue(writer.clearSffsIfNoRspExists().isEmpty());
+        assertTrue(writer.getFlowsToDelete().isEmpty());
+
+        writer.writeFlow(RSP_ID, SFF2, flow("D", 100));
+        writer.reconcileRspFlows(RSP_ID);
+        writer.shutdown();
+
+        // the RSP does not feature the SFF anymore once reconciled
+        assertEquals(Collections.singleton(new NodeId(SFF1)), writer.clearSffsIfNoRspExists());
+    }
+
+    @Test
+    public void recoveredFlowsAreClaimedByTheRenderedRsps() throws Exception {
+        // X is stale, Y belongs to another application
+        FlowCapableNode configFlows = new FlowCapableNodeBuilder().setTable(Collections.singletonList(
+                new TableBuilder().setId((short) 1).setFlow(Arrays.asList(flow("A", 100).build(),
+                        flow("B", 100).build(), flow("X", 100).build(), flow("Y", 100).build())).build())).build();
+        InstanceIdentifier<FlowCapableNode> sff1Iid = InstanceIdentifier.builder(Nodes.class)
+                .child(Node.class, new NodeKey(new NodeId(SFF1))).augmentation(FlowCapableNode.class).build();
+        ReadOnlyTransaction readTx = mock(ReadOnlyTransaction.class);
+        doReturn(Futures.immediateCheckedFuture(Optional.of(configFlows))).when(readTx)
+                .read(LogicalDatastoreType.CONFIGURATION, sff1Iid);
+        when(dataBroker.newReadOnlyTransaction()).thenReturn(readTx);
+
+        // as after a restart
+        committedTransactions.clear();
+        SfcOfFlowWriterImpl recoveredWriter = new SfcOfFlowWriterImpl(dataBroker, 1);
+        recoveredWriter.recoverFlows(flow -> !"Y".equals(flow.getId().getValue()));
+        recoveredWriter.writeFlow(RSP_ID, SFF1, flow("A", 100));
+        recoveredWriter.writeFlow(RSP_ID, SFF1, flow("B", 200));
+        recoveredWriter.writeFlow(RSP_ID, SFF1, flow("C", 100));
+        recoveredWriter.flushFlows();
+        recoveredWriter.completeFlowRecovery();
+
+        // the unchanged flows are owned by the RSP even though not written
+        recoveredWriter.deleteRspFlows(RSP_ID);
+        recoveredWriter.deleteFlowSet();
+        recoveredWriter.shutdown();
+
+        assertEquals(3, committedTransactions.size());
+        assertEquals(new HashSet<>(Arrays.asList("put openflow:1 B", "put openflow:1 C")),
+                committedTransactions.get(0));
+        // only the flow not claimed by any RSP is deleted on completion
+        assertEquals(new HashSet<>(Arrays.asList("delete openflow:1 X")), committedTransactions.get(1));
+        assertEquals(new HashSet<>(Arrays.asList("delete openflow:1 A", "delete openflow:1 B",
+                "delete openflow:1 C")), committedTransactions.get(2));
+        // only the rendered SFF is read
+        verify(readTx, times(1)).read(eq(LogicalDatastoreType.CONFIGURATION), any(InstanceIdentifier.class));
+    }
+
+    @Test
+    public void reconcileSffRepairsTheMissingAndStaleFlows() throws Exception {
+        writer.writeFlow(RSP_ID, SFF1, flow("E", 300));
+        writer.writeFlow(RSP_ID, SFF1, flow("F", 400));
+        writer.writeFlow(RSP_ID, SFF1, flow("G", 500));
+        writer.flushFlows();
+
+        // F is missing and G is stale on the switch, the flow of another
+        // application is not touched
+        FlowCapableNode switchFlows = new FlowCapableNodeBuilder().setTable(Collections.singletonList(
+                new TableBuilder().setId((short) 1).setFlow(Arrays.asList(flow("A", 100).build(),
+                        flow("B", 100).build(), flow("C", 100).build(), flow("E", 300).build(),
+                        flow("G", 500).setCookie(new FlowCookie(BigInteger.TEN)).build(),
+                        flow("#UF$1", 100).build())).build())).build();
+        writer.reconcileSffFlows(SFF1, switchFlows);
+        writer.shutdown();
+
+        // the flows are repaired in a single transaction, without deleting them
+        assertEquals(3, committedTransactions.size());
+        assertEquals(new HashSet<>(Arrays.asList("put openflow:1 F", "put openflow:1 G")),
+                committedTransactions.get(2));
+    }
+
+    private static FlowBuilder flow(String flowId, int priority) {
+        return new FlowBuilder().setId(new FlowId(flowId)).withKey(new FlowKey(new FlowId(flowId)))
+                .setTableId((short) 1).setPriority(priority);
+    }
+
+    private static String operation(String type, InstanceIdentifier<?> iid) {
+        return type + " " + iid.firstKeyOf(Node.class).getId().getValue() + " "
+                + iid.firstKeyOf(Flow.class).getId().getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private WriteTransaction newTransaction() {
+        WriteTransaction tx = mock(WriteTransaction.class);
+        Set<String> operations = new HashSet<>();
+        doAnswer(invocation -> operations.add(operation("put",
+                (InstanceIdentifier<?>) invocation.getArguments()[1])))
+                .when(tx).put(eq(LogicalDatastoreType.CONFIGURATION), any(InstanceIdentifier.class), any(Flow.class),
+                anyBoolean());
+        doAnswer(invocation -> operations.add(operation("delete",
+                (InstanceIdentifier<?>) invocation.getArguments()[1])))
+                .when(tx).delete(eq(LogicalDatastoreType.CONFIGURATION), any(InstanceIdentifier.class));
+        when(tx.submit()).thenAnswer(invocation -> {
+            if (!operations.isEmpty()) {
+                synchronized (committedTransactions) {
+                    committedTransactions.add(operations);
+                }
+            }
+            return Futures.immediateCheckedFuture(null);
+        });
+        return tx;
+    }
+}
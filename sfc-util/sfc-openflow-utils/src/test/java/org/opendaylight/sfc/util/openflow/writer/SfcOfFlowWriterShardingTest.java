@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.openflow.writer;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.Futures;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * Checks that the single threaded and the per-SFF sharded flow writers
+ * commit every flow, and the flows of each SFF in RSP order. The throughput
+ * of both writers is measured by SfcOfFlowWriterShardingBenchmark in the
+ * sfc-benchmarks module.
+ */
+public class SfcOfFlowWriterShardingTest {
+
+    private static final int NUMBER_OF_RSPS = 20;
+    private static final int NUMBER_OF_SFFS = 8;
+    private static final int FLOWS_PER_SFF_AND_RSP = 5;
+    private static final int NUMBER_OF_SHARDS = 4;
+
+    // committed flow IDs, in commit order, indexed by SFF node name
+    private Map<String, List<String>> committedFlows;
+    private DataBroker dataBroker;
+
+    @Before
+    public void setUp() {
+        committedFlows = new ConcurrentHashMap<>();
+        dataBroker = mock(DataBroker.class);
+        when(dataBroker.newWriteOnlyTransaction()).thenAnswer(invocation -> newTransaction());
+    }
+
+    @Test
+    public void singleThreadedWriter() throws Exception {
+        renderRsps(new SfcOfFlowWriterImpl(dataBroker, 1));
+        checkCommittedFlows();
+    }
+
+    @Test
+    public void shardedWriter() throws Exception {
+        renderRsps(new SfcOfFlowWriterImpl(dataBroker, NUMBER_OF_SHARDS));
+        checkCommittedFlows();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidNumberOfShards() {
+        new SfcOfFlowWriterImpl(dataBroker, 0);
+    }
+
+    private void renderRsps(SfcOfFlowWriterImpl writer) throws Exception {
+        for (long rspId = 0; rspId < NUMBER_OF_RSPS; rspId++) {
+            for (int sff = 0; sff < NUMBER_OF_SFFS; sff++) {
+                for (int flow = 0; flow < FLOWS_PER_SFF_AND_RSP; flow++) {
+                    String flowId = String.format("%05d-%03d", rspId, flow);
+                    FlowBuilder flowBuilder = new FlowBuilder().setId(new FlowId(flowId))
+                            .withKey(new FlowKey(new FlowId(flowId))).setTableId((short) flow);
+                    writer.writeFlow(rspId, sffName(sff), flowBuilder);
+                }
+            }
+            writer.flushFlows();
+        }
+        // waits until all the pending tasks are executed
+        writer.shutdown();
+    }
+
+    private void checkCommittedFlows() {
+        assertEquals(NUMBER_OF_SFFS, committedFlows.size());
+        committedFlows.forEach((sff, flowIds) -> {
+            assertEquals(NUMBER_OF_RSPS * FLOWS_PER_SFF_AND_RSP, flowIds.size());
+            // flow IDs are prefixed by the RSP ID, so the per SFF commit
+            // order must match the RSP render order
+            for (int i = 1; i < flowIds.size(); i++) {
+                String previousRsp = flowIds.get(i - 1).substring(0, 5);
+                String currentRsp = flowIds.get(i).substring(0, 5);
+                assertEquals(true, previousRsp.compareTo(currentRsp) <= 0);
+            }
+        });
+    }
+
+    private static String sffName(int sff) {
+        return "openflow:" + sff;
+    }
+
+    @SuppressWarnings("unchecked")
+    private WriteTransaction newTransaction() {
+        WriteTransaction tx = mock(WriteTransaction.class);
+        Map<String, List<String>> pendingFlows = new ConcurrentHashMap<>();
+        doAnswer(invocation -> {
+            InstanceIdentifier<?> iid = (InstanceIdentifier<?>) invocation.getArguments()[1];
+            Flow flow = (Flow) invocation.getArguments()[2];
+            pendingFlows.computeIfAbsent(iid.firstKeyOf(Node.class).getId().getValue(), k -> new ArrayList<>())
+                    .add(flow.getId().getValue());
+            return null;
+        }).when(tx).put(eq(LogicalDatastoreType.CONFIGURATION), any(InstanceIdentifier.class), any(Flow.class),
+                anyBoolean());
+        when(tx.submit()).thenAnswer(invocation -> {
+            pendingFlows.forEach((sff, flowIds) -> {
+                List<String> committed = committedFlows.computeIfAbsent(sff, k -> new ArrayList<>());
+                synchronized (committed) {
+                    committed.addAll(flowIds);
+                }
+            });
+            return Futures.immediateCheckedFuture(null);
+        });
+        return tx;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.vpp;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yangtools.yang.binding.DataObject;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The configuration edits of a VPP node, accumulated in a single write
+ * transaction on its Honeycomb mount point, so that they cost one NETCONF
+ * round trip when committed instead of one per edit.
+ */
+public class SfcVppChangeSet {
+    private static final Logger LOG = LoggerFactory.getLogger(SfcVppChangeSet.class);
+
+    private final DataBroker mountPoint;
+    private final String vppNode;
+    private WriteTransaction transaction;
+    private int numEdits;
+
+    public SfcVppChangeSet(DataBroker mountPoint, String vppNode) {
+        this.mountPoint = mountPoint;
+        this.vppNode = vppNode;
+    }
+
+    public String getVppNode() {
+        return vppNode;
+    }
+
+    public DataBroker getMountPoint() {
+        return mountPoint;
+    }
+
+    public <T extends DataObject> void put(InstanceIdentifier<T> iid, T data) {
+        LOG.debug("put on vpp node {}: {} with data {}", vppNode, iid, data);
+        getTransaction().put(LogicalDatastoreType.CONFIGURATION, iid, data);
+    }
+
+    public void delete(InstanceIdentifier<?> iid) {
+        LOG.debug("delete on vpp node {}: {}", vppNode, iid);
+        getTransaction().delete(LogicalDatastoreType.CONFIGURATION, iid);
+    }
+
+    private WriteTransaction getTransaction() {
+        if (transaction == null) {
+            transaction = mountPoint.newWriteOnlyTransaction();
+        }
+        numEdits++;
+        return transaction;
+    }
+
+    /**
+     * Commit the accumulated edits in a single transaction, logging a failure
+     * of the VPP node. The change set is empty again once committed.
+     *
+     * @return the future of the commit, immediately successful if there is
+     *         nothing to commit
+     */
+    public ListenableFuture<Void> commit() {
+        if (transaction == null) {
+            return Futures.immediateFuture(null);
+        }
+
+        final int committedEdits = numEdits;
+        ListenableFuture<Void> future = transaction.submit();
+        transaction = null;
+        numEdits = 0;
+        LOG.debug("commit: {} edits on vpp node {}", committedEdits, vppNode);
+
+        Futures.addCallback(future, new FutureCallback<Void>() {
+            @Override
+            public void onSuccess(@Nullable Void result) {
+            }
+
+            @Override
+            public void onFailure(@Nonnull Throwable throwable) {
+                LOG.error("Error committing {} edits on vpp node {}", committedEdits, vppNode, throwable);
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
+    }
+}
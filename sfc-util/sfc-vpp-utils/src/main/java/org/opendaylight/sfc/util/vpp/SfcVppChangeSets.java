@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.vpp;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+
+/**
+ * The change sets of the VPP nodes touched by a render operation, one per
+ * node, to be committed together at the end of the operation.
+ */
+public class SfcVppChangeSets {
+    private final Map<String, SfcVppChangeSet> changeSets = new LinkedHashMap<>();
+
+    /**
+     * Get the change set of a VPP node, creating it on first use.
+     *
+     * @param mountPoint
+     *            the Honeycomb mount point of the node
+     * @param vppNode
+     *            the name of the node
+     * @return the change set of the node
+     */
+    public SfcVppChangeSet get(DataBroker mountPoint, String vppNode) {
+        return changeSets.computeIfAbsent(vppNode, node -> new SfcVppChangeSet(mountPoint, node));
+    }
+
+    /**
+     * Commit the change set of each VPP node, one transaction per node.
+     *
+     * @return the futures of the commits, by VPP node name
+     */
+    public Map<String, ListenableFuture<Void>> commit() {
+        Map<String, ListenableFuture<Void>> futures = new LinkedHashMap<>();
+        changeSets.forEach((vppNode, changeSet) -> futures.put(vppNode, changeSet.commit()));
+        changeSets.clear();
+        return futures;
+    }
+}
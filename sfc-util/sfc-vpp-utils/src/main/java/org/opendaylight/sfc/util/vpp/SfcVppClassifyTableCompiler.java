@@ -0,0 +1,469 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.vpp;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev130715.HexString;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.OpaqueIndex;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.PacketHandlingAction;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.VppClassifier;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.VppClassifierBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.VppNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.VppNodeName;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.classify.table.base.attributes.ClassifySession;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.classify.table.base.attributes.ClassifySessionBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.classify.table.base.attributes.ClassifySessionKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.vpp.classifier.ClassifyTable;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.vpp.classifier.ClassifyTableBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.vpp.classifier.ClassifyTableKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles the classify sessions of all the classifiers of a VPP node into a
+ * chain of classify tables, sharing a table among the sessions with the same
+ * mask whenever the order of the ACEs allows it. A packet is then looked up
+ * in about as many tables as there are distinct masks on the node, rather
+ * than in one table per ACE.
+ *
+ * <p>
+ * The sessions are ordered as the classifiers were added, then as the ACEs of
+ * each classifier, and the first session matching a packet classifies it, as
+ * for an ACL. A session is only placed in an earlier table of its mask when
+ * no session it overlaps with sits in between. Identical masks and matches
+ * are programmed once, for the first classifier; they are re-pointed to the
+ * next classifier when the first one is removed.
+ *
+ * <p>
+ * The chain is compiled again on every change, and only the differences with
+ * the tables already programmed are written: the changed sessions, and the
+ * whole tables whose mask or next table change. The ingress ACL of the
+ * classifier interfaces follows the head of the chain. The tables found on
+ * the node when its compiler is created, such as after a restart, are the
+ * starting point, so that the stale ones are removed by the first change.
+ */
+public final class SfcVppClassifyTableCompiler {
+    private static final Logger LOG = LoggerFactory.getLogger(SfcVppClassifyTableCompiler.class);
+    private static final ConcurrentMap<String, SfcVppClassifyTableCompiler> COMPILERS = new ConcurrentHashMap<>();
+    private static final String TABLE_KEY_PREFIX = "table";
+
+    private final String vppNode;
+    // The sessions of each classifier, in ACE order, by classifier name in
+    // the order the classifiers were added
+    private final Map<String, List<Session>> sessionsByClassifier = new LinkedHashMap<>();
+    // The number of classifiers attached to each ingress interface
+    private final Map<String, Integer> ingressInterfaces = new HashMap<>();
+    // The classify tables programmed on the node, in chain order
+    private List<Table> tables = new ArrayList<>();
+    private boolean vppClassifierCreated;
+    private int nextTableIndex = 0;
+
+    /**
+     * A classify session requested by a classifier: the packets matching the
+     * mask and match are steered to the service path and index.
+     */
+    public static final class Session {
+        private final HexString mask;
+        private final HexString match;
+        private final Long nsp;
+        private final Short nsi;
+
+        public Session(HexString mask, HexString match, Long nsp, Short nsi) {
+            this.mask = mask;
+            this.match = match;
+            this.nsp = nsp;
+            this.nsi = nsi;
+        }
+
+        private boolean overlaps(HexString otherMask, HexString otherMatch) {
+            byte[] maskBytes = toBytes(mask);
+            byte[] matchBytes = toBytes(match);
+            byte[] otherMaskBytes = toBytes(otherMask);
+            byte[] otherMatchBytes = toBytes(otherMatch);
+            int length = Math.min(Math.min(maskBytes.length, matchBytes.length),
+                    Math.min(otherMaskBytes.length, otherMatchBytes.length));
+            for (int i = 0; i < length; i++) {
+                int commonMask = maskBytes[i] & otherMaskBytes[i];
+                if ((matchBytes[i] & commonMask) != (otherMatchBytes[i] & commonMask)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Table {
+        private final String name;
+        private final HexString mask;
+        private final Map<HexString, ClassifySession> sessionsByMatch = new LinkedHashMap<>();
+        private String nextTable;
+
+        Table(String name, HexString mask) {
+            this.name = name;
+            this.mask = mask;
+        }
+    }
+
+    SfcVppClassifyTableCompiler(String vppNode, VppClassifier vppClassifier) {
+        this.vppNode = vppNode;
+        this.vppClassifierCreated = vppClassifier != null;
+        if (vppClassifier != null && vppClassifier.getClassifyTable() != null) {
+            loadTables(vppClassifier.getClassifyTable());
+        }
+    }
+
+    /**
+     * Get the classify table compiler of a VPP node, created from the classify
+     * tables on the node if there is none yet.
+     *
+     * @param changeSet
+     *            the change set of the node
+     * @return the compiler of the node
+     */
+    public static SfcVppClassifyTableCompiler forNode(SfcVppChangeSet changeSet) {
+        return COMPILERS.computeIfAbsent(changeSet.getVppNode(),
+            vppNode -> new SfcVppClassifyTableCompiler(vppNode, readVppClassifier(changeSet.getMountPoint(), vppNode)));
+    }
+
+    /**
+     * Add the classify sessions of a classifier, or replace them if the
+     * classifier was already added.
+     *
+     * @param changeSet
+     *            the change set of the node
+     * @param classifierName
+     *            the name of the classifier
+     * @param sessions
+     *            the sessions of the classifier, in ACE order
+     */
+    public synchronized void addClassifier(SfcVppChangeSet changeSet, String classifierName, List<Session> sessions) {
+        sessionsByClassifier.put(classifierName, new ArrayList<>(sessions));
+        compile(changeSet);
+    }
+
+    /**
+     * Remove the classify sessions of a classifier. The sessions it shared
+     * with other classifiers are kept, steering to the next classifier.
+     *
+     * @param changeSet
+     *            the change set of the node
+     * @param classifierName
+     *            the name of the classifier
+     */
+    public synchronized void removeClassifier(SfcVppChangeSet changeSet, String classifierName) {
+        if (sessionsByClassifier.remove(classifierName) == null) {
+            LOG.warn("removeClassifier: no classifier {} on vpp node {}", classifierName, vppNode);
+            return;
+        }
+        compile(changeSet);
+        releaseIfUnused();
+    }
+
+    /**
+     * Attach the classify table chain to the ingress of an interface.
+     *
+     * @param changeSet
+     *            the change set of the node
+     * @param interfaceName
+     *            the classifier interface
+     */
+    public synchronized void attachInterface(SfcVppChangeSet changeSet, String interfaceName) {
+        if (ingressInterfaces.merge(interfaceName, 1, Integer::sum) == 1 && !tables.isEmpty()) {
+            SfcVppUtils.enableIngressAcl(changeSet, interfaceName, tables.get(0).name, vppNode);
+        }
+    }
+
+    /**
+     * Detach the classify table chain from the ingress of an interface, once
+     * all the classifiers attached to the interface are detached.
+     *
+     * @param changeSet
+     *            the change set of the node
+     * @param interfaceName
+     *            the classifier interface
+     */
+    public synchronized void detachInterface(SfcVppChangeSet changeSet, String interfaceName) {
+        Integer refs = ingressInterfaces.get(interfaceName);
+        if (refs == null) {
+            return;
+        }
+        if (refs > 1) {
+            ingressInterfaces.put(interfaceName, refs - 1);
+            return;
+        }
+        ingressInterfaces.remove(interfaceName);
+        SfcVppUtils.disableIngressAcl(changeSet, interfaceName, vppNode);
+        releaseIfUnused();
+    }
+
+    // Forget the compiler of the node once it has nothing left to program
+    private void releaseIfUnused() {
+        if (sessionsByClassifier.isEmpty() && ingressInterfaces.isEmpty()) {
+            COMPILERS.remove(vppNode, this);
+        }
+    }
+
+    /**
+     * Compile the sessions of the classifiers into a chain of tables, and
+     * write the differences with the tables programmed so far.
+     */
+    private void compile(SfcVppChangeSet changeSet) {
+        // Place each session in the last table of its mask, unless a session
+        // it overlaps with is in a later table, which must be looked up first
+        List<Entry<HexString, List<Session>>> chain = new ArrayList<>();
+        Map<List<HexString>, Session> placedSessions = new HashMap<>();
+        sessionsByClassifier.forEach((classifierName, sessions) -> sessions.forEach(session -> {
+            Session placedSession = placedSessions.putIfAbsent(Arrays.asList(session.mask, session.match), session);
+            if (placedSession != null) {
+                if (!Objects.equals(placedSession.nsp, session.nsp)
+                        || !Objects.equals(placedSession.nsi, session.nsi)) {
+                    LOG.warn("compile: session {} of classifier {} on vpp node {} is shadowed by a previous ACE",
+                            session.match.getValue(), classifierName, vppNode);
+                }
+                return;
+            }
+            List<Session> tableSessions = null;
+            for (int i = chain.size() - 1; i >= 0 && tableSessions == null; i--) {
+                Entry<HexString, List<Session>> table = chain.get(i);
+                if (table.getKey().equals(session.mask)) {
+                    tableSessions = table.getValue();
+                } else if (table.getValue().stream().anyMatch(other -> other.overlaps(session.mask, session.match))) {
+                    break;
+                }
+            }
+            if (tableSessions == null) {
+                tableSessions = new ArrayList<>();
+                chain.add(new SimpleImmutableEntry<>(session.mask, tableSessions));
+            }
+            tableSessions.add(session);
+        }));
+
+        List<Table> compiledTables = new ArrayList<>();
+        Map<List<Object>, String> tableNames = getTableNames();
+        Map<HexString, Integer> maskOccurrences = new HashMap<>();
+        for (Entry<HexString, List<Session>> chainedTable : chain) {
+            int occurrence = maskOccurrences.merge(chainedTable.getKey(), 1, Integer::sum);
+            String name = tableNames.get(Arrays.asList(chainedTable.getKey(), occurrence));
+            Table table = new Table(name == null ? TABLE_KEY_PREFIX + nextTableIndex++ : name, chainedTable.getKey());
+            chainedTable.getValue().forEach(session -> table.sessionsByMatch.put(session.match,
+                    buildClassifySession(session.match, session.nsp, session.nsi)));
+            if (!compiledTables.isEmpty()) {
+                compiledTables.get(compiledTables.size() - 1).nextTable = table.name;
+            }
+            compiledTables.add(table);
+        }
+
+        writeTables(changeSet, compiledTables);
+        tables = compiledTables;
+    }
+
+    // The names of the programmed tables, by mask and occurrence of the mask
+    // in the chain, to keep the names of the tables that stay in place
+    private Map<List<Object>, String> getTableNames() {
+        Map<List<Object>, String> tableNames = new HashMap<>();
+        Map<HexString, Integer> maskOccurrences = new HashMap<>();
+        for (Table table : tables) {
+            int occurrence = maskOccurrences.merge(table.mask, 1, Integer::sum);
+            tableNames.put(Arrays.asList(table.mask, occurrence), table.name);
+        }
+        return tableNames;
+    }
+
+    private void writeTables(SfcVppChangeSet changeSet, List<Table> compiledTables) {
+        Map<String, Table> programmedTables = new HashMap<>();
+        tables.forEach(table -> programmedTables.put(table.name, table));
+
+        // the first table creates the classifier container of the node
+        if (!vppClassifierCreated && !compiledTables.isEmpty()) {
+            List<ClassifyTable> classifyTableList = new ArrayList<>();
+            compiledTables.forEach(table -> classifyTableList.add(buildClassifyTable(table)));
+            changeSet.put(InstanceIdentifier.create(VppClassifier.class),
+                    new VppClassifierBuilder().setClassifyTable(classifyTableList).build());
+            vppClassifierCreated = true;
+            LOG.info("addClassifyTables on vpp node {}: {}", vppNode, classifyTableList);
+        } else {
+            for (Table table : compiledTables) {
+                Table programmedTable = programmedTables.get(table.name);
+                if (programmedTable == null || !Objects.equals(programmedTable.mask, table.mask)
+                        || !Objects.equals(programmedTable.nextTable, table.nextTable)) {
+                    ClassifyTable classifyTable = buildClassifyTable(table);
+                    changeSet.put(buildClassifyTableIid(table.name), classifyTable);
+                    LOG.info("addClassifyTable on vpp node {}: {}", vppNode, classifyTable);
+                    continue;
+                }
+                table.sessionsByMatch.forEach((match, session) -> {
+                    if (!session.equals(programmedTable.sessionsByMatch.get(match))) {
+                        changeSet.put(buildClassifySessionIid(table.name, match), session);
+                        LOG.info("addClassifySession on vpp node {}: table: {}, session: {}", vppNode, table.name,
+                                match.getValue());
+                    }
+                });
+                programmedTable.sessionsByMatch.keySet().stream()
+                        .filter(match -> !table.sessionsByMatch.containsKey(match)).forEach(match -> {
+                            changeSet.delete(buildClassifySessionIid(table.name, match));
+                            LOG.info("removeClassifySession on vpp node {}: table: {}, session: {}", vppNode,
+                                    table.name, match.getValue());
+                        });
+            }
+        }
+
+        // the ingress ACL of the interfaces follows the head of the chain
+        String head = tables.isEmpty() ? null : tables.get(0).name;
+        String compiledHead = compiledTables.isEmpty() ? null : compiledTables.get(0).name;
+        if (!Objects.equals(head, compiledHead)) {
+            ingressInterfaces.keySet().forEach(itfName -> {
+                if (compiledHead == null) {
+                    SfcVppUtils.disableIngressAcl(changeSet, itfName, vppNode);
+                } else {
+                    SfcVppUtils.enableIngressAcl(changeSet, itfName, compiledHead, vppNode);
+                }
+            });
+        }
+
+        Set<String> compiledTableNames = new HashSet<>();
+        compiledTables.forEach(table -> compiledTableNames.add(table.name));
+        tables.stream().filter(table -> !compiledTableNames.contains(table.name)).forEach(table -> {
+            changeSet.delete(buildClassifyTableIid(table.name));
+            LOG.info("removeClassifyTable on vpp node {}: table: {}", vppNode, table.name);
+        });
+    }
+
+    /**
+     * Take the classify tables of SFC found on the node as the programmed
+     * ones, in chain order, so that they are reused or removed on the first
+     * change. The tables of other applications are left alone.
+     */
+    private void loadTables(List<ClassifyTable> classifyTables) {
+        Map<String, ClassifyTable> classifyTablesByName = new LinkedHashMap<>();
+        Set<String> nextTables = new HashSet<>();
+        for (ClassifyTable classifyTable : classifyTables) {
+            int tableIndex = getTableIndex(classifyTable.getName());
+            if (tableIndex < 0) {
+                continue;
+            }
+            nextTableIndex = Math.max(nextTableIndex, tableIndex + 1);
+            classifyTablesByName.put(classifyTable.getName(), classifyTable);
+            if (classifyTable.getNextTable() != null) {
+                nextTables.add(classifyTable.getNextTable());
+            }
+        }
+
+        // follow the chains from their heads, then any table left over
+        List<ClassifyTable> orderedTables = new ArrayList<>();
+        classifyTablesByName.values().stream().filter(table -> !nextTables.contains(table.getName()))
+                .forEach(head -> {
+                    for (ClassifyTable table = head; table != null && !orderedTables.contains(table);
+                            table = classifyTablesByName.get(table.getNextTable())) {
+                        orderedTables.add(table);
+                    }
+                });
+        classifyTablesByName.values().stream().filter(table -> !orderedTables.contains(table))
+                .forEach(orderedTables::add);
+
+        for (ClassifyTable classifyTable : orderedTables) {
+            Table table = new Table(classifyTable.getName(), classifyTable.getMask());
+            table.nextTable = classifyTable.getNextTable();
+            if (classifyTable.getClassifySession() != null) {
+                classifyTable.getClassifySession().forEach(
+                    session -> table.sessionsByMatch.put(session.getMatch(), session));
+            }
+            tables.add(table);
+        }
+        LOG.info("loadTables: found {} classify tables on vpp node {}", tables.size(), vppNode);
+    }
+
+    // The index of a table named by SFC, -1 for the tables of other applications
+    private static int getTableIndex(String tableName) {
+        if (tableName == null || !tableName.startsWith(TABLE_KEY_PREFIX)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(tableName.substring(TABLE_KEY_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static VppClassifier readVppClassifier(DataBroker mountPoint, String vppNode) {
+        if (mountPoint == null) {
+            return null;
+        }
+        try (ReadOnlyTransaction readTx = mountPoint.newReadOnlyTransaction()) {
+            return readTx.read(LogicalDatastoreType.CONFIGURATION, InstanceIdentifier.create(VppClassifier.class))
+                    .get().orNull();
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.warn("readVppClassifier: failed to read the classify tables of vpp node {}", vppNode, e);
+            return null;
+        }
+    }
+
+    // The bytes of a colon separated hex string, such as a mask or a match
+    private static byte[] toBytes(HexString hexString) {
+        if (hexString.getValue().isEmpty()) {
+            return new byte[0];
+        }
+        String[] octets = hexString.getValue().split(":");
+        byte[] bytes = new byte[octets.length];
+        for (int i = 0; i < octets.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(octets[i], 16);
+        }
+        return bytes;
+    }
+
+    private static ClassifyTable buildClassifyTable(Table table) {
+        ClassifyTableBuilder classifyTableBuilder = new ClassifyTableBuilder();
+        classifyTableBuilder.setName(table.name);
+        if (table.nextTable != null) {
+            classifyTableBuilder.setNextTable(table.nextTable);
+        }
+        classifyTableBuilder.setClassifierNode(new VppNodeName("l2-input-classify"));
+        classifyTableBuilder.setNbuckets(2L);
+        classifyTableBuilder.setMemorySize(104857L);
+        classifyTableBuilder.setMissNext(new VppNode(PacketHandlingAction.Deny));
+        classifyTableBuilder.setMask(table.mask);
+        classifyTableBuilder.setClassifySession(new ArrayList<>(table.sessionsByMatch.values()));
+        return classifyTableBuilder.build();
+    }
+
+    private static InstanceIdentifier<ClassifyTable> buildClassifyTableIid(String classifyTableKey) {
+        return InstanceIdentifier.create(VppClassifier.class)
+                .child(ClassifyTable.class, new ClassifyTableKey(classifyTableKey));
+    }
+
+    private static InstanceIdentifier<ClassifySession> buildClassifySessionIid(String classifyTableKey,
+            HexString match) {
+        return buildClassifyTableIid(classifyTableKey).child(ClassifySession.class, new ClassifySessionKey(match));
+    }
+
+    private static ClassifySession buildClassifySession(HexString match, Long nsp, Short nsi) {
+        ClassifySessionBuilder classifySessionBuilder = new ClassifySessionBuilder();
+        classifySessionBuilder.setMatch(match);
+        classifySessionBuilder.setHitNext(new VppNode(new VppNodeName("nsh-classifier")));
+        Long opaqueIndexValue = Long.valueOf(nsp.longValue() << 8 | nsi.intValue());
+        classifySessionBuilder.setOpaqueIndex(new OpaqueIndex(opaqueIndexValue));
+        return classifySessionBuilder.build();
+    }
+}
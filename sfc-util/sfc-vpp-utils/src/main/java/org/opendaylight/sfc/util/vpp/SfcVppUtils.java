@@ -8,21 +8,14 @@
 package org.opendaylight.sfc.util.vpp;
 
 import com.google.common.base.Optional;
-import com.google.common.util.concurrent.FutureCallback;
-import com.google.common.util.concurrent.Futures;
-import com.google.common.util.concurrent.MoreExecutors;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
-import javax.annotation.Nonnull;
-import javax.annotation.Nullable;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.MountPoint;
 import org.opendaylight.controller.md.sal.binding.api.MountPointService;
-import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
-import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionAPI;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfDataPlaneLocatorName;
@@ -43,7 +36,6 @@ import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.interfaces.
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.interfaces.rev140508.interfaces.Interface;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.interfaces.rev140508.interfaces.InterfaceBuilder;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.interfaces.rev140508.interfaces.InterfaceKey;
-import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev130715.HexString;
 import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.yang.sfc.sf.proxy.rev160125.SfLocatorProxyAugmentation;
 import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.yang.sfc.sf.proxy.rev160125.proxy.ProxyDataPlaneLocator;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.network.topology.topology.topology.types.TopologyNetconf;
@@ -67,18 +59,6 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.v3po.rev
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.v3po.rev161214.vpp.bridge.domains.BridgeDomainKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classfier.acl.rev161214.acl.base.attributes.Ip4Acl;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classfier.acl.rev161214.acl.base.attributes.Ip4AclBuilder;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.OpaqueIndex;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.PacketHandlingAction;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.VppClassifier;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.VppClassifierBuilder;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.VppNode;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.VppNodeName;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.classify.table.base.attributes.ClassifySession;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.classify.table.base.attributes.ClassifySessionBuilder;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.classify.table.base.attributes.ClassifySessionKey;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.vpp.classifier.ClassifyTable;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.vpp.classifier.ClassifyTableBuilder;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.vpp.classifier.ClassifyTableKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.nsh.rev161214.Ethernet;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.nsh.rev161214.MdType1;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.nsh.rev161214.None;
@@ -106,7 +86,6 @@ import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.TopologyKey;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeKey;
-import org.opendaylight.yangtools.yang.binding.DataObject;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.opendaylight.yangtools.yang.binding.KeyedInstanceIdentifier;
 import org.slf4j.Logger;
@@ -117,9 +96,6 @@ public final class SfcVppUtils {
     private static final InstanceIdentifier<Topology> NETCONF_TOPOLOGY_IID = InstanceIdentifier
             .builder(NetworkTopology.class)
             .child(Topology.class, new TopologyKey(new TopologyId(TopologyNetconf.QNAME.getLocalName()))).build();
-    private static final ConcurrentMap<String, Integer> TABLE_INDICE = new ConcurrentHashMap<>();
-    private static final ConcurrentMap<String, String> FIRST_TABLE = new ConcurrentHashMap<>();
-    private static final ConcurrentMap<String, List<String>> RSP_TABLE_ID_LIST = new ConcurrentHashMap<>();
     private static final ConcurrentMap<String, ConcurrentMap<String, AtomicInteger>> VXLAN_GPER_PORT_REF_CNT =
             new ConcurrentHashMap<>();
 
@@ -290,26 +266,7 @@ public final class SfcVppUtils {
         return ipList;
     }
 
-    private static void addFuturesCallback(final WriteTransaction transaction,
-                                           InstanceIdentifier id,
-                                           @Nullable DataObject data) {
-        Futures.addCallback(transaction.submit(), new FutureCallback<Void>() {
-            @Override
-            public void onSuccess(@Nullable Void result) {
-            }
-
-            @Override
-            public void onFailure(@Nonnull Throwable throwable) {
-                if (data == null) {
-                    LOG.error("Error deleting {}", id, throwable);
-                } else {
-                    LOG.error("Error writing to {} with data {}", id, data, throwable);
-                }
-            }
-        }, MoreExecutors.directExecutor());
-    }
-
-    public static void addDummyBridgeDomain(final DataBroker dataBroker, String bridgeDomainName, String vppNode) {
+    public static void addDummyBridgeDomain(final SfcVppChangeSet changeSet, String bridgeDomainName, String vppNode) {
         BridgeDomainBuilder bdBuilder = new BridgeDomainBuilder();
         bdBuilder.setName(bridgeDomainName);
         bdBuilder.setFlood(true);
@@ -323,16 +280,13 @@ public final class SfcVppUtils {
         BridgeDomainsBuilder bdsBuilder = new BridgeDomainsBuilder();
         bdsBuilder.setBridgeDomain(bdList);
 
-        final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
         InstanceIdentifier<BridgeDomains> bridgeDomainsIId = InstanceIdentifier.create(Vpp.class)
                 .child(BridgeDomains.class);
         BridgeDomains bridgeDomains = bdsBuilder.build();
-        wTx.put(LogicalDatastoreType.CONFIGURATION, bridgeDomainsIId, bridgeDomains);
-        addFuturesCallback(wTx, bridgeDomainsIId, bridgeDomains);
+        changeSet.put(bridgeDomainsIId, bridgeDomains);
     }
 
-    public static void addBridgeDomain(final DataBroker dataBroker, String bridgeDomainName, String vppNode) {
+    public static void addBridgeDomain(final SfcVppChangeSet changeSet, String bridgeDomainName, String vppNode) {
         BridgeDomainBuilder bdBuilder = new BridgeDomainBuilder();
         bdBuilder.setName(bridgeDomainName);
         bdBuilder.setFlood(true);
@@ -341,13 +295,10 @@ public final class SfcVppUtils {
         bdBuilder.setUnknownUnicastFlood(true);
         bdBuilder.setArpTermination(false);
 
-        final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
         InstanceIdentifier<BridgeDomain> bridgeDomainIId = InstanceIdentifier.create(Vpp.class)
                 .child(BridgeDomains.class).child(BridgeDomain.class, new BridgeDomainKey(bridgeDomainName));
         BridgeDomain bridgeDomain = bdBuilder.build();
-        wTx.put(LogicalDatastoreType.CONFIGURATION, bridgeDomainIId, bridgeDomain);
-        addFuturesCallback(wTx, bridgeDomainIId, bridgeDomain);
+        changeSet.put(bridgeDomainIId, bridgeDomain);
     }
 
     public static String buildVxlanGpePortKey(final IpAddress remote) {
@@ -375,7 +326,7 @@ public final class SfcVppUtils {
         return count.decrementAndGet();
     }
 
-    private static void addVxlanGpePort(final DataBroker dataBroker, final IpAddress local, final IpAddress remote,
+    private static void addVxlanGpePort(final SfcVppChangeSet changeSet, final IpAddress local, final IpAddress remote,
             Long vni, String vppNode, String bridgeDomainName) {
         String vxlanGpePortKey = buildVxlanGpePortKey(remote);
         LOG.info("addVxlanGpePort {} on vpp node {}", vxlanGpePortKey, vppNode);
@@ -416,17 +367,14 @@ public final class SfcVppUtils {
         interfaceBuilder.setEnabled(true);
         interfaceBuilder.setLinkUpDownTrapEnable(Interface.LinkUpDownTrapEnable.Enabled);
 
-        final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
         final KeyedInstanceIdentifier<Interface, InterfaceKey> interfaceIid = InstanceIdentifier
                 .create(Interfaces.class).child(Interface.class, new InterfaceKey(interfaceBuilder.getName()));
         Interface anInterface = interfaceBuilder.build();
-        wTx.put(LogicalDatastoreType.CONFIGURATION, interfaceIid, anInterface);
-        addFuturesCallback(wTx, interfaceIid, anInterface);
+        changeSet.put(interfaceIid, anInterface);
     }
 
-    public static void removeVxlanGpePort(final DataBroker dataBroker, final IpAddress local, final IpAddress remote,
-            Long vni, String vppNode) {
+    public static void removeVxlanGpePort(final SfcVppChangeSet changeSet, final IpAddress local,
+            final IpAddress remote, Long vni, String vppNode) {
         String interfaceKey = buildVxlanGpePortKey(remote);
         LOG.info("removeVxlanGpePort {} on vpp node {}", interfaceKey, vppNode);
         /* do nothing if interfaceKey is still used by other RSPs on vppNode */
@@ -434,20 +382,18 @@ public final class SfcVppUtils {
             return;
         }
 
-        final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
         final KeyedInstanceIdentifier<Interface, InterfaceKey> interfaceIid = InstanceIdentifier
                 .create(Interfaces.class).child(Interface.class, new InterfaceKey(interfaceKey));
         LOG.info("removeVxlanGpePort {} on vpp node {}", interfaceKey, vppNode);
-        wTx.delete(LogicalDatastoreType.CONFIGURATION, interfaceIid);
-        addFuturesCallback(wTx, interfaceIid, null);
+        changeSet.delete(interfaceIid);
     }
 
     private static String buildNshEntryKey(final Long nsp, final Short nsi) {
         return "nsh_entry_" + nsp + "_" + nsi;
     }
 
-    public static void addDummyNshEntry(final DataBroker dataBroker, final Long nsp, final Short nsi, String vppNode) {
+    public static void addDummyNshEntry(final SfcVppChangeSet changeSet, final Long nsp, final Short nsi,
+            String vppNode) {
         NshEntryBuilder nshEntryBuilder = new NshEntryBuilder();
         nshEntryBuilder.setVersion(Short.valueOf("0"));
         nshEntryBuilder.setLength(Short.valueOf("6"));
@@ -473,15 +419,12 @@ public final class SfcVppUtils {
         nshEntryList.add(nshEntryBuilder.build());
         nshEntriesBuilder.setNshEntry(nshEntryList);
 
-        final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
         final InstanceIdentifier<NshEntries> nshEntriesIid = InstanceIdentifier.create(VppNsh.class)
                 .child(NshEntries.class);
-        wTx.put(LogicalDatastoreType.CONFIGURATION, nshEntriesIid, nshEntriesBuilder.build());
-        addFuturesCallback(wTx, nshEntriesIid, null);
+        changeSet.put(nshEntriesIid, nshEntriesBuilder.build());
     }
 
-    public static void addNshEntry(final DataBroker dataBroker, final Long nsp, final Short nsi, String vppNode) {
+    public static void addNshEntry(final SfcVppChangeSet changeSet, final Long nsp, final Short nsi, String vppNode) {
         NshEntryBuilder nshEntryBuilder = new NshEntryBuilder();
         nshEntryBuilder.setVersion(Short.valueOf("0"));
         nshEntryBuilder.setLength(Short.valueOf("6"));
@@ -503,23 +446,18 @@ public final class SfcVppUtils {
         nshEntryBuilder.addAugmentation(NshMdType1Augment.class, nshMdType1AugmentBuilder.build());
         NshEntry nshEntry = nshEntryBuilder.build();
 
-        final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
         final InstanceIdentifier<NshEntry> nshEntryIid = InstanceIdentifier.create(VppNsh.class).child(NshEntries.class)
                 .child(NshEntry.class, nshEntry.key());
-        wTx.put(LogicalDatastoreType.CONFIGURATION, nshEntryIid, nshEntry);
-        addFuturesCallback(wTx, nshEntryIid, nshEntry);
+        changeSet.put(nshEntryIid, nshEntry);
     }
 
-    public static void removeNshEntry(final DataBroker dataBroker, final Long nsp, final Short nsi, String vppNode) {
-        final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+    public static void removeNshEntry(final SfcVppChangeSet changeSet, final Long nsp, final Short nsi,
+            String vppNode) {
         String nshEntryKey = buildNshEntryKey(nsp, nsi);
         final InstanceIdentifier<NshEntry> nshEntryIid = InstanceIdentifier.create(VppNsh.class).child(NshEntries.class)
                 .child(NshEntry.class, new NshEntryKey(nshEntryKey));
         LOG.info("removeNshEntry {} on vpp node {}", nshEntryKey, vppNode);
-        wTx.delete(LogicalDatastoreType.CONFIGURATION, nshEntryIid);
-        addFuturesCallback(wTx, nshEntryIid, null);
+        changeSet.delete(nshEntryIid);
     }
 
     private static String buildNshMapKey(final Long nsp, final Short nsi, final Long mappedNsp, final Short mappedNsi) {
@@ -544,16 +482,13 @@ public final class SfcVppUtils {
         return nshMapBuilder;
     }
 
-    private static void writeNshMap(final DataBroker dataBroker, NshMap nshMap, String vppNode) {
-        final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+    private static void writeNshMap(final SfcVppChangeSet changeSet, NshMap nshMap, String vppNode) {
         final InstanceIdentifier<NshMap> nshMapIid = InstanceIdentifier.create(VppNsh.class).child(NshMaps.class)
                 .child(NshMap.class, nshMap.key());
-        wTx.put(LogicalDatastoreType.CONFIGURATION, nshMapIid, nshMap);
-        addFuturesCallback(wTx, nshMapIid, nshMap);
+        changeSet.put(nshMapIid, nshMap);
     }
 
-    public static void addDummyNshMap(final DataBroker dataBroker, final Long nsp, final Short nsi,
+    public static void addDummyNshMap(final SfcVppChangeSet changeSet, final Long nsp, final Short nsi,
             final Long mappedNsp, final Short mappedNsi, String encapIfName, String vppNode) {
         NshMapBuilder nshMapBuilder = buildNshMapBuilder(nsp, nsi, mappedNsp, mappedNsi, encapIfName);
         nshMapBuilder.setNshAction(Swap.class);
@@ -564,267 +499,105 @@ public final class SfcVppUtils {
         NshMapsBuilder nshMapsBuilder = new NshMapsBuilder();
         nshMapsBuilder.setNshMap(nshMapList);
 
-        final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
         final InstanceIdentifier<NshMaps> nshMapsIid = InstanceIdentifier.create(VppNsh.class).child(NshMaps.class);
         NshMaps nshMaps = nshMapsBuilder.build();
-        wTx.put(LogicalDatastoreType.CONFIGURATION, nshMapsIid, nshMaps);
-        addFuturesCallback(wTx, nshMapsIid, nshMaps);
+        changeSet.put(nshMapsIid, nshMaps);
     }
 
-    private static void addNshMap(final DataBroker dataBroker, final Long nsp, final Short nsi, final Long mappedNsp,
-            final Short mappedNsi, String encapIfName, String vppNode) {
+    private static void addNshMap(final SfcVppChangeSet changeSet, final Long nsp, final Short nsi,
+            final Long mappedNsp, final Short mappedNsi, String encapIfName, String vppNode) {
         NshMapBuilder nshMapBuilder = buildNshMapBuilder(nsp, nsi, mappedNsp, mappedNsi, encapIfName);
         nshMapBuilder.setNshAction(Swap.class);
-        writeNshMap(dataBroker, nshMapBuilder.build(), vppNode);
+        writeNshMap(changeSet, nshMapBuilder.build(), vppNode);
     }
 
-    private static void addNshMapWithPush(final DataBroker dataBroker, final Long nsp, final Short nsi,
+    private static void addNshMapWithPush(final SfcVppChangeSet changeSet, final Long nsp, final Short nsi,
             final Long mappedNsp, final Short mappedNsi, String encapIfName, String vppNode) {
         NshMapBuilder nshMapBuilder = buildNshMapBuilder(nsp, nsi, mappedNsp, mappedNsi, encapIfName);
         nshMapBuilder.setNshAction(Push.class);
-        writeNshMap(dataBroker, nshMapBuilder.build(), vppNode);
+        writeNshMap(changeSet, nshMapBuilder.build(), vppNode);
     }
 
-    public static void addNshMapWithPop(final DataBroker dataBroker, final Long nsp, final Short nsi,
+    public static void addNshMapWithPop(final SfcVppChangeSet changeSet, final Long nsp, final Short nsi,
             final Long mappedNsp, final Short mappedNsi, String encapIfName, String vppNode) {
         NshMapBuilder nshMapBuilder = buildNshMapBuilder(nsp, nsi, mappedNsp, mappedNsi, encapIfName);
         nshMapBuilder.setNshAction(Pop.class);
-        writeNshMap(dataBroker, nshMapBuilder.build(), vppNode);
+        writeNshMap(changeSet, nshMapBuilder.build(), vppNode);
     }
 
-    public static void removeNshMap(final DataBroker dataBroker, final Long nsp, final Short nsi, final Long mappedNsp,
-            final Short mappedNsi, String vppNode) {
-        final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+    public static void removeNshMap(final SfcVppChangeSet changeSet, final Long nsp, final Short nsi,
+            final Long mappedNsp, final Short mappedNsi, String vppNode) {
         String nshMapKey = buildNshMapKey(nsp, nsi, mappedNsp, mappedNsi);
         final InstanceIdentifier<NshMap> nshMapIid = InstanceIdentifier.create(VppNsh.class).child(NshMaps.class)
                 .child(NshMap.class, new NshMapKey(nshMapKey));
         LOG.info("removeNshMap {} on vpp node {}", nshMapKey, vppNode);
-        wTx.delete(LogicalDatastoreType.CONFIGURATION, nshMapIid);
-        addFuturesCallback(wTx, nshMapIid, null);
+        changeSet.delete(nshMapIid);
     }
 
-    public static boolean configureVxlanGpeNsh(final DataBroker dataBroker, final SffName sffName,
+    public static boolean configureVxlanGpeNsh(final SfcVppChangeSet changeSet, final SffName sffName,
             String bridgeDomainName, final IpAddress localIp, final IpAddress remoteIp, final Long nsp,
             final Short nsi) {
         Long vni = 0L; // SFC classifier set it to 0, so always use 0
 
-        addVxlanGpePort(dataBroker, localIp, remoteIp, vni, sffName.getValue(), bridgeDomainName); // SFF<->SF
-        addNshEntry(dataBroker, nsp, nsi, sffName.getValue()); // To Next Hop
-        addNshMap(dataBroker, nsp, nsi, nsp, nsi, buildVxlanGpePortKey(remoteIp), sffName.getValue());
+        addVxlanGpePort(changeSet, localIp, remoteIp, vni, sffName.getValue(), bridgeDomainName); // SFF<->SF
+        addNshEntry(changeSet, nsp, nsi, sffName.getValue()); // To Next Hop
+        addNshMap(changeSet, nsp, nsi, nsp, nsi, buildVxlanGpePortKey(remoteIp), sffName.getValue());
 
         return true;
     }
 
-    public static boolean removeVxlanGpeNsh(final DataBroker dataBroker, final SffName sffName, final IpAddress localIp,
-            final IpAddress remoteIp, final Long nsp, final Short nsi) {
+    public static boolean removeVxlanGpeNsh(final SfcVppChangeSet changeSet, final SffName sffName,
+            final IpAddress localIp, final IpAddress remoteIp, final Long nsp, final Short nsi) {
         Long vni = 0L; // SFC classifier set it to 0, so always use 0
 
-        removeNshMap(dataBroker, nsp, nsi, nsp, nsi, sffName.getValue());
-        removeNshEntry(dataBroker, nsp, nsi, sffName.getValue()); // To SF
-        removeVxlanGpePort(dataBroker, localIp, remoteIp, vni, sffName.getValue()); // SFF<->SF
+        removeNshMap(changeSet, nsp, nsi, nsp, nsi, sffName.getValue());
+        removeNshEntry(changeSet, nsp, nsi, sffName.getValue()); // To SF
+        removeVxlanGpePort(changeSet, localIp, remoteIp, vni, sffName.getValue()); // SFF<->SF
 
         return true;
     }
 
-    private static Integer getNextTableIndex(String vppNode) {
-        return TABLE_INDICE.computeIfAbsent(vppNode, key -> Integer.valueOf(0));
-    }
-
-    public static Integer increaseNextTableIndex(String vppNode) {
-        getNextTableIndex(vppNode);
-        return TABLE_INDICE.computeIfPresent(vppNode, (key, oldValue) -> Integer.valueOf(oldValue + 1));
-    }
-
-    public static String buildClassifyTableKey(final Integer tableIndex) {
-        return "table" + tableIndex;
-    }
-
-    private static ClassifyTableBuilder buildClassifyTable(String classifyTableKey, String nextTableKey,
-            final HexString mask) {
-        ClassifyTableBuilder classifyTableBuilder = new ClassifyTableBuilder();
-        classifyTableBuilder.setName(classifyTableKey);
-        if (nextTableKey != null) {
-            classifyTableBuilder.setNextTable(nextTableKey);
-        }
-        classifyTableBuilder.setClassifierNode(new VppNodeName("l2-input-classify"));
-        classifyTableBuilder.setNbuckets(2L);
-        classifyTableBuilder.setMemorySize(104857L);
-        classifyTableBuilder.setMissNext(new VppNode(PacketHandlingAction.Deny));
-        classifyTableBuilder.setMask(mask);
-        return classifyTableBuilder;
-    }
-
-    public static void addClassifyTable(final DataBroker dataBroker, ClassifyTable classifyTable, String vppNode) {
-        final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
-
-        if (FIRST_TABLE.putIfAbsent(vppNode, classifyTable.getName()) == null) {
-            VppClassifierBuilder vppClassifierBuilder = new VppClassifierBuilder();
-            List<ClassifyTable> classifyTableList = new ArrayList<>();
-            classifyTableList.add(classifyTable);
-            vppClassifierBuilder.setClassifyTable(classifyTableList);
-            VppClassifier vppClassifier = vppClassifierBuilder.build();
-            LOG.info("addClassifyTable: {}", vppClassifier);
-
-            final InstanceIdentifier<VppClassifier> vppClassifierIid = InstanceIdentifier.create(VppClassifier.class);
-            wTx.put(LogicalDatastoreType.CONFIGURATION, vppClassifierIid, vppClassifier);
-            addFuturesCallback(wTx, vppClassifierIid, vppClassifier);
-        } else {
-            final InstanceIdentifier<ClassifyTable> classifyTableIid = InstanceIdentifier.create(VppClassifier.class)
-                    .child(ClassifyTable.class, classifyTable.key());
-            wTx.put(LogicalDatastoreType.CONFIGURATION, classifyTableIid, classifyTable);
-            LOG.info("addClassifyTable: {}", classifyTable);
-            addFuturesCallback(wTx, classifyTableIid, classifyTable);
-        }
-    }
-
-    private static void removeClassifyTable(final DataBroker dataBroker, final String classifyTableKey,
-            String vppNode) {
-        final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
-        final InstanceIdentifier<ClassifyTable> classifyTableIid = InstanceIdentifier.create(VppClassifier.class)
-                .child(ClassifyTable.class, new ClassifyTableKey(classifyTableKey));
-        LOG.info("removeClassifyTable on vpp node {}: table: {}", vppNode, classifyTableKey);
-        wTx.delete(LogicalDatastoreType.CONFIGURATION, classifyTableIid);
-        addFuturesCallback(wTx, classifyTableIid, null);
-    }
-
-    private static ClassifySessionBuilder buildClassifySession(final String classifyTableKey, Long nsp, Short nsi,
-            final HexString match) {
-        ClassifySessionBuilder classifySessionBuilder = new ClassifySessionBuilder();
-        classifySessionBuilder.setMatch(match);
-        classifySessionBuilder.setHitNext(new VppNode(new VppNodeName("nsh-classifier")));
-        Long opaqueIndexValue = Long.valueOf(nsp.longValue() << 8 | nsi.intValue());
-        classifySessionBuilder.setOpaqueIndex(new OpaqueIndex(opaqueIndexValue));
-        return classifySessionBuilder;
-    }
-
-    private static void removeClassifySession(final DataBroker dataBroker, final String classifyTableKey,
-            HexString match, String vppNode) {
-        final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
-        final InstanceIdentifier<ClassifySession> classifySessionIid = InstanceIdentifier.create(VppClassifier.class)
-                .child(ClassifyTable.class, new ClassifyTableKey(classifyTableKey))
-                .child(ClassifySession.class, new ClassifySessionKey(match));
-        LOG.info("removeClassifySession on vpp node {}: table: {}, session: {}", vppNode, classifyTableKey, match);
-        wTx.delete(LogicalDatastoreType.CONFIGURATION, classifySessionIid);
-        addFuturesCallback(wTx, classifySessionIid, null);
-    }
-
-    public static void enableIngressAcl(final DataBroker dataBroker, final String interfaceName,
+    public static void enableIngressAcl(final SfcVppChangeSet changeSet, final String interfaceName,
             final String classifyTableKey, String vppNode) {
         IngressBuilder ingressBuilder = new IngressBuilder();
         Ip4Acl acl = new Ip4AclBuilder().setClassifyTable(classifyTableKey).build();
         ingressBuilder.setIp4Acl(acl);
         Ingress ingress = ingressBuilder.build();
 
-        final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
         final InstanceIdentifier<Ingress> ingressIid = InstanceIdentifier.create(Interfaces.class)
                 .child(Interface.class, new InterfaceKey(interfaceName)).augmentation(VppInterfaceAugmentation.class)
                 .child(Acl.class).child(Ingress.class);
-        wTx.put(LogicalDatastoreType.CONFIGURATION, ingressIid, ingress);
-        addFuturesCallback(wTx, ingressIid, ingress);
+        changeSet.put(ingressIid, ingress);
     }
 
-    public static void disableIngressAcl(final DataBroker dataBroker, final String interfaceName,
-            final String classifyTableKey, String vppNode) {
-        final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+    public static void disableIngressAcl(final SfcVppChangeSet changeSet, final String interfaceName,
+            String vppNode) {
         final InstanceIdentifier<Ingress> ingressIid = InstanceIdentifier.create(Interfaces.class)
                 .child(Interface.class, new InterfaceKey(interfaceName)).augmentation(VppInterfaceAugmentation.class)
                 .child(Acl.class).child(Ingress.class);
-        wTx.delete(LogicalDatastoreType.CONFIGURATION, ingressIid);
-        addFuturesCallback(wTx, ingressIid, null);
-    }
-
-    private static void saveClassifyTableKey(String vppNode, String rsp, String classifyTableKey) {
-        String rspKey = vppNode + "_" + rsp;
-        List<String> tblIdList = RSP_TABLE_ID_LIST.computeIfAbsent(rspKey, key -> new ArrayList<>());
-
-        synchronized (tblIdList) {
-            tblIdList.add(classifyTableKey);
-        }
-    }
-
-    public static String getSavedClassifyTableKey(String vppNode, String rsp, int index) {
-        String rspKey = vppNode + "_" + rsp;
-
-        List<String> tblIdList = RSP_TABLE_ID_LIST.get(rspKey);
-        if (tblIdList == null) {
-            return null;
-        }
-
-        synchronized (tblIdList) {
-            if (tblIdList.size() <= index) {
-                return null;
-            }
-
-            return tblIdList.get(index);
-        }
-    }
-
-    public static ClassifyTableBuilder buildVppClassifyTable(SffName sffName, String rsp, HexString mask,
-            boolean hasNext) {
-        Integer index = getNextTableIndex(sffName.getValue());
-        String classifyTableKey = buildClassifyTableKey(index);
-        saveClassifyTableKey(sffName.getValue(), rsp, classifyTableKey);
-        String nextTableKey = null;
-        if (hasNext) {
-            nextTableKey = buildClassifyTableKey(index + 1);
-        }
-        return buildClassifyTable(classifyTableKey, nextTableKey, mask);
-    }
-
-    public static ClassifySessionBuilder buildVppClassifySession(ClassifyTableBuilder classifyTableBuilder,
-            HexString match, Long nsp, Short nsi) {
-        return buildClassifySession(classifyTableBuilder.getName(), nsp, nsi, match);
-    }
-
-    public static boolean configureVppClassifier(DataBroker dataBroker, SffName sffName,
-            List<ClassifyTableBuilder> classifyTableList, List<ClassifySessionBuilder> classifySessionList) {
-        for (int i = classifyTableList.size() - 1; i >= 0; i--) {
-            ClassifyTableBuilder classifyTableBuilder = classifyTableList.get(i);
-            ClassifySessionBuilder classifySessionBuilder = classifySessionList.get(i);
-            List<ClassifySession> sessionList = new ArrayList<>();
-            sessionList.add(classifySessionBuilder.build());
-            classifyTableBuilder.setClassifySession(sessionList);
-            addClassifyTable(dataBroker, classifyTableBuilder.build(), sffName.getValue());
-        }
-        return true;
-    }
-
-    public static boolean removeVppClassifier(DataBroker dataBroker, SffName sffName, List<String> tableKeyList,
-            List<HexString> matchList) {
-        for (int i = 0; i < tableKeyList.size(); i++) {
-            removeClassifySession(dataBroker, tableKeyList.get(i), matchList.get(i), sffName.getValue());
-            removeClassifyTable(dataBroker, tableKeyList.get(i), sffName.getValue());
-        }
-        return true;
+        changeSet.delete(ingressIid);
     }
 
-    public static boolean configureClassifierVxlanGpeNsh(final DataBroker dataBroker, final SffName sffName,
+    public static boolean configureClassifierVxlanGpeNsh(final SfcVppChangeSet changeSet, final SffName sffName,
             String bridgeDomainName, final IpAddress localIp, final IpAddress remoteIp, final Long nsp,
             final Short nsi) {
         Long vni = 0L; // SFC classifier set it to 0, so always use 0
 
-        addVxlanGpePort(dataBroker, localIp, remoteIp, vni, sffName.getValue(), bridgeDomainName); // SFF<->SF
-        addNshEntry(dataBroker, nsp, nsi, sffName.getValue()); // To Next Hop
-        addNshMapWithPush(dataBroker, nsp, nsi, nsp, nsi, buildVxlanGpePortKey(remoteIp), sffName.getValue());
+        addVxlanGpePort(changeSet, localIp, remoteIp, vni, sffName.getValue(), bridgeDomainName); // SFF<->SF
+        addNshEntry(changeSet, nsp, nsi, sffName.getValue()); // To Next Hop
+        addNshMapWithPush(changeSet, nsp, nsi, nsp, nsi, buildVxlanGpePortKey(remoteIp), sffName.getValue());
 
         return true;
     }
 
-    public static boolean removeClassifierVxlanGpeNsh(final DataBroker dataBroker, final SffName sffName,
+    public static boolean removeClassifierVxlanGpeNsh(final SfcVppChangeSet changeSet, final SffName sffName,
             String bridgeDomainName, final IpAddress localIp, final IpAddress remoteIp, final Long nsp,
             final Short nsi) {
         Long vni = 0L; // SFC classifier set it to 0, so always use 0
 
-        removeNshMap(dataBroker, nsp, nsi, nsp, nsi, sffName.getValue());
-        removeNshEntry(dataBroker, nsp, nsi, sffName.getValue()); // To SFF
-        removeVxlanGpePort(dataBroker, localIp, remoteIp, vni, sffName.getValue()); // Classifier<->SFF
+        removeNshMap(changeSet, nsp, nsi, nsp, nsi, sffName.getValue());
+        removeNshEntry(changeSet, nsp, nsi, sffName.getValue()); // To SFF
+        removeVxlanGpePort(changeSet, localIp, remoteIp, vni, sffName.getValue()); // Classifier<->SFF
 
         return true;
     }
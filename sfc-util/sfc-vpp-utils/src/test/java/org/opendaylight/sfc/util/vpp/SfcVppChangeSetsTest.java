@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.vpp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.VppClassifier;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.VppClassifierBuilder;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+public class SfcVppChangeSetsTest {
+    private static final String VPP_NODE1 = "vpp1";
+    private static final String VPP_NODE2 = "vpp2";
+    private static final InstanceIdentifier<VppClassifier> CLASSIFIER_IID = InstanceIdentifier
+            .create(VppClassifier.class);
+    private static final VppClassifier CLASSIFIER = new VppClassifierBuilder().build();
+
+    private DataBroker mountPoint1;
+    private DataBroker mountPoint2;
+    private WriteTransaction transaction1;
+    private WriteTransaction transaction2;
+    private SfcVppChangeSets changeSets;
+
+    @Before
+    public void setUp() {
+        mountPoint1 = mock(DataBroker.class);
+        mountPoint2 = mock(DataBroker.class);
+        transaction1 = mock(WriteTransaction.class);
+        transaction2 = mock(WriteTransaction.class);
+        when(mountPoint1.newWriteOnlyTransaction()).thenReturn(transaction1);
+        when(mountPoint2.newWriteOnlyTransaction()).thenReturn(transaction2);
+        when(transaction1.submit()).thenReturn(Futures.immediateCheckedFuture(null));
+        when(transaction2.submit()).thenReturn(Futures.immediateCheckedFuture(null));
+        changeSets = new SfcVppChangeSets();
+    }
+
+    @Test
+    public void editsOfANodeAreCoalesced() throws Exception {
+        SfcVppChangeSet changeSet = changeSets.get(mountPoint1, VPP_NODE1);
+        changeSet.put(CLASSIFIER_IID, CLASSIFIER);
+        assertSame(changeSet, changeSets.get(mountPoint1, VPP_NODE1));
+        changeSets.get(mountPoint1, VPP_NODE1).put(CLASSIFIER_IID, CLASSIFIER);
+        changeSets.get(mountPoint1, VPP_NODE1).delete(CLASSIFIER_IID);
+
+        // nothing is written until committed
+        verify(transaction1, never()).submit();
+
+        Map<String, ListenableFuture<Void>> futures = changeSets.commit();
+        assertEquals(1, futures.size());
+        futures.get(VPP_NODE1).get();
+
+        // all the edits in a single transaction
+        verify(mountPoint1).newWriteOnlyTransaction();
+        verify(transaction1, times(2)).put(LogicalDatastoreType.CONFIGURATION, CLASSIFIER_IID, CLASSIFIER);
+        verify(transaction1).delete(LogicalDatastoreType.CONFIGURATION, CLASSIFIER_IID);
+        verify(transaction1).submit();
+    }
+
+    @Test
+    public void oneCommitPerNode() throws Exception {
+        changeSets.get(mountPoint1, VPP_NODE1).put(CLASSIFIER_IID, CLASSIFIER);
+        changeSets.get(mountPoint2, VPP_NODE2).put(CLASSIFIER_IID, CLASSIFIER);
+        changeSets.get(mountPoint1, VPP_NODE1).delete(CLASSIFIER_IID);
+        changeSets.get(mountPoint2, VPP_NODE2).delete(CLASSIFIER_IID);
+
+        Map<String, ListenableFuture<Void>> futures = changeSets.commit();
+        assertEquals(Arrays.asList(VPP_NODE1, VPP_NODE2), new ArrayList<>(futures.keySet()));
+        futures.get(VPP_NODE1).get();
+        futures.get(VPP_NODE2).get();
+        verify(mountPoint1).newWriteOnlyTransaction();
+        verify(mountPoint2).newWriteOnlyTransaction();
+        verify(transaction1).submit();
+        verify(transaction2).submit();
+
+        // the change sets are empty once committed
+        assertTrue(changeSets.commit().isEmpty());
+        verify(transaction1).submit();
+        verify(transaction2).submit();
+    }
+
+    @Test
+    public void failedCommitIsReportedForItsNode() throws Exception {
+        TransactionCommitFailedException failure = new TransactionCommitFailedException("vpp2 unreachable");
+        when(transaction2.submit()).thenReturn(Futures.immediateFailedCheckedFuture(failure));
+        changeSets.get(mountPoint1, VPP_NODE1).put(CLASSIFIER_IID, CLASSIFIER);
+        changeSets.get(mountPoint2, VPP_NODE2).put(CLASSIFIER_IID, CLASSIFIER);
+
+        Map<String, ListenableFuture<Void>> futures = changeSets.commit();
+
+        // the other node is committed anyway
+        futures.get(VPP_NODE1).get();
+        verify(transaction1).submit();
+        try {
+            futures.get(VPP_NODE2).get();
+            fail("the commit of " + VPP_NODE2 + " should fail");
+        } catch (ExecutionException e) {
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    @Test
+    public void emptyChangeSetCommitsNothing() throws Exception {
+        SfcVppChangeSet changeSet = changeSets.get(mountPoint1, VPP_NODE1);
+
+        changeSet.commit().get();
+        verify(mountPoint1, never()).newWriteOnlyTransaction();
+    }
+}
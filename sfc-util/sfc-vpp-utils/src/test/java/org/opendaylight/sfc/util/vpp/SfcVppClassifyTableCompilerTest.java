@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.vpp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev130715.HexString;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.OpaqueIndex;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.VppClassifier;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.VppClassifierBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.classify.table.base.attributes.ClassifySession;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.classify.table.base.attributes.ClassifySessionBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.classify.table.base.attributes.ClassifySessionKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.vpp.classifier.ClassifyTable;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.vpp.classifier.ClassifyTableBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.vpp.classifier.ClassifyTableKey;
+import org.opendaylight.yangtools.yang.binding.DataObject;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+public class SfcVppClassifyTableCompilerTest {
+    private static final String VPP_NODE = "vpp1";
+    private static final String ITF_NAME = "itf1";
+    private static final HexString MASK1 = new HexString("ff:ff:00");
+    private static final HexString MASK2 = new HexString("ff:00:ff");
+
+    private RecordingChangeSet changeSet;
+    private SfcVppClassifyTableCompiler compiler;
+
+    // Records the edits instead of writing them to a mount point
+    private static class RecordingChangeSet extends SfcVppChangeSet {
+        private final Map<InstanceIdentifier<?>, DataObject> puts = new LinkedHashMap<>();
+        private final List<InstanceIdentifier<?>> deletes = new ArrayList<>();
+
+        RecordingChangeSet() {
+            super(null, VPP_NODE);
+        }
+
+        @Override
+        public <T extends DataObject> void put(InstanceIdentifier<T> iid, T data) {
+            puts.put(iid, data);
+        }
+
+        @Override
+        public void delete(InstanceIdentifier<?> iid) {
+            deletes.add(iid);
+        }
+
+        void clear() {
+            puts.clear();
+            deletes.clear();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        changeSet = new RecordingChangeSet();
+        compiler = new SfcVppClassifyTableCompiler(VPP_NODE, null);
+    }
+
+    private static SfcVppClassifyTableCompiler.Session session(HexString mask, String match, long nsp) {
+        return new SfcVppClassifyTableCompiler.Session(mask, new HexString(match), nsp, (short) 255);
+    }
+
+    private static InstanceIdentifier<ClassifyTable> tableIid(String tableName) {
+        return InstanceIdentifier.create(VppClassifier.class).child(ClassifyTable.class,
+                new ClassifyTableKey(tableName));
+    }
+
+    private static InstanceIdentifier<ClassifySession> sessionIid(String tableName, String match) {
+        return tableIid(tableName).child(ClassifySession.class, new ClassifySessionKey(new HexString(match)));
+    }
+
+    private static OpaqueIndex opaqueIndex(long nsp) {
+        return new OpaqueIndex(nsp << 8 | 255);
+    }
+
+    private List<ClassifyTable> getPutClassifyTables() {
+        DataObject vppClassifier = changeSet.puts.get(InstanceIdentifier.create(VppClassifier.class));
+        return ((VppClassifier) vppClassifier).getClassifyTable();
+    }
+
+    @Test
+    public void addClassifierCreatesTheClassifyTable() {
+        compiler.addClassifier(changeSet, "scf1",
+                Arrays.asList(session(MASK1, "01:0a:00", 1L), session(MASK1, "01:0b:00", 2L)));
+        compiler.attachInterface(changeSet, ITF_NAME);
+
+        List<ClassifyTable> classifyTables = getPutClassifyTables();
+        assertEquals(1, classifyTables.size());
+        assertEquals("table0", classifyTables.get(0).getName());
+        assertEquals(MASK1, classifyTables.get(0).getMask());
+        assertNull(classifyTables.get(0).getNextTable());
+        assertEquals(2, classifyTables.get(0).getClassifySession().size());
+        assertEquals(2, changeSet.puts.size());
+        assertTrue(changeSet.deletes.isEmpty());
+    }
+
+    @Test
+    public void duplicateSessionIsProgrammedOnceAndRepointedOnRemove() {
+        compiler.addClassifier(changeSet, "scf1", Collections.singletonList(session(MASK1, "01:0a:00", 1L)));
+        compiler.addClassifier(changeSet, "scf2", Collections.singletonList(session(MASK1, "01:0a:00", 2L)));
+
+        List<ClassifyTable> classifyTables = getPutClassifyTables();
+        assertEquals(1, classifyTables.size());
+        assertEquals(1, classifyTables.get(0).getClassifySession().size());
+        assertEquals(opaqueIndex(1L), classifyTables.get(0).getClassifySession().get(0).getOpaqueIndex());
+
+        changeSet.clear();
+        compiler.removeClassifier(changeSet, "scf1");
+
+        ClassifySession classifySession = (ClassifySession) changeSet.puts.get(sessionIid("table0", "01:0a:00"));
+        assertEquals(opaqueIndex(2L), classifySession.getOpaqueIndex());
+        assertEquals(1, changeSet.puts.size());
+        assertTrue(changeSet.deletes.isEmpty());
+    }
+
+    @Test
+    public void removeLastClassifierRemovesTheClassifyTable() {
+        compiler.addClassifier(changeSet, "scf1", Collections.singletonList(session(MASK1, "01:0a:00", 1L)));
+        compiler.attachInterface(changeSet, ITF_NAME);
+        changeSet.clear();
+
+        compiler.detachInterface(changeSet, ITF_NAME);
+        compiler.removeClassifier(changeSet, "scf1");
+
+        assertTrue(changeSet.puts.isEmpty());
+        assertEquals(2, changeSet.deletes.size());
+        assertEquals(tableIid("table0"), changeSet.deletes.get(1));
+    }
+
+    @Test
+    public void sessionsKeepTheAceOrderAcrossTables() {
+        // the second ACE does not overlap the first one, so the third ACE
+        // shares the table of the first one
+        compiler.addClassifier(changeSet, "scf1", Arrays.asList(session(MASK1, "01:0a:00", 1L),
+                session(MASK2, "02:00:0b", 2L), session(MASK1, "01:0c:00", 3L)));
+
+        List<ClassifyTable> classifyTables = getPutClassifyTables();
+        assertEquals(2, classifyTables.size());
+        assertEquals("table1", classifyTables.get(0).getNextTable());
+        assertEquals(2, classifyTables.get(0).getClassifySession().size());
+
+        // the second ACE overlaps the third one, which must be looked up
+        // after it, in a table of its own
+        changeSet.clear();
+        compiler.addClassifier(changeSet, "scf1", Arrays.asList(session(MASK1, "01:0a:00", 1L),
+                session(MASK2, "01:00:0b", 2L), session(MASK1, "01:0c:00", 3L)));
+
+        ClassifyTable secondTable = (ClassifyTable) changeSet.puts.get(tableIid("table1"));
+        assertEquals("table2", secondTable.getNextTable());
+        assertEquals(new HexString("01:00:0b"), secondTable.getClassifySession().get(0).getMatch());
+        ClassifyTable thirdTable = (ClassifyTable) changeSet.puts.get(tableIid("table2"));
+        assertEquals(MASK1, thirdTable.getMask());
+        assertEquals(new HexString("01:0c:00"), thirdTable.getClassifySession().get(0).getMatch());
+        assertEquals(Collections.singletonList(sessionIid("table0", "01:0c:00")), changeSet.deletes);
+    }
+
+    @Test
+    public void tablesOnTheNodeAreReusedOrRemoved() {
+        ClassifySession staleSession = new ClassifySessionBuilder().setMatch(new HexString("01:0f:00"))
+                .setOpaqueIndex(opaqueIndex(9L)).build();
+        List<ClassifyTable> classifyTables = new ArrayList<>();
+        classifyTables.add(new ClassifyTableBuilder().setName("table3").setMask(MASK1)
+                .setClassifySession(Collections.singletonList(staleSession)).build());
+        classifyTables.add(new ClassifyTableBuilder().setName("table5").setMask(MASK2).build());
+        classifyTables.add(new ClassifyTableBuilder().setName("other").setMask(MASK2).build());
+        compiler = new SfcVppClassifyTableCompiler(VPP_NODE,
+                new VppClassifierBuilder().setClassifyTable(classifyTables).build());
+
+        compiler.addClassifier(changeSet, "scf1", Collections.singletonList(session(MASK1, "01:0a:00", 1L)));
+
+        // the existing table of the mask is reused and the SFC table left
+        // over is removed, the table of another application is kept
+        assertTrue(changeSet.puts.containsKey(sessionIid("table3", "01:0a:00")));
+        assertEquals(1, changeSet.puts.size());
+        assertEquals(Arrays.asList(sessionIid("table3", "01:0f:00"), tableIid("table5")), changeSet.deletes);
+
+        // new tables are named after the ones found on the node
+        changeSet.clear();
+        compiler.addClassifier(changeSet, "scf2", Collections.singletonList(session(MASK2, "01:00:0b", 2L)));
+        assertTrue(changeSet.puts.containsKey(tableIid("table6")));
+    }
+}